@@ -15,7 +15,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.tms.controller.support.ApiResponseStreamer;
 import com.example.tms.dto.request.attraction.AttractionFilterRequest;
 import com.example.tms.dto.request.attraction.CreateAttractionRequest;
 import com.example.tms.dto.request.attraction.UpdateAttractionRequest;
@@ -39,6 +41,7 @@ import lombok.RequiredArgsConstructor;
 public class AttractionController {
 
     private final AttractionService attractionService;
+    private final ApiResponseStreamer apiResponseStreamer;
 
     @Operation(summary = "Create attraction", description = "Create a new attraction (Admin/Staff only)")
     @ApiResponses({
@@ -79,9 +82,8 @@ public class AttractionController {
 
     @Operation(summary = "Get all attractions (no pagination)", description = "Retrieve all attractions without pagination")
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<List<AttractionResponse>>> getAllNoPagination() {
-        List<AttractionResponse> response = attractionService.getAllNoPagination();
-        return ResponseEntity.ok(ApiResponse.success("Attractions retrieved successfully", response));
+    public ResponseEntity<StreamingResponseBody> getAllNoPagination() {
+        return apiResponseStreamer.success("Attractions retrieved successfully", attractionService::streamAll);
     }
 
     @Operation(summary = "Update attraction", description = "Update attraction by ID (Admin/Staff only)")
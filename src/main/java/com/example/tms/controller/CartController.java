@@ -20,6 +20,7 @@ import com.example.tms.dto.request.cart.AddToCartRequest;
 import com.example.tms.dto.request.cart.UpdateCartItemRequest;
 import com.example.tms.dto.response.ApiResponse;
 import com.example.tms.dto.response.cart.CartResponse;
+import com.example.tms.security.AuthenticatedUser;
 import com.example.tms.service.interface_.CartService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -46,7 +47,7 @@ public class CartController {
     @PreAuthorize("hasAnyAuthority('CUSTOMER', 'ADMIN', 'STAFF')")
     @GetMapping
     public ResponseEntity<ApiResponse<CartResponse>> getCart(Authentication authentication) {
-        CartResponse response = cartService.getCart(authentication.getName());
+        CartResponse response = cartService.getCart(userId(authentication));
         return ResponseEntity.ok(ApiResponse.success("Cart retrieved successfully", response));
     }
 
@@ -60,7 +61,7 @@ public class CartController {
     public ResponseEntity<ApiResponse<CartResponse>> addToCart(
             Authentication authentication,
             @Valid @RequestBody AddToCartRequest request) {
-        CartResponse response = cartService.addToCart(authentication.getName(), request);
+        CartResponse response = cartService.addToCart(userId(authentication), request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Item added to cart successfully", response));
     }
@@ -76,7 +77,7 @@ public class CartController {
             Authentication authentication,
             @Parameter(description = "Cart Item ID") @PathVariable UUID cartItemId,
             @Valid @RequestBody UpdateCartItemRequest request) {
-        CartResponse response = cartService.updateCartItem(authentication.getName(), cartItemId, request);
+        CartResponse response = cartService.updateCartItem(userId(authentication), cartItemId, request);
         return ResponseEntity.ok(ApiResponse.success("Cart item updated successfully", response));
     }
 
@@ -90,7 +91,7 @@ public class CartController {
     public ResponseEntity<ApiResponse<Void>> removeFromCart(
             Authentication authentication,
             @Parameter(description = "Cart Item ID") @PathVariable UUID cartItemId) {
-        cartService.removeFromCart(authentication.getName(), cartItemId);
+        cartService.removeFromCart(userId(authentication), cartItemId);
         return ResponseEntity.ok(ApiResponse.success("Item removed from cart successfully"));
     }
 
@@ -103,7 +104,7 @@ public class CartController {
     public ResponseEntity<ApiResponse<Void>> removeMultipleFromCart(
             Authentication authentication,
             @RequestBody List<UUID> cartItemIds) {
-        cartService.removeMultipleFromCart(authentication.getName(), cartItemIds);
+        cartService.removeMultipleFromCart(userId(authentication), cartItemIds);
         return ResponseEntity.ok(ApiResponse.success("Items removed from cart successfully"));
     }
 
@@ -114,7 +115,7 @@ public class CartController {
     @PreAuthorize("hasAnyAuthority('CUSTOMER', 'ADMIN', 'STAFF')")
     @DeleteMapping
     public ResponseEntity<ApiResponse<Void>> clearCart(Authentication authentication) {
-        cartService.clearCart(authentication.getName());
+        cartService.clearCart(userId(authentication));
         return ResponseEntity.ok(ApiResponse.success("Cart cleared successfully"));
     }
 
@@ -127,8 +128,11 @@ public class CartController {
     public ResponseEntity<ApiResponse<Boolean>> hasTripInCart(
             Authentication authentication,
             @Parameter(description = "Trip ID") @PathVariable UUID tripId) {
-        boolean result = cartService.hasTripInCart(authentication.getName(), tripId);
+        boolean result = cartService.hasTripInCart(userId(authentication), tripId);
         return ResponseEntity.ok(ApiResponse.success("Check completed", result));
     }
-}
 
+    private static UUID userId(Authentication authentication) {
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.tms.controller;
 
+import java.util.List;
 import java.util.UUID;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,9 +18,12 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.example.tms.dto.response.ApiResponse;
+import com.example.tms.dto.response.ImageUploadJobResponse;
 import com.example.tms.dto.response.ImageUploadResponse;
+import com.example.tms.entity.ImageAsset.OwnerType;
 import com.example.tms.repository.UserRepository;
 import com.example.tms.service.interface_.CloudinaryService;
+import com.example.tms.service.interface_.ImageUploadJobService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,6 +33,7 @@ import lombok.RequiredArgsConstructor;
 public class ImageController {
 
     private final CloudinaryService cloudinaryService;
+    private final ImageUploadJobService imageUploadJobService;
     private final UserRepository userRepository;
 
     /**/
@@ -375,6 +382,57 @@ public class ImageController {
         return ApiResponse.success("Attraction image " + index + " deleted successfully");
     }
 
+    // ========== UPLOAD JOB ENDPOINTS ==========
+    
+    /**
+     * Queue route images for upload (index 0 = main image, default 1, 2, 3, ...)
+     * Returns 202 with one job per file, or 200 when every job finished within waitMs
+     * - ADMIN/STAFF only
+     */
+    @PostMapping(value = "/jobs/routes/{routeId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyAuthority('STAFF', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<ImageUploadJobResponse>>> queueRouteImages(
+            @PathVariable UUID routeId,
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "indexes", required = false) List<Integer> indexes,
+            @RequestParam(value = "waitMs", defaultValue = "0") long waitMs) {
+        
+        return jobsResponse(imageUploadJobService.submit(OwnerType.ROUTE, routeId, files, indexes, waitMs));
+    }
+    
+    /**
+     * Queue attraction images for upload (index 0 = main image, default 1, 2, 3, ...)
+     * Returns 202 with one job per file, or 200 when every job finished within waitMs
+     * - ADMIN/STAFF only
+     */
+    @PostMapping(value = "/jobs/attractions/{attractionId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyAuthority('STAFF', 'ADMIN')")
+    public ResponseEntity<ApiResponse<List<ImageUploadJobResponse>>> queueAttractionImages(
+            @PathVariable UUID attractionId,
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "indexes", required = false) List<Integer> indexes,
+            @RequestParam(value = "waitMs", defaultValue = "0") long waitMs) {
+        
+        return jobsResponse(imageUploadJobService.submit(OwnerType.ATTRACTION, attractionId, files, indexes, waitMs));
+    }
+    
+    /**
+     * Get the state of an upload job
+     * - ADMIN/STAFF only
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority('STAFF', 'ADMIN')")
+    public ApiResponse<ImageUploadJobResponse> getUploadJob(@PathVariable UUID jobId) {
+        return ApiResponse.success("Upload job retrieved successfully", imageUploadJobService.getJob(jobId));
+    }
+    
+    private static ResponseEntity<ApiResponse<List<ImageUploadJobResponse>>> jobsResponse(List<ImageUploadJobResponse> jobs) {
+        if (jobs.stream().allMatch(ImageUploadJobResponse::isFinished)) {
+            return ResponseEntity.ok(ApiResponse.success("Upload jobs finished", jobs));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("Upload jobs queued", jobs));
+    }
+
     /**
      * Check if user has permission to modify images
      * CUSTOMER can only modify their own images
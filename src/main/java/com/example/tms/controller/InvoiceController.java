@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.invoice.CreateInvoiceRequest;
 import com.example.tms.dto.request.invoice.InvoiceFilterRequest;
 import com.example.tms.dto.request.invoice.UpdateInvoiceRequest;
@@ -92,6 +93,19 @@ public class InvoiceController {
         return ResponseEntity.ok(ApiResponse.success("Invoices retrieved successfully", response));
     }
 
+    @Operation(summary = "Get all invoices (cursor)", description = "Retrieve invoices with keyset pagination, without a total count (Admin/Staff only)")
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Invoices retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'STAFF')")
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPagedResponseDto<InvoiceResponse>>> getAllByCursor(
+            @ModelAttribute InvoiceFilterRequest filter) {
+        CursorPagedResponseDto<InvoiceResponse> response = invoiceService.getAllByCursor(filter);
+        return ResponseEntity.ok(ApiResponse.success("Invoices retrieved successfully", response));
+    }
+
     @Operation(summary = "Update invoice", description = "Update invoice by ID (Admin/Staff only)")
     @ApiResponses({
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Invoice updated successfully"),
@@ -15,7 +15,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.tms.controller.support.ApiResponseStreamer;
 import com.example.tms.dto.request.route.CreateRouteRequest;
 import com.example.tms.dto.request.route.RouteFilterRequest;
 import com.example.tms.dto.request.route.UpdateRouteRequest;
@@ -41,6 +43,7 @@ import lombok.RequiredArgsConstructor;
 public class RouteController {
 
     private final RouteService routeService;
+    private final ApiResponseStreamer apiResponseStreamer;
 
     @Operation(summary = "Create route", description = "Create a new route (Admin/Staff only)")
     @ApiResponses({
@@ -116,9 +119,8 @@ public class RouteController {
 
     @Operation(summary = "Get all routes (no pagination)", description = "Retrieve all routes without pagination")
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<List<RouteResponse>>> getAllNoPagination() {
-        List<RouteResponse> response = routeService.getAllNoPagination();
-        return ResponseEntity.ok(ApiResponse.success("Routes retrieved successfully", response));
+    public ResponseEntity<StreamingResponseBody> getAllNoPagination() {
+        return apiResponseStreamer.success("Routes retrieved successfully", routeService::streamAll);
     }
 
     @Operation(summary = "Update route", description = "Update route by ID (Admin/Staff only)")
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.tourbooking.CreateTourBookingRequest;
 import com.example.tms.dto.request.tourbooking.TourBookingFilterRequest;
 import com.example.tms.dto.request.tourbooking.UpdateTourBookingRequest;
@@ -83,6 +84,21 @@ public class TourBookingController {
                 return ResponseEntity.ok(ApiResponse.success("Bookings retrieved successfully", response));
         }
 
+        @Operation(summary = "Get all bookings (cursor)", description = "Retrieve bookings with keyset pagination (Admin/Staff only). "
+                        + "Same filters and sorting as GET /, but pages are addressed by the nextCursor of the previous response "
+                        + "instead of a page number, and no total count is returned.")
+        @ApiResponses({
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bookings retrieved successfully"),
+                        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+        })
+        @PreAuthorize("hasAnyAuthority('ADMIN', 'STAFF')")
+        @GetMapping("/cursor")
+        public ResponseEntity<ApiResponse<CursorPagedResponseDto<TourBookingResponse>>> getAllByCursor(
+                        @Parameter(description = "Filter parameters as for GET /, plus cursor; page is ignored") @ModelAttribute TourBookingFilterRequest filter) {
+                CursorPagedResponseDto<TourBookingResponse> response = tourBookingService.getAllByCursor(filter);
+                return ResponseEntity.ok(ApiResponse.success("Bookings retrieved successfully", response));
+        }
+
         @Operation(summary = "Get bookings by user ID", description = "Retrieve all bookings for a specific user")
         @ApiResponses({
                         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Bookings retrieved successfully")
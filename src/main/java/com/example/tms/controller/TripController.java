@@ -15,7 +15,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.tms.controller.support.ApiResponseStreamer;
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.trip.CreateTripRequest;
 import com.example.tms.dto.request.trip.TripFilterRequest;
 import com.example.tms.dto.request.trip.UpdateTripRequest;
@@ -40,6 +43,7 @@ import lombok.RequiredArgsConstructor;
 public class TripController {
 
     private final TripService tripService;
+    private final ApiResponseStreamer apiResponseStreamer;
 
     @Operation(summary = "Create trip", description = "Create a new trip (Admin/Staff only)")
     @ApiResponses({
@@ -78,11 +82,22 @@ public class TripController {
         return ResponseEntity.ok(ApiResponse.success("Trips retrieved successfully", response));
     }
 
+    @Operation(summary = "Get all trips (cursor)", description = "Retrieve trips with keyset pagination, without a total count")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Trips retrieved successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPagedResponseDto<TripResponse>>> getAllByCursor(
+            @ModelAttribute TripFilterRequest filter) {
+        CursorPagedResponseDto<TripResponse> response = tripService.getAllByCursor(filter);
+        return ResponseEntity.ok(ApiResponse.success("Trips retrieved successfully", response));
+    }
+
     @Operation(summary = "Get all trips (no pagination)", description = "Retrieve all trips without pagination")
     @GetMapping("/all")
-    public ResponseEntity<ApiResponse<List<TripResponse>>> getAllNoPagination() {
-        List<TripResponse> response = tripService.getAllNoPagination();
-        return ResponseEntity.ok(ApiResponse.success("Trips retrieved successfully", response));
+    public ResponseEntity<StreamingResponseBody> getAllNoPagination() {
+        return apiResponseStreamer.success("Trips retrieved successfully", tripService::streamAll);
     }
 
     @Operation(summary = "Update trip", description = "Update trip by ID (Admin/Staff only)")
@@ -16,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.CreateUserRequest;
 import com.example.tms.dto.request.UpdateUserRequest;
 import com.example.tms.dto.request.UserFilterRequest;
@@ -111,6 +112,23 @@ public class UserController {
         );
     }
 
+    @Operation(
+        summary = "Get all users (cursor)",
+        description = "Retrieve users with keyset pagination. Pass nextCursor from the previous response as cursor; no total count is returned"
+    )
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Users retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPagedResponseDto<UserResponse>>> getAllUsersByCursor(
+            @ModelAttribute UserFilterRequest filter) {
+        CursorPagedResponseDto<UserResponse> response = userService.getAllUsersByCursor(filter);
+        return ResponseEntity.ok(
+            ApiResponse.success("Users retrieved successfully", response)
+        );
+    }
+
     @Operation(
         summary = "Get all users (no pagination)",
         description = "Retrieve all users without pagination. Deprecated - use GET /admin/users instead"
@@ -21,6 +21,8 @@ import com.example.tms.dto.response.customer.FavoriteDestinationImageResponse;
 import com.example.tms.dto.response.customer.HomePageDataResponse;
 import com.example.tms.dto.response.customer.SearchSuggestionResponse;
 import com.example.tms.dto.response.customer.TourCardResponse;
+import com.example.tms.dto.response.customer.TourFacetResponse;
+import com.example.tms.security.AuthenticatedUser;
 import com.example.tms.service.interface_.CustomerTourService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -72,6 +74,14 @@ public class CustomerTourController {
         return ResponseEntity.ok(ApiResponse.success("Tours retrieved successfully", response));
     }
 
+    @Operation(summary = "Get tour facets", description = "Route counts per start location, destination, duration, price bucket and attraction for the current filters")
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<TourFacetResponse>> getTourFacets(
+            @ModelAttribute TourSearchRequest request) {
+        TourFacetResponse response = customerTourService.getTourFacets(request);
+        return ResponseEntity.ok(ApiResponse.success("Facets retrieved successfully", response));
+    }
+
     @Operation(summary = "Get all start locations", description = "Get distinct start locations for filter dropdown")
     @GetMapping("/start-locations")
     public ResponseEntity<ApiResponse<List<String>>> getStartLocations() {
@@ -103,15 +113,9 @@ public class CustomerTourController {
 
     // Helper to get current user ID (null if not authenticated)
     private UUID getCurrentUserId() {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-                // Assuming principal contains user ID or can be parsed
-                String principal = auth.getName();
-                return UUID.fromString(principal);
-            }
-        } catch (Exception e) {
-            // Ignore - user not authenticated
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
         }
         return null;
     }
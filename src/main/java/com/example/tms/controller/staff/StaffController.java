@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.paging.PagedResponseDto;
 import com.example.tms.dto.request.staff.AddStaffRequest;
 import com.example.tms.dto.request.staff.StaffFilterRequest;
@@ -69,6 +70,25 @@ public class StaffController {
         );
     }
 
+    @Operation(
+        summary = "Get all staffs (cursor)",
+        description = "Retrieve staff members with keyset pagination. Pass nextCursor from the previous response as cursor; no total count is returned"
+    )
+    @ApiResponses({
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Staffs retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid cursor"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPagedResponseDto<StaffListResponse>>> getAllStaffsByCursor(
+            @ModelAttribute StaffFilterRequest filter) {
+        CursorPagedResponseDto<StaffListResponse> response = staffService.getAllStaffsByCursor(filter);
+        return ResponseEntity.ok(
+            ApiResponse.success("Staffs retrieved successfully", response)
+        );
+    }
+
     @Operation(
         summary = "Get staff by ID",
         description = "Retrieve detailed information about a specific staff member"
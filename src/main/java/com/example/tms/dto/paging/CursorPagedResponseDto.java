@@ -0,0 +1,31 @@
+package com.example.tms.dto.paging;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * One slice of a cursor-paged list. There is no total count: pass nextCursor back
+ * as the cursor parameter to get the following slice while hasNext is true.
+ */
+@Data
+public class CursorPagedResponseDto<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private String sortBy;
+    private String sortDirection;
+
+    public static <T> CursorPagedResponseDto<T> of(List<T> content, int size, String nextCursor,
+            String sortBy, String sortDirection) {
+        CursorPagedResponseDto<T> response = new CursorPagedResponseDto<>();
+        response.setContent(content);
+        response.setSize(size);
+        response.setHasNext(nextCursor != null);
+        response.setNextCursor(nextCursor);
+        response.setSortBy(sortBy);
+        response.setSortDirection(sortDirection);
+        return response;
+    }
+}
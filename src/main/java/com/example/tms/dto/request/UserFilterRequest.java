@@ -14,6 +14,7 @@ public class UserFilterRequest {
     // Pagination
     private Integer page = 0;
     private Integer size = 10;
+    private String cursor; // Cursor from the previous slice (cursor endpoint only)
     private String sortBy = "createdAt";
     private String sortDirection = "DESC";
     
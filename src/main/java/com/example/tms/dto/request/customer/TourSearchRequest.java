@@ -2,6 +2,7 @@ package com.example.tms.dto.request.customer;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import lombok.AllArgsConstructor;
@@ -19,10 +20,18 @@ public class TourSearchRequest {
     private Integer durationDays;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
-    private String sortBy = "favoriteCount"; // favoriteCount, price, departureDate
+    private String sortBy = "favoriteCount"; // favoriteCount, price, departureDate, relevance (with a keyword)
     private String sortOrder = "desc"; // asc, desc
     private Integer page = 0;
     private Integer size = 10;
     private UUID attractionId;
+
+    // Facet selections: values of one facet are OR-ed, facets are AND-ed (see /facets)
+    private List<String> startLocations;
+    private List<String> destinations;
+    private List<Integer> durations;
+    private List<String> priceBuckets;
+    private List<UUID> attractionIds;
+    private String attractionMatch = "all"; // all (visits every one), any
 }
 
@@ -18,6 +18,7 @@ public class InvoiceFilterRequest {
     // Pagination
     private Integer page = 1;
     private Integer pageSize = 10;
+    private String cursor; // Cursor from the previous slice (cursor endpoint only)
     
     // Sorting
     private String sortBy = "createdAt";
@@ -13,6 +13,7 @@ public class StaffFilterRequest {
     // Pagination
     private Integer page = 0;
     private Integer size = 10;
+    private String cursor; // Cursor from the previous slice (cursor endpoint only)
     private String sortBy = "id";
     private String sortDirection = "DESC";
 }
@@ -29,6 +29,7 @@ public class TourBookingFilterRequest {
     // Pagination
     private Integer page = 1;
     private Integer pageSize = 10;
+    private String cursor; // Cursor from the previous slice (cursor endpoint only)
 
     // Sorting
     private String sortBy = "createdAt";
@@ -22,6 +22,7 @@ public class TripFilterRequest {
     // Pagination
     private Integer page = 1;
     private Integer pageSize = 10;
+    private String cursor; // Cursor from the previous slice (cursor endpoint only)
     
     // Sorting
     private String sortBy = "departureDate";
@@ -0,0 +1,37 @@
+package com.example.tms.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.tms.entity.ImageAsset.OwnerType;
+import com.example.tms.entity.ImageUploadJob.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of a queued image upload; result is set once the upload succeeded
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUploadJobResponse {
+
+    private UUID jobId;
+    private Status status;
+    private OwnerType ownerType;
+    private UUID ownerId;
+    private Integer index; // 0 for the main image
+    private Integer attempts;
+    private ImageUploadResponse result;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+}
@@ -5,6 +5,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import com.example.tms.entity.Invoice;
+import com.example.tms.entity.TourBooking;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,5 +29,15 @@ public class BookingListResponse {
     private String bookingStatus; // PENDING, CONFIRMED, CANCELED, COMPLETED
     private String paymentStatus; // UNPAID, PAID, REFUNDED
     private LocalDateTime createdAt;
+    
+    /**
+     * Constructor projection used by TourBookingRepository (one row per booking, no entities loaded)
+     */
+    public BookingListResponse(UUID id, String routeName, String routeImage, LocalDate departureDate,
+            LocalDate returnDate, Integer seatsBooked, BigDecimal totalPrice, TourBooking.Status bookingStatus,
+            Invoice.PaymentStatus paymentStatus, LocalDateTime createdAt) {
+        this(id, routeName, routeImage, departureDate, returnDate, seatsBooked, totalPrice, bookingStatus.name(),
+                paymentStatus != null ? paymentStatus.name() : null, createdAt);
+    }
 }
 
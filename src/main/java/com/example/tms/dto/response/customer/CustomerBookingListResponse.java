@@ -3,11 +3,13 @@ package com.example.tms.dto.response.customer;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 import com.example.tms.entity.Invoice;
 import com.example.tms.entity.TourBooking;
 import com.example.tms.entity.Trip;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -25,6 +27,7 @@ public class CustomerBookingListResponse {
     // Basic info for card display
     private String routeName;
     private String routeImage;
+    private Map<String, String> routeImageSrcset;
     private String departureLocation;
     private String destination;
     
@@ -43,6 +46,34 @@ public class CustomerBookingListResponse {
     // Trip status
     private Trip.Status tripStatus;
     
+    // Used to resolve the route image when the route has none stored
+    @JsonIgnore
+    private UUID routeId;
+    
+    /**
+     * Constructor projection used by TourBookingRepository (one row per booking, no entities loaded)
+     */
+    public CustomerBookingListResponse(UUID id, UUID routeId, String routeName, String routeImage,
+            String departureLocation, String destination, LocalDate departureDate, Trip.Status tripStatus,
+            Integer seatsBooked, BigDecimal totalPrice, TourBooking.Status bookingStatus, LocalDateTime createdAt,
+            Invoice.PaymentStatus invoiceStatus) {
+        this.id = id;
+        this.bookingCode = generateCode("BK", id);
+        this.routeId = routeId;
+        this.routeCode = generateCode("", routeId);
+        this.routeName = routeName;
+        this.routeImage = routeImage;
+        this.departureLocation = departureLocation;
+        this.destination = destination;
+        this.departureDate = departureDate;
+        this.tripStatus = tripStatus;
+        this.seatsBooked = seatsBooked;
+        this.totalPrice = totalPrice;
+        this.bookingStatus = bookingStatus;
+        this.createdAt = createdAt;
+        this.invoiceStatus = invoiceStatus != null ? invoiceStatus : Invoice.PaymentStatus.UNPAID;
+    }
+    
     public CustomerBookingListResponse(TourBooking booking, Invoice invoice, String routeImageUrl) {
         this.id = booking.getId();
         this.bookingCode = generateCode("BK", booking.getId());
@@ -54,6 +85,7 @@ public class CustomerBookingListResponse {
             
             if (trip.getRoute() != null) {
                 var route = trip.getRoute();
+                this.routeId = route.getId();
                 this.routeName = route.getRouteName();
                 this.routeCode = generateCode("", route.getId());
                 this.departureLocation = route.getStartLocation();
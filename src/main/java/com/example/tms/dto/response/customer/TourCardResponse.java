@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -24,6 +25,8 @@ public class TourCardResponse {
     private String endLocation;
     private Integer durationDays;
     private String image;
+    // Sizes of the image by width descriptor ("320w" -> URL), null when unknown
+    private Map<String, String> imageSrcset;
     private BigDecimal minPrice;
     private Long favoriteCount;
     @JsonProperty("favorited")
@@ -0,0 +1,31 @@
+package com.example.tms.dto.response.customer;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TourFacetResponse {
+    private long totalRoutes;
+    private List<FacetValue> startLocations;
+    private List<FacetValue> destinations;
+    private List<FacetValue> durations;
+    private List<FacetValue> priceBuckets;
+    private List<FacetValue> attractions;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue {
+        private String value; // what to send back in the matching filter parameter
+        private String label;
+        private long count; // routes matching if this value were picked
+    }
+}
@@ -2,6 +2,7 @@ package com.example.tms.dto.response.route;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.example.tms.entity.Route;
@@ -18,8 +19,11 @@ public class RouteDetailResponse {
     private String endLocation;
     private Integer durationDays;
     private String image;
+    private Map<String, String> imageSrcset;
     private Route.Status status;
     private List<String> images;
+    // Sizes of each gallery image, in the same order as images
+    private List<Map<String, String>> imageSrcsets;
     private List<ItineraryDay> itinerary;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -5,6 +5,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -15,7 +16,10 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "favorite_tour")
+@Table(name = "favorite_tour", uniqueConstraints = {
+    // At most one active favourite per (user, route); toggles rely on it to stay idempotent
+    @UniqueConstraint(name = "uk_favorite_tour_user_route_deleted", columnNames = {"user_id", "route_id", "deleted_at"})
+})
 public class FavoriteTour extends AbstractBaseEntity {
     // Inherit UUID id, createdAt, updatedAt, deleted from AbstractBaseEntity
 
@@ -0,0 +1,92 @@
+package com.example.tms.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Manifest of the images stored on Cloudinary: one row per image slot of a user, route or
+ * attraction, written by every upload and removed by every delete.
+ *
+ * Reads are served from this table (through ImageManifest) instead of the Cloudinary Admin API.
+ * Processed uploads also record the URLs of their smaller derivatives (thumb, card); secure_url
+ * is always the full-size image.
+ * Processed uploads carry the fingerprint of their source (content_hash); slots given the same
+ * file share one Cloudinary image, so several rows can hold the same public_id (counted in
+ * image_content).
+ * Rows mirror remote state and are removed rather than soft-deleted, hence no AbstractBaseEntity.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "image_asset", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_image_asset_owner_index", columnNames = {"owner_type", "owner_id", "image_index"})
+}, indexes = {
+    // Slots sharing one Cloudinary image (deletes keep it while any remains)
+    @Index(name = "idx_image_asset_public_id", columnList = "public_id"),
+    // Stored image for an upload's fingerprint, looked up before reusing it
+    @Index(name = "idx_image_asset_content_hash", columnList = "content_hash")
+})
+public class ImageAsset {
+
+    public enum OwnerType { USER, ROUTE, ATTRACTION }
+
+    // Slot of the avatar (users) or main image (routes, attractions); galleries start at 1
+    public static final int MAIN_INDEX = 0;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, columnDefinition = "ENUM('USER','ROUTE','ATTRACTION')")
+    private OwnerType ownerType;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "image_index", nullable = false)
+    private Integer imageIndex;
+
+    @Column(name = "public_id", nullable = false, length = 255)
+    private String publicId;
+
+    @Column(name = "secure_url", nullable = false, length = 500)
+    private String secureUrl;
+
+    @Column(name = "thumb_url", length = 500)
+    private String thumbUrl;
+
+    @Column(name = "card_url", length = 500)
+    private String cardUrl;
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Column(name = "bytes")
+    private Long bytes;
+
+    @Column(name = "content_hash", length = 64)
+    private String contentHash; // Hex SHA-256, see ImageDeduplicator
+
+    @Column(name = "uploaded_at", nullable = false)
+    private LocalDateTime uploadedAt;
+}
@@ -0,0 +1,33 @@
+package com.example.tms.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Reference count of a deduplicated Cloudinary image: how many image_asset slots show it.
+ *
+ * Giving a slot a stored image claims a reference and clearing or replacing a slot gives one
+ * back, each as a single UPDATE on this row, so the row lock orders a reuse against the delete
+ * of the last slot. The row is removed when the count reaches zero, and only the transaction
+ * that removed it deletes the image from Cloudinary, after it has committed.
+ * Images stored before deduplication have no row and are never reused.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "image_content")
+public class ImageContent {
+
+    @Id
+    @Column(name = "public_id", updatable = false, nullable = false, length = 255)
+    private String publicId;
+
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount;
+}
@@ -0,0 +1,78 @@
+package com.example.tms.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.example.tms.entity.ImageAsset.OwnerType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of a queued route or attraction image upload, written by the node running it so that
+ * any node can answer a status poll and the state survives a restart.
+ *
+ * The spooled file stays on the node that took the upload; a job that node stops updating
+ * (e.g. because it restarted) is marked FAILED once it goes stale.
+ * Rows are purged after the retention period rather than soft-deleted, hence no AbstractBaseEntity.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "image_upload_job", indexes = {
+    // Purge of finished jobs and sweep of stale ones
+    @Index(name = "idx_image_upload_job_finished", columnList = "finished_at"),
+    @Index(name = "idx_image_upload_job_status_updated", columnList = "status, updated_at")
+})
+public class ImageUploadJob {
+
+    public enum Status { QUEUED, RUNNING, RETRYING, SUCCEEDED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "owner_type", nullable = false, columnDefinition = "ENUM('USER','ROUTE','ATTRACTION')")
+    private OwnerType ownerType;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "image_index", nullable = false)
+    private Integer imageIndex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "ENUM('QUEUED','RUNNING','RETRYING','SUCCEEDED','FAILED')")
+    private Status status = Status.QUEUED;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "image_url", length = 500)
+    private String imageUrl;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
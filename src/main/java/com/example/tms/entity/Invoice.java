@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -20,7 +21,9 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "invoice")
+@Table(name = "invoice", indexes = {
+    @Index(name = "idx_invoice_booking_status_deleted", columnList = "booking_id, payment_status, deleted_at")
+})
 public class Invoice extends AbstractBaseEntity {
     // Inherit UUID id, createdAt, updatedAt, deleted from AbstractBaseEntity
 
@@ -1,5 +1,7 @@
 package com.example.tms.entity;
 
+import org.hibernate.annotations.ColumnDefault;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -38,5 +40,11 @@ public class Route extends AbstractBaseEntity {
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, columnDefinition = "ENUM('OPEN','ONGOING','CLOSED')")
     private Status status = Status.OPEN;
+
+    // Number of active favourites. Only changed by RouteRepository's counter queries,
+    // never by entity saves, so a stale Route being saved cannot overwrite it.
+    @ColumnDefault("0")
+    @Column(name = "favorite_count", nullable = false, updatable = false)
+    private Long favoriteCount = 0L;
 }
 
@@ -3,6 +3,7 @@ package com.example.tms.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -16,7 +17,9 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "route_attraction")
+@Table(name = "route_attraction", indexes = {
+    @Index(name = "idx_route_attraction_route_deleted_order", columnList = "route_id, deleted_at, day, order_in_day")
+})
 public class RouteAttraction extends AbstractBaseEntity {
     // Inherit UUID id, createdAt, updatedAt, deleted from AbstractBaseEntity
 
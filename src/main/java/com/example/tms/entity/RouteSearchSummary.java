@@ -0,0 +1,78 @@
+package com.example.tms.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read model for customer tour search: one row per open route with the route fields and the
+ * aggregates of its upcoming SCHEDULED trips, so search can filter, sort and page in one query.
+ *
+ * Rows are derived data, maintained by RouteSearchSummaryUpdater; they are replaced or removed
+ * rather than soft-deleted, hence no AbstractBaseEntity.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "route_search_summary", indexes = {
+    // One index per sort order offered by search
+    @Index(name = "idx_route_search_min_price", columnList = "min_price"),
+    @Index(name = "idx_route_search_next_departure", columnList = "next_departure_date"),
+    @Index(name = "idx_route_search_favorite_count", columnList = "favorite_count"),
+    @Index(name = "idx_route_search_route_created", columnList = "route_created_at"),
+    @Index(name = "idx_route_search_duration", columnList = "duration_days")
+})
+public class RouteSearchSummary {
+
+    @Id
+    @Column(name = "route_id", updatable = false, nullable = false)
+    private UUID routeId;
+
+    @Column(name = "route_name", nullable = false, length = 100)
+    private String routeName;
+
+    @Column(name = "start_location", nullable = false, length = 100)
+    private String startLocation;
+
+    @Column(name = "end_location", nullable = false, length = 100)
+    private String endLocation;
+
+    @Column(name = "duration_days")
+    private Integer durationDays;
+
+    @Column(name = "image", length = 255)
+    private String image;
+
+    // Upcoming trip aggregates, null/0 when the route has no upcoming trip
+    @Column(name = "min_price", precision = 15, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "next_departure_date")
+    private LocalDate nextDepartureDate;
+
+    @Column(name = "last_departure_date")
+    private LocalDate lastDepartureDate;
+
+    @Column(name = "seats_available", nullable = false)
+    private Integer seatsAvailable = 0;
+
+    @Column(name = "favorite_count", nullable = false)
+    private Long favoriteCount = 0L;
+
+    @Column(name = "route_created_at", nullable = false)
+    private LocalDateTime routeCreatedAt;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -1,6 +1,7 @@
 package com.example.tms.entity;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import jakarta.persistence.Column;
@@ -8,6 +9,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +23,9 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "tour_booking")
+@Table(name = "tour_booking", indexes = {
+    @Index(name = "idx_tour_booking_user_deleted_created", columnList = "user_id, deleted_at, created_at")
+})
 public class TourBooking extends AbstractBaseEntity {
     // Inherit UUID id, createdAt, updatedAt, deleted from AbstractBaseEntity
 
@@ -42,6 +46,14 @@ public class TourBooking extends AbstractBaseEntity {
     @Column(name = "cart_item_id")
     private UUID cartItemId;
 
+    // Payment deadline of a PENDING booking; its seats are released once it passes (null = no hold)
+    @Column(name = "hold_expires_at")
+    private LocalDateTime holdExpiresAt;
+
+    // Set when the booking was cancelled because its hold expired, the only cancellation a late payment may undo
+    @Column(name = "hold_expired_at")
+    private LocalDateTime holdExpiredAt;
+
     public enum Status { PENDING, CONFIRMED, CANCELED, COMPLETED }
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false, columnDefinition = "ENUM('PENDING','CONFIRMED','CANCELED','COMPLETED')")
@@ -9,6 +9,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -22,7 +23,10 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "trip")
+@Table(name = "trip", indexes = {
+    // Upcoming trips of a set of routes (tour cards)
+    @Index(name = "idx_trip_route_deleted_status_departure", columnList = "route_id, deleted_at, status, departure_date")
+})
 public class Trip extends AbstractBaseEntity {
     // Inherit UUID id, createdAt, updatedAt, deleted from AbstractBaseEntity
 
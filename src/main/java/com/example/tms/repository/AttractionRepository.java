@@ -1,32 +1,40 @@
 package com.example.tms.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.example.tms.entity.Attraction;
 
+import jakarta.persistence.QueryHint;
+
 public interface AttractionRepository extends JpaRepository<Attraction, UUID>, JpaSpecificationExecutor<Attraction> {
     
-    // Search attractions by name (case-insensitive, contains)
-    @Query("SELECT a FROM Attraction a LEFT JOIN FETCH a.category " +
-           "WHERE a.deletedAt = 0 AND a.status = 'ACTIVE' " +
-           "AND LOWER(a.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Attraction> searchByName(@Param("keyword") String keyword, Pageable pageable);
+    // Stream all active attractions with their category, read from the database in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Attraction a LEFT JOIN FETCH a.category WHERE a.deletedAt = 0")
+    Stream<Attraction> streamAllActive();
+    
+    // Suggestion fields of the active attractions: [id, name, location, categoryName]
+    @Query("SELECT a.id, a.name, a.location, c.name FROM Attraction a LEFT JOIN a.category c " +
+           "WHERE a.deletedAt = 0 AND a.status = 'ACTIVE' ORDER BY a.name")
+    List<Object[]> findActiveAttractionSuggestions();
+    
+    // Home ranking fields of the live attractions: [id, name, location, status]
+    @Query("SELECT a.id, a.name, a.location, a.status FROM Attraction a WHERE a.deletedAt = 0")
+    List<Object[]> findRankingFields();
     
-    // Find attractions from most favorited routes
-    @Query("SELECT DISTINCT a, COUNT(DISTINCT f.id) as favCount FROM Attraction a " +
-           "JOIN RouteAttraction ra ON ra.attraction.id = a.id AND ra.deletedAt = 0 " +
-           "JOIN Route r ON r.id = ra.route.id AND r.deletedAt = 0 AND r.status = 'OPEN' " +
-           "LEFT JOIN FavoriteTour f ON f.route.id = r.id AND f.deletedAt = 0 " +
-           "WHERE a.deletedAt = 0 AND a.status = 'ACTIVE' " +
-           "GROUP BY a ORDER BY favCount DESC")
-    List<Object[]> findFavoriteDestinations(Pageable pageable);
+    // Descriptions of the given attractions: [id, description]
+    @Query("SELECT a.id, a.description FROM Attraction a WHERE a.id IN :ids")
+    List<Object[]> findDescriptionsByIds(@Param("ids") Collection<UUID> ids);
 }
 
 
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +16,10 @@ public interface BookingTravelerRepository extends JpaRepository<BookingTraveler
     @Query("SELECT bt FROM BookingTraveler bt WHERE bt.tourBooking.id = :bookingId AND bt.deletedAt = 0")
     List<BookingTraveler> findByBookingId(@Param("bookingId") UUID bookingId);
     
+    // Find travelers of several bookings at once (list responses)
+    @Query("SELECT bt FROM BookingTraveler bt WHERE bt.tourBooking.id IN :bookingIds AND bt.deletedAt = 0")
+    List<BookingTraveler> findByBookingIdIn(@Param("bookingIds") Collection<UUID> bookingIds);
+    
     // Find traveler by ID and booking ID
     @Query("SELECT bt FROM BookingTraveler bt WHERE bt.id = :id AND bt.tourBooking.id = :bookingId AND bt.deletedAt = 0")
     Optional<BookingTraveler> findByIdAndBookingId(@Param("id") UUID id, @Param("bookingId") UUID bookingId);
@@ -1,5 +1,6 @@
 package com.example.tms.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +30,10 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
     @Query("SELECT ci FROM CartItem ci WHERE ci.id = :id AND ci.cart.id = :cartId AND ci.deletedAt = 0")
     Optional<CartItem> findByIdAndCartId(@Param("id") UUID id, @Param("cartId") UUID cartId);
     
+    // Find cart items by IDs and cart ID with trip loaded
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.trip t LEFT JOIN FETCH t.route WHERE ci.id IN :ids AND ci.cart.id = :cartId AND ci.deletedAt = 0")
+    List<CartItem> findByIdsAndCartIdWithTrip(@Param("ids") Collection<UUID> ids, @Param("cartId") UUID cartId);
+    
     // Delete all cart items by cart ID (soft delete)
     @Modifying
     @Query("UPDATE CartItem ci SET ci.deletedAt = :timestamp WHERE ci.cart.id = :cartId AND ci.deletedAt = 0")
@@ -1,9 +1,11 @@
 package com.example.tms.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,18 +13,25 @@ import com.example.tms.entity.FavoriteTour;
 
 public interface FavoriteTourRepository extends JpaRepository<FavoriteTour, UUID> {
     
-    // Check if user has favorited a route
-    @Query("SELECT f FROM FavoriteTour f WHERE f.user.id = :userId AND f.route.id = :routeId AND f.deletedAt = 0")
-    Optional<FavoriteTour> findByUserIdAndRouteId(@Param("userId") UUID userId, @Param("routeId") UUID routeId);
+    // Insert an active favourite unless one exists (0 rows = already favorited)
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO FavoriteTour (id, user.id, route.id, deletedAt, createdAt, updatedAt, version) " +
+           "VALUES (:id, :userId, :routeId, 0, LOCAL DATETIME, LOCAL DATETIME, 0) " +
+           "ON CONFLICT DO NOTHING")
+    int insertIfAbsent(@Param("id") UUID id, @Param("userId") UUID userId, @Param("routeId") UUID routeId);
     
-    // Count favorites for a route
-    @Query("SELECT COUNT(f) FROM FavoriteTour f WHERE f.route.id = :routeId AND f.deletedAt = 0")
-    Long countByRouteId(@Param("routeId") UUID routeId);
+    // Soft delete the active favourite (0 rows = not favorited)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE FavoriteTour f SET f.deletedAt = :deletedAt, f.version = f.version + 1 " +
+           "WHERE f.user.id = :userId AND f.route.id = :routeId AND f.deletedAt = 0")
+    int softDelete(@Param("userId") UUID userId, @Param("routeId") UUID routeId, @Param("deletedAt") long deletedAt);
     
     // Check if route is favorited by user
     @Query("SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END FROM FavoriteTour f " +
            "WHERE f.user.id = :userId AND f.route.id = :routeId AND f.deletedAt = 0")
     boolean existsByUserIdAndRouteId(@Param("userId") UUID userId, @Param("routeId") UUID routeId);
+    
+    // Which of the given routes the user has favorited
+    @Query("SELECT f.route.id FROM FavoriteTour f WHERE f.user.id = :userId AND f.route.id IN :routeIds AND f.deletedAt = 0")
+    List<UUID> findFavoritedRouteIds(@Param("userId") UUID userId, @Param("routeIds") Collection<UUID> routeIds);
 }
-
-
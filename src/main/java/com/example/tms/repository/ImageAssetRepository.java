@@ -0,0 +1,52 @@
+package com.example.tms.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.tms.entity.ImageAsset;
+
+import jakarta.persistence.LockModeType;
+
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, UUID> {
+    
+    // The image in one slot of an owner
+    Optional<ImageAsset> findByOwnerTypeAndOwnerIdAndImageIndex(ImageAsset.OwnerType ownerType, UUID ownerId,
+            Integer imageIndex);
+    
+    // The image in one slot of an owner, locked until the end of the transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM ImageAsset i WHERE i.ownerType = :ownerType AND i.ownerId = :ownerId AND i.imageIndex = :imageIndex")
+    Optional<ImageAsset> findSlotForUpdate(@Param("ownerType") ImageAsset.OwnerType ownerType, @Param("ownerId") UUID ownerId,
+            @Param("imageIndex") Integer imageIndex);
+    
+    // A slot showing the stored image processed from a source with this fingerprint
+    Optional<ImageAsset> findFirstByContentHash(String contentHash);
+    
+    // Insert the image of a slot, or overwrite the row the slot already has (unique owner/index key)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO image_asset (id, owner_type, owner_id, image_index, public_id, secure_url, thumb_url, card_url, " +
+            "width, height, bytes, content_hash, uploaded_at) " +
+            "VALUES (:id, :#{#asset.ownerType.name()}, :#{#asset.ownerId}, :#{#asset.imageIndex}, :#{#asset.publicId}, " +
+            ":#{#asset.secureUrl}, :#{#asset.thumbUrl}, :#{#asset.cardUrl}, :#{#asset.width}, :#{#asset.height}, " +
+            ":#{#asset.bytes}, :#{#asset.contentHash}, :#{#asset.uploadedAt}) " +
+            "ON DUPLICATE KEY UPDATE public_id = VALUES(public_id), secure_url = VALUES(secure_url), " +
+            "thumb_url = VALUES(thumb_url), card_url = VALUES(card_url), width = VALUES(width), height = VALUES(height), " +
+            "bytes = VALUES(bytes), content_hash = VALUES(content_hash), uploaded_at = VALUES(uploaded_at)",
+            nativeQuery = true)
+    int upsertSlot(@Param("id") UUID id, @Param("asset") ImageAsset asset);
+    
+    // Whether any slot still shows a Cloudinary image
+    boolean existsByPublicId(String publicId);
+    
+    // Forget the image in one slot of an owner
+    @Modifying
+    @Query("DELETE FROM ImageAsset i WHERE i.ownerType = :ownerType AND i.ownerId = :ownerId AND i.imageIndex = :imageIndex")
+    int deleteSlot(@Param("ownerType") ImageAsset.OwnerType ownerType, @Param("ownerId") UUID ownerId,
+            @Param("imageIndex") Integer imageIndex);
+}
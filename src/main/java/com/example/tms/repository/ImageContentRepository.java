@@ -0,0 +1,26 @@
+package com.example.tms.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.tms.entity.ImageContent;
+
+public interface ImageContentRepository extends JpaRepository<ImageContent, String> {
+    
+    // Take a reference to a stored image; 0 if it is no longer stored
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImageContent c SET c.refCount = c.refCount + 1 WHERE c.publicId = :publicId AND c.refCount > 0")
+    int claim(@Param("publicId") String publicId);
+    
+    // Give a reference back; 0 if the image has no reference count (stored before deduplication)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ImageContent c SET c.refCount = c.refCount - 1 WHERE c.publicId = :publicId AND c.refCount > 0")
+    int release(@Param("publicId") String publicId);
+    
+    // Remove the count of an image no slot shows any more; 1 if this call removed it
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM ImageContent c WHERE c.publicId = :publicId AND c.refCount = 0")
+    int deleteUnreferenced(@Param("publicId") String publicId);
+}
@@ -0,0 +1,32 @@
+package com.example.tms.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.tms.entity.ImageUploadJob;
+
+public interface ImageUploadJobRepository extends JpaRepository<ImageUploadJob, UUID> {
+    
+    // Mark the unfinished jobs a node still holds as alive, however long they wait in its queue
+    @Modifying
+    @Query("UPDATE ImageUploadJob j SET j.updatedAt = :now " +
+            "WHERE j.id IN :ids AND j.status IN ('QUEUED', 'RUNNING', 'RETRYING')")
+    int touch(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+    
+    // Give up on unfinished jobs their node stopped updating
+    @Modifying
+    @Query("UPDATE ImageUploadJob j SET j.status = 'FAILED', j.error = :error, j.finishedAt = :now, j.updatedAt = :now " +
+            "WHERE j.status IN ('QUEUED', 'RUNNING', 'RETRYING') AND j.updatedAt < :cutoff")
+    int failStale(@Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now, @Param("error") String error);
+    
+    // Forget jobs that finished before the cutoff
+    @Modifying
+    @Query("DELETE FROM ImageUploadJob j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
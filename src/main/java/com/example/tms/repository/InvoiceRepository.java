@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +16,10 @@ public interface InvoiceRepository extends JpaRepository<Invoice, UUID>, JpaSpec
     // Find invoice by booking ID
     @Query("SELECT i FROM Invoice i WHERE i.tourBooking.id = :bookingId AND i.deletedAt = 0")
     Optional<Invoice> findByBookingId(@Param("bookingId") UUID bookingId);
+    
+    // Find invoices of several bookings at once (list responses)
+    @Query("SELECT i FROM Invoice i WHERE i.tourBooking.id IN :bookingIds AND i.deletedAt = 0")
+    List<Invoice> findByBookingIdIn(@Param("bookingIds") Collection<UUID> bookingIds);
 }
 
 
@@ -24,6 +24,29 @@ public interface RouteAttractionRepository extends JpaRepository<RouteAttraction
 
     @Query("SELECT ra FROM RouteAttraction ra WHERE ra.route.id IN :routeIds AND ra.deletedAt = 0")
     List<RouteAttraction> findByRouteIdIn(@Param("routeIds") List<UUID> routeIds);
+
+    // Attraction IDs visited by a route
+    @Query("SELECT ra.attraction.id FROM RouteAttraction ra WHERE ra.route.id = :routeId AND ra.deletedAt = 0")
+    List<UUID> findAttractionIdsByRouteId(@Param("routeId") UUID routeId);
+
+    // Every live route/attraction link: [routeId, attractionId]
+    @Query("SELECT ra.route.id, ra.attraction.id FROM RouteAttraction ra WHERE ra.deletedAt = 0")
+    List<Object[]> findAllLinks();
+
+    // Live attractions of every route: [routeId, attractionId, attractionName]
+    @Query("SELECT ra.route.id, a.id, a.name FROM RouteAttraction ra JOIN ra.attraction a " +
+           "WHERE ra.deletedAt = 0 AND a.deletedAt = 0")
+    List<Object[]> findAllAttractionNames();
+
+    // Live attractions of a route: [attractionId, attractionName]
+    @Query("SELECT a.id, a.name FROM RouteAttraction ra JOIN ra.attraction a " +
+           "WHERE ra.route.id = :routeId AND ra.deletedAt = 0 AND a.deletedAt = 0")
+    List<Object[]> findAttractionNamesByRouteId(@Param("routeId") UUID routeId);
+
+    // Favourites of the open routes visiting each attraction: [attractionId, favoriteCount]
+    @Query("SELECT ra.attraction.id, SUM(r.favoriteCount) FROM RouteAttraction ra JOIN ra.route r " +
+           "WHERE ra.deletedAt = 0 AND r.deletedAt = 0 AND r.status = 'OPEN' GROUP BY ra.attraction.id")
+    List<Object[]> sumOpenRouteFavoritesByAttraction();
 }
 
 
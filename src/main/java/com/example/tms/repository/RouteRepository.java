@@ -2,44 +2,52 @@ package com.example.tms.repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.example.tms.entity.Route;
 
+import jakarta.persistence.QueryHint;
+
 public interface RouteRepository extends JpaRepository<Route, UUID>, JpaSpecificationExecutor<Route> {
     
-    // Search routes by name (case-insensitive, contains)
-    @Query("SELECT r FROM Route r WHERE r.deletedAt = 0 AND LOWER(r.routeName) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Route> searchByName(@Param("keyword") String keyword, Pageable pageable);
+    // Stream all active routes, read from the database in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Route r WHERE r.deletedAt = 0")
+    Stream<Route> streamAllActive();
+    
+    // IDs of all routes shown to customers
+    @Query("SELECT r.id FROM Route r WHERE r.deletedAt = 0 AND r.status = 'OPEN'")
+    List<UUID> findOpenRouteIds();
+    
+    // Suggestion fields of the open routes: [id, routeName, startLocation, endLocation, durationDays, image, favoriteCount]
+    @Query("SELECT r.id, r.routeName, r.startLocation, r.endLocation, r.durationDays, r.image, r.favoriteCount " +
+           "FROM Route r WHERE r.deletedAt = 0 AND r.status = 'OPEN' ORDER BY r.routeName")
+    List<Object[]> findOpenRouteSuggestions();
+    
+    // Home ranking fields of the live routes: [id, routeName, startLocation, endLocation, durationDays, image, status, favoriteCount]
+    @Query("SELECT r.id, r.routeName, r.startLocation, r.endLocation, r.durationDays, r.image, r.status, r.favoriteCount " +
+           "FROM Route r WHERE r.deletedAt = 0")
+    List<Object[]> findRankingFields();
     
     // Find routes by start location
     @Query("SELECT r FROM Route r WHERE r.deletedAt = 0 AND LOWER(r.startLocation) LIKE LOWER(CONCAT('%', :location, '%'))")
     List<Route> findByStartLocation(@Param("location") String location);
     
-    // Find routes with most favorites
-    @Query("SELECT r, COUNT(f) as favCount FROM Route r LEFT JOIN FavoriteTour f ON f.route.id = r.id AND f.deletedAt = 0 " +
-           "WHERE r.deletedAt = 0 AND r.status = 'OPEN' GROUP BY r ORDER BY favCount DESC")
-    List<Object[]> findMostFavoritedRoutes(Pageable pageable);
+    // Atomically add delta (+1/-1) to the favourite counter, never going below zero
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Route r SET r.favoriteCount = CASE WHEN r.favoriteCount + :delta > 0 THEN r.favoriteCount + :delta ELSE 0 END WHERE r.id = :id")
+    int adjustFavoriteCount(@Param("id") UUID id, @Param("delta") long delta);
     
-    // Get distinct start locations
-    @Query("SELECT DISTINCT r.startLocation FROM Route r WHERE r.deletedAt = 0 AND r.status = 'OPEN'")
-    List<String> findDistinctStartLocations();
-    
-    // Search routes by keyword in name or related attractions
-    @Query("SELECT DISTINCT r FROM Route r " +
-           "LEFT JOIN RouteAttraction ra ON ra.route.id = r.id AND ra.deletedAt = 0 " +
-           "LEFT JOIN Attraction a ON a.id = ra.attraction.id AND a.deletedAt = 0 " +
-           "WHERE r.deletedAt = 0 AND r.status = 'OPEN' " +
-           "AND (LOWER(r.routeName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(a.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-           "OR LOWER(a.location) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Route> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    // Recompute every favourite counter from the active favorite_tour rows
+    @Modifying
+    @Query("UPDATE Route r SET r.favoriteCount = (SELECT COUNT(f) FROM FavoriteTour f WHERE f.route.id = r.id AND f.deletedAt = 0)")
+    int recountFavorites();
 }
-
-
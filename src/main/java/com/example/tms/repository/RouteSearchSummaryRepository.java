@@ -0,0 +1,27 @@
+package com.example.tms.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.tms.entity.RouteSearchSummary;
+
+public interface RouteSearchSummaryRepository extends JpaRepository<RouteSearchSummary, UUID>,
+        JpaSpecificationExecutor<RouteSearchSummary> {
+    
+    // Remove the rows of routes that are no longer searchable
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RouteSearchSummary s WHERE s.routeId IN :routeIds")
+    int deleteByRouteIdIn(@Param("routeIds") Collection<UUID> routeIds);
+    
+    // Remove the rows of every route that is deleted or not OPEN any more
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM RouteSearchSummary s WHERE NOT EXISTS (" +
+           "SELECT r.id FROM Route r WHERE r.id = s.routeId AND r.deletedAt = 0 AND r.status = 'OPEN')")
+    int deleteUnsearchable();
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,6 +15,10 @@ public interface TourBookingDetailRepository extends JpaRepository<TourBookingDe
     // Find booking detail by booking ID
     @Query("SELECT tbd FROM TourBookingDetail tbd WHERE tbd.tourBooking.id = :bookingId AND tbd.deletedAt = 0")
     Optional<TourBookingDetail> findByBookingId(@Param("bookingId") UUID bookingId);
+    
+    // Find booking details for several bookings at once (list responses)
+    @Query("SELECT tbd FROM TourBookingDetail tbd WHERE tbd.tourBooking.id IN :bookingIds AND tbd.deletedAt = 0")
+    List<TourBookingDetail> findByBookingIdIn(@Param("bookingIds") Collection<UUID> bookingIds);
 }
 
 
@@ -0,0 +1,17 @@
+package com.example.tms.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.tms.dto.response.booking.BookingListResponse;
+import com.example.tms.entity.TourBooking;
+
+/**
+ * Read-only booking list queries that select straight into response DTOs
+ */
+public interface TourBookingProjectionRepository {
+
+    // Filtered page of booking list rows (booking, trip, route and invoice status in one statement)
+    Page<BookingListResponse> findBookingListPage(Specification<TourBooking> spec, Pageable pageable);
+}
@@ -0,0 +1,97 @@
+package com.example.tms.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.example.tms.dto.response.booking.BookingListResponse;
+import com.example.tms.entity.Invoice;
+import com.example.tms.entity.Route;
+import com.example.tms.entity.TourBooking;
+import com.example.tms.entity.Trip;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+public class TourBookingProjectionRepositoryImpl implements TourBookingProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BookingListResponse> findBookingListPage(Specification<TourBooking> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<BookingListResponse> query = cb.createQuery(BookingListResponse.class);
+        Root<TourBooking> root = query.from(TourBooking.class);
+        Predicate where = spec.toPredicate(root, query, cb);
+        // Reuse the joins the specification already made so trip/route are joined once
+        Join<TourBooking, Trip> trip = innerJoin(root, "trip");
+        Join<Trip, Route> route = innerJoin(trip, "route");
+
+        // Scalar subquery instead of a join: a booking has at most one live invoice
+        Subquery<Invoice.PaymentStatus> paymentStatus = query.subquery(Invoice.PaymentStatus.class);
+        Root<Invoice> invoice = paymentStatus.from(Invoice.class);
+        paymentStatus.select(invoice.get("paymentStatus"))
+                .where(cb.equal(invoice.get("tourBooking"), root), cb.equal(invoice.get("deletedAt"), 0L));
+
+        query.select(cb.construct(BookingListResponse.class,
+                root.get("id"),
+                route.get("routeName"),
+                route.get("image"),
+                trip.get("departureDate"),
+                trip.get("returnDate"),
+                root.get("seatsBooked"),
+                root.get("totalPrice"),
+                root.get("status"),
+                paymentStatus,
+                root.get("createdAt")));
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<BookingListResponse> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<BookingListResponse> content = typedQuery.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<TourBooking> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<TourBooking> root = query.from(TourBooking.class);
+        Predicate where = spec.toPredicate(root, query, cb);
+        query.select(cb.count(root));
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X, Y> Join<X, Y> innerJoin(From<?, X> from, String attribute) {
+        return from.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals(attribute) && join.getJoinType() == JoinType.INNER)
+                .map(join -> (Join<X, Y>) join)
+                .findFirst()
+                .orElseGet(() -> from.join(attribute, JoinType.INNER));
+    }
+}
@@ -1,19 +1,34 @@
 package com.example.tms.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.example.tms.dto.response.customer.CustomerBookingListResponse;
 import com.example.tms.entity.TourBooking;
 
-public interface TourBookingRepository extends JpaRepository<TourBooking, UUID>, JpaSpecificationExecutor<TourBooking> {
+import jakarta.persistence.LockModeType;
+
+public interface TourBookingRepository extends JpaRepository<TourBooking, UUID>, JpaSpecificationExecutor<TourBooking>,
+        TourBookingProjectionRepository {
+    
+    // Filtered booking pages; trip, route and user are fetched with the page instead of per row
+    @Override
+    @EntityGraph(attributePaths = {"trip", "trip.route", "user"})
+    Page<TourBooking> findAll(Specification<TourBooking> spec, Pageable pageable);
     
     // Count bookings by user
     @Query("SELECT COUNT(tb) FROM TourBooking tb WHERE tb.user.id = :userId AND tb.deletedAt = 0")
@@ -29,7 +44,8 @@ public interface TourBookingRepository extends JpaRepository<TourBooking, UUID>,
     @Query("SELECT tb FROM TourBooking tb WHERE tb.cartItemId IN :cartItemIds AND tb.status IN :statuses AND tb.deletedAt = 0")
     List<TourBooking> findByCartItemIdInAndStatusIn(@Param("cartItemIds") List<UUID> cartItemIds, @Param("statuses") List<TourBooking.Status> statuses);
 
-    // Find booking by ID and user ID (for ownership validation)
+    // Find booking by ID and user ID (for ownership validation), with trip and route loaded
+    @EntityGraph(attributePaths = {"trip", "trip.route", "user"})
     @Query("SELECT tb FROM TourBooking tb WHERE tb.id = :bookingId AND tb.user.id = :userId AND tb.deletedAt = 0")
     Optional<TourBooking> findByIdAndUserId(@Param("bookingId") UUID bookingId, @Param("userId") UUID userId);
     
@@ -37,13 +53,45 @@ public interface TourBookingRepository extends JpaRepository<TourBooking, UUID>,
     @Query("SELECT tb FROM TourBooking tb WHERE tb.user.id = :userId AND tb.deletedAt = 0")
     Page<TourBooking> findByUserId(@Param("userId") UUID userId, Pageable pageable);
     
-    // Find all bookings by user ordered by creation date (newest first)
+    // Find all bookings by user ordered by creation date (newest first), with trip, route and user loaded
+    @EntityGraph(attributePaths = {"trip", "trip.route", "user"})
     @Query("SELECT tb FROM TourBooking tb WHERE tb.user.id = :userId AND tb.deletedAt = 0 ORDER BY tb.createdAt DESC")
     List<TourBooking> findByUserIdOrderByCreatedAtDesc(@Param("userId") UUID userId);
     
+    // Customer reservation list rows, newest first (booking, trip, route and invoice status in one statement).
+    // paid = true keeps bookings with a paid invoice, false keeps the rest, null keeps all
+    @Query("SELECT new com.example.tms.dto.response.customer.CustomerBookingListResponse(" +
+           "tb.id, r.id, r.routeName, r.image, r.startLocation, r.endLocation, t.departureDate, t.status, " +
+           "tb.seatsBooked, tb.totalPrice, tb.status, tb.createdAt, i.paymentStatus) " +
+           "FROM TourBooking tb JOIN tb.trip t JOIN t.route r " +
+           "LEFT JOIN Invoice i ON i.tourBooking = tb AND i.deletedAt = 0 " +
+           "WHERE tb.user.id = :userId AND tb.deletedAt = 0 " +
+           "AND (:paid IS NULL " +
+           "OR (:paid = TRUE AND i.paymentStatus = 'PAID') " +
+           "OR (:paid = FALSE AND (i.paymentStatus IS NULL OR i.paymentStatus <> 'PAID'))) " +
+           "ORDER BY tb.createdAt DESC")
+    List<CustomerBookingListResponse> findCustomerBookingList(@Param("userId") UUID userId, @Param("paid") Boolean paid);
+    
     // Find all bookings by trip
     @Query("SELECT tb FROM TourBooking tb WHERE tb.trip.id = :tripId AND tb.deletedAt = 0")
     List<TourBooking> findByTripId(@Param("tripId") UUID tripId);
+    
+    // Pending bookings holding seats until a payment deadline (id, holdExpiresAt)
+    @Query("SELECT tb.id, tb.holdExpiresAt FROM TourBooking tb WHERE tb.status = 'PENDING' AND tb.holdExpiresAt IS NOT NULL AND tb.deletedAt = 0")
+    List<Object[]> findActiveHolds();
+    
+    // Lock expired, still unpaid holds so a concurrent payment cannot confirm them while seats are released
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT tb FROM TourBooking tb WHERE tb.id IN :ids AND tb.status = 'PENDING' AND tb.holdExpiresAt <= :now AND tb.deletedAt = 0 " +
+           "AND NOT EXISTS (SELECT i FROM Invoice i WHERE i.tourBooking = tb AND i.paymentStatus = 'PAID' AND i.deletedAt = 0)")
+    List<TourBooking> findExpiredHoldsForUpdate(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+    
+    // Cancel expired holds in one statement, marked as expired; the cart item link is dropped so the item can be booked again
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TourBooking tb SET tb.status = :status, tb.holdExpiresAt = NULL, tb.holdExpiredAt = :now, tb.cartItemId = NULL, " +
+           "tb.version = tb.version + 1 WHERE tb.id IN :ids")
+    int cancelExpiredHolds(@Param("ids") Collection<UUID> ids, @Param("status") TourBooking.Status status,
+            @Param("now") LocalDateTime now);
 }
 
 
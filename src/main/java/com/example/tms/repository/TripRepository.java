@@ -1,19 +1,25 @@
 package com.example.tms.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.example.tms.entity.Trip;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface TripRepository extends JpaRepository<Trip, UUID>, JpaSpecificationExecutor<Trip> {
     
@@ -22,6 +28,11 @@ public interface TripRepository extends JpaRepository<Trip, UUID>, JpaSpecificat
     @Query("SELECT t FROM Trip t WHERE t.id = :id AND t.deletedAt = 0")
     Optional<Trip> findByIdWithLock(@Param("id") UUID id);
     
+    // Stream all active trips with their route, read from the database in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t FROM Trip t JOIN FETCH t.route WHERE t.deletedAt = 0")
+    Stream<Trip> streamAllActive();
+    
     // Find trip by ID (not deleted)
     @Query("SELECT t FROM Trip t WHERE t.id = :id AND t.deletedAt = 0")
     Optional<Trip> findActiveById(@Param("id") UUID id);
@@ -30,9 +41,56 @@ public interface TripRepository extends JpaRepository<Trip, UUID>, JpaSpecificat
     @Query("SELECT t FROM Trip t WHERE t.route.id = :routeId AND t.departureDate >= :minDate AND t.status = 'SCHEDULED' AND t.deletedAt = 0 ORDER BY t.departureDate ASC")
     List<Trip> findAvailableTripsByRouteId(@Param("routeId") UUID routeId, @Param("minDate") LocalDate minDate);
     
+    // Next :perRoute upcoming SCHEDULED trips of each of the given routes, earliest first
+    @Query("SELECT t FROM Trip t WHERE t.id IN (" +
+           "SELECT w.id FROM (SELECT u.id AS id, " +
+           "ROW_NUMBER() OVER (PARTITION BY u.route.id ORDER BY u.departureDate ASC, u.id ASC) AS rn " +
+           "FROM Trip u WHERE u.route.id IN :routeIds AND u.departureDate >= :minDate " +
+           "AND u.status = 'SCHEDULED' AND u.deletedAt = 0) w WHERE w.rn <= :perRoute) " +
+           "ORDER BY t.departureDate ASC, t.id ASC")
+    List<Trip> findUpcomingTripsByRouteIds(@Param("routeIds") Collection<UUID> routeIds,
+            @Param("minDate") LocalDate minDate, @Param("perRoute") int perRoute);
+    
+    // Lowest upcoming SCHEDULED trip price of each of the given routes: [routeId, minPrice]
+    @Query("SELECT t.route.id, MIN(t.price) FROM Trip t WHERE t.route.id IN :routeIds AND t.departureDate >= :minDate " +
+           "AND t.status = 'SCHEDULED' AND t.deletedAt = 0 GROUP BY t.route.id")
+    List<Object[]> findMinUpcomingPriceByRouteIds(@Param("routeIds") Collection<UUID> routeIds,
+            @Param("minDate") LocalDate minDate);
+    
+    // Upcoming SCHEDULED trip aggregates per route: [routeId, minPrice, nextDeparture, lastDeparture, seatsAvailable]
+    @Query("SELECT t.route.id, MIN(t.price), MIN(t.departureDate), MAX(t.departureDate), SUM(t.totalSeats - t.bookedSeats) " +
+           "FROM Trip t WHERE t.route.id IN :routeIds AND t.departureDate >= :minDate " +
+           "AND t.status = 'SCHEDULED' AND t.deletedAt = 0 GROUP BY t.route.id")
+    List<Object[]> summarizeUpcomingByRouteIds(@Param("routeIds") Collection<UUID> routeIds,
+            @Param("minDate") LocalDate minDate);
+    
+    // Routes of the given trips
+    @Query("SELECT DISTINCT t.route.id FROM Trip t WHERE t.id IN :tripIds")
+    List<UUID> findRouteIdsByTripIds(@Param("tripIds") Collection<UUID> tripIds);
+    
     // Find nearest available trip by route ID
     @Query("SELECT t FROM Trip t WHERE t.route.id = :routeId AND t.departureDate >= :minDate AND t.status = 'SCHEDULED' AND t.deletedAt = 0 AND (t.totalSeats - t.bookedSeats) > 0 ORDER BY t.departureDate ASC LIMIT 1")
     Optional<Trip> findNearestAvailableTrip(@Param("routeId") UUID routeId, @Param("minDate") LocalDate minDate);
+    
+    // Atomically reserve seats in one statement (0 rows = not bookable or not enough seats).
+    // Version is bumped so concurrent entity saves of the same trip fail instead of overwriting bookedSeats.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Trip t SET t.bookedSeats = t.bookedSeats + :seats, t.version = t.version + 1 WHERE t.id = :id AND t.deletedAt = 0 AND t.status = 'SCHEDULED' AND t.totalSeats - t.bookedSeats >= :seats")
+    int reserveSeats(@Param("id") UUID id, @Param("seats") int seats);
+    
+    // Atomically release seats, never going below zero
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Trip t SET t.bookedSeats = CASE WHEN t.bookedSeats > :seats THEN t.bookedSeats - :seats ELSE 0 END, t.version = t.version + 1 WHERE t.id = :id")
+    int releaseSeats(@Param("id") UUID id, @Param("seats") int seats);
+    
+    // Write-behind from the seat ledger: set the absolute booked seat count
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Trip t SET t.bookedSeats = :bookedSeats, t.version = t.version + 1 WHERE t.id = :id")
+    int updateBookedSeats(@Param("id") UUID id, @Param("bookedSeats") int bookedSeats);
+    
+    // Current remaining seats (used for error messages when a reservation fails)
+    @Query("SELECT t.totalSeats - t.bookedSeats FROM Trip t WHERE t.id = :id AND t.deletedAt = 0")
+    Optional<Integer> findAvailableSeats(@Param("id") UUID id);
 }
 
 
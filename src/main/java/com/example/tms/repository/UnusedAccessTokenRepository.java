@@ -12,5 +12,7 @@ import com.example.tms.entity.UnusedAccessToken;
 public interface UnusedAccessTokenRepository extends JpaRepository<UnusedAccessToken, UUID> {
     Optional<UnusedAccessToken> findByToken(String token);
     List<UnusedAccessToken> findByExpireAtBefore(Date expireAt);
+    // Tokens that are still revoked (loaded into TokenBlacklist)
+    List<UnusedAccessToken> findByExpireAtAfter(Date expireAt);
 }
 
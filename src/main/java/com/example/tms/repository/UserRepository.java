@@ -33,6 +33,10 @@ public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificat
 	@Query("SELECT COUNT(u) > 0 FROM User u WHERE u.email = :email AND u.id != :userId AND u.deletedAt = 0")
 	boolean existsByEmailAndIdNot(@Param("email") String email, @Param("userId") UUID userId);
 	
+	// Role and username of an ACTIVE, unlocked user (checked against access token claims)
+	@Query("SELECT u.role, u.username FROM User u WHERE u.id = :userId AND u.deletedAt = 0 AND u.isLock = false")
+	List<Object[]> findActiveRoleAndUsername(@Param("userId") UUID userId);
+	
 	@Query("SELECT u FROM User u WHERE u.role = :role AND u.deletedAt = 0")
 	List<User> findByRole(@Param("role") User.Role role);
 	
@@ -0,0 +1,38 @@
+package com.example.tms.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import lombok.Getter;
+
+/**
+ * Principal of an authenticated request. Built from the database at login and from the access
+ * token's claims afterwards, so services can use the user id without looking the user up.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails {
+
+    private final UUID id;
+    private final String username;
+    private final String password; // Null when built from a token
+    private final String role; // CUSTOMER/STAFF/ADMIN, also the only authority
+    private final boolean enabled;
+
+    public AuthenticatedUser(UUID id, String username, String password, String role, boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.role = role;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role));
+    }
+}
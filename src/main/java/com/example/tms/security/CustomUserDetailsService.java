@@ -1,8 +1,5 @@
 package com.example.tms.security;
 
-import java.util.List;
-
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -24,15 +21,12 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         // Use enum name as authority, e.g., CUSTOMER/STAFF/ADMIN
-        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(user.getRole().name()));
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getUsername(),
                 user.getUserPassword(),
-                !Boolean.TRUE.equals(user.getIsLock()), // enabled if not locked
-                true,
-                true,
-                true,
-                authorities
+                user.getRole().name(),
+                !Boolean.TRUE.equals(user.getIsLock()) // enabled if not locked
         );
     }
 }
@@ -7,24 +7,35 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * Authenticates requests from their access token alone: the token is parsed once and its claims
+ * (user id, role) become the principal. The only database access is the periodic check of
+ * {@link UserStatusCache}, which rejects tokens of users locked, deleted or given another role.
+ * An invalid or expired token leaves the request unauthenticated.
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtService jwtService;
+    private final UserStatusCache userStatusCache;
 
-    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtService jwtService) {
+    public JwtAuthenticationFilter(UserDetailsService userDetailsService, JwtService jwtService,
+                                   UserStatusCache userStatusCache) {
         this.userDetailsService = userDetailsService;
         this.jwtService = jwtService;
+        this.userStatusCache = userStatusCache;
     }
 
     @Override
@@ -38,11 +49,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String username = jwtService.extractUsername(jwt);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = authenticate(jwt);
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -54,5 +63,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
 
+    // Null if the token is invalid or no longer matches its user
+    private UserDetails authenticate(String jwt) {
+        AuthenticatedUser user;
+        try {
+            user = jwtService.authenticate(jwt);
+            if (user == null) {
+                // Issued before tokens carried the user id: check it against the user
+                UserDetails userDetails = userDetailsService.loadUserByUsername(jwtService.extractUsername(jwt));
+                return userDetails.isEnabled() ? userDetails : null;
+            }
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            return null;
+        }
+        return userStatusCache.isCurrent(user) ? user : null;
+    }
+}
@@ -5,20 +5,21 @@ import java.io.IOException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.example.tms.entity.UnusedAccessToken;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+/**
+ * Rejects access tokens revoked by logout; the check is answered from memory by {@link TokenBlacklist}
+ */
 @Component
 public class JwtBlackListFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final TokenBlacklist tokenBlacklist;
 
-    public JwtBlackListFilter(JwtService jwtService) {
-        this.jwtService = jwtService;
+    public JwtBlackListFilter(TokenBlacklist tokenBlacklist) {
+        this.tokenBlacklist = tokenBlacklist;
     }
 
     @Override
@@ -27,8 +28,7 @@ public class JwtBlackListFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            UnusedAccessToken unused = jwtService.getUnusedAccessTokenByToken(token);
-            if (unused != null) {
+            if (tokenBlacklist.isRevoked(token)) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json;charset=UTF-8");
                 response.getWriter().write("{\"error\":\"Token is blacklisted\"}");
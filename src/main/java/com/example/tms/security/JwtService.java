@@ -5,6 +5,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -18,10 +19,13 @@ import com.example.tms.repository.RefreshTokenRepository;
 import com.example.tms.repository.UnusedAccessTokenRepository;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -34,14 +38,26 @@ public class JwtService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final UnusedAccessTokenRepository unusedAccessTokenRepository;
+    private final TokenBlacklist tokenBlacklist;
 
     // 30 minutes access token; 24 hours refresh token
     private static final long ACCESS_TOKEN_TTL_MS = 30L * 60 * 1000;
     private static final long REFRESH_TOKEN_TTL_MS = 24L * 60 * 60 * 1000;
 
-    private Key getSignKey() {
+    private static final String ROLE_CLAIM = "role";
+    private static final String USER_ID_CLAIM = "uid";
+
+    // Built once from the secret; both are immutable and thread-safe
+    private Key signKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(secretBase64);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
     }
 
     public String extractUsername(String token) {
@@ -58,11 +74,22 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Verify an access token with a single parse and build its principal from the claims.
+     * @return Null for tokens issued without a user id claim, which must be checked against the user
+     * @throws JwtException if the token is malformed, wrongly signed or expired
+     */
+    public AuthenticatedUser authenticate(String token) {
+        Claims claims = extractAllClaims(token);
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), null, role, true);
     }
 
     private boolean isTokenExpired(String token) {
@@ -78,7 +105,11 @@ public class JwtService {
         Map<String, Object> claims = new HashMap<>();
         // Add roles and fullName as claims
         if (!userDetails.getAuthorities().isEmpty()) {
-            claims.put("role", userDetails.getAuthorities().iterator().next().getAuthority());
+            claims.put(ROLE_CLAIM, userDetails.getAuthorities().iterator().next().getAuthority());
+        }
+        // The user id lets requests be authenticated from the token alone
+        if (userDetails instanceof AuthenticatedUser user) {
+            claims.put(USER_ID_CLAIM, user.getId().toString());
         }
         // You can add fullName here if User entity is passed
         claims.put("fullName", userDetails.getUsername()); // Default to username, update if needed
@@ -111,10 +142,7 @@ public class JwtService {
         uat.setToken(accessToken);
         uat.setExpireAt(extractExpiration(accessToken));
         unusedAccessTokenRepository.save(uat);
-    }
-
-    public UnusedAccessToken getUnusedAccessTokenByToken(String token) {
-        return unusedAccessTokenRepository.findByToken(token).orElse(null);
+        tokenBlacklist.revoke(accessToken, uat.getExpireAt());
     }
 
     public List<UnusedAccessToken> getAllAccessTokenExpired() {
@@ -140,7 +168,7 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date(now + ACCESS_TOKEN_TTL_MS))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -151,7 +179,7 @@ public class JwtService {
                 .setSubject(subject)
                 .setIssuedAt(new Date(now))
                 .setExpiration(new Date(now + REFRESH_TOKEN_TTL_MS))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 }
@@ -43,6 +43,7 @@ public class SecurityConfig {
                     .requestMatchers("/api/v1/customer/tours/home/destination-images").permitAll()
                     .requestMatchers("/api/v1/customer/tours/search").permitAll()
                     .requestMatchers("/api/v1/customer/tours/start-locations").permitAll()
+                    .requestMatchers("/api/v1/customer/tours/facets").permitAll()
                     .requestMatchers("/api/v1/customer/tours/*/favorite").permitAll() // GET is public, POST requires auth in controller
                     .requestMatchers("/api/v1/routes/**").permitAll() // All route endpoints (detail, full, images, etc.)
                     .requestMatchers("/api/v1/trips/route/*/available").permitAll() // Available trips
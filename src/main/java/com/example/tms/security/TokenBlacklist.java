@@ -0,0 +1,111 @@
+package com.example.tms.security;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.tms.entity.UnusedAccessToken;
+import com.example.tms.repository.UnusedAccessTokenRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Access tokens revoked by logout, answered from memory.
+ *
+ * A token is identified by its signature segment: an HMAC of the header and claims, so it is
+ * unique per token and a tenth of the token's length. Revoked signatures are kept with the
+ * token's expiry until it passes; a Bloom filter in front answers "not revoked" for almost every
+ * token without touching the set.
+ *
+ * Logouts are written to unused_access_token and to memory. The unexpired rows are loaded when
+ * the bean is created and reloaded every app.security.blacklist.refresh-ms to pick up logouts
+ * made on other nodes; the reload also drops expired entries and rebuilds the filter, which
+ * cannot forget.
+ *
+ * This is an accepted revocation delay, weaker than looking every token up in the database: a
+ * logout takes effect at once on the node that handled it, but other nodes keep accepting the
+ * token until their next reload, up to refresh-ms later. Lower refresh-ms to shorten the window.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenBlacklist {
+
+    private final UnusedAccessTokenRepository unusedAccessTokenRepository;
+
+    @Value("${app.security.blacklist.expected-tokens:100000}")
+    private int expectedTokens;
+
+    @Value("${app.security.blacklist.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Signature -> expiry (epoch ms)
+    private volatile Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    private final Object lock = new Object();
+
+    // Loaded before the server accepts requests, so no revoked token slips through at startup
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedTokens, falsePositiveRate);
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.blacklist.refresh-ms:60000}",
+            initialDelayString = "${app.security.blacklist.refresh-ms:60000}")
+    public void reload() {
+        long now = System.currentTimeMillis();
+        List<UnusedAccessToken> rows = unusedAccessTokenRepository.findByExpireAtAfter(new Date(now));
+        synchronized (lock) {
+            Map<String, Long> loaded = new ConcurrentHashMap<>();
+            for (UnusedAccessToken row : rows) {
+                loaded.put(signature(row.getToken()), row.getExpireAt().getTime());
+            }
+            // Keep revocations made here while the rows were being read
+            revoked.forEach((signature, expireAt) -> {
+                if (expireAt > now) {
+                    loaded.putIfAbsent(signature, expireAt);
+                }
+            });
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, loaded.size()), falsePositiveRate);
+            loaded.keySet().forEach(rebuilt::add);
+            revoked = loaded;
+            filter = rebuilt;
+        }
+        log.debug("Token blacklist loaded: {} revoked token(s)", rows.size());
+    }
+
+    /**
+     * Whether the token was revoked and has not expired yet
+     */
+    public boolean isRevoked(String token) {
+        String signature = signature(token);
+        if (!filter.mightContain(signature)) {
+            return false;
+        }
+        Long expireAt = revoked.get(signature);
+        return expireAt != null && expireAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoke a token on this node; the caller persists it for the others
+     */
+    public void revoke(String token, Date expireAt) {
+        String signature = signature(token);
+        synchronized (lock) {
+            revoked.put(signature, expireAt.getTime());
+            filter.add(signature);
+        }
+    }
+
+    private static String signature(String token) {
+        return token.substring(token.lastIndexOf('.') + 1);
+    }
+}
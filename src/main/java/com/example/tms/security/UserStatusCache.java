@@ -0,0 +1,89 @@
+package com.example.tms.security;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.tms.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Current role and username of each active user, at most app.security.jwt.revocation-window-ms old.
+ *
+ * Access tokens carry the user id, username and role, so requests are authenticated without
+ * loading the user. A token is still only accepted while its role and username match this cache,
+ * which asks the database again once an entry is older than the window: locking, deleting,
+ * renaming or changing the role of a user takes effect within the window rather than when the
+ * token expires.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+
+    @Value("${app.security.jwt.revocation-window-ms:60000}")
+    private long revocationWindowMs;
+
+    private final Map<UUID, Status> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the user is still active, unlocked and has the role and username the principal was built with
+     */
+    public boolean isCurrent(AuthenticatedUser user) {
+        long now = System.currentTimeMillis();
+        Status status = statuses.get(user.getId());
+        if (status == null || now - status.loadedAt > revocationWindowMs) {
+            List<Object[]> rows = userRepository.findActiveRoleAndUsername(user.getId());
+            status = rows.isEmpty()
+                    ? new Status(null, null, now)
+                    : new Status(((Enum<?>) rows.get(0)[0]).name(), (String) rows.get(0)[1], now);
+            statuses.put(user.getId(), status);
+        }
+        return user.getRole().equals(status.role) && user.getUsername().equals(status.username);
+    }
+
+    /**
+     * Check the user against the database on their next request (for changes made on this node).
+     * Inside a transaction the entry is dropped once it commits, so a request in between cannot
+     * cache the old state again for a whole window.
+     */
+    public void evict(UUID userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statuses.remove(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statuses.remove(userId);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.revocation-window-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - revocationWindowMs;
+        statuses.values().removeIf(status -> status.loadedAt < cutoff);
+    }
+
+    private static final class Status {
+        private final String role; // Null when the user is locked, deleted or gone
+        private final String username;
+        private final long loadedAt;
+
+        private Status(String role, String username, long loadedAt) {
+            this.role = role;
+            this.username = username;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
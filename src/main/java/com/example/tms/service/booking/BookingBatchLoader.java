@@ -0,0 +1,84 @@
+package com.example.tms.service.booking;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.tms.entity.BookingTraveler;
+import com.example.tms.entity.Invoice;
+import com.example.tms.entity.TourBooking;
+import com.example.tms.entity.TourBookingDetail;
+import com.example.tms.repository.BookingTravelerRepository;
+import com.example.tms.repository.InvoiceRepository;
+import com.example.tms.repository.TourBookingDetailRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loads the rows hanging off a set of bookings (detail, travelers, invoice) with one IN query
+ * per table, so building a page of booking responses costs a fixed number of queries instead
+ * of several per booking.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingBatchLoader {
+
+    private final TourBookingDetailRepository tourBookingDetailRepository;
+    private final BookingTravelerRepository bookingTravelerRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    /**
+     * Child rows of loaded bookings, looked up by booking ID
+     */
+    public static class BookingRows {
+        private final Map<UUID, TourBookingDetail> details;
+        private final Map<UUID, List<BookingTraveler>> travelers;
+        private final Map<UUID, Invoice> invoices;
+
+        private BookingRows(Map<UUID, TourBookingDetail> details, Map<UUID, List<BookingTraveler>> travelers,
+                Map<UUID, Invoice> invoices) {
+            this.details = details;
+            this.travelers = travelers;
+            this.invoices = invoices;
+        }
+
+        public TourBookingDetail detail(UUID bookingId) {
+            return details.get(bookingId);
+        }
+
+        public List<BookingTraveler> travelers(UUID bookingId) {
+            return travelers.getOrDefault(bookingId, List.of());
+        }
+
+        public Invoice invoice(UUID bookingId) {
+            return invoices.get(bookingId);
+        }
+    }
+
+    /**
+     * Load details, travelers and invoices of the given bookings
+     */
+    public BookingRows load(Collection<TourBooking> bookings) {
+        List<UUID> bookingIds = idsOf(bookings);
+        if (bookingIds.isEmpty()) {
+            return new BookingRows(Map.of(), Map.of(), Map.of());
+        }
+        Map<UUID, TourBookingDetail> details = tourBookingDetailRepository.findByBookingIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(detail -> detail.getTourBooking().getId(), detail -> detail,
+                        (first, second) -> first));
+        Map<UUID, List<BookingTraveler>> travelers = bookingTravelerRepository.findByBookingIdIn(bookingIds).stream()
+                .collect(Collectors.groupingBy(traveler -> traveler.getTourBooking().getId()));
+        Map<UUID, Invoice> invoices = invoiceRepository.findByBookingIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(invoice -> invoice.getTourBooking().getId(), invoice -> invoice,
+                        (first, second) -> first));
+        return new BookingRows(details, travelers, invoices);
+    }
+
+    private static List<UUID> idsOf(Collection<TourBooking> bookings) {
+        return bookings.stream().map(TourBooking::getId).distinct().toList();
+    }
+}
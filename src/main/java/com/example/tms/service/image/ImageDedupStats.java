@@ -0,0 +1,17 @@
+package com.example.tms.service.image;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Upload deduplication counters since startup
+ */
+@Getter
+@Builder
+public class ImageDedupStats {
+    private long lookups;
+    private long hits;
+    private double hitRatio;
+    // Full-size bytes that were not uploaded again
+    private long bytesSkipped;
+}
@@ -0,0 +1,121 @@
+package com.example.tms.service.image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.tms.entity.ImageAsset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds processed uploads that are already stored, so the same file given to several routes or
+ * attractions is resized and uploaded once.
+ *
+ * The fingerprint is SHA-256 over the uploaded bytes and the settings that shape the output
+ * (max width, JPEG quality, upload format, size ladder); changing a setting makes earlier uploads
+ * miss instead of serving images processed the old way. Hashing the source rather than the
+ * processed image is what lets a hit skip decoding. Byte-identical files match; a re-exported
+ * copy of the same photo does not.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageDeduplicator {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ImageManifest imageManifest;
+
+    @Value("${app.image.dedup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.image.max-width:1200}")
+    private int maxWidth;
+
+    @Value("${app.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${app.image.upload-format:jpg}")
+    private String uploadFormat;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSkipped = new LongAdder();
+
+    /**
+     * Hex SHA-256 fingerprint of an upload under the current processing settings
+     */
+    public String fingerprint(InputStreamSource image) {
+        try (InputStream input = image.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[BUFFER_SIZE];
+            for (int read; (read = input.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder settings = new StringBuilder()
+                    .append('|').append(maxWidth)
+                    .append('|').append(jpegQuality)
+                    .append('|').append(uploadFormat);
+            for (ImageVariant variant : ImageVariant.values()) {
+                settings.append('|').append(variant.key()).append(variant.width());
+            }
+            digest.update(settings.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read image: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The stored image with this fingerprint, null if there is none or deduplication is off
+     */
+    public ImageAsset find(String contentHash) {
+        if (!enabled) {
+            return null;
+        }
+        lookups.increment();
+        ImageAsset stored = imageManifest.byContent(contentHash);
+        if (stored != null) {
+            hits.increment();
+            if (stored.getBytes() != null) {
+                bytesSkipped.add(stored.getBytes());
+            }
+        }
+        return stored;
+    }
+
+    public ImageDedupStats stats() {
+        long lookupCount = lookups.sum();
+        long hitCount = hits.sum();
+        return ImageDedupStats.builder()
+                .lookups(lookupCount)
+                .hits(hitCount)
+                .hitRatio(lookupCount > 0 ? (double) hitCount / lookupCount : 0)
+                .bytesSkipped(bytesSkipped.sum())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.image.dedup.metrics-log-ms:300000}",
+            initialDelayString = "${app.image.dedup.metrics-log-ms:300000}")
+    public void logStats() {
+        ImageDedupStats stats = stats();
+        if (stats.getLookups() > 0) {
+            log.info("Image dedup: {} of {} upload(s) reused a stored image ({}%), {} KB not uploaded",
+                    stats.getHits(), stats.getLookups(), Math.round(stats.getHitRatio() * 100),
+                    stats.getBytesSkipped() / 1024);
+        }
+    }
+}
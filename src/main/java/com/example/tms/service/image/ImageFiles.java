@@ -0,0 +1,33 @@
+package com.example.tms.service.image;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Checks shared by the synchronous and queued image uploads
+ */
+public final class ImageFiles {
+
+    // Max 10MB, same as spring.servlet.multipart.max-file-size
+    private static final long MAX_SIZE = 10 * 1024 * 1024;
+
+    private ImageFiles() {
+    }
+
+    /**
+     * Validate uploaded file
+     */
+    public static void validate(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("File cannot be empty");
+        }
+
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("File must be an image");
+        }
+
+        if (file.getSize() > MAX_SIZE) {
+            throw new IllegalArgumentException("File size must not exceed 10MB");
+        }
+    }
+}
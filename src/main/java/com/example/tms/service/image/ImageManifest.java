@@ -0,0 +1,461 @@
+package com.example.tms.service.image;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.example.tms.entity.ImageAsset;
+import com.example.tms.entity.ImageAsset.OwnerType;
+import com.example.tms.entity.ImageContent;
+import com.example.tms.repository.ImageAssetRepository;
+import com.example.tms.repository.ImageContentRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Which images exist on Cloudinary, answered from memory.
+ *
+ * Uploads and deletes record their result in image_asset (an upsert on the slot's unique key,
+ * so concurrent uploads to one slot do not collide) and, once that has committed, in the
+ * in-memory copy, which is loaded at startup and reloaded periodically to pick up writes made by
+ * other nodes. Reads never call Cloudinary.
+ *
+ * Images uploaded with derivatives can be looked up by their full-size URL to get a srcset,
+ * e.g. {"320w": thumb, "640w": card, "1200w": full}, so clients fetch the smallest that fits.
+ *
+ * Processed uploads also record the fingerprint of their source, so an upload of a file that is
+ * already stored can reuse it ({@link #byContent}, {@link #copied}). Such slots share a public ID
+ * whose references are counted in image_content; a write reports an image no slot shows any
+ * more ({@link SlotChange}) so the caller deletes it once the write has committed.
+ *
+ * A deployment whose images predate the table can fill it once from the Cloudinary folder
+ * listing (app.image.manifest.backfill), a few Admin API calls per 500 images.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ImageManifest {
+
+    // {user|route|attraction}_{uuid}[_{main|index}], the public IDs written by CloudinaryServiceImpl
+    private static final Pattern PUBLIC_ID = Pattern.compile(
+            "(user|route|attraction)_([0-9a-fA-F-]{36})(?:_(main|\\d+))?");
+
+    private static final int WRITE_ATTEMPTS = 3;
+
+    private final ImageAssetRepository imageAssetRepository;
+    private final ImageContentRepository imageContentRepository;
+    private final Cloudinary cloudinary;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.image.manifest.backfill:false}")
+    private boolean backfill;
+
+    @Value("${app.image.manifest.backfill-prefix:tms/}")
+    private String backfillPrefix;
+
+    // Owner -> image index -> image
+    private volatile Map<Owner, NavigableMap<Integer, Slot>> images = new ConcurrentHashMap<>();
+    // Full-size URL -> width descriptor -> URL
+    private volatile Map<String, Map<String, String>> srcsets = new ConcurrentHashMap<>();
+    private TransactionTemplate writeTemplate;
+    private TransactionTemplate loadTemplate;
+
+    @PostConstruct
+    public void init() {
+        writeTemplate = new TransactionTemplate(transactionManager);
+        loadTemplate = new TransactionTemplate(transactionManager);
+        loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (backfill && imageAssetRepository.count() == 0) {
+            try {
+                backfillFromCloudinary();
+            } catch (Exception e) {
+                log.error("Image manifest backfill failed; image lookups only see new uploads", e);
+            }
+        }
+        reload();
+    }
+
+    /**
+     * Reload the in-memory copy from image_asset
+     */
+    @Scheduled(fixedDelayString = "${app.image.manifest.refresh-ms:600000}",
+            initialDelayString = "${app.image.manifest.refresh-ms:600000}")
+    public void reload() {
+        List<ImageAsset> assets = loadTemplate.execute(status -> imageAssetRepository.findAll());
+        Map<Owner, NavigableMap<Integer, Slot>> loaded = new ConcurrentHashMap<>();
+        Map<String, Map<String, String>> loadedSrcsets = new ConcurrentHashMap<>();
+        for (ImageAsset asset : assets) {
+            Slot slot = new Slot(asset.getSecureUrl(), srcset(asset));
+            loaded.computeIfAbsent(new Owner(asset.getOwnerType(), asset.getOwnerId()), owner -> new ConcurrentSkipListMap<>())
+                    .put(asset.getImageIndex(), slot);
+            loadedSrcsets.put(slot.url, slot.srcset);
+        }
+        images = loaded;
+        srcsets = loadedSrcsets;
+        log.info("Image manifest loaded: {} owner(s)", loaded.size());
+    }
+
+    /**
+     * URL of the image in a slot, null if there is none
+     */
+    public String url(OwnerType ownerType, UUID ownerId, int index) {
+        NavigableMap<Integer, Slot> owned = images.get(new Owner(ownerType, ownerId));
+        Slot slot = owned != null ? owned.get(index) : null;
+        return slot != null ? slot.url : null;
+    }
+
+    /**
+     * URLs of the gallery images (index 1 to maxIndex) of an owner, by index
+     */
+    public List<String> gallery(OwnerType ownerType, UUID ownerId, int maxIndex) {
+        NavigableMap<Integer, Slot> owned = images.get(new Owner(ownerType, ownerId));
+        List<String> urls = new ArrayList<>();
+        if (owned != null) {
+            owned.subMap(1, true, maxIndex, true).values().forEach(slot -> urls.add(slot.url));
+        }
+        return urls;
+    }
+
+    /**
+     * Sizes available for an image, by width descriptor ("320w") from smallest to largest;
+     * null for URLs not in the manifest
+     *
+     * @param url full-size URL as returned by {@link #url} or stored on a route
+     */
+    public Map<String, String> srcset(String url) {
+        return url != null ? srcsets.get(url) : null;
+    }
+
+    /**
+     * A slot showing a stored image whose source had this fingerprint, null if there is none.
+     * Read from image_asset, so deletes made on other nodes are seen; {@link #copied} still
+     * confirms under a lock that the image is stored before a slot is given it.
+     */
+    public ImageAsset byContent(String contentHash) {
+        return contentHash != null
+                ? loadTemplate.execute(status -> imageAssetRepository.findFirstByContentHash(contentHash).orElse(null))
+                : null;
+    }
+
+    /**
+     * An image was uploaded to a slot (replacing any previous one)
+     *
+     * @param uploadResult the response of the Cloudinary upload
+     */
+    public void uploaded(OwnerType ownerType, UUID ownerId, int index, Map<?, ?> uploadResult) {
+        uploaded(ownerType, ownerId, index, uploadResult, Map.of(), null);
+    }
+
+    /**
+     * An image was uploaded to a slot together with smaller derivatives
+     *
+     * @param uploadResult the response of the Cloudinary upload of the full-size image
+     * @param derivativeUrls secure URLs of the THUMB and CARD uploads that succeeded
+     */
+    public void uploaded(OwnerType ownerType, UUID ownerId, int index, Map<?, ?> uploadResult,
+            Map<ImageVariant, String> derivativeUrls) {
+        uploaded(ownerType, ownerId, index, uploadResult, derivativeUrls, null);
+    }
+
+    /**
+     * An image was uploaded to a slot together with smaller derivatives
+     *
+     * @param uploadResult the response of the Cloudinary upload of the full-size image, under a
+     *                     public ID no other upload uses
+     * @param derivativeUrls secure URLs of the THUMB and CARD uploads that succeeded
+     * @param contentHash fingerprint of the source, null if it should not be reused
+     */
+    public SlotChange uploaded(OwnerType ownerType, UUID ownerId, int index, Map<?, ?> uploadResult,
+            Map<ImageVariant, String> derivativeUrls, String contentHash) {
+        return store(ownerType, ownerId, index, false, asset -> {
+            fill(asset, uploadResult);
+            asset.setThumbUrl(derivativeUrls.get(ImageVariant.THUMB));
+            asset.setCardUrl(derivativeUrls.get(ImageVariant.CARD));
+            asset.setContentHash(contentHash);
+        });
+    }
+
+    /**
+     * A slot was given an image that is already stored, without uploading it again.
+     * Nothing changes if the image was deleted in the meantime; the caller uploads it instead.
+     *
+     * @param source the stored image, as returned by {@link #byContent}
+     */
+    public SlotChange copied(OwnerType ownerType, UUID ownerId, int index, ImageAsset source) {
+        return store(ownerType, ownerId, index, true, asset -> {
+            asset.setPublicId(source.getPublicId());
+            asset.setSecureUrl(source.getSecureUrl());
+            asset.setThumbUrl(source.getThumbUrl());
+            asset.setCardUrl(source.getCardUrl());
+            asset.setWidth(source.getWidth());
+            asset.setHeight(source.getHeight());
+            asset.setBytes(source.getBytes());
+            asset.setContentHash(source.getContentHash());
+            asset.setUploadedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * The image in a slot was deleted
+     *
+     * @return changed if the manifest had a row for the slot
+     */
+    public SlotChange deleted(OwnerType ownerType, UUID ownerId, int index) {
+        return write(status -> {
+            ImageAsset existing = imageAssetRepository.findSlotForUpdate(ownerType, ownerId, index)
+                    .map(ImageManifest::copy)
+                    .orElse(null);
+            if (existing == null) {
+                return new SlotChange(false, null);
+            }
+            imageAssetRepository.deleteSlot(ownerType, ownerId, index);
+            boolean orphaned = release(existing.getPublicId());
+            afterCommit(() -> {
+                NavigableMap<Integer, Slot> owned = images.get(new Owner(ownerType, ownerId));
+                if (owned != null) {
+                    owned.remove(index);
+                }
+                if (orphaned) {
+                    srcsets.remove(existing.getSecureUrl());
+                }
+            });
+            return new SlotChange(true, orphaned ? existing.getPublicId() : null);
+        });
+    }
+
+    /**
+     * Outcome of writing a slot
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SlotChange {
+        // False if the slot was left as it was
+        private final boolean changed;
+        // Public ID of the image the slot showed before if no slot shows it any more; delete it after commit
+        private final String orphanedPublicId;
+    }
+
+    // Locks the slot row, writes it, then takes and gives back image references in public ID order,
+    // so writers of one slot queue up and a reuse cannot slip in between a release and its delete
+    private SlotChange store(OwnerType ownerType, UUID ownerId, int index, boolean reuse, Consumer<ImageAsset> update) {
+        ImageAsset asset = new ImageAsset();
+        asset.setOwnerType(ownerType);
+        asset.setOwnerId(ownerId);
+        asset.setImageIndex(index);
+        update.accept(asset);
+        return write(status -> {
+            ImageAsset previous = imageAssetRepository.findSlotForUpdate(ownerType, ownerId, index)
+                    .map(ImageManifest::copy)
+                    .orElse(null);
+            String released = previous != null && !previous.getPublicId().equals(asset.getPublicId())
+                    ? previous.getPublicId() : null;
+            boolean claim = reuse && (previous == null || released != null);
+            imageAssetRepository.upsertSlot(UUID.randomUUID(), asset);
+
+            boolean orphaned = false;
+
+            if (claim && released != null && released.compareTo(asset.getPublicId()) < 0) {
+                orphaned = release(released);
+                released = null;
+            }
+            if (claim && imageContentRepository.claim(asset.getPublicId()) == 0) {
+                status.setRollbackOnly();
+                return new SlotChange(false, null);
+            }
+            if (!reuse && asset.getContentHash() != null) {
+                ImageContent content = new ImageContent();
+                content.setPublicId(asset.getPublicId());
+                content.setRefCount(1);
+                imageContentRepository.save(content);
+            }
+            if (released != null) {
+                orphaned = release(released);
+            }
+
+            boolean forgotten = orphaned;
+            afterCommit(() -> {
+                Slot slot = new Slot(asset.getSecureUrl(), srcset(asset));
+                images.computeIfAbsent(new Owner(ownerType, ownerId), owner -> new ConcurrentSkipListMap<>()).put(index, slot);
+                srcsets.put(slot.url, slot.srcset);
+                if (forgotten) {
+                    srcsets.remove(previous.getSecureUrl());
+                }
+            });
+            return new SlotChange(true, orphaned ? previous.getPublicId() : null);
+        });
+    }
+
+    // Give back a slot's reference to an image; true if no slot shows it any more
+    private boolean release(String publicId) {
+        if (imageContentRepository.release(publicId) == 0) {
+            // Stored before deduplication, so never reused: only this slot could show it
+            return !imageAssetRepository.existsByPublicId(publicId);
+        }
+        return imageContentRepository.deleteUnreferenced(publicId) == 1;
+    }
+
+    // Two first uploads to an empty slot can deadlock on the slot's gap lock; the loser retries
+    private SlotChange write(Function<TransactionStatus, SlotChange> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return writeTemplate.execute(change::apply);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Image manifest write lost a lock race, retrying: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Memory only reflects committed rows; runs at once outside a transaction
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void backfillFromCloudinary() throws Exception {
+        int recorded = 0;
+        String cursor = null;
+        do {
+            Map<String, Object> options = ObjectUtils.asMap(
+                    "type", "upload",
+                    "prefix", backfillPrefix,
+                    "max_results", 500);
+            if (cursor != null) {
+                options.put("next_cursor", cursor);
+            }
+            Map<?, ?> page = cloudinary.api().resources(options);
+            List<ImageAsset> assets = new ArrayList<>();
+            for (Object item : (List<?>) page.get("resources")) {
+                ImageAsset asset = fromPublicId((Map<?, ?>) item);
+                if (asset != null) {
+                    assets.add(asset);
+                }
+            }
+            writeTemplate.executeWithoutResult(status -> imageAssetRepository.saveAll(assets));
+            recorded += assets.size();
+            cursor = (String) page.get("next_cursor");
+        } while (cursor != null);
+        log.info("Image manifest backfilled with {} image(s) from Cloudinary", recorded);
+    }
+
+    // Null for resources not named by CloudinaryServiceImpl
+    private static ImageAsset fromPublicId(Map<?, ?> resource) {
+        String publicId = resource.get("public_id").toString();
+        Matcher matcher = PUBLIC_ID.matcher(publicId.substring(publicId.lastIndexOf('/') + 1));
+        if (!matcher.matches()) {
+            return null;
+        }
+        ImageAsset asset = new ImageAsset();
+        asset.setOwnerType(OwnerType.valueOf(matcher.group(1).toUpperCase()));
+        asset.setOwnerId(UUID.fromString(matcher.group(2)));
+        String slot = matcher.group(3);
+        asset.setImageIndex(slot == null || slot.equals("main") ? ImageAsset.MAIN_INDEX : Integer.parseInt(slot));
+        fill(asset, resource);
+        return asset;
+    }
+
+    private static void fill(ImageAsset asset, Map<?, ?> resource) {
+        asset.setPublicId(resource.get("public_id").toString());
+        asset.setSecureUrl(resource.get("secure_url").toString());
+        asset.setWidth(resource.get("width") instanceof Number width ? width.intValue() : null);
+        asset.setHeight(resource.get("height") instanceof Number height ? height.intValue() : null);
+        asset.setBytes(resource.get("bytes") instanceof Number bytes ? bytes.longValue() : null);
+        asset.setUploadedAt(LocalDateTime.now());
+    }
+
+    private static ImageAsset copy(ImageAsset asset) {
+        ImageAsset copy = new ImageAsset();
+        copy.setPublicId(asset.getPublicId());
+        copy.setSecureUrl(asset.getSecureUrl());
+        copy.setContentHash(asset.getContentHash());
+        return copy;
+    }
+
+    private static Map<String, String> srcset(ImageAsset asset) {
+        Map<String, String> srcset = new LinkedHashMap<>();
+        if (asset.getThumbUrl() != null) {
+            srcset.put(ImageVariant.THUMB.width() + "w", asset.getThumbUrl());
+        }
+        if (asset.getCardUrl() != null) {
+            srcset.put(ImageVariant.CARD.width() + "w", asset.getCardUrl());
+        }
+        srcset.put(asset.getWidth() != null ? asset.getWidth() + "w" : ImageVariant.FULL.key(), asset.getSecureUrl());
+        return Collections.unmodifiableMap(srcset);
+    }
+
+    private static final class Slot {
+        private final String url;
+        private final Map<String, String> srcset;
+
+        private Slot(String url, Map<String, String> srcset) {
+            this.url = url;
+            this.srcset = srcset;
+        }
+    }
+
+    private static final class Owner {
+        private final OwnerType type;
+        private final UUID id;
+
+        private Owner(OwnerType type, UUID id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Owner owner && owner.type == type && owner.id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, id);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.tms.service.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.imgscalr.Scalr;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Resizes uploaded photos to JPEG without holding the full-resolution image in memory.
+ *
+ * The source is decoded with ImageReader subsampling, skipping whole rows and columns so the
+ * decoded raster is at most twice the target width; a 4000 px phone photo bound for 1200 px is
+ * decoded at 1334 px, a ninth of the pixels. The remaining reduction is a smooth resize and the
+ * result is encoded with an explicit JPEG quality (app.image.jpeg-quality).
+ *
+ * Decoding is the expensive part in heap and CPU, so at most app.image.max-concurrent-decodes
+ * images are processed at once; further uploads wait for a slot.
+ *
+ * {@link #toDerivatives} decodes once and resizes and encodes every {@link ImageVariant} on a
+ * shared pool of app.image.workers threads.
+ */
+@Component
+@Slf4j
+public class ImageProcessor {
+
+    @Value("${app.image.max-width:1200}")
+    private int maxWidth;
+
+    @Value("${app.image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${app.image.max-concurrent-decodes:2}")
+    private int maxConcurrentDecodes;
+
+    @Value("${app.image.decode-wait-ms:30000}")
+    private long decodeWaitMs;
+
+    @Value("${app.image.workers:4}")
+    private int workerThreads;
+
+    private Semaphore decodes;
+    private ThreadPoolExecutor workers;
+
+    @PostConstruct
+    public void init() {
+        decodes = new Semaphore(maxConcurrentDecodes, true);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // When the queue is full the uploading thread encodes its own derivatives
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(workerThreads * ImageVariant.values().length), runnable -> {
+                    Thread thread = new Thread(runnable, "image-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Decode an image, shrink it to the configured width if wider, and encode it as JPEG
+     *
+     * @param source image bytes in any format ImageIO reads; closed by the caller
+     * @return JPEG bytes
+     */
+    public byte[] toJpeg(InputStream source) throws IOException {
+        return toJpeg(source, maxWidth);
+    }
+
+    /**
+     * Same as {@link #toJpeg(InputStream)} with an explicit target width
+     */
+    public byte[] toJpeg(InputStream source, int targetWidth) throws IOException {
+        acquireDecodeSlot();
+        try {
+            BufferedImage image = decode(source, targetWidth);
+            if (image.getWidth() > targetWidth) {
+                image = resize(image, targetWidth);
+            }
+            return encodeJpeg(opaque(image), jpegQuality);
+        } finally {
+            decodes.release();
+        }
+    }
+
+    /**
+     * Decode an image once and produce every size of the ladder as JPEG: FULL limited to the
+     * configured width, and each smaller variant narrower than FULL
+     *
+     * @param source image bytes in any format ImageIO reads; closed by the caller
+     * @return JPEG bytes by variant, always including FULL
+     */
+    public Map<ImageVariant, byte[]> toDerivatives(InputStream source) throws IOException {
+        acquireDecodeSlot();
+        try {
+            BufferedImage decoded = decode(source, maxWidth);
+            BufferedImage full = opaque(decoded.getWidth() > maxWidth ? resize(decoded, maxWidth) : decoded);
+
+            Map<ImageVariant, Future<byte[]>> encodings = new EnumMap<>(ImageVariant.class);
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (variant == ImageVariant.FULL) {
+                    encodings.put(variant, workers.submit(() -> encodeJpeg(full, jpegQuality)));
+                } else if (variant.width() < full.getWidth()) {
+                    encodings.put(variant, workers.submit(() -> encodeJpeg(opaque(resize(full, variant.width())), jpegQuality)));
+                }
+            }
+
+            Map<ImageVariant, byte[]> derivatives = new EnumMap<>(ImageVariant.class);
+            for (Map.Entry<ImageVariant, Future<byte[]>> encoding : encodings.entrySet()) {
+                derivatives.put(encoding.getKey(), await(encoding.getValue()));
+            }
+            log.debug("Encoded {} derivative(s) of a {}x{} image", derivatives.size(), full.getWidth(), full.getHeight());
+            return derivatives;
+        } finally {
+            decodes.release();
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width) {
+        return Scalr.resize(image, Scalr.Method.QUALITY, Scalr.Mode.FIT_TO_WIDTH, width, Scalr.OP_ANTIALIAS);
+    }
+
+    private static byte[] await(Future<byte[]> encoding) throws IOException {
+        try {
+            return encoding.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException("Could not encode image", e.getCause());
+        } catch (InterruptedException e) {
+            encoding.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while encoding image", e);
+        }
+    }
+
+    private void acquireDecodeSlot() throws IOException {
+        try {
+            if (!decodes.tryAcquire(decodeWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many images are being processed, try again shortly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to process image", e);
+        }
+    }
+
+    // Reads the first image, skipping rows and columns the target width does not need
+    private static BufferedImage decode(InputStream source, int targetWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Could not read image file");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, width / targetWidth);
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                BufferedImage image = reader.read(0, param);
+                log.debug("Decoded {}x{} image at 1/{} -> {}x{}", width, reader.getHeight(0), subsampling,
+                        image.getWidth(), image.getHeight());
+                return image;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // The JPEG writer cannot encode an alpha channel; transparent areas become white
+    private static BufferedImage opaque(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.tms.service.image;
+
+/**
+ * Sizes produced for every processed upload. FULL is the upload itself, limited to
+ * app.image.max-width; the smaller sizes are only produced when narrower than FULL.
+ */
+public enum ImageVariant {
+    THUMB("thumb", 320),
+    CARD("card", 640),
+    FULL("full", 0);
+
+    private final String key;
+    private final int width;
+
+    ImageVariant(String key, int width) {
+        this.key = key;
+        this.width = width;
+    }
+
+    /**
+     * Suffix of the derivative's public ID
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Target width in pixels, 0 for FULL
+     */
+    public int width() {
+        return width;
+    }
+}
@@ -2,7 +2,9 @@ package com.example.tms.service.impl;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -22,6 +24,13 @@ import com.example.tms.entity.Category;
 import com.example.tms.repository.AttractionRepository;
 import com.example.tms.repository.CategoryRepository;
 import com.example.tms.service.interface_.AttractionService;
+import com.example.tms.service.ranking.HomeRankingCache;
+import com.example.tms.service.search.RouteFacetIndex;
+import com.example.tms.service.search.TourSearchIndex;
+import com.example.tms.service.search.TourSuggestionIndex;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import lombok.RequiredArgsConstructor;
 
@@ -31,6 +40,13 @@ public class AttractionServiceImpl implements AttractionService {
 
     private final AttractionRepository attractionRepository;
     private final CategoryRepository categoryRepository;
+    private final HomeRankingCache homeRankingCache;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourSuggestionIndex tourSuggestionIndex;
+    private final RouteFacetIndex routeFacetIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
@@ -48,6 +64,10 @@ public class AttractionServiceImpl implements AttractionService {
         }
 
         Attraction saved = attractionRepository.save(attraction);
+        homeRankingCache.attractionSaved(saved);
+        tourSearchIndex.attractionSaved(saved);
+        routeFacetIndex.attractionSaved(saved);
+        tourSuggestionIndex.catalogueChanged();
         return new AttractionResponse(saved);
     }
 
@@ -81,11 +101,13 @@ public class AttractionServiceImpl implements AttractionService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<AttractionResponse> getAllNoPagination() {
-        return attractionRepository.findAll().stream()
-                .filter(a -> a.getDeletedAt() == 0)
-                .map(AttractionResponse::new)
-                .collect(Collectors.toList());
+    public void streamAll(Consumer<AttractionResponse> consumer) {
+        try (Stream<Attraction> attractions = attractionRepository.streamAllActive()) {
+            attractions.forEach(a -> {
+                consumer.accept(new AttractionResponse(a));
+                entityManager.detach(a);
+            });
+        }
     }
 
     @Override
@@ -114,6 +136,10 @@ public class AttractionServiceImpl implements AttractionService {
         }
 
         Attraction updated = attractionRepository.save(attraction);
+        homeRankingCache.attractionSaved(updated);
+        tourSearchIndex.attractionSaved(updated);
+        routeFacetIndex.attractionSaved(updated);
+        tourSuggestionIndex.catalogueChanged();
         return new AttractionResponse(updated);
     }
 
@@ -125,6 +151,10 @@ public class AttractionServiceImpl implements AttractionService {
                 .orElseThrow(() -> new RuntimeException("Attraction not found"));
         attraction.markAsDeleted();
         attractionRepository.save(attraction);
+        homeRankingCache.attractionSaved(attraction);
+        tourSearchIndex.attractionSaved(attraction);
+        routeFacetIndex.attractionSaved(attraction);
+        tourSuggestionIndex.catalogueChanged();
     }
 
     private Specification<Attraction> buildSpecification(AttractionFilterRequest filter) {
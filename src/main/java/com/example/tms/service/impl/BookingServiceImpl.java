@@ -5,8 +5,13 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -39,6 +44,7 @@ import com.example.tms.entity.TourBooking;
 import com.example.tms.entity.TourBookingDetail;
 import com.example.tms.entity.Trip;
 import com.example.tms.entity.User;
+import com.example.tms.exception.BadRequestException;
 import com.example.tms.repository.BookingTravelerRepository;
 import com.example.tms.repository.CartItemRepository;
 import com.example.tms.repository.CartRepository;
@@ -47,10 +53,15 @@ import com.example.tms.repository.TourBookingDetailRepository;
 import com.example.tms.repository.TourBookingRepository;
 import com.example.tms.repository.TripRepository;
 import com.example.tms.repository.UserRepository;
+import com.example.tms.service.booking.BookingBatchLoader;
 import com.example.tms.service.interface_.BookingService;
+import com.example.tms.service.interface_.SeatHoldService;
+import com.example.tms.service.interface_.SeatReservationService;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -67,6 +78,9 @@ public class BookingServiceImpl implements BookingService {
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final UserRepository userRepository;
+    private final SeatReservationService seatReservationService;
+    private final SeatHoldService seatHoldService;
+    private final BookingBatchLoader bookingBatchLoader;
     
     // Minimum days before departure to book
     private static final int MIN_DAYS_TO_BOOK = 2;
@@ -87,8 +101,8 @@ public class BookingServiceImpl implements BookingService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        // Get trip with lock to prevent race condition
-        Trip trip = tripRepository.findByIdWithLock(request.getTripId())
+        // Get trip (seats are reserved atomically below, no row lock needed here)
+        Trip trip = tripRepository.findActiveById(request.getTripId())
                 .orElseThrow(() -> new RuntimeException("Trip not found"));
         
         // Validate trip status
@@ -104,9 +118,9 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Number of traveler details must match total travelers count");
         }
         
-        // Check available seats
-        int availableSeats = trip.getTotalSeats() - trip.getBookedSeats();
-        if (availableSeats < totalTravelers) {
+        // Reserve seats (single conditional UPDATE, fails if not enough seats remain)
+        if (!seatReservationService.tryReserve(trip.getId(), totalTravelers)) {
+            int availableSeats = seatReservationService.getAvailableSeats(trip.getId());
             throw new RuntimeException("Not enough seats available. Only " + availableSeats + " seats remaining");
         }
         
@@ -120,6 +134,7 @@ public class BookingServiceImpl implements BookingService {
         booking.setSeatsBooked(totalTravelers);
         booking.setTotalPrice(totalPrice);
         booking.setStatus(TourBooking.Status.PENDING);
+        seatHoldService.startHold(booking);
         booking = tourBookingRepository.save(booking);
         
         // Create booking detail
@@ -129,20 +144,8 @@ public class BookingServiceImpl implements BookingService {
         detail.setNoChildren(request.getNoChildren());
         tourBookingDetailRepository.save(detail);
         
-        // Create travelers
-        for (TravelerRequest travelerReq : request.getTravelers()) {
-            BookingTraveler traveler = new BookingTraveler();
-            traveler.setTourBooking(booking);
-            traveler.setFullName(travelerReq.getFullName());
-            traveler.setGender(BookingTraveler.Gender.valueOf(travelerReq.getGender()));
-            traveler.setDateOfBirth(travelerReq.getDateOfBirth());
-            traveler.setIdentityDoc(travelerReq.getIdentityDoc());
-            bookingTravelerRepository.save(traveler);
-        }
-        
-        // Update trip booked seats
-        trip.setBookedSeats(trip.getBookedSeats() + totalTravelers);
-        tripRepository.save(trip);
+        // Create travelers (inserted as one JDBC batch on flush)
+        bookingTravelerRepository.saveAll(toTravelers(booking, request.getTravelers()));
         
         // Create invoice
         Invoice invoice = new Invoice();
@@ -174,14 +177,32 @@ public class BookingServiceImpl implements BookingService {
         List<UUID> bookingIds = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         
+        // Collect every row first and persist them per table at the end, so nothing is flushed
+        // between items and each table is written with one JDBC batch regardless of traveler count
+        List<TourBooking> bookings = new ArrayList<>();
+        List<TourBookingDetail> details = new ArrayList<>();
+        List<BookingTraveler> travelers = new ArrayList<>();
+        List<Invoice> invoices = new ArrayList<>();
+        
+        // Resolve every cart item and trip before touching any seats
+        Map<UUID, CartItem> cartItems = cartItemRepository.findByIdsAndCartIdWithTrip(
+                        request.getItems().stream().map(CartItemBookingRequest::getCartItemId).toList(), cart.getId())
+                .stream()
+                .collect(Collectors.toMap(CartItem::getId, Function.identity()));
+        Map<UUID, Trip> tripsById = new HashMap<>();
+        // Sorted by trip ID so concurrent checkouts of overlapping carts always lock trips in the same order
+        SortedMap<UUID, Integer> seatsByTrip = new TreeMap<>();
+        
         for (CartItemBookingRequest itemRequest : request.getItems()) {
-            // Get cart item
-            CartItem cartItem = cartItemRepository.findByIdAndCartId(itemRequest.getCartItemId(), cart.getId())
-                    .orElseThrow(() -> new RuntimeException("Cart item not found: " + itemRequest.getCartItemId()));
+            CartItem cartItem = cartItems.get(itemRequest.getCartItemId());
+            if (cartItem == null) {
+                throw new RuntimeException("Cart item not found: " + itemRequest.getCartItemId());
+            }
             
-            // Get trip with lock
-            Trip trip = tripRepository.findByIdWithLock(cartItem.getTrip().getId())
-                    .orElseThrow(() -> new RuntimeException("Trip not found"));
+            Trip trip = cartItem.getTrip();
+            if (trip.isDeleted()) {
+                throw new RuntimeException("Trip not found");
+            }
             
             // Validate trip
             validateTripForBooking(trip);
@@ -196,11 +217,22 @@ public class BookingServiceImpl implements BookingService {
                 throw new RuntimeException("Number of traveler details must match total travelers count for cart item: " + itemRequest.getCartItemId());
             }
             
-            // Check available seats
-            int availableSeats = trip.getTotalSeats() - trip.getBookedSeats();
-            if (availableSeats < totalTravelers) {
-                throw new RuntimeException("Not enough seats for trip: " + trip.getRoute().getRouteName() + ". Only " + availableSeats + " seats remaining");
+            tripsById.put(trip.getId(), trip);
+            seatsByTrip.merge(trip.getId(), totalTravelers, Integer::sum);
+        }
+        
+        // Reserve seats for all trips in canonical order; a failure rolls back the earlier reservations
+        for (Map.Entry<UUID, Integer> entry : seatsByTrip.entrySet()) {
+            if (!seatReservationService.tryReserve(entry.getKey(), entry.getValue())) {
+                int availableSeats = seatReservationService.getAvailableSeats(entry.getKey());
+                throw new RuntimeException("Not enough seats for trip: " + tripsById.get(entry.getKey()).getRoute().getRouteName()
+                        + ". Only " + availableSeats + " seats remaining");
             }
+        }
+        
+        for (CartItemBookingRequest itemRequest : request.getItems()) {
+            Trip trip = cartItems.get(itemRequest.getCartItemId()).getTrip();
+            int totalTravelers = itemRequest.getNoAdults() + itemRequest.getNoChildren();
             
             // Calculate price
             BigDecimal bookingPrice = trip.getPrice().multiply(BigDecimal.valueOf(totalTravelers));
@@ -213,39 +245,33 @@ public class BookingServiceImpl implements BookingService {
             booking.setSeatsBooked(totalTravelers);
             booking.setTotalPrice(bookingPrice);
             booking.setStatus(TourBooking.Status.PENDING);
-            booking = tourBookingRepository.save(booking);
-            bookingIds.add(booking.getId());
+            seatHoldService.startHold(booking);
+            bookings.add(booking);
             
             // Create booking detail
             TourBookingDetail detail = new TourBookingDetail();
             detail.setTourBooking(booking);
             detail.setNoAdults(itemRequest.getNoAdults());
             detail.setNoChildren(itemRequest.getNoChildren());
-            tourBookingDetailRepository.save(detail);
+            details.add(detail);
             
             // Create travelers
-            for (TravelerRequest travelerReq : itemRequest.getTravelers()) {
-                BookingTraveler traveler = new BookingTraveler();
-                traveler.setTourBooking(booking);
-                traveler.setFullName(travelerReq.getFullName());
-                traveler.setGender(BookingTraveler.Gender.valueOf(travelerReq.getGender()));
-                traveler.setDateOfBirth(travelerReq.getDateOfBirth());
-                traveler.setIdentityDoc(travelerReq.getIdentityDoc());
-                bookingTravelerRepository.save(traveler);
-            }
-            
-            // Update trip booked seats
-            trip.setBookedSeats(trip.getBookedSeats() + totalTravelers);
-            tripRepository.save(trip);
+            travelers.addAll(toTravelers(booking, itemRequest.getTravelers()));
             
             // Create invoice
             Invoice invoice = new Invoice();
             invoice.setTourBooking(booking);
             invoice.setTotalAmount(bookingPrice);
             invoice.setPaymentStatus(Invoice.PaymentStatus.UNPAID);
-            invoiceRepository.save(invoice);
+            invoices.add(invoice);
         }
         
+        tourBookingRepository.saveAll(bookings);
+        tourBookingDetailRepository.saveAll(details);
+        bookingTravelerRepository.saveAll(travelers);
+        invoiceRepository.saveAll(invoices);
+        bookings.forEach(booking -> bookingIds.add(booking.getId()));
+        
         // Soft delete all cart items
         cartItemRepository.softDeleteByCartId(cart.getId(), System.currentTimeMillis());
         
@@ -276,9 +302,8 @@ public class BookingServiceImpl implements BookingService {
         // Build specification
         Specification<TourBooking> spec = buildBookingSpecification(userId, filter);
         
-        Page<TourBooking> bookings = tourBookingRepository.findAll(spec, pageable);
-        
-        return bookings.map(this::toBookingListResponse);
+        // Rows are selected straight into the response, no entities are loaded
+        return tourBookingRepository.findBookingListPage(spec, pageable);
     }
     
     @Override
@@ -334,6 +359,7 @@ public class BookingServiceImpl implements BookingService {
         
         // Update booking status to CONFIRMED
         booking.setStatus(TourBooking.Status.CONFIRMED);
+        seatHoldService.clearHold(booking);
         tourBookingRepository.save(booking);
         
         log.info("Payment successful for booking: {}", bookingId);
@@ -412,6 +438,7 @@ public class BookingServiceImpl implements BookingService {
         
         // Update booking status
         booking.setStatus(TourBooking.Status.CANCELED);
+        seatHoldService.clearHold(booking);
         tourBookingRepository.save(booking);
         
         // Update invoice if paid
@@ -422,8 +449,7 @@ public class BookingServiceImpl implements BookingService {
         }
         
         // Release seats
-        trip.setBookedSeats(trip.getBookedSeats() - booking.getSeatsBooked());
-        tripRepository.save(trip);
+        seatReservationService.release(trip.getId(), booking.getSeatsBooked());
         
         log.info("Booking {} canceled successfully", bookingId);
         
@@ -529,6 +555,7 @@ public class BookingServiceImpl implements BookingService {
     }
     
     private Specification<TourBooking> buildBookingSpecification(UUID userId, BookingFilterRequest filter) {
+        Invoice.PaymentStatus paymentStatus = parsePaymentStatus(filter.getPaymentStatus());
         return (root, query, cb) -> {
             var predicates = new ArrayList<jakarta.persistence.criteria.Predicate>();
             
@@ -562,51 +589,44 @@ public class BookingServiceImpl implements BookingService {
             }
             
             // Payment status filter
-            if (filter.getPaymentStatus() != null && !filter.getPaymentStatus().isEmpty()) {
-                // This requires a subquery or join to Invoice
-                // For simplicity, we'll skip this in the specification and filter in memory
-                // In production, use a proper subquery
+            if (paymentStatus != null) {
+                // EXISTS on the live invoice, so the page and its count are filtered by the database
+                Subquery<Integer> invoiceQuery = query.subquery(Integer.class);
+                Root<Invoice> invoice = invoiceQuery.from(Invoice.class);
+                invoiceQuery.select(cb.literal(1)).where(
+                        cb.equal(invoice.get("tourBooking"), root),
+                        cb.equal(invoice.get("paymentStatus"), paymentStatus),
+                        cb.equal(invoice.get("deletedAt"), 0L));
+                predicates.add(cb.exists(invoiceQuery));
             }
             
             return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
         };
     }
     
-    private BookingListResponse toBookingListResponse(TourBooking booking) {
-        Trip trip = booking.getTrip();
-        
-        // Get invoice for payment status
-        Invoice invoice = invoiceRepository.findByBookingId(booking.getId()).orElse(null);
-        
-        return BookingListResponse.builder()
-                .id(booking.getId())
-                .routeName(trip.getRoute().getRouteName())
-                .routeImage(trip.getRoute().getImage())
-                .departureDate(trip.getDepartureDate())
-                .returnDate(trip.getReturnDate())
-                .seatsBooked(booking.getSeatsBooked())
-                .totalPrice(booking.getTotalPrice())
-                .bookingStatus(booking.getStatus().name())
-                .paymentStatus(invoice != null ? invoice.getPaymentStatus().name() : null)
-                .createdAt(booking.getCreatedAt())
-                .build();
+    private Invoice.PaymentStatus parsePaymentStatus(String paymentStatus) {
+        if (paymentStatus == null || paymentStatus.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Invoice.PaymentStatus.valueOf(paymentStatus.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid payment status: " + paymentStatus);
+        }
     }
     
     private BookingDetailResponse toBookingDetailResponse(TourBooking booking) {
         Trip trip = booking.getTrip();
         
-        // Get booking detail
-        TourBookingDetail detail = tourBookingDetailRepository.findByBookingId(booking.getId())
-                .orElse(null);
-        
-        // Get travelers
-        List<BookingTraveler> travelers = bookingTravelerRepository.findByBookingId(booking.getId());
+        // Get booking detail, travelers and invoice
+        BookingBatchLoader.BookingRows rows = bookingBatchLoader.load(List.of(booking));
+        TourBookingDetail detail = rows.detail(booking.getId());
+        List<BookingTraveler> travelers = rows.travelers(booking.getId());
         List<TravelerResponse> travelerResponses = travelers.stream()
                 .map(this::toTravelerResponse)
                 .collect(Collectors.toList());
         
-        // Get invoice
-        Invoice invoice = invoiceRepository.findByBookingId(booking.getId()).orElse(null);
+        Invoice invoice = rows.invoice(booking.getId());
         InvoiceResponse invoiceResponse = invoice != null ? toInvoiceResponse(invoice) : null;
         
         // Calculate permissions
@@ -649,6 +669,20 @@ public class BookingServiceImpl implements BookingService {
                 .build();
     }
     
+    private List<BookingTraveler> toTravelers(TourBooking booking, List<TravelerRequest> travelerRequests) {
+        List<BookingTraveler> travelers = new ArrayList<>(travelerRequests.size());
+        for (TravelerRequest travelerReq : travelerRequests) {
+            BookingTraveler traveler = new BookingTraveler();
+            traveler.setTourBooking(booking);
+            traveler.setFullName(travelerReq.getFullName());
+            traveler.setGender(BookingTraveler.Gender.valueOf(travelerReq.getGender()));
+            traveler.setDateOfBirth(travelerReq.getDateOfBirth());
+            traveler.setIdentityDoc(travelerReq.getIdentityDoc());
+            travelers.add(traveler);
+        }
+        return travelers;
+    }
+    
     private TravelerResponse toTravelerResponse(BookingTraveler traveler) {
         return TravelerResponse.builder()
                 .id(traveler.getId())
@@ -43,16 +43,16 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional(readOnly = true)
-    public CartResponse getCart(String username) {
-        User user = getUserByUsername(username);
+    public CartResponse getCart(UUID userId) {
+        User user = getUser(userId);
         Cart cart = getOrCreateCart(user);
         return buildCartResponse(cart);
     }
 
     @Override
     @Transactional
-    public CartResponse addToCart(String username, AddToCartRequest request) {
-        User user = getUserByUsername(username);
+    public CartResponse addToCart(UUID userId, AddToCartRequest request) {
+        User user = getUser(userId);
         Cart cart = getOrCreateCart(user);
         
         Trip trip = tripRepository.findById(request.getTripId())
@@ -91,8 +91,8 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional
-    public CartResponse updateCartItem(String username, UUID cartItemId, UpdateCartItemRequest request) {
-        User user = getUserByUsername(username);
+    public CartResponse updateCartItem(UUID userId, UUID cartItemId, UpdateCartItemRequest request) {
+        User user = getUser(userId);
         Cart cart = getOrCreateCart(user);
         
         CartItem cartItem = cartItemRepository.findById(cartItemId)
@@ -117,8 +117,8 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional
-    public void removeFromCart(String username, UUID cartItemId) {
-        User user = getUserByUsername(username);
+    public void removeFromCart(UUID userId, UUID cartItemId) {
+        User user = getUser(userId);
         Cart cart = getOrCreateCart(user);
         
         CartItem cartItem = cartItemRepository.findById(cartItemId)
@@ -134,8 +134,8 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional
-    public void removeMultipleFromCart(String username, List<UUID> cartItemIds) {
-        User user = getUserByUsername(username);
+    public void removeMultipleFromCart(UUID userId, List<UUID> cartItemIds) {
+        User user = getUser(userId);
         Cart cart = getOrCreateCart(user);
         
         for (UUID cartItemId : cartItemIds) {
@@ -149,8 +149,8 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional
-    public void clearCart(String username) {
-        User user = getUserByUsername(username);
+    public void clearCart(UUID userId) {
+        User user = getUser(userId);
         Cart cart = getOrCreateCart(user);
         List<CartItem> currentItems = cartItemRepository.findByCartId(cart.getId());
         currentItems.forEach(item -> customerBookingService.deleteBookingByCartItem(item.getId()));
@@ -159,8 +159,8 @@ public class CartServiceImpl implements CartService {
 
     @Override
     @Transactional(readOnly = true)
-    public boolean hasTripInCart(String username, UUID tripId) {
-        User user = getUserByUsername(username);
+    public boolean hasTripInCart(UUID userId, UUID tripId) {
+        User user = getUser(userId);
         Cart cart = cartRepository.findByUserId(user.getId()).orElse(null);
         if (cart == null) {
             return false;
@@ -168,9 +168,9 @@ public class CartServiceImpl implements CartService {
         return cartItemRepository.findByCartIdAndTripId(cart.getId(), tripId).isPresent();
     }
 
-    private User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    // Reference only: the user id comes from the token, and carts just need the foreign key
+    private User getUser(UUID userId) {
+        return userRepository.getReferenceById(userId);
     }
 
     private Cart getOrCreateCart(User user) {
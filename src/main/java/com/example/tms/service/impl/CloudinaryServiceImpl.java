@@ -1,25 +1,40 @@
 package com.example.tms.service.impl;
 
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
-import javax.imageio.ImageIO;
-
-import org.imgscalr.Scalr;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import com.example.tms.entity.ImageAsset;
+import com.example.tms.entity.ImageAsset.OwnerType;
 import com.example.tms.entity.Route;
 import com.example.tms.repository.AttractionRepository;
 import com.example.tms.repository.RouteRepository;
+import com.example.tms.service.image.ImageDeduplicator;
+import com.example.tms.service.image.ImageFiles;
+import com.example.tms.service.image.ImageManifest;
+import com.example.tms.service.image.ImageProcessor;
+import com.example.tms.service.image.ImageVariant;
 import com.example.tms.service.interface_.CloudinaryService;
+import com.example.tms.service.ranking.HomeRankingCache;
+import com.example.tms.service.remote.RemoteCalls;
+import com.example.tms.service.remote.RemoteProvider;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+import com.example.tms.service.search.TourSearchIndex;
+import com.example.tms.service.search.TourSuggestionIndex;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,67 +47,74 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     private final Cloudinary cloudinary;
     private final RouteRepository routeRepository;
     private final AttractionRepository attractionRepository;
+    private final HomeRankingCache homeRankingCache;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourSuggestionIndex tourSuggestionIndex;
+    private final RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+    private final ImageManifest imageManifest;
+    private final RemoteCalls remoteCalls;
+    private final ImageProcessor imageProcessor;
+    private final ImageDeduplicator imageDeduplicator;
     private static final String USER_FOLDER = "tms/users"; // Folder for user images
     private static final String ROUTE_FOLDER = "tms/routes"; // Folder for route images
     private static final String ATTRACTION_FOLDER = "tms/attractions"; // Folder for attraction images
-    private static final int MAX_IMAGE_WIDTH = 1200; // Max width for resized image
-    private static final int JPEG_QUALITY = 85; // JPEG compression quality (0-100)
+    private static final int MAX_GALLERY_IMAGES = 10; // Gallery indexes returned by get*Images
+
+    @Value("${app.image.upload-format:jpg}")
+    private String uploadFormat; // Format Cloudinary stores processed images in (jpg or webp)
 
     @Override
     public String uploadUserAvatar(MultipartFile file, UUID userId) {
-        return uploadImage(file, "user_" + userId, USER_FOLDER);
+        Map uploadResult = uploadImage(file, "user_" + userId, USER_FOLDER);
+        return recordUpload(OwnerType.USER, userId, ImageAsset.MAIN_INDEX, uploadResult);
     }
 
     @Override
     public String uploadUserImage(MultipartFile file, UUID userId, int index) {
-        return uploadImage(file, "user_" + userId + "_" + index, USER_FOLDER);
+        Map uploadResult = uploadImage(file, "user_" + userId + "_" + index, USER_FOLDER);
+        return recordUpload(OwnerType.USER, userId, index, uploadResult);
     }
 
     @Override
     public void deleteUserAvatar(UUID userId) {
-        deleteImage("user_" + userId, USER_FOLDER);
+        deleteImage(USER_FOLDER + "/user_" + userId);
+        imageManifest.deleted(OwnerType.USER, userId, ImageAsset.MAIN_INDEX);
     }
 
     @Override
     public void deleteUserImage(UUID userId, int index) {
-        deleteImage("user_" + userId + "_" + index, USER_FOLDER);
+        deleteImage(USER_FOLDER + "/user_" + userId + "_" + index);
+        imageManifest.deleted(OwnerType.USER, userId, index);
     }
 
     @Override
     public String getUserAvatarUrl(UUID userId) {
-        try {
-            String publicId = USER_FOLDER + "/user_" + userId;
-            Map result = cloudinary.api().resource(publicId, ObjectUtils.emptyMap());
-            return result.get("secure_url").toString();
-        } catch (Exception e) {
-            log.warn("User avatar not found for userId: {}", userId);
-            return null;
-        }
+        return imageManifest.url(OwnerType.USER, userId, ImageAsset.MAIN_INDEX);
     }
 
     @Override
     public String getUserImageUrl(UUID userId, int index) {
-        try {
-            String publicId = USER_FOLDER + "/user_" + userId + "_" + index;
-            Map result = cloudinary.api().resource(publicId, ObjectUtils.emptyMap());
-            return result.get("secure_url").toString();
-        } catch (Exception e) {
-            log.warn("User image not found for userId: {} at index: {}", userId, index);
-            return null;
-        }
+        return imageManifest.url(OwnerType.USER, userId, index);
     }
     
     @Override
     public String uploadRouteMainImage(MultipartFile file, UUID routeId) {
-        // Resize and compress image before uploading
-        byte[] processedImageBytes = processImage(file);
-        String imageUrl = uploadProcessedImage(processedImageBytes, "route_" + routeId + "_main", ROUTE_FOLDER);
+        ImageFiles.validate(file);
+        return storeRouteMainImage(file, routeId);
+    }
+    
+    private String storeRouteMainImage(InputStreamSource image, UUID routeId) {
+        String imageUrl = storeProcessed(image, ROUTE_FOLDER, OwnerType.ROUTE, routeId, ImageAsset.MAIN_INDEX);
         
         // Update Route entity's image field
         Route route = routeRepository.findById(routeId)
                 .orElseThrow(() -> new RuntimeException("Route not found with ID: " + routeId));
         route.setImage(imageUrl);
         routeRepository.save(route);
+        homeRankingCache.routeSaved(route);
+        tourSearchIndex.routeSaved(route);
+        tourSuggestionIndex.catalogueChanged();
+        routeSearchSummaryUpdater.routeChanged(route.getId());
         
         log.info("Successfully updated Route image field for routeId: {}", routeId);
         return imageUrl;
@@ -100,47 +122,57 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     
     @Override
     public String uploadRouteImage(MultipartFile file, UUID routeId, int index) {
-        // Resize and compress image before uploading
-        byte[] processedImageBytes = processImage(file);
-        return uploadProcessedImage(processedImageBytes, "route_" + routeId + "_" + index, ROUTE_FOLDER);
+        ImageFiles.validate(file);
+        return storeRouteImage(file, routeId, index);
+    }
+    
+    private String storeRouteImage(InputStreamSource image, UUID routeId, int index) {
+        return storeProcessed(image, ROUTE_FOLDER, OwnerType.ROUTE, routeId, index);
     }
     
     @Override
     public void deleteRouteImage(UUID routeId, int index) {
-        deleteImage("route_" + routeId + "_" + index, ROUTE_FOLDER);
+        deleteStored(OwnerType.ROUTE, routeId, index, ROUTE_FOLDER + "/route_" + routeId + "_" + index);
     }
     
     @Override
     public String getRouteImageUrl(UUID routeId, int index) {
-        try {
-            String publicId = ROUTE_FOLDER + "/route_" + routeId + "_" + index;
-            Map result = cloudinary.api().resource(publicId, ObjectUtils.emptyMap());
-            return result.get("secure_url").toString();
-        } catch (Exception e) {
-            log.debug("Route image not found for routeId: {} at index: {}", routeId, index);
-            return null;
-        }
+        return imageManifest.url(OwnerType.ROUTE, routeId, index);
     }
     
     @Override
     public List<String> getRouteImages(UUID routeId) {
-        List<String> images = new ArrayList<>();
-        for (int i = 1; i <= 10; i++) {
-            String url = getRouteImageUrl(routeId, i);
-            if (url != null) {
-                images.add(url);
-            }
-        }
-        return images;
+        return imageManifest.gallery(OwnerType.ROUTE, routeId, MAX_GALLERY_IMAGES);
+    }
+    
+    @Override
+    public String uploadOwnerImage(InputStreamSource image, OwnerType ownerType, UUID ownerId, int index) {
+        return switch (ownerType) {
+            case ROUTE -> index == ImageAsset.MAIN_INDEX
+                    ? storeRouteMainImage(image, ownerId)
+                    : storeRouteImage(image, ownerId, index);
+            case ATTRACTION -> index == ImageAsset.MAIN_INDEX
+                    ? storeAttractionMainImage(image, ownerId)
+                    : storeAttractionImage(image, ownerId, index);
+            case USER -> throw new IllegalArgumentException("User images are not processed");
+        };
+    }
+    
+    @Override
+    public Map<String, String> getImageSrcset(String imageUrl) {
+        return imageManifest.srcset(imageUrl);
     }
     
     // ========== ATTRACTION IMAGE METHODS ==========
     
     @Override
     public String uploadAttractionMainImage(MultipartFile file, UUID attractionId) {
-        // Resize and compress image before uploading
-        byte[] processedImageBytes = processImage(file);
-        String imageUrl = uploadProcessedImage(processedImageBytes, "attraction_" + attractionId + "_main", ATTRACTION_FOLDER);
+        ImageFiles.validate(file);
+        return storeAttractionMainImage(file, attractionId);
+    }
+    
+    private String storeAttractionMainImage(InputStreamSource image, UUID attractionId) {
+        String imageUrl = storeProcessed(image, ATTRACTION_FOLDER, OwnerType.ATTRACTION, attractionId, ImageAsset.MAIN_INDEX);
         
         log.info("Successfully uploaded Attraction main image for attractionId: {}", attractionId);
         return imageUrl;
@@ -148,38 +180,27 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     
     @Override
     public String uploadAttractionImage(MultipartFile file, UUID attractionId, int index) {
-        // Resize and compress image before uploading
-        byte[] processedImageBytes = processImage(file);
-        return uploadProcessedImage(processedImageBytes, "attraction_" + attractionId + "_" + index, ATTRACTION_FOLDER);
+        ImageFiles.validate(file);
+        return storeAttractionImage(file, attractionId, index);
+    }
+    
+    private String storeAttractionImage(InputStreamSource image, UUID attractionId, int index) {
+        return storeProcessed(image, ATTRACTION_FOLDER, OwnerType.ATTRACTION, attractionId, index);
     }
     
     @Override
     public void deleteAttractionImage(UUID attractionId, int index) {
-        deleteImage("attraction_" + attractionId + "_" + index, ATTRACTION_FOLDER);
+        deleteStored(OwnerType.ATTRACTION, attractionId, index, ATTRACTION_FOLDER + "/attraction_" + attractionId + "_" + index);
     }
     
     @Override
     public String getAttractionImageUrl(UUID attractionId, int index) {
-        try {
-            String publicId = ATTRACTION_FOLDER + "/attraction_" + attractionId + "_" + index;
-            Map result = cloudinary.api().resource(publicId, ObjectUtils.emptyMap());
-            return result.get("secure_url").toString();
-        } catch (Exception e) {
-            log.debug("Attraction image not found for attractionId: {} at index: {}", attractionId, index);
-            return null;
-        }
+        return imageManifest.url(OwnerType.ATTRACTION, attractionId, index);
     }
     
     @Override
     public List<String> getAttractionImages(UUID attractionId) {
-        List<String> images = new ArrayList<>();
-        for (int i = 1; i <= 10; i++) {
-            String url = getAttractionImageUrl(attractionId, i);
-            if (url != null) {
-                images.add(url);
-            }
-        }
-        return images;
+        return imageManifest.gallery(OwnerType.ATTRACTION, attractionId, MAX_GALLERY_IMAGES);
     }
 
     /**
@@ -187,10 +208,10 @@ public class CloudinaryServiceImpl implements CloudinaryService {
      * @param file Image file
      * @param publicId Public ID (filename without extension)
      * @param folder Folder path in Cloudinary
-     * @return Secure URL of uploaded image
+     * @return Cloudinary upload result
      */
-    private String uploadImage(MultipartFile file, String publicId, String folder) {
-        validateFile(file);
+    private Map uploadImage(MultipartFile file, String publicId, String folder) {
+        ImageFiles.validate(file);
         
         try {
             Map<String, Object> uploadParams = ObjectUtils.asMap(
@@ -200,13 +221,20 @@ public class CloudinaryServiceImpl implements CloudinaryService {
                 "resource_type", "image"
             );
             
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), uploadParams);
-            String secureUrl = uploadResult.get("secure_url").toString();
+            // Upload from a file on disk rather than a heap copy of the request body
+            File spooled = spool(file);
+            Map uploadResult;
+            try {
+                uploadResult = remoteCalls.call(RemoteProvider.CLOUDINARY, "upload",
+                        () -> cloudinary.uploader().upload(spooled, uploadParams));
+            } finally {
+                Files.deleteIfExists(spooled.toPath());
+            }
             
-            log.info("Successfully uploaded image: {} -> {}", publicId, secureUrl);
-            return secureUrl;
+            log.info("Successfully uploaded image: {} -> {}", publicId, uploadResult.get("secure_url"));
+            return uploadResult;
             
-        } catch (IOException e) {
+        } catch (Exception e) {
             log.error("Failed to upload image: {}", publicId, e);
             throw new RuntimeException("Could not upload image to Cloudinary: " + e.getMessage());
         }
@@ -214,13 +242,12 @@ public class CloudinaryServiceImpl implements CloudinaryService {
 
     /**
      * Generic method to delete image from Cloudinary
-     * @param publicId Public ID (filename without extension)
-     * @param folder Folder path in Cloudinary
+     * @param publicId Public ID including the folder path (filename without extension)
      */
-    private void deleteImage(String publicId, String folder) {
+    private void deleteImage(String publicId) {
         try {
-            String fullPublicId = folder + "/" + publicId;
-            Map result = cloudinary.uploader().destroy(fullPublicId, ObjectUtils.emptyMap());
+            Map result = remoteCalls.call(RemoteProvider.CLOUDINARY, "destroy",
+                    () -> cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap()));
             
             if ("ok".equals(result.get("result"))) {
                 log.info("Successfully deleted image: {}", publicId);
@@ -234,37 +261,18 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     }
 
     /**
-     * Process image: resize and compress
-     * @param file Original image file
-     * @return Compressed and resized image bytes
+     * Process image: resize and compress to every size of the ladder
+     * @param image Original image, already validated
+     * @return Compressed and resized image bytes by size
      */
-    private byte[] processImage(MultipartFile file) {
-        validateFile(file);
-        try {
-            // Read original image
-            BufferedImage originalImage = ImageIO.read(file.getInputStream());
+    private Map<ImageVariant, byte[]> processImage(InputStreamSource image) {
+        try (InputStream input = image.getInputStream()) {
+            Map<ImageVariant, byte[]> derivatives = imageProcessor.toDerivatives(input);
             
-            if (originalImage == null) {
-                throw new IllegalArgumentException("Could not read image file");
-            }
-            
-            // Resize if width > MAX_IMAGE_WIDTH
-            BufferedImage resizedImage = originalImage;
-            if (originalImage.getWidth() > MAX_IMAGE_WIDTH) {
-                resizedImage = Scalr.resize(originalImage, Scalr.Method.QUALITY, Scalr.Mode.FIT_TO_WIDTH, 
-                        MAX_IMAGE_WIDTH, Scalr.OP_ANTIALIAS);
-                log.debug("Image resized from {} to {}", originalImage.getWidth(), resizedImage.getWidth());
-            }
+            log.info("Image processed: Compressed size: {} bytes ({} sizes)", 
+                    derivatives.get(ImageVariant.FULL).length, derivatives.size());
             
-            // Compress image (JPEG format with quality setting)
-            ByteArrayOutputStream compressedOutput = new ByteArrayOutputStream();
-            ImageIO.write(resizedImage, "jpg", compressedOutput);
-            byte[] compressedImageBytes = compressedOutput.toByteArray();
-            
-            log.info("Image processed: Original size: {}, Compressed size: {} bytes", 
-                    file.getSize(), compressedImageBytes.length);
-            
-            return compressedImageBytes;
+            return derivatives;
             
         } catch (IOException e) {
             log.error("Failed to process image: {}", e.getMessage());
@@ -273,51 +281,147 @@ public class CloudinaryServiceImpl implements CloudinaryService {
     }
     
     /**
-     * Upload processed image bytes to Cloudinary
-     * @param imageBytes Processed image bytes
-     * @param publicId Public ID (filename without extension)
-     * @param folder Folder path in Cloudinary
-     * @return Secure URL of uploaded image
+     * Store a route or attraction image in a slot. A file that is already stored is reused
+     * without processing or uploading it, so slots given the same file share one Cloudinary image;
+     * otherwise it is processed and uploaded under its fingerprint plus a random suffix, so a
+     * fresh upload never shares a public ID with an image being deleted.
+     * @param image Original image, already validated
+     * @return Secure URL of the full-size image
      */
-    private String uploadProcessedImage(byte[] imageBytes, String publicId, String folder) {
+    private String storeProcessed(InputStreamSource image, String folder, OwnerType ownerType, UUID ownerId, int index) {
+        String contentHash = imageDeduplicator.fingerprint(image);
+        ImageAsset stored = imageDeduplicator.find(contentHash);
+        if (stored != null) {
+            ImageManifest.SlotChange change = imageManifest.copied(ownerType, ownerId, index, stored);
+            if (change.isChanged()) {
+                log.info("Reusing stored image {} for {} {} slot {}", stored.getPublicId(), ownerType, ownerId, index);
+                release(change.getOrphanedPublicId());
+                return stored.getSecureUrl();
+            }
+            log.info("Stored image {} was deleted meanwhile, uploading again", stored.getPublicId());
+        }
+        
+        // Resize and compress image before uploading
+        Map<ImageVariant, byte[]> derivatives = processImage(image);
+        String publicId = contentHash + "_" + UUID.randomUUID().toString().substring(0, 8);
+        Map<ImageVariant, Map> uploaded = uploadDerivatives(derivatives, publicId, folder);
+        
+        Map<ImageVariant, String> derivativeUrls = new EnumMap<>(ImageVariant.class);
+        uploaded.forEach((variant, result) -> derivativeUrls.put(variant, result.get("secure_url").toString()));
+        Map fullResult = uploaded.get(ImageVariant.FULL);
+        release(imageManifest.uploaded(ownerType, ownerId, index, fullResult, derivativeUrls, contentHash)
+                .getOrphanedPublicId());
+        return fullResult.get("secure_url").toString();
+    }
+    
+    /**
+     * Delete the image of a route or attraction slot from Cloudinary unless another slot shows it.
+     * The manifest row is removed and its reference given back first; the image is only deleted
+     * once that has committed.
+     * @param slotPublicId Public ID the slot's image had before uploads were named by content,
+     *                     deleted when the manifest has no row for the slot
+     */
+    private void deleteStored(OwnerType ownerType, UUID ownerId, int index, String slotPublicId) {
+        ImageManifest.SlotChange change = imageManifest.deleted(ownerType, ownerId, index);
+        if (change.isChanged() && change.getOrphanedPublicId() == null) {
+            log.info("Image of {} {} slot {} is still shown by another slot, keeping it", ownerType, ownerId, index);
+            return;
+        }
+        String publicId = change.isChanged() ? change.getOrphanedPublicId() : slotPublicId;
+        deleteImage(publicId);
+        deleteDerivatives(publicId);
+    }
+    
+    /**
+     * Delete an image that was replaced and is no longer shown by any slot. The new image is
+     * already in place, so a failure only leaves an orphan on Cloudinary.
+     */
+    private void release(String publicId) {
+        if (publicId == null) {
+            return;
+        }
         try {
+            deleteImage(publicId);
+            deleteDerivatives(publicId);
+        } catch (RuntimeException e) {
+            log.warn("Could not delete replaced image {}", publicId, e);
+        }
+    }
+    
+    /**
+     * Upload every size of a processed image in parallel.
+     * Only the full-size upload must succeed; a missing smaller size is left out of the srcset.
+     * @param derivatives Processed image bytes by size
+     * @param publicId Public ID of the full-size image; smaller sizes get a _thumb/_card suffix
+     * @param folder Folder path in Cloudinary
+     * @return Cloudinary upload results by size, always including FULL
+     */
+    private Map<ImageVariant, Map> uploadDerivatives(Map<ImageVariant, byte[]> derivatives, String publicId, String folder) {
+        Map<ImageVariant, Callable<Map>> uploads = new EnumMap<>(ImageVariant.class);
+        derivatives.forEach((variant, bytes) -> {
+            String variantPublicId = derivativePublicId(publicId, variant);
             Map<String, Object> uploadParams = ObjectUtils.asMap(
                 "folder", folder,
-                "public_id", publicId,
+                "public_id", variantPublicId,
                 "overwrite", true,
                 "resource_type", "image",
-                "format", "jpg"
+                "format", uploadFormat
             );
-            
-            Map uploadResult = cloudinary.uploader().upload(imageBytes, uploadParams);
-            String secureUrl = uploadResult.get("secure_url").toString();
-            
-            log.info("Successfully uploaded processed image: {} -> {}", publicId, secureUrl);
-            return secureUrl;
-            
-        } catch (Exception e) {
-            log.error("Failed to upload processed image: {}", publicId, e);
-            throw new RuntimeException("Could not upload image to Cloudinary: " + e.getMessage());
+            uploads.put(variant, () -> {
+                Map uploadResult = cloudinary.uploader().upload(bytes, uploadParams);
+                log.info("Successfully uploaded processed image: {} -> {}", variantPublicId, uploadResult.get("secure_url"));
+                return uploadResult;
+            });
+        });
+        
+        Map<ImageVariant, Map> uploaded = remoteCalls.fanOut(RemoteProvider.CLOUDINARY, "upload", uploads, Long.MAX_VALUE);
+        Map fullResult = uploaded.get(ImageVariant.FULL);
+        if (fullResult == null) {
+            log.error("Failed to upload processed image: {}", publicId);
+            throw new RuntimeException("Could not upload image to Cloudinary: " + publicId);
         }
+        return uploaded;
     }
-
+    
     /**
-     * Validate uploaded file
+     * Delete the smaller sizes of a processed image; sizes that were never uploaded are skipped by Cloudinary
+     * @param publicId Public ID of the full-size image including the folder path
      */
-    private void validateFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("File cannot be empty");
-        }
-        
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("File must be an image");
+    private void deleteDerivatives(String publicId) {
+        Map<ImageVariant, Callable<Map>> deletes = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (variant != ImageVariant.FULL) {
+                String variantPublicId = derivativePublicId(publicId, variant);
+                deletes.put(variant, () -> cloudinary.uploader().destroy(variantPublicId, ObjectUtils.emptyMap()));
+            }
         }
-        
-        // Max 10MB
-        if (file.getSize() > 10 * 1024 * 1024) {
-            throw new IllegalArgumentException("File size must not exceed 10MB");
+        remoteCalls.fanOut(RemoteProvider.CLOUDINARY, "destroy", deletes, Long.MAX_VALUE);
+    }
+    
+    private static String derivativePublicId(String publicId, ImageVariant variant) {
+        return variant == ImageVariant.FULL ? publicId : publicId + "_" + variant.key();
+    }
+
+    /**
+     * Copy an upload to a temporary file; the caller deletes it
+     */
+    private File spool(MultipartFile file) throws IOException {
+        File spooled = Files.createTempFile("tms-upload-", ".tmp").toFile();
+        try (InputStream input = file.getInputStream()) {
+            Files.copy(input, spooled.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(spooled.toPath());
+            throw e;
         }
+        return spooled;
     }
-}
 
+    /**
+     * Record an uploaded image in the manifest
+     * @return Secure URL of uploaded image
+     */
+    private String recordUpload(OwnerType ownerType, UUID ownerId, int index, Map uploadResult) {
+        imageManifest.uploaded(ownerType, ownerId, index, uploadResult);
+        return uploadResult.get("secure_url").toString();
+    }
+}
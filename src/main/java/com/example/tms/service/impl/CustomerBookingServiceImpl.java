@@ -4,7 +4,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.springframework.security.core.Authentication;
@@ -32,8 +34,11 @@ import com.example.tms.repository.InvoiceRepository;
 import com.example.tms.repository.TourBookingRepository;
 import com.example.tms.repository.TripRepository;
 import com.example.tms.repository.UserRepository;
+import com.example.tms.security.AuthenticatedUser;
 import com.example.tms.service.interface_.CloudinaryService;
 import com.example.tms.service.interface_.CustomerBookingService;
+import com.example.tms.service.interface_.SeatHoldService;
+import com.example.tms.service.interface_.SeatReservationService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,18 +55,24 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     private final UserRepository userRepository;
     private final CartItemRepository cartItemRepository;
     private final CloudinaryService cloudinaryService;
+    private final SeatReservationService seatReservationService;
+    private final SeatHoldService seatHoldService;
 
-    private User getCurrentUser() {
+    // Taken from the token's claims, so no user query is needed
+    private UUID getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return userRepository.findByUsername(authentication.getName())
+                .map(User::getId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
     @Override
     @Transactional
     public CustomerBookingResponse createBooking(CreateCustomerBookingRequest request) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         // Get trip
         Trip trip = tripRepository.findById(request.getTripId())
@@ -85,27 +96,24 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
                     });
         }
 
-        // Check available seats
-        int availableSeats = trip.getTotalSeats() - trip.getBookedSeats();
-        if (request.getQuantity() > availableSeats) {
+        // Reserve seats atomically (rejects the booking instead of overbooking)
+        if (!seatReservationService.tryReserve(trip.getId(), request.getQuantity())) {
+            int availableSeats = seatReservationService.getAvailableSeats(trip.getId());
             throw new BadRequestException("Not enough available seats. Available: " + availableSeats);
         }
 
         // Create booking
         TourBooking booking = new TourBooking();
         booking.setTrip(trip);
-        booking.setUser(currentUser);
+        booking.setUser(userRepository.getReferenceById(currentUserId));
         booking.setSeatsBooked(request.getQuantity());
         booking.setTotalPrice(trip.getPrice().multiply(BigDecimal.valueOf(request.getQuantity())));
         booking.setCartItemId(request.getCartItemId());
         booking.setStatus(TourBooking.Status.PENDING);
+        seatHoldService.startHold(booking);
 
         booking = bookingRepository.save(booking);
 
-        // Update trip booked seats
-        trip.setBookedSeats(trip.getBookedSeats() + request.getQuantity());
-        tripRepository.save(trip);
-
         // Create invoice
         Invoice invoice = new Invoice();
         invoice.setTourBooking(booking);
@@ -126,8 +134,10 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
                 traveler.setEmail(ti.getEmail());
                 traveler.setPhoneNumber(ti.getPhoneNumber());
                 traveler.setAddress(ti.getAddress());
-                travelers.add(travelerRepository.save(traveler));
+                travelers.add(traveler);
             }
+            // Inserted as one JDBC batch on flush
+            travelerRepository.saveAll(travelers);
         }
 
         // Build response
@@ -141,7 +151,7 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
 
     @Override
     public CustomerBookingResponse getBookingById(UUID bookingId) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
@@ -151,7 +161,7 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
         }
 
         // Verify ownership
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to view this booking");
         }
 
@@ -168,42 +178,34 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
 
     @Override
     public List<CustomerBookingListResponse> getMyBookings(String statusFilter) {
-        User currentUser = getCurrentUser();
-
-        List<TourBooking> bookings = bookingRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
-
-        List<CustomerBookingListResponse> responses = new ArrayList<>();
-        for (TourBooking booking : bookings) {
-            if (booking.getDeletedAt() != 0)
-                continue;
-
-            // Apply filter if provided
-            if (statusFilter != null && !statusFilter.isEmpty() && !statusFilter.equalsIgnoreCase("all")) {
-                Invoice invoice = invoiceRepository.findByBookingId(booking.getId()).orElse(null);
-
-                if (statusFilter.equalsIgnoreCase("paid")) {
-                    if (invoice == null || invoice.getPaymentStatus() != Invoice.PaymentStatus.PAID) {
-                        continue;
-                    }
-                } else if (statusFilter.equalsIgnoreCase("unpaid")) {
-                    if (invoice != null && invoice.getPaymentStatus() == Invoice.PaymentStatus.PAID) {
-                        continue;
-                    }
-                }
-            }
+        UUID currentUserId = getCurrentUserId();
 
-            Invoice invoice = invoiceRepository.findByBookingId(booking.getId()).orElse(null);
-            String routeImage = getRouteImage(booking.getTrip());
+        // Paid/unpaid filter is applied by the query; anything else (e.g. "all") lists every booking
+        Boolean paid = null;
+        if ("paid".equalsIgnoreCase(statusFilter)) {
+            paid = true;
+        } else if ("unpaid".equalsIgnoreCase(statusFilter)) {
+            paid = false;
+        }
+
+        // One statement: booking, trip, route and invoice status are selected straight into the response
+        List<CustomerBookingListResponse> bookings = bookingRepository.findCustomerBookingList(currentUserId, paid);
+        Map<UUID, String> routeImages = new HashMap<>();
 
-            responses.add(new CustomerBookingListResponse(booking, invoice, routeImage));
+        for (CustomerBookingListResponse booking : bookings) {
+            // Routes without a stored image fall back to Cloudinary, once per route
+            if (booking.getRouteImage() == null || booking.getRouteImage().isBlank()) {
+                booking.setRouteImage(routeImages.computeIfAbsent(booking.getRouteId(), this::getRouteImage));
+            }
+            booking.setRouteImageSrcset(cloudinaryService.getImageSrcset(booking.getRouteImage()));
         }
 
-        return responses;
+        return bookings;
     }
 
     @Override
     public PaymentPageResponse getPaymentPageData(UUID bookingId) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
@@ -212,18 +214,18 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
             throw new ResourceNotFoundException("Booking has been deleted");
         }
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to view this booking");
         }
 
         List<BookingTraveler> travelers = travelerRepository.findByBookingId(bookingId);
         Invoice invoice = invoiceRepository.findByBookingId(bookingId).orElse(null);
 
-        String userAvatarUrl = cloudinaryService.getUserAvatarUrl(currentUser.getId());
+        String userAvatarUrl = cloudinaryService.getUserAvatarUrl(currentUserId);
         String routeImage = getRouteImage(booking.getTrip());
 
         PaymentPageResponse response = new PaymentPageResponse();
-        response.setContactFromUser(currentUser, userAvatarUrl);
+        response.setContactFromUser(booking.getUser(), userAvatarUrl);
         response.setOrderFromBooking(booking, travelers, invoice, routeImage);
 
         return response;
@@ -232,12 +234,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse addTravelers(UUID bookingId, List<UpdateTravelerRequest> travelers) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -255,8 +257,7 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
                     ") exceeds booked seats (" + booking.getSeatsBooked() + ")");
         }
 
-        List<BookingTraveler> allTravelers = new ArrayList<>(existingTravelers);
-
+        List<BookingTraveler> newTravelers = new ArrayList<>(travelers.size());
         for (UpdateTravelerRequest tr : travelers) {
             BookingTraveler traveler = new BookingTraveler();
             traveler.setTourBooking(booking);
@@ -267,8 +268,10 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
             traveler.setEmail(tr.getEmail());
             traveler.setPhoneNumber(tr.getPhoneNumber());
             traveler.setAddress(tr.getAddress());
-            allTravelers.add(travelerRepository.save(traveler));
+            newTravelers.add(traveler);
         }
+        List<BookingTraveler> allTravelers = new ArrayList<>(existingTravelers);
+        allTravelers.addAll(travelerRepository.saveAll(newTravelers));
 
         Invoice invoice = invoiceRepository.findByBookingId(bookingId).orElse(null);
         String routeImage = getRouteImage(booking.getTrip());
@@ -283,12 +286,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse updateTraveler(UUID bookingId, UUID travelerId, UpdateTravelerRequest request) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -319,12 +322,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse updateQuantity(UUID bookingId, Integer newQuantity) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -336,14 +339,6 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
         int currentBooked = booking.getSeatsBooked();
         int difference = newQuantity - currentBooked;
 
-        // Check if increasing
-        if (difference > 0) {
-            int availableSeats = trip.getTotalSeats() - trip.getBookedSeats();
-            if (difference > availableSeats) {
-                throw new BadRequestException("Not enough available seats. Available: " + availableSeats);
-            }
-        }
-
         // Check if travelers exceed new quantity
         List<BookingTraveler> travelers = travelerRepository.findByBookingId(bookingId);
         if (travelers.size() > newQuantity) {
@@ -351,15 +346,21 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
                     "Cannot reduce quantity below number of travelers (" + travelers.size() + ")");
         }
 
+        // Reserve additional seats or release the ones no longer needed
+        if (difference > 0) {
+            if (!seatReservationService.tryReserve(trip.getId(), difference)) {
+                int availableSeats = seatReservationService.getAvailableSeats(trip.getId());
+                throw new BadRequestException("Not enough available seats. Available: " + availableSeats);
+            }
+        } else if (difference < 0) {
+            seatReservationService.release(trip.getId(), -difference);
+        }
+
         // Update booking
         booking.setSeatsBooked(newQuantity);
         booking.setTotalPrice(trip.getPrice().multiply(BigDecimal.valueOf(newQuantity)));
         bookingRepository.save(booking);
 
-        // Update trip booked seats
-        trip.setBookedSeats(trip.getBookedSeats() + difference);
-        tripRepository.save(trip);
-
         // Update invoice
         Invoice invoice = invoiceRepository.findByBookingId(bookingId).orElse(null);
         if (invoice != null) {
@@ -378,12 +379,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse confirmBooking(UUID bookingId) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -417,12 +418,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse cancelBooking(UUID bookingId) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -436,11 +437,11 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
 
         // Return seats to trip
         Trip trip = booking.getTrip();
-        trip.setBookedSeats(trip.getBookedSeats() - booking.getSeatsBooked());
-        tripRepository.save(trip);
+        seatReservationService.release(trip.getId(), booking.getSeatsBooked());
 
         // Update booking status
         booking.setStatus(TourBooking.Status.CANCELED);
+        seatHoldService.clearHold(booking);
         bookingRepository.save(booking);
 
         // Update invoice if exists
@@ -463,12 +464,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse updatePaymentMethod(UUID bookingId, UpdatePaymentMethodRequest request) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -491,12 +492,12 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
     @Override
     @Transactional
     public CustomerBookingResponse markAsPaid(UUID bookingId) {
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
 
         TourBooking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
 
-        if (!booking.getUser().getId().equals(currentUser.getId())) {
+        if (!booking.getUser().getId().equals(currentUserId)) {
             throw new ForbiddenException("You are not authorized to modify this booking");
         }
 
@@ -506,6 +507,9 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
         if (invoice.getPaymentStatus() == Invoice.PaymentStatus.PAID) {
             throw new BadRequestException("Invoice is already paid");
         }
+        if (booking.getStatus() == TourBooking.Status.CANCELED) {
+            throw new BadRequestException("Booking has been canceled or its seat hold has expired");
+        }
 
         invoice.setPaymentStatus(Invoice.PaymentStatus.PAID);
         invoiceRepository.save(invoice);
@@ -513,6 +517,7 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
         // Also confirm booking if pending
         if (booking.getStatus() == TourBooking.Status.PENDING) {
             booking.setStatus(TourBooking.Status.CONFIRMED);
+            seatHoldService.clearHold(booking);
             bookingRepository.save(booking);
         }
 
@@ -533,9 +538,9 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
             return;
         }
 
-        User currentUser = getCurrentUser();
+        UUID currentUserId = getCurrentUserId();
         bookingRepository.findActiveByCartItemId(cartItemId).ifPresent(booking -> {
-            if (!booking.getUser().getId().equals(currentUser.getId())) {
+            if (!booking.getUser().getId().equals(currentUserId)) {
                 return;
             }
             if (booking.getStatus() != TourBooking.Status.PENDING) {
@@ -543,6 +548,7 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
             }
 
             cleanupBookingResources(booking);
+            seatHoldService.clearHold(booking);
             booking.markAsDeleted();
             bookingRepository.save(booking);
         });
@@ -555,9 +561,7 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
 
         Trip trip = booking.getTrip();
         if (trip != null) {
-            int updatedSeats = Math.max(0, trip.getBookedSeats() - booking.getSeatsBooked());
-            trip.setBookedSeats(updatedSeats);
-            tripRepository.save(trip);
+            seatReservationService.release(trip.getId(), booking.getSeatsBooked());
         }
 
         List<BookingTraveler> travelers = travelerRepository.findByBookingId(booking.getId());
@@ -591,7 +595,11 @@ public class CustomerBookingServiceImpl implements CustomerBookingService {
         if (routeImage != null && !routeImage.isBlank()) {
             return routeImage;
         }
-        List<String> images = cloudinaryService.getRouteImages(trip.getRoute().getId());
+        return getRouteImage(trip.getRoute().getId());
+    }
+
+    private String getRouteImage(UUID routeId) {
+        List<String> images = cloudinaryService.getRouteImages(routeId);
         return images.isEmpty() ? null : images.get(0);
     }
 
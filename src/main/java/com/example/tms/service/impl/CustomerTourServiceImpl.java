@@ -1,20 +1,20 @@
 package com.example.tms.service.impl;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,21 +24,29 @@ import com.example.tms.dto.response.customer.FavoriteDestinationImageResponse;
 import com.example.tms.dto.response.customer.HomePageDataResponse;
 import com.example.tms.dto.response.customer.SearchSuggestionResponse;
 import com.example.tms.dto.response.customer.TourCardResponse;
-import com.example.tms.entity.Attraction;
-import com.example.tms.entity.FavoriteTour;
-import com.example.tms.entity.Route;
+import com.example.tms.dto.response.customer.TourFacetResponse;
 import com.example.tms.entity.RouteAttraction;
-import com.example.tms.entity.Trip;
-import com.example.tms.entity.User;
+import com.example.tms.entity.RouteSearchSummary;
 import com.example.tms.repository.AttractionRepository;
 import com.example.tms.repository.FavoriteTourRepository;
 import com.example.tms.repository.RouteAttractionRepository;
 import com.example.tms.repository.RouteRepository;
-import com.example.tms.repository.TripRepository;
+import com.example.tms.repository.RouteSearchSummaryRepository;
 import com.example.tms.repository.UserRepository;
 import com.example.tms.service.interface_.CloudinaryService;
 import com.example.tms.service.interface_.CustomerTourService;
-
+import com.example.tms.service.ranking.HomeRankingCache;
+import com.example.tms.service.ranking.RankedDestination;
+import com.example.tms.service.ranking.RankedRoute;
+import com.example.tms.service.search.RouteFacetIndex;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+import com.example.tms.service.search.TourSearchIndex;
+import com.example.tms.service.search.TourSuggestionIndex;
+import com.example.tms.service.tourcard.TourCardAssembler;
+
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -46,12 +54,18 @@ import lombok.RequiredArgsConstructor;
 public class CustomerTourServiceImpl implements CustomerTourService {
 
     private final RouteRepository routeRepository;
-    private final AttractionRepository attractionRepository;
+    private final RouteSearchSummaryRepository routeSearchSummaryRepository;
     private final RouteAttractionRepository routeAttractionRepository;
-    private final TripRepository tripRepository;
+    private final AttractionRepository attractionRepository;
     private final FavoriteTourRepository favoriteTourRepository;
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
+    private final HomeRankingCache homeRankingCache;
+    private final RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+    private final TourCardAssembler tourCardAssembler;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourSuggestionIndex tourSuggestionIndex;
+    private final RouteFacetIndex routeFacetIndex;
 
     @Override
     public SearchSuggestionResponse getSearchSuggestions(String keyword, int limit) {
@@ -62,70 +76,19 @@ public class CustomerTourServiceImpl implements CustomerTourService {
                     .build();
         }
 
-        Pageable pageable = PageRequest.of(0, limit);
-        
-        // Search routes
-        List<Route> routes = routeRepository.searchByName(keyword.trim(), pageable);
-        List<SearchSuggestionResponse.RouteSuggestion> routeSuggestions = routes.stream()
-                .map(r -> SearchSuggestionResponse.RouteSuggestion.builder()
-                        .id(r.getId())
-                        .name(r.getRouteName())
-                        .startLocation(r.getStartLocation())
-                        .endLocation(r.getEndLocation())
-                        .durationDays(r.getDurationDays())
-                        .image(r.getImage())
-                        .build())
-                .collect(Collectors.toList());
-
-        // Search attractions
-        List<Attraction> attractions = attractionRepository.searchByName(keyword.trim(), pageable);
-        List<SearchSuggestionResponse.AttractionSuggestion> attractionSuggestions = attractions.stream()
-                .map(a -> SearchSuggestionResponse.AttractionSuggestion.builder()
-                        .id(a.getId())
-                        .name(a.getName())
-                        .location(a.getLocation())
-                        .categoryName(a.getCategory() != null ? a.getCategory().getName() : null)
-                        .build())
-                .collect(Collectors.toList());
-
         return SearchSuggestionResponse.builder()
-                .routes(routeSuggestions)
-                .attractions(attractionSuggestions)
+                .routes(tourSuggestionIndex.suggestRoutes(keyword, limit))
+                .attractions(tourSuggestionIndex.suggestAttractions(keyword, limit))
                 .build();
     }
 
     @Override
     public HomePageDataResponse getHomePageData(UUID userId, int tourLimit, int destinationLimit) {
-        // Get most favorited tours
-        Pageable tourPageable = PageRequest.of(0, tourLimit);
-        List<Object[]> favoritedRoutesData = routeRepository.findMostFavoritedRoutes(tourPageable);
-        List<UUID> favoriteRouteIds = favoritedRoutesData.stream()
-                .map(row -> ((Route) row[0]).getId())
-                .collect(Collectors.toList());
+        // Rankings come from memory; the cards cost a fixed number of queries
+        List<TourCardResponse> favoriteTours = tourCardAssembler.build(homeRankingCache.topRoutes(tourLimit), userId);
 
-        final Map<UUID, List<UUID>> favoriteRouteAttractionMap = new HashMap<>();
-        if (!favoriteRouteIds.isEmpty()) {
-            List<RouteAttraction> favoriteRouteAttractions = routeAttractionRepository.findByRouteIdIn(favoriteRouteIds);
-            Map<UUID, List<UUID>> temp = favoriteRouteAttractions.stream()
-                    .collect(Collectors.groupingBy(
-                        ra -> ra.getRoute().getId(),
-                        Collectors.mapping(ra -> ra.getAttraction().getId(), Collectors.toList())
-                    ));
-            favoriteRouteAttractionMap.putAll(temp);
-        }
-
-        List<TourCardResponse> favoriteTours = favoritedRoutesData.stream()
-                .map(row -> {
-                    Route route = (Route) row[0];
-                    Long favCount = (Long) row[1];
-                    List<UUID> attractionIds = favoriteRouteAttractionMap.getOrDefault(route.getId(), Collections.emptyList());
-                    return buildTourCard(route, favCount, userId, attractionIds);
-                })
-                .collect(Collectors.toList());
-
-        // Get favorite destinations (attractions from most favorited routes)
-        List<Object[]> attractionsData = loadFavoriteDestinations(destinationLimit);
-        List<HomePageDataResponse.FavoriteDestination> favoriteDestinations = buildFavoriteDestinations(attractionsData);
+        List<HomePageDataResponse.FavoriteDestination> favoriteDestinations =
+                buildFavoriteDestinations(homeRankingCache.topDestinations(destinationLimit));
 
         return HomePageDataResponse.builder()
                 .favoriteTours(favoriteTours)
@@ -135,127 +98,110 @@ public class CustomerTourServiceImpl implements CustomerTourService {
 
     @Override
     public List<FavoriteDestinationImageResponse> getFavoriteDestinationImages(int destinationLimit) {
-        List<Object[]> attractionsData = loadFavoriteDestinations(destinationLimit);
-        List<CompletableFuture<FavoriteDestinationImageResponse>> imageFutures = attractionsData.stream()
-                .map(row -> {
-                    Attraction attraction = (Attraction) row[0];
-                    return CompletableFuture.supplyAsync(() -> {
-                        String imageUrl = null;
-                        try {
-                            imageUrl = cloudinaryService.getAttractionImageUrl(attraction.getId(), 1);
-                        } catch (Exception ignored) {
-                        }
-                        return FavoriteDestinationImageResponse.builder()
-                                .attractionId(attraction.getId())
-                                .image(imageUrl)
-                                .build();
-                    });
-                })
-                .collect(Collectors.toList());
-
-        return imageFutures.stream()
-                .map(CompletableFuture::join)
+        // Image URLs come from the in-memory manifest, so there is nothing to wait on
+        return homeRankingCache.topDestinations(destinationLimit).stream()
+                .map(destination -> FavoriteDestinationImageResponse.builder()
+                        .attractionId(destination.getAttractionId())
+                        .image(cloudinaryService.getAttractionImageUrl(destination.getAttractionId(), 1))
+                        .build())
                 .collect(Collectors.toList());
     }
 
-    private List<Object[]> loadFavoriteDestinations(int destinationLimit) {
-        Pageable destPageable = PageRequest.of(0, destinationLimit);
-        return attractionRepository.findFavoriteDestinations(destPageable);
-    }
-
-    private List<HomePageDataResponse.FavoriteDestination> buildFavoriteDestinations(List<Object[]> attractionsData) {
-        return attractionsData.stream()
-                .map(row -> {
-                    Attraction attraction = (Attraction) row[0];
-                    Long tourCount = (Long) row[1];
-                    return HomePageDataResponse.FavoriteDestination.builder()
-                            .attractionId(attraction.getId())
-                            .name(attraction.getName())
-                            .location(attraction.getLocation())
-                            .description(attraction.getDescription())
-                            .tourCount(tourCount)
-                            .image(null)
-                            .build();
-                })
+    private List<HomePageDataResponse.FavoriteDestination> buildFavoriteDestinations(List<RankedDestination> destinations) {
+        // The rankings leave descriptions out; read them for the destinations shown only
+        Map<UUID, String> descriptions = new HashMap<>();
+        if (!destinations.isEmpty()) {
+            List<UUID> attractionIds = destinations.stream().map(RankedDestination::getAttractionId).toList();
+            for (Object[] row : attractionRepository.findDescriptionsByIds(attractionIds)) {
+                descriptions.put((UUID) row[0], (String) row[1]);
+            }
+        }
+        return destinations.stream()
+                .map(destination -> HomePageDataResponse.FavoriteDestination.builder()
+                        .attractionId(destination.getAttractionId())
+                        .name(destination.getName())
+                        .location(destination.getLocation())
+                        .description(descriptions.get(destination.getAttractionId()))
+                        .tourCount(destination.getFavoriteCount())
+                        .image(null)
+                        .build())
                 .collect(Collectors.toList());
     }
 
     @Override
     public PaginationResponse<TourCardResponse> searchTours(TourSearchRequest request, UUID userId) {
-        // Build sort
-        Sort sort = buildSort(request.getSortBy(), request.getSortOrder());
-        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
-
-        Page<Route> routePage;
-        
-        if (request.getKeyword() != null && !request.getKeyword().trim().isEmpty()) {
-            routePage = routeRepository.searchByKeyword(request.getKeyword().trim(), pageable);
-        } else {
-            // If no keyword, get all open routes
-            routePage = routeRepository.findAll((root, query, cb) -> 
-                cb.and(
-                    cb.equal(root.get("deletedAt"), 0L),
-                    cb.equal(root.get("status"), Route.Status.OPEN)
-                ), pageable);
+        // Keywords are matched by the in-memory index, everything else by the search read model
+        String keyword = request.getKeyword() != null ? request.getKeyword().trim() : "";
+        List<UUID> keywordHits = null;
+        Set<UUID> routeNameHits = Set.of();
+        if (!keyword.isEmpty()) {
+            keywordHits = tourSearchIndex.search(keyword);
+            if (keywordHits.isEmpty()) {
+                return new PaginationResponse<>(Collections.emptyList(), 0L, request.getPage(), request.getSize());
+            }
+            if (request.getAttractionId() != null) {
+                routeNameHits = tourSearchIndex.searchRouteNames(keyword);
+            }
         }
 
-        List<UUID> routeIds = routePage.getContent().stream()
-                .map(Route::getId)
-                .collect(Collectors.toList());
-
-        final Map<UUID, List<UUID>> attractionMap = new HashMap<>();
-        if (!routeIds.isEmpty()) {
-            List<RouteAttraction> routeAttractions = routeAttractionRepository.findByRouteIdIn(routeIds);
-            Map<UUID, List<UUID>> temp = routeAttractions.stream()
-                    .collect(Collectors.groupingBy(
-                        ra -> ra.getRoute().getId(),
-                        Collectors.mapping(ra -> ra.getAttraction().getId(), Collectors.toList())
-                    ));
-            attractionMap.putAll(temp);
+        if (keywordHits != null || routeFacetIndex.hasSelection(request)) {
+            // The facet index filters and orders the matching route IDs; only the page's rows are loaded
+            List<UUID> matches = routeFacetIndex.search(request, keywordHits, routeNameHits);
+            int from = Math.min(request.getPage() * request.getSize(), matches.size());
+            int to = Math.min(from + request.getSize(), matches.size());
+            List<UUID> pageIds = matches.subList(from, to);
+            Map<UUID, RouteSearchSummary> rows = routeSearchSummaryRepository.findAllById(pageIds).stream()
+                    .collect(Collectors.toMap(RouteSearchSummary::getRouteId, summary -> summary));
+            List<RouteSearchSummary> summaries = pageIds.stream()
+                    .map(rows::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            return new PaginationResponse<>(buildTourCards(summaries, userId),
+                    (long) matches.size(), request.getPage(), request.getSize());
         }
 
-        // Filter by additional criteria in memory (for complex filters)
-        List<TourCardResponse> tourCards = routePage.getContent().stream()
-                .map(route -> {
-                    Long favCount = favoriteTourRepository.countByRouteId(route.getId());
-                    List<UUID> attractionIds = attractionMap.getOrDefault(route.getId(), Collections.emptyList());
-                    return buildTourCard(route, favCount, userId, attractionIds);
-                })
-                .filter(card -> filterTourCard(card, request))
-                .collect(Collectors.toList());
+        // Filter, sort and page in one query on the search read model
+        Sort sort = buildSort(request.getSortBy(), request.getSortOrder());
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
+        Page<RouteSearchSummary> summaryPage = routeSearchSummaryRepository.findAll(buildSearchSpecification(request), pageable);
+        return new PaginationResponse<>(summaryPage, buildTourCards(summaryPage.getContent(), userId));
+    }
 
-        return new PaginationResponse<>(routePage, tourCards);
+    @Override
+    public TourFacetResponse getTourFacets(TourSearchRequest request) {
+        String keyword = request.getKeyword() != null ? request.getKeyword().trim() : "";
+        List<UUID> keywordHits = keyword.isEmpty() ? null : tourSearchIndex.search(keyword);
+        Set<UUID> routeNameHits = !keyword.isEmpty() && request.getAttractionId() != null
+                ? tourSearchIndex.searchRouteNames(keyword) : Set.of();
+        return routeFacetIndex.facets(request, keywordHits, routeNameHits);
     }
 
     @Override
     public List<String> getStartLocations() {
-        return routeRepository.findDistinctStartLocations();
+        return routeFacetIndex.startLocations();
     }
 
     @Override
     @Transactional
     public boolean toggleFavorite(UUID userId, UUID routeId) {
-        Optional<FavoriteTour> existing = favoriteTourRepository.findByUserIdAndRouteId(userId, routeId);
-        
-        if (existing.isPresent()) {
-            // Remove favorite (soft delete)
-            FavoriteTour fav = existing.get();
-            fav.setDeletedAt(System.currentTimeMillis());
-            favoriteTourRepository.save(fav);
+        // Single-statement writes: the unique (user_id, route_id, deleted_at) key turns a repeated or
+        // concurrent add into a no-op, and the counter only moves when a favourite row really changed
+        if (favoriteTourRepository.softDelete(userId, routeId, System.currentTimeMillis()) > 0) {
+            routeRepository.adjustFavoriteCount(routeId, -1);
+            homeRankingCache.favoriteRemoved(routeId);
+            routeSearchSummaryUpdater.routeChanged(routeId);
             return false; // Now not favorited
-        } else {
-            // Add favorite
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            Route route = routeRepository.findById(routeId)
-                    .orElseThrow(() -> new RuntimeException("Route not found"));
-            
-            FavoriteTour newFav = new FavoriteTour();
-            newFav.setUser(user);
-            newFav.setRoute(route);
-            favoriteTourRepository.save(newFav);
-            return true; // Now favorited
         }
+        if (!routeRepository.existsById(routeId)) {
+            throw new RuntimeException("Route not found");
+        }
+        if (favoriteTourRepository.insertIfAbsent(UUID.randomUUID(), userId, routeId) > 0) {
+            routeRepository.adjustFavoriteCount(routeId, 1);
+            homeRankingCache.favoriteAdded(routeId);
+            routeSearchSummaryUpdater.routeChanged(routeId);
+        }
+        // Nothing inserted means a concurrent request already added it
+        return true; // Now favorited
     }
 
     @Override
@@ -265,123 +211,90 @@ public class CustomerTourServiceImpl implements CustomerTourService {
     }
 
     // Helper methods
-    private TourCardResponse buildTourCard(Route route, Long favCount, UUID userId, List<UUID> attractionIds) {
-        // Get upcoming trips for this route
-        LocalDate today = LocalDate.now();
-        List<Trip> upcomingTrips = tripRepository.findAvailableTripsByRouteId(route.getId(), today);
-        
-        List<TourCardResponse.TripInfo> tripInfos = upcomingTrips.stream()
-                .limit(5) // Only show next 5 trips
-                .map(trip -> TourCardResponse.TripInfo.builder()
-                        .tripId(trip.getId())
-                        .departureDate(trip.getDepartureDate())
-                        .returnDate(trip.getReturnDate())
-                        .price(trip.getPrice())
-                        .availableSeats(trip.getTotalSeats() - trip.getBookedSeats())
-                        .build())
+    private List<TourCardResponse> buildTourCards(List<RouteSearchSummary> summaries, UUID userId) {
+        List<UUID> routeIds = summaries.stream()
+                .map(RouteSearchSummary::getRouteId)
                 .collect(Collectors.toList());
 
-        // Get minimum price from upcoming trips
-        BigDecimal minPrice = upcomingTrips.stream()
-                .map(Trip::getPrice)
-                .min(BigDecimal::compareTo)
-                .orElse(null);
-
-        // Check if user has favorited this route
-        boolean isFav = userId != null && favoriteTourRepository.existsByUserIdAndRouteId(userId, route.getId());
-
-        // Generate route code from first letters
-        String routeCode = generateRouteCodeFromId(route.getId());
-
-        return TourCardResponse.builder()
-                .routeId(route.getId())
-                .routeName(route.getRouteName())
-                .routeCode(routeCode)
-                .startLocation(route.getStartLocation())
-                .endLocation(route.getEndLocation())
-                .durationDays(route.getDurationDays())
-                .image(route.getImage())
-                .minPrice(minPrice)
-                .favoriteCount(favCount != null ? favCount : 0L)
-                .isFavorited(isFav)
-                .upcomingTrips(tripInfos)
-                .attractionIds(attractionIds)
-                .build();
-    }
+        final Map<UUID, List<UUID>> attractionMap = new HashMap<>();
+        if (!routeIds.isEmpty()) {
+            List<RouteAttraction> routeAttractions = routeAttractionRepository.findByRouteIdIn(routeIds);
+            Map<UUID, List<UUID>> temp = routeAttractions.stream()
+                    .collect(Collectors.groupingBy(
+                        ra -> ra.getRoute().getId(),
+                        Collectors.mapping(ra -> ra.getAttraction().getId(), Collectors.toList())
+                    ));
+            attractionMap.putAll(temp);
+        }
 
-    private String generateRouteCodeFromId(UUID routeId) {
-        if (routeId == null) return "";
-        String raw = routeId.toString().replace("-", "").toUpperCase();
-        return raw.substring(0, Math.min(8, raw.length()));
+        List<RankedRoute> routes = summaries.stream()
+                .map(summary -> RankedRoute.of(summary,
+                        attractionMap.getOrDefault(summary.getRouteId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+        return tourCardAssembler.build(routes, userId);
     }
 
     private Sort buildSort(String sortBy, String sortOrder) {
         Sort.Direction direction = "asc".equalsIgnoreCase(sortOrder) ? Sort.Direction.ASC : Sort.Direction.DESC;
-        
+        // Route ID last so pages are stable when the sort key ties
+        Sort tieBreaker = Sort.by(Sort.Direction.ASC, "routeId");
+
         switch (sortBy != null ? sortBy.toLowerCase() : "default") {
             case "price":
-                return Sort.by(direction, "routeName"); // Will sort by minPrice in memory
+                return Sort.by(direction, "minPrice").and(tieBreaker);
             case "departuredate":
-                return Sort.by(direction, "routeName"); // Will sort by departure date in memory
+                return Sort.by(direction, "nextDepartureDate").and(tieBreaker);
             case "favoritecount":
+                return Sort.by(Sort.Direction.DESC, "favoriteCount").and(Sort.by(Sort.Direction.DESC, "routeCreatedAt"))
+                        .and(tieBreaker);
             default:
-                return Sort.by(Sort.Direction.DESC, "createdAt");
+                return Sort.by(Sort.Direction.DESC, "routeCreatedAt").and(tieBreaker);
         }
     }
 
-    private boolean filterTourCard(TourCardResponse card, TourSearchRequest request) {
-        if (request.getAttractionId() != null) {
-            List<UUID> attractionIds = card.getAttractionIds();
-            boolean matchesRouteName = request.getKeyword() != null && !request.getKeyword().trim().isEmpty()
-                    && card.getRouteName() != null
-                    && card.getRouteName().toLowerCase().contains(request.getKeyword().trim().toLowerCase());
-            if ((attractionIds == null || !attractionIds.contains(request.getAttractionId()))
-                    && !matchesRouteName) {
-                return false;
+    // Plain filters only: keyword and facet searches are resolved by RouteFacetIndex.search
+    private Specification<RouteSearchSummary> buildSearchSpecification(TourSearchRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            // Attraction: routes visiting it
+            if (request.getAttractionId() != null) {
+                Subquery<UUID> visits = query.subquery(UUID.class);
+                Root<RouteAttraction> ra = visits.from(RouteAttraction.class);
+                visits.select(ra.get("route").get("id")).where(
+                        cb.equal(ra.get("route").get("id"), root.get("routeId")),
+                        cb.equal(ra.get("attraction").get("id"), request.getAttractionId()),
+                        cb.equal(ra.get("deletedAt"), 0L));
+                predicates.add(cb.exists(visits));
             }
-        }
 
-        // Filter by start location
-        if (request.getStartLocation() != null && !request.getStartLocation().isEmpty()) {
-            if (!card.getStartLocation().toLowerCase().contains(request.getStartLocation().toLowerCase())) {
-                return false;
+            if (request.getStartLocation() != null && !request.getStartLocation().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("startLocation")),
+                        "%" + request.getStartLocation().toLowerCase() + "%"));
             }
-        }
-
-        // Filter by destination (end location)
-        if (request.getDestination() != null && !request.getDestination().isEmpty()) {
-            if (!card.getEndLocation().toLowerCase().contains(request.getDestination().toLowerCase())) {
-                return false;
+            if (request.getDestination() != null && !request.getDestination().isEmpty()) {
+                predicates.add(cb.like(cb.lower(root.get("endLocation")),
+                        "%" + request.getDestination().toLowerCase() + "%"));
             }
-        }
-
-        // Filter by duration
-        if (request.getDurationDays() != null && card.getDurationDays() != null) {
-            if (!card.getDurationDays().equals(request.getDurationDays())) {
-                return false;
+            if (request.getDurationDays() != null) {
+                predicates.add(cb.equal(root.get("durationDays"), request.getDurationDays()));
             }
-        }
 
-        // Filter by price range
-        if (card.getMinPrice() != null) {
-            if (request.getMinPrice() != null && card.getMinPrice().compareTo(request.getMinPrice()) < 0) {
-                return false;
+            // Routes without upcoming trips have no price or departure and are not filtered out by them
+            if (request.getMinPrice() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("minPrice")),
+                        cb.greaterThanOrEqualTo(root.get("minPrice"), request.getMinPrice())));
             }
-            if (request.getMaxPrice() != null && card.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
-                return false;
+            if (request.getMaxPrice() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("minPrice")),
+                        cb.lessThanOrEqualTo(root.get("minPrice"), request.getMaxPrice())));
             }
-        }
-
-        // Filter by departure date - check if any upcoming trip matches
-        if (request.getDepartureDate() != null && card.getUpcomingTrips() != null) {
-            boolean hasMatchingTrip = card.getUpcomingTrips().stream()
-                    .anyMatch(trip -> !trip.getDepartureDate().isBefore(request.getDepartureDate()));
-            if (!hasMatchingTrip && !card.getUpcomingTrips().isEmpty()) {
-                return false;
+            if (request.getDepartureDate() != null) {
+                predicates.add(cb.or(cb.isNull(root.get("lastDepartureDate")),
+                        cb.greaterThanOrEqualTo(root.get("lastDepartureDate"), request.getDepartureDate())));
             }
-        }
 
-        return true;
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
     }
 }
-
@@ -1,11 +1,11 @@
 package com.example.tms.service.impl;
 
-import java.io.IOException;
-
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.example.tms.service.interface_.EmailService;
+import com.example.tms.service.remote.RemoteCalls;
+import com.example.tms.service.remote.RemoteProvider;
 import com.sendgrid.Method;
 import com.sendgrid.Request;
 import com.sendgrid.Response;
@@ -14,12 +14,16 @@ import com.sendgrid.helpers.mail.Mail;
 import com.sendgrid.helpers.mail.objects.Content;
 import com.sendgrid.helpers.mail.objects.Email;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
+    private final RemoteCalls remoteCalls;
+
     @Value("${sendgrid.api.key}")
     private String sendGridApiKey;
 
@@ -88,7 +92,7 @@ public class EmailServiceImpl implements EmailService {
             request.setEndpoint("mail/send");
             request.setBody(mail.build());
             
-            Response response = sg.api(request);
+            Response response = remoteCalls.call(RemoteProvider.SENDGRID, "mail/send", () -> sg.api(request));
             
             if (response.getStatusCode() >= 200 && response.getStatusCode() < 300) {
                 log.info("✅ Successfully sent {} email. Status code: {}", emailType, response.getStatusCode());
@@ -99,7 +103,7 @@ public class EmailServiceImpl implements EmailService {
                     emailType, response.getStatusCode(), response.getBody());
             }
             
-        } catch (IOException e) {
+        } catch (Exception e) {
             log.error("Error sending {} email: {}", emailType, e.getMessage(), e);
             throw new RuntimeException("Failed to send email: " + e.getMessage());
         }
@@ -0,0 +1,360 @@
+package com.example.tms.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.tms.dto.response.ImageUploadJobResponse;
+import com.example.tms.dto.response.ImageUploadResponse;
+import com.example.tms.entity.ImageAsset;
+import com.example.tms.entity.ImageAsset.OwnerType;
+import com.example.tms.entity.ImageUploadJob;
+import com.example.tms.entity.ImageUploadJob.Status;
+import com.example.tms.exception.BadRequestException;
+import com.example.tms.exception.ResourceNotFoundException;
+import com.example.tms.repository.AttractionRepository;
+import com.example.tms.repository.ImageUploadJobRepository;
+import com.example.tms.repository.RouteRepository;
+import com.example.tms.service.image.ImageFiles;
+import com.example.tms.service.interface_.CloudinaryService;
+import com.example.tms.service.interface_.ImageUploadJobService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Queued route and attraction image uploads.
+ *
+ * Each file is spooled to a temporary file and processed and uploaded by a bounded worker pool
+ * (app.image.jobs.workers); a failed attempt is retried with exponential backoff up to
+ * app.image.jobs.max-attempts, except for images that cannot be read.
+ *
+ * Job state is written to image_upload_job at every step, so a status poll can be answered by
+ * any node and outlives a restart. Only the spooled file and the worker are local; each node
+ * refreshes the unfinished jobs it holds, queued ones included, every app.image.jobs.purge-ms, and
+ * a job whose node stops doing so for app.image.jobs.stale-ms is marked FAILED. Jobs are
+ * forgotten app.image.jobs.retention-ms after they finish.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageUploadJobServiceImpl implements ImageUploadJobService {
+
+    private static final int MAX_FILES = 10; // Same as the gallery size
+    private static final int MAX_INDEX = 10;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final CloudinaryService cloudinaryService;
+    private final RouteRepository routeRepository;
+    private final AttractionRepository attractionRepository;
+    private final ImageUploadJobRepository imageUploadJobRepository;
+
+    @Value("${app.image.jobs.workers:2}")
+    private int workerThreads;
+
+    @Value("${app.image.jobs.queue:100}")
+    private int queueCapacity;
+
+    @Value("${app.image.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.image.jobs.backoff-ms:2000}")
+    private long backoffMs;
+
+    @Value("${app.image.jobs.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Value("${app.image.jobs.retention-ms:3600000}")
+    private long retentionMs;
+
+    @Value("${app.image.jobs.stale-ms:600000}")
+    private long staleMs;
+
+    // Unfinished jobs held by this node
+    private final Set<UUID> unfinished = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor workers;
+    private ScheduledExecutorService retries;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        workers.allowCoreThreadTimeOut(true);
+        retries = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-upload-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    @Override
+    public List<ImageUploadJobResponse> submit(OwnerType ownerType, UUID ownerId, List<MultipartFile> files,
+            List<Integer> indexes, long waitMs) {
+        if (files == null || files.isEmpty()) {
+            throw new BadRequestException("At least one file is required");
+        }
+        if (files.size() > MAX_FILES) {
+            throw new BadRequestException("At most " + MAX_FILES + " files can be uploaded at once");
+        }
+        List<Integer> slots = slots(files.size(), indexes);
+        checkOwner(ownerType, ownerId);
+        files.forEach(ImageFiles::validate);
+        if (workers.getQueue().remainingCapacity() < files.size()) {
+            throw new BadRequestException("Too many uploads are queued, try again shortly");
+        }
+
+        List<Job> submitted = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            Job job = new Job(ownerType, ownerId, slots.get(i), spool(files.get(i)));
+            job.record = imageUploadJobRepository.save(job.record);
+            unfinished.add(job.id());
+            submitted.add(job);
+            enqueue(job);
+        }
+
+        await(submitted, Math.min(Math.max(waitMs, 0), maxWaitMs));
+        return submitted.stream().map(job -> getJob(job.id())).toList();
+    }
+
+    @Override
+    public ImageUploadJobResponse getJob(UUID jobId) {
+        return imageUploadJobRepository.findById(jobId)
+                .map(ImageUploadJobServiceImpl::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload job not found: " + jobId));
+    }
+
+    /**
+     * Refresh the unfinished jobs of this node, fail jobs their node stopped updating and forget
+     * jobs that finished longer ago than the retention period
+     */
+    @Scheduled(fixedDelayString = "${app.image.jobs.purge-ms:300000}")
+    @Transactional
+    public void purgeFinished() {
+        LocalDateTime now = LocalDateTime.now();
+        if (!unfinished.isEmpty()) {
+            imageUploadJobRepository.touch(List.copyOf(unfinished), now);
+        }
+        int stale = imageUploadJobRepository.failStale(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(staleMs)), now,
+                "Upload was interrupted, please upload the image again");
+        if (stale > 0) {
+            log.warn("Marked {} interrupted upload job(s) as failed", stale);
+        }
+        imageUploadJobRepository.deleteFinishedBefore(now.minusNanos(TimeUnit.MILLISECONDS.toNanos(retentionMs)));
+    }
+
+    private static List<Integer> slots(int fileCount, List<Integer> indexes) {
+        if (indexes == null || indexes.isEmpty()) {
+            List<Integer> slots = new ArrayList<>();
+            for (int i = 1; i <= fileCount; i++) {
+                slots.add(i);
+            }
+            return slots;
+        }
+        if (indexes.size() != fileCount) {
+            throw new BadRequestException("One index is required per file");
+        }
+        for (Integer index : indexes) {
+            if (index == null || index < ImageAsset.MAIN_INDEX || index > MAX_INDEX) {
+                throw new BadRequestException("Image index must be between 0 (main image) and " + MAX_INDEX);
+            }
+        }
+        if (new HashSet<>(indexes).size() != indexes.size()) {
+            throw new BadRequestException("Image indexes must be distinct");
+        }
+        return indexes;
+    }
+
+    private void checkOwner(OwnerType ownerType, UUID ownerId) {
+        switch (ownerType) {
+            case ROUTE -> routeRepository.findById(ownerId)
+                    .filter(route -> !route.isDeleted())
+                    .orElseThrow(() -> new ResourceNotFoundException("Route not found with ID: " + ownerId));
+            case ATTRACTION -> attractionRepository.findById(ownerId)
+                    .filter(attraction -> !attraction.isDeleted())
+                    .orElseThrow(() -> new ResourceNotFoundException("Attraction not found with ID: " + ownerId));
+            case USER -> throw new BadRequestException("User images cannot be queued");
+        }
+    }
+
+    private static Path spool(MultipartFile file) {
+        try {
+            Path spooled = Files.createTempFile("tms-upload-job-", ".tmp");
+            file.transferTo(spooled);
+            return spooled;
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store upload: " + e.getMessage());
+        }
+    }
+
+    private void enqueue(Job job) {
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            finish(job, null, "Upload queue is full");
+        }
+    }
+
+    private void run(Job job) {
+        int attempt = job.started();
+        save(job);
+        try {
+            String imageUrl = cloudinaryService.uploadOwnerImage(new FileSystemResource(job.file),
+                    job.record.getOwnerType(), job.record.getOwnerId(), job.record.getImageIndex());
+            finish(job, imageUrl, null);
+        } catch (IllegalArgumentException e) {
+            // The image cannot be read; another attempt would fail the same way
+            finish(job, null, e.getMessage());
+        } catch (RuntimeException e) {
+            if (attempt >= maxAttempts) {
+                log.error("Upload job {} failed after {} attempt(s)", job.id(), attempt, e);
+                finish(job, null, e.getMessage());
+            } else {
+                long delay = backoffMs << (attempt - 1);
+                log.warn("Upload job {} attempt {} failed, retrying in {} ms: {}", job.id(), attempt, delay, e.getMessage());
+                job.retrying(e.getMessage());
+                save(job);
+                retries.schedule(() -> enqueue(job), delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void finish(Job job, String imageUrl, String error) {
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled upload {}", job.file, e);
+        }
+        job.finished(imageUrl, error);
+        save(job);
+        unfinished.remove(job.id());
+        job.done.complete(null);
+    }
+
+    // State changes of a job come from one thread at a time (its worker or the retry scheduler)
+    private void save(Job job) {
+        try {
+            job.record = imageUploadJobRepository.save(job.record);
+        } catch (RuntimeException e) {
+            log.error("Could not record state of upload job {}", job.id(), e);
+        }
+    }
+
+    private static void await(List<Job> submitted, long waitMs) {
+        if (waitMs <= 0) {
+            return;
+        }
+        CompletableFuture<?>[] done = submitted.stream().map(job -> job.done).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(done).get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Unfinished jobs are returned as they are
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Jobs complete normally; their failures are part of their state
+        }
+    }
+
+    private static ImageUploadJobResponse toResponse(ImageUploadJob record) {
+        int index = record.getImageIndex();
+        return ImageUploadJobResponse.builder()
+                .jobId(record.getId())
+                .status(record.getStatus())
+                .ownerType(record.getOwnerType())
+                .ownerId(record.getOwnerId())
+                .index(index)
+                .attempts(record.getAttempts())
+                .result(record.getImageUrl() != null ? new ImageUploadResponse(record.getImageUrl(),
+                        index == ImageAsset.MAIN_INDEX
+                                ? "Main image uploaded successfully"
+                                : "Image " + index + " uploaded successfully") : null)
+                .error(record.getError())
+                .createdAt(record.getCreatedAt())
+                .finishedAt(record.getFinishedAt())
+                .build();
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static final class Job {
+        private final Path file;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        // Persisted state; the ID is assigned when it is first saved
+        private ImageUploadJob record;
+
+        private Job(OwnerType ownerType, UUID ownerId, int index, Path file) {
+            this.file = file;
+            this.record = new ImageUploadJob();
+            LocalDateTime now = LocalDateTime.now();
+            record.setOwnerType(ownerType);
+            record.setOwnerId(ownerId);
+            record.setImageIndex(index);
+            record.setCreatedAt(now);
+            record.setUpdatedAt(now);
+        }
+
+        private UUID id() {
+            return record.getId();
+        }
+
+        private int started() {
+            record.setStatus(Status.RUNNING);
+            record.setAttempts(record.getAttempts() + 1);
+            record.setUpdatedAt(LocalDateTime.now());
+            return record.getAttempts();
+        }
+
+        private void retrying(String lastError) {
+            record.setStatus(Status.RETRYING);
+            record.setError(truncate(lastError));
+            record.setUpdatedAt(LocalDateTime.now());
+        }
+
+        private void finished(String url, String failure) {
+            LocalDateTime now = LocalDateTime.now();
+            record.setStatus(url != null ? Status.SUCCEEDED : Status.FAILED);
+            record.setImageUrl(url);
+            record.setError(truncate(failure));
+            record.setFinishedAt(now);
+            record.setUpdatedAt(now);
+        }
+    }
+}
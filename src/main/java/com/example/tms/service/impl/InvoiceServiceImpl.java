@@ -8,10 +8,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.invoice.CreateInvoiceRequest;
 import com.example.tms.dto.request.invoice.InvoiceFilterRequest;
 import com.example.tms.dto.request.invoice.UpdateInvoiceRequest;
@@ -22,6 +24,7 @@ import com.example.tms.entity.TourBooking;
 import com.example.tms.repository.InvoiceRepository;
 import com.example.tms.repository.TourBookingRepository;
 import com.example.tms.service.interface_.InvoiceService;
+import com.example.tms.service.paging.CursorPager;
 
 import lombok.RequiredArgsConstructor;
 
@@ -31,6 +34,7 @@ public class InvoiceServiceImpl implements InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
     private final TourBookingRepository tourBookingRepository;
+    private final CursorPager cursorPager;
 
     @Override
     @Transactional
@@ -74,9 +78,7 @@ public class InvoiceServiceImpl implements InvoiceService {
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<InvoiceResponse> getAll(InvoiceFilterRequest filter) {
-        Sort sort = Sort.by(
-                filter.getSortDirection().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC,
-                filter.getSortBy());
+        Sort sort = buildSort(filter);
         Pageable pageable = PageRequest.of(filter.getPage() - 1, filter.getPageSize(), sort);
 
         Specification<Invoice> spec = buildSpecification(filter);
@@ -89,6 +91,27 @@ public class InvoiceServiceImpl implements InvoiceService {
         return new PaginationResponse<>(page, items);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponseDto<InvoiceResponse> getAllByCursor(InvoiceFilterRequest filter) {
+        Sort sort = buildSort(filter);
+        Window<Invoice> window = cursorPager.scroll(Invoice.class, buildSpecification(filter),
+                sort, filter.getPageSize(), filter.getCursor(),
+                "tourBooking", "tourBooking.user", "tourBooking.trip", "tourBooking.trip.route");
+
+        List<InvoiceResponse> items = window.getContent().stream()
+                .map(InvoiceResponse::new)
+                .collect(Collectors.toList());
+
+        return cursorPager.toResponse(window, items, sort);
+    }
+
+    private Sort buildSort(InvoiceFilterRequest filter) {
+        return Sort.by(
+                filter.getSortDirection().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                filter.getSortBy());
+    }
+
     @Override
     @Transactional
     public InvoiceResponse update(UUID id, UpdateInvoiceRequest request) {
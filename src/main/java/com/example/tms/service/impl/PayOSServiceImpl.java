@@ -14,10 +14,15 @@ import com.example.tms.dto.response.payment.PaymentInfoResponse;
 import com.example.tms.dto.response.payment.PaymentLinkResponse;
 import com.example.tms.entity.Invoice;
 import com.example.tms.entity.TourBooking;
+import com.example.tms.exception.BadRequestException;
 import com.example.tms.exception.ResourceNotFoundException;
 import com.example.tms.repository.InvoiceRepository;
 import com.example.tms.repository.TourBookingRepository;
 import com.example.tms.service.interface_.PayOSService;
+import com.example.tms.service.interface_.SeatHoldService;
+import com.example.tms.service.interface_.SeatReservationService;
+import com.example.tms.service.remote.RemoteCalls;
+import com.example.tms.service.remote.RemoteProvider;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
@@ -35,6 +40,9 @@ public class PayOSServiceImpl implements PayOSService {
 
     private final TourBookingRepository tourBookingRepository;
     private final InvoiceRepository invoiceRepository;
+    private final SeatHoldService seatHoldService;
+    private final SeatReservationService seatReservationService;
+    private final RemoteCalls remoteCalls;
 
     @Value("${payos.client-id}")
     private String clientId;
@@ -71,6 +79,12 @@ public class PayOSServiceImpl implements PayOSService {
             // Validate booking exists
             TourBooking booking = tourBookingRepository.findById(request.getBookingId())
                     .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
+            if (booking.getStatus() == TourBooking.Status.CANCELED) {
+                throw new BadRequestException("Booking has been canceled or its seat hold has expired");
+            }
+            // Keep the seats while the customer is on the payment page
+            seatHoldService.extendHold(booking);
+            tourBookingRepository.save(booking);
             String bookingCode = buildBookingCode(booking);
 
             // Generate unique order code
@@ -111,7 +125,8 @@ public class PayOSServiceImpl implements PayOSService {
 
             // Call PayOS API
             PayOS payOS = getPayOS();
-            CreatePaymentLinkResponse response = payOS.paymentRequests().create(paymentData);
+            CreatePaymentLinkResponse response = remoteCalls.call(RemoteProvider.PAYOS, "create payment link",
+                    () -> payOS.paymentRequests().create(paymentData));
 
             log.info("Payment link created successfully for booking: {}, orderCode: {}",
                     booking.getId(), orderCode);
@@ -141,7 +156,8 @@ public class PayOSServiceImpl implements PayOSService {
     public PaymentInfoResponse getPaymentInfo(Long orderCode) {
         try {
             PayOS payOS = getPayOS();
-            PaymentLink paymentLink = payOS.paymentRequests().get(orderCode);
+            PaymentLink paymentLink = remoteCalls.call(RemoteProvider.PAYOS, "get payment link",
+                    () -> payOS.paymentRequests().get(orderCode));
             return toPaymentInfoResponse(paymentLink);
 
         } catch (Exception e) {
@@ -154,9 +170,10 @@ public class PayOSServiceImpl implements PayOSService {
     public PaymentInfoResponse cancelPaymentLink(Long orderCode, String cancellationReason) {
         try {
             PayOS payOS = getPayOS();
-            PaymentLink response = payOS.paymentRequests().cancel(
-                    orderCode,
-                    cancellationReason != null ? cancellationReason : "User cancelled");
+            PaymentLink response = remoteCalls.call(RemoteProvider.PAYOS, "cancel payment link",
+                    () -> payOS.paymentRequests().cancel(
+                            orderCode,
+                            cancellationReason != null ? cancellationReason : "User cancelled"));
 
             log.info("Payment link cancelled for orderCode: {}", orderCode);
 
@@ -186,7 +203,23 @@ public class PayOSServiceImpl implements PayOSService {
                     log.info("Invoice updated to PAID for booking: {}", bookingId);
                 });
 
+                if (booking.getStatus() == TourBooking.Status.CANCELED) {
+                    // Cancelled by the customer or an admin: the seats are gone, the booking stays cancelled
+                    if (booking.getHoldExpiredAt() == null) {
+                        log.error("Payment received for cancelled booking {}, refund required", bookingId);
+                        return paymentInfo;
+                    }
+                    // The hold expired while the customer was paying; take the seats back if possible
+                    if (!seatReservationService.tryReserve(booking.getTrip().getId(), booking.getSeatsBooked())) {
+                        log.error("Payment received for booking {} after its seat hold expired and the trip is full, refund required",
+                                bookingId);
+                        return paymentInfo;
+                    }
+                    booking.setHoldExpiredAt(null);
+                }
+
                 booking.setStatus(TourBooking.Status.CONFIRMED);
+                seatHoldService.clearHold(booking);
                 tourBookingRepository.save(booking);
 
                 log.info("Booking status updated to CONFIRMED for booking: {}", bookingId);
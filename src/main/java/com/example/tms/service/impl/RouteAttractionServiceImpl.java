@@ -24,6 +24,10 @@ import com.example.tms.repository.AttractionRepository;
 import com.example.tms.repository.RouteAttractionRepository;
 import com.example.tms.repository.RouteRepository;
 import com.example.tms.service.interface_.RouteAttractionService;
+import com.example.tms.service.ranking.HomeRankingCache;
+import com.example.tms.service.search.RouteFacetIndex;
+import com.example.tms.service.search.TourSearchIndex;
+import com.example.tms.service.search.TourSuggestionIndex;
 
 import lombok.RequiredArgsConstructor;
 
@@ -34,6 +38,10 @@ public class RouteAttractionServiceImpl implements RouteAttractionService {
     private final RouteAttractionRepository routeAttractionRepository;
     private final RouteRepository routeRepository;
     private final AttractionRepository attractionRepository;
+    private final HomeRankingCache homeRankingCache;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourSuggestionIndex tourSuggestionIndex;
+    private final RouteFacetIndex routeFacetIndex;
 
     @Override
     @Transactional
@@ -54,6 +62,10 @@ public class RouteAttractionServiceImpl implements RouteAttractionService {
         routeAttraction.setActivityDescription(request.getActivityDescription());
 
         RouteAttraction saved = routeAttractionRepository.save(routeAttraction);
+        homeRankingCache.routeAttractionsChanged(route.getId());
+        tourSearchIndex.routeAttractionsChanged(route.getId());
+        routeFacetIndex.routeAttractionsChanged(route.getId());
+        tourSuggestionIndex.catalogueChanged();
         return new RouteAttractionResponse(saved);
     }
 
@@ -88,14 +100,7 @@ public class RouteAttractionServiceImpl implements RouteAttractionService {
     @Override
     @Transactional(readOnly = true)
     public List<RouteAttractionResponse> getByRouteId(UUID routeId) {
-        return routeAttractionRepository.findAll().stream()
-                .filter(ra -> ra.getDeletedAt() == 0)
-                .filter(ra -> ra.getRoute().getId().equals(routeId))
-                .sorted((a, b) -> {
-                    int dayCompare = a.getDay().compareTo(b.getDay());
-                    if (dayCompare != 0) return dayCompare;
-                    return a.getOrderInDay().compareTo(b.getOrderInDay());
-                })
+        return routeAttractionRepository.findByRouteIdOrderByDayAndOrder(routeId).stream()
                 .map(RouteAttractionResponse::new)
                 .collect(Collectors.toList());
     }
@@ -106,6 +111,7 @@ public class RouteAttractionServiceImpl implements RouteAttractionService {
         RouteAttraction routeAttraction = routeAttractionRepository.findById(id)
                 .filter(ra -> ra.getDeletedAt() == 0)
                 .orElseThrow(() -> new RuntimeException("Route attraction not found"));
+        UUID previousRouteId = routeAttraction.getRoute().getId();
 
         if (request.getRouteId() != null) {
             Route route = routeRepository.findById(request.getRouteId())
@@ -130,6 +136,10 @@ public class RouteAttractionServiceImpl implements RouteAttractionService {
         }
 
         RouteAttraction updated = routeAttractionRepository.save(routeAttraction);
+        homeRankingCache.routeAttractionsChanged(previousRouteId, updated.getRoute().getId());
+        tourSearchIndex.routeAttractionsChanged(previousRouteId, updated.getRoute().getId());
+        routeFacetIndex.routeAttractionsChanged(previousRouteId, updated.getRoute().getId());
+        tourSuggestionIndex.catalogueChanged();
         return new RouteAttractionResponse(updated);
     }
 
@@ -141,6 +151,10 @@ public class RouteAttractionServiceImpl implements RouteAttractionService {
                 .orElseThrow(() -> new RuntimeException("Route attraction not found"));
         routeAttraction.markAsDeleted();
         routeAttractionRepository.save(routeAttraction);
+        homeRankingCache.routeAttractionsChanged(routeAttraction.getRoute().getId());
+        tourSearchIndex.routeAttractionsChanged(routeAttraction.getRoute().getId());
+        routeFacetIndex.routeAttractionsChanged(routeAttraction.getRoute().getId());
+        tourSuggestionIndex.catalogueChanged();
     }
 
     private Specification<RouteAttraction> buildSpecification(RouteAttractionFilterRequest filter) {
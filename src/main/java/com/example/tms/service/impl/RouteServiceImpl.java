@@ -5,7 +5,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -30,6 +32,13 @@ import com.example.tms.repository.RouteRepository;
 import com.example.tms.repository.TripRepository;
 import com.example.tms.service.interface_.CloudinaryService;
 import com.example.tms.service.interface_.RouteService;
+import com.example.tms.service.ranking.HomeRankingCache;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+import com.example.tms.service.search.TourSearchIndex;
+import com.example.tms.service.search.TourSuggestionIndex;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import lombok.RequiredArgsConstructor;
 
@@ -41,6 +50,13 @@ public class RouteServiceImpl implements RouteService {
     private final RouteAttractionRepository routeAttractionRepository;
     private final TripRepository tripRepository;
     private final CloudinaryService cloudinaryService;
+    private final HomeRankingCache homeRankingCache;
+    private final TourSearchIndex tourSearchIndex;
+    private final TourSuggestionIndex tourSuggestionIndex;
+    private final RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
@@ -54,6 +70,10 @@ public class RouteServiceImpl implements RouteService {
         route.setStatus(Route.Status.OPEN);
 
         Route saved = routeRepository.save(route);
+        homeRankingCache.routeSaved(saved);
+        tourSearchIndex.routeSaved(saved);
+        tourSuggestionIndex.catalogueChanged();
+        routeSearchSummaryUpdater.routeChanged(saved.getId());
         return new RouteResponse(saved);
     }
 
@@ -78,6 +98,8 @@ public class RouteServiceImpl implements RouteService {
         // Get images from Cloudinary
         List<String> images = cloudinaryService.getRouteImages(id);
         response.setImages(images);
+        response.setImageSrcset(cloudinaryService.getImageSrcset(route.getImage()));
+        response.setImageSrcsets(images.stream().map(cloudinaryService::getImageSrcset).collect(Collectors.toList()));
         
         // Get itinerary (route attractions grouped by day)
         List<RouteAttraction> attractions = routeAttractionRepository.findByRouteIdOrderByDayAndOrder(id);
@@ -201,11 +223,13 @@ public class RouteServiceImpl implements RouteService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<RouteResponse> getAllNoPagination() {
-        return routeRepository.findAll().stream()
-                .filter(r -> r.getDeletedAt() == 0)
-                .map(RouteResponse::new)
-                .collect(Collectors.toList());
+    public void streamAll(Consumer<RouteResponse> consumer) {
+        try (Stream<Route> routes = routeRepository.streamAllActive()) {
+            routes.forEach(r -> {
+                consumer.accept(new RouteResponse(r));
+                entityManager.detach(r);
+            });
+        }
     }
 
     @Override
@@ -235,6 +259,10 @@ public class RouteServiceImpl implements RouteService {
         }
 
         Route updated = routeRepository.save(route);
+        homeRankingCache.routeSaved(updated);
+        tourSearchIndex.routeSaved(updated);
+        tourSuggestionIndex.catalogueChanged();
+        routeSearchSummaryUpdater.routeChanged(id);
         return new RouteResponse(updated);
     }
 
@@ -246,6 +274,10 @@ public class RouteServiceImpl implements RouteService {
                 .orElseThrow(() -> new RuntimeException("Route not found"));
         route.markAsDeleted();
         routeRepository.save(route);
+        homeRankingCache.routeSaved(route);
+        tourSearchIndex.routeSaved(route);
+        tourSuggestionIndex.catalogueChanged();
+        routeSearchSummaryUpdater.routeChanged(id);
     }
 
     private Specification<Route> buildSpecification(RouteFilterRequest filter) {
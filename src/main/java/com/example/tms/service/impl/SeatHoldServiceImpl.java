@@ -0,0 +1,169 @@
+package com.example.tms.service.impl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.TourBooking;
+import com.example.tms.repository.TourBookingRepository;
+import com.example.tms.service.interface_.SeatHoldService;
+import com.example.tms.service.interface_.SeatReservationService;
+import com.example.tms.service.seat.HierarchicalTimingWheel;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Expiring seat holds for PENDING bookings.
+ *
+ * Deadlines are tracked in an in-memory hierarchical timing wheel; the database column
+ * (tour_booking.hold_expires_at) stays the source of truth and is used to re-seed the
+ * wheel on startup and to re-check each booking before its seats are released.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+    private static final int RELEASE_BATCH_SIZE = 500;
+
+    private final TourBookingRepository tourBookingRepository;
+    private final SeatReservationService seatReservationService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.booking.hold.duration-minutes:15}")
+    private long holdMinutes;
+
+    @Value("${app.booking.hold.tick-ms:1000}")
+    private long tickMillis;
+
+    private HierarchicalTimingWheel<UUID> wheel;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reseedHolds() {
+        List<Object[]> holds = tourBookingRepository.findActiveHolds();
+        for (Object[] hold : holds) {
+            wheel.schedule((UUID) hold[0], toEpochMillis((LocalDateTime) hold[1]));
+        }
+        log.info("Seat hold timer re-seeded with {} pending booking(s)", holds.size());
+    }
+
+    @Override
+    public void startHold(TourBooking booking) {
+        booking.setHoldExpiresAt(LocalDateTime.now().plusMinutes(holdMinutes));
+        scheduleAfterCommit(booking);
+    }
+
+    @Override
+    public void extendHold(TourBooking booking) {
+        if (booking.getHoldExpiresAt() == null) {
+            return;
+        }
+        LocalDateTime extended = LocalDateTime.now().plusMinutes(holdMinutes);
+        if (extended.isAfter(booking.getHoldExpiresAt())) {
+            booking.setHoldExpiresAt(extended);
+            scheduleAfterCommit(booking);
+        }
+    }
+
+    @Override
+    public void clearHold(TourBooking booking) {
+        if (booking.getHoldExpiresAt() == null) {
+            return;
+        }
+        booking.setHoldExpiresAt(null);
+        UUID bookingId = booking.getId();
+        runAfterCommit(() -> wheel.cancel(bookingId));
+    }
+
+    @Override
+    public int releaseExpiredHolds(Collection<UUID> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        Integer released = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<TourBooking> expired = tourBookingRepository.findExpiredHoldsForUpdate(bookingIds, now);
+            if (expired.isEmpty()) {
+                return 0;
+            }
+
+            List<UUID> expiredIds = new ArrayList<>(expired.size());
+            Map<UUID, Integer> seatsByTrip = new HashMap<>();
+            for (TourBooking booking : expired) {
+                expiredIds.add(booking.getId());
+                seatsByTrip.merge(booking.getTrip().getId(), booking.getSeatsBooked(), Integer::sum);
+            }
+
+            tourBookingRepository.cancelExpiredHolds(expiredIds, TourBooking.Status.CANCELED, now);
+            seatsByTrip.forEach(seatReservationService::release);
+
+            log.info("Released {} expired seat hold(s) across {} trip(s)", expiredIds.size(), seatsByTrip.size());
+            return expiredIds.size();
+        });
+        return released != null ? released : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.booking.hold.tick-ms:1000}")
+    public void expireHolds() {
+        List<UUID> expired = wheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < expired.size(); from += RELEASE_BATCH_SIZE) {
+            List<UUID> batch = expired.subList(from, Math.min(from + RELEASE_BATCH_SIZE, expired.size()));
+            try {
+                releaseExpiredHolds(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to release expired seat holds, retrying on next tick", e);
+                long retryAt = System.currentTimeMillis() + tickMillis;
+                batch.forEach(bookingId -> wheel.schedule(bookingId, retryAt));
+            }
+        }
+    }
+
+    private void scheduleAfterCommit(TourBooking booking) {
+        LocalDateTime deadline = booking.getHoldExpiresAt();
+        // The booking ID may only be assigned once the booking is saved, so read it on commit
+        runAfterCommit(() -> wheel.schedule(booking.getId(), toEpochMillis(deadline)));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
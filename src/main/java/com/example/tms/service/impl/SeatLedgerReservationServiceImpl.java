@@ -0,0 +1,83 @@
+package com.example.tms.service.impl;
+
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.tms.exception.BadRequestException;
+import com.example.tms.service.interface_.SeatReservationService;
+import com.example.tms.service.seat.SeatLedger;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Seat reservation backed by the in-memory seat ledger (app.booking.seat-ledger.enabled=true).
+ * Seats are held in memory immediately and only journaled as a grant once the booking
+ * transaction has committed; they are handed back if it rolls back. Releases only reach
+ * the ledger once the cancel/delete transaction has committed.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.booking.seat-ledger", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SeatLedgerReservationServiceImpl implements SeatReservationService {
+
+    private final SeatLedger seatLedger;
+
+    @Override
+    public boolean tryReserve(UUID tripId, int seats) {
+        if (seats <= 0) {
+            throw new BadRequestException("Number of seats must be greater than 0");
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return seatLedger.tryGrant(tripId, seats);
+        }
+        if (!seatLedger.tryHold(tripId, seats)) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    seatLedger.commitHold(tripId, seats);
+                } else {
+                    seatLedger.cancelHold(tripId, seats);
+                }
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public void release(UUID tripId, int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        runAfterCommit(() -> seatLedger.release(tripId, seats));
+    }
+
+    @Override
+    public int getAvailableSeats(UUID tripId) {
+        return seatLedger.available(tripId);
+    }
+
+    @Override
+    public void refresh(UUID tripId) {
+        runAfterCommit(() -> seatLedger.refresh(tripId));
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.tms.service.impl;
+
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.tms.entity.Trip;
+import com.example.tms.exception.BadRequestException;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.interface_.SeatReservationService;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seat reservation backed by conditional UPDATEs on the trip row.
+ * Runs inside the caller's transaction so a failed booking rolls the seats back with it.
+ *
+ * The UPDATEs bypass the persistence context, so a Trip the caller already loaded is refreshed
+ * afterwards; otherwise it keeps the old bookedSeats and version, and saving it fails or
+ * writes the stale count back.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.booking.seat-ledger", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class SeatReservationServiceImpl implements SeatReservationService {
+
+    private final TripRepository tripRepository;
+    private final RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public boolean tryReserve(UUID tripId, int seats) {
+        if (seats <= 0) {
+            throw new BadRequestException("Number of seats must be greater than 0");
+        }
+        boolean reserved = tripRepository.reserveSeats(tripId, seats) == 1;
+        if (reserved) {
+            refreshLoaded(tripId);
+            routeSearchSummaryUpdater.tripChanged(tripId);
+        } else {
+            log.info("Seat reservation rejected for trip {} ({} seats requested)", tripId, seats);
+        }
+        return reserved;
+    }
+
+    @Override
+    @Transactional
+    public void release(UUID tripId, int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        tripRepository.releaseSeats(tripId, seats);
+        refreshLoaded(tripId);
+        routeSearchSummaryUpdater.tripChanged(tripId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int getAvailableSeats(UUID tripId) {
+        return tripRepository.findAvailableSeats(tripId).orElse(0);
+    }
+
+    // getReference hands back the loaded Trip if there is one, else a proxy that loads fresh state
+    private void refreshLoaded(UUID tripId) {
+        Trip trip = entityManager.getReference(Trip.class, tripId);
+        if (Hibernate.isInitialized(trip)) {
+            entityManager.refresh(trip);
+        }
+    }
+
+    @Override
+    public void refresh(UUID tripId) {
+        // Nothing cached, the trip row is always the source of truth
+    }
+}
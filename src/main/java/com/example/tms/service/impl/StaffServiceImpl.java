@@ -7,11 +7,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.paging.PagedResponseDto;
 import com.example.tms.dto.request.staff.AddStaffRequest;
 import com.example.tms.dto.request.staff.StaffFilterRequest;
@@ -20,7 +22,9 @@ import com.example.tms.dto.response.staff.StaffDetailResponse;
 import com.example.tms.dto.response.staff.StaffListResponse;
 import com.example.tms.entity.User;
 import com.example.tms.repository.UserRepository;
+import com.example.tms.security.UserStatusCache;
 import com.example.tms.service.interface_.StaffService;
+import com.example.tms.service.paging.CursorPager;
 
 import lombok.RequiredArgsConstructor;
 
@@ -30,16 +34,15 @@ public class StaffServiceImpl implements StaffService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CursorPager cursorPager;
+    private final UserStatusCache userStatusCache;
 
     @Override
     @Transactional(readOnly = true)
     public PagedResponseDto<StaffListResponse> getAllStaffs(StaffFilterRequest filter) {
         Specification<User> spec = buildStaffSpecification(filter);
         
-        Sort sort = Sort.by(
-            filter.getSortDirection().equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC,
-            filter.getSortBy()
-        );
+        Sort sort = buildStaffSort(filter);
         
         Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
         Page<User> staffPage = userRepository.findAll(spec, pageable);
@@ -51,6 +54,27 @@ public class StaffServiceImpl implements StaffService {
         return PagedResponseDto.of(staffList, staffPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponseDto<StaffListResponse> getAllStaffsByCursor(StaffFilterRequest filter) {
+        Sort sort = buildStaffSort(filter);
+        Window<User> staffWindow = cursorPager.scroll(User.class, buildStaffSpecification(filter),
+            sort, filter.getSize(), filter.getCursor());
+        
+        List<StaffListResponse> staffList = staffWindow.getContent().stream()
+            .map(this::mapToStaffListResponse)
+            .toList();
+        
+        return cursorPager.toResponse(staffWindow, staffList, sort);
+    }
+
+    private Sort buildStaffSort(StaffFilterRequest filter) {
+        return Sort.by(
+            filter.getSortDirection().equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC,
+            filter.getSortBy()
+        );
+    }
+
     private Specification<User> buildStaffSpecification(StaffFilterRequest filter) {
         Specification<User> spec = (root, query, cb) -> cb.equal(root.get("role"), User.Role.STAFF);
         
@@ -205,6 +229,9 @@ public class StaffServiceImpl implements StaffService {
 
             // Force flush so unique constraints depending on deleted_at are updated immediately
             userRepository.flush();
+
+            // Stop accepting the user's access tokens on this node once the delete commits, without waiting for the revocation window
+            userStatusCache.evict(id);
         } catch (org.springframework.orm.ObjectOptimisticLockingFailureException e) {
             throw new RuntimeException("Staff was updated by another transaction. Please refresh and try again.");
         }
@@ -2,6 +2,7 @@ package com.example.tms.service.impl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -10,10 +11,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.booking.TravelerRequest;
 import com.example.tms.dto.request.tourbooking.CreateTourBookingRequest;
 import com.example.tms.dto.request.tourbooking.TourBookingFilterRequest;
@@ -32,7 +35,11 @@ import com.example.tms.repository.TourBookingDetailRepository;
 import com.example.tms.repository.TourBookingRepository;
 import com.example.tms.repository.TripRepository;
 import com.example.tms.repository.UserRepository;
+import com.example.tms.service.booking.BookingBatchLoader;
+import com.example.tms.service.interface_.SeatHoldService;
+import com.example.tms.service.interface_.SeatReservationService;
 import com.example.tms.service.interface_.TourBookingService;
+import com.example.tms.service.paging.CursorPager;
 
 import lombok.RequiredArgsConstructor;
 
@@ -46,12 +53,16 @@ public class TourBookingServiceImpl implements TourBookingService {
     private final TourBookingDetailRepository tourBookingDetailRepository;
     private final BookingTravelerRepository bookingTravelerRepository;
     private final InvoiceRepository invoiceRepository;
+    private final SeatReservationService seatReservationService;
+    private final SeatHoldService seatHoldService;
+    private final BookingBatchLoader bookingBatchLoader;
+    private final CursorPager cursorPager;
 
     @Override
     @Transactional
     public TourBookingResponse create(CreateTourBookingRequest request) {
         // Validate trip
-        Trip trip = tripRepository.findByIdWithLock(request.getTripId())
+        Trip trip = tripRepository.findActiveById(request.getTripId())
                 .orElseThrow(() -> new RuntimeException("Trip not found"));
 
         if (trip.getStatus() != Trip.Status.SCHEDULED) {
@@ -76,9 +87,9 @@ public class TourBookingServiceImpl implements TourBookingService {
             throw new RuntimeException("Number of travelers does not match the sum of adults and children");
         }
 
-        // Check seat availability
-        int availableSeats = trip.getTotalSeats() - trip.getBookedSeats();
-        if (totalTravelers > availableSeats) {
+        // Reserve seats atomically
+        if (!seatReservationService.tryReserve(trip.getId(), totalTravelers)) {
+            int availableSeats = seatReservationService.getAvailableSeats(trip.getId());
             throw new RuntimeException("Not enough available seats. Available: " + availableSeats);
         }
 
@@ -95,10 +106,6 @@ public class TourBookingServiceImpl implements TourBookingService {
 
         TourBooking savedBooking = tourBookingRepository.save(booking);
 
-        // Update trip booked seats
-        trip.setBookedSeats(trip.getBookedSeats() + totalTravelers);
-        tripRepository.save(trip);
-
         // Create booking detail
         TourBookingDetail detail = new TourBookingDetail();
         detail.setTourBooking(savedBooking);
@@ -106,7 +113,8 @@ public class TourBookingServiceImpl implements TourBookingService {
         detail.setNoChildren(request.getNoChildren());
         tourBookingDetailRepository.save(detail);
 
-        // Create travelers
+        // Create travelers (inserted as one JDBC batch on flush)
+        List<BookingTraveler> travelers = new ArrayList<>(totalTravelers);
         for (TravelerRequest travelerReq : request.getTravelers()) {
             BookingTraveler traveler = new BookingTraveler();
             traveler.setTourBooking(savedBooking);
@@ -118,8 +126,9 @@ public class TourBookingServiceImpl implements TourBookingService {
             traveler.setIdentityDoc(travelerReq.getIdentityDoc());
             traveler.setEmail(travelerReq.getEmail());
             traveler.setPhoneNumber(travelerReq.getPhoneNumber());
-            bookingTravelerRepository.save(traveler);
+            travelers.add(traveler);
         }
+        bookingTravelerRepository.saveAll(travelers);
 
         // Create invoice
         Invoice invoice = new Invoice();
@@ -143,29 +152,36 @@ public class TourBookingServiceImpl implements TourBookingService {
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<TourBookingResponse> getAll(TourBookingFilterRequest filter) {
-        Sort sort = Sort.by(
-                filter.getSortDirection().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC,
-                filter.getSortBy());
+        Sort sort = buildSort(filter);
         Pageable pageable = PageRequest.of(filter.getPage() - 1, filter.getPageSize(), sort);
 
         Specification<TourBooking> spec = buildSpecification(filter);
         Page<TourBooking> page = tourBookingRepository.findAll(spec, pageable);
 
-        List<TourBookingResponse> items = page.getContent().stream()
-                .map(this::buildResponse)
-                .collect(Collectors.toList());
+        return new PaginationResponse<>(page, buildResponses(page.getContent()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponseDto<TourBookingResponse> getAllByCursor(TourBookingFilterRequest filter) {
+        Sort sort = buildSort(filter);
+        Window<TourBooking> window = cursorPager.scroll(TourBooking.class,
+                buildSpecification(filter), sort, filter.getPageSize(), filter.getCursor(),
+                "trip", "trip.route", "user");
 
-        return new PaginationResponse<>(page, items);
+        return cursorPager.toResponse(window, buildResponses(window.getContent()), sort);
+    }
+
+    private Sort buildSort(TourBookingFilterRequest filter) {
+        return Sort.by(
+                filter.getSortDirection().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                filter.getSortBy());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<TourBookingResponse> getByUserId(UUID userId) {
-        return tourBookingRepository.findAll().stream()
-                .filter(b -> b.getDeletedAt() == 0)
-                .filter(b -> b.getUser().getId().equals(userId))
-                .map(this::buildResponse)
-                .collect(Collectors.toList());
+        return buildResponses(tourBookingRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
     @Override
@@ -184,13 +200,15 @@ public class TourBookingServiceImpl implements TourBookingService {
                 }
             }
             booking.setStatus(request.getStatus());
+            if (request.getStatus() != TourBooking.Status.PENDING) {
+                seatHoldService.clearHold(booking);
+            }
         }
 
         // Update travelers if provided (only before departure)
         if (request.getTravelers() != null && !request.getTravelers().isEmpty()) {
-            // IMPORTANT: Lock Trip to prevent race condition when changing seat count
-            Trip trip = tripRepository.findByIdWithLock(booking.getTrip().getId())
-                    .orElseThrow(() -> new RuntimeException("Trip not found"));
+            // Seat count changes go through atomic reservation, no trip lock needed
+            Trip trip = booking.getTrip();
 
             // Check invoice status for payment restrictions
             Invoice invoice = invoiceRepository.findByBookingId(id).orElse(null);
@@ -231,18 +249,16 @@ public class TourBookingServiceImpl implements TourBookingService {
             if (newTotalTravelers != currentTravelers) {
                 int seatDifference = newTotalTravelers - currentTravelers;
 
-                // If adding travelers, check availability
+                // Adding travelers reserves seats, removing travelers releases them
                 if (seatDifference > 0) {
-                    int availableSeats = trip.getTotalSeats() - trip.getBookedSeats();
-                    if (seatDifference > availableSeats) {
+                    if (!seatReservationService.tryReserve(trip.getId(), seatDifference)) {
+                        int availableSeats = seatReservationService.getAvailableSeats(trip.getId());
                         throw new RuntimeException("Not enough available seats. Available: " + availableSeats);
                     }
+                } else {
+                    seatReservationService.release(trip.getId(), -seatDifference);
                 }
 
-                // Update trip booked seats
-                trip.setBookedSeats(trip.getBookedSeats() + seatDifference);
-                tripRepository.save(trip);
-
                 // Update booking seats and price
                 booking.setSeatsBooked(newTotalTravelers);
                 BigDecimal newPrice = trip.getPrice().multiply(BigDecimal.valueOf(newTotalTravelers));
@@ -304,9 +320,7 @@ public class TourBookingServiceImpl implements TourBookingService {
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         // Return seats to trip
-        Trip trip = booking.getTrip();
-        trip.setBookedSeats(trip.getBookedSeats() - booking.getSeatsBooked());
-        tripRepository.save(trip);
+        seatReservationService.release(booking.getTrip().getId(), booking.getSeatsBooked());
 
         booking.markAsDeleted();
         tourBookingRepository.save(booking);
@@ -328,11 +342,10 @@ public class TourBookingServiceImpl implements TourBookingService {
         }
 
         // Return seats to trip
-        Trip trip = booking.getTrip();
-        trip.setBookedSeats(trip.getBookedSeats() - booking.getSeatsBooked());
-        tripRepository.save(trip);
+        seatReservationService.release(booking.getTrip().getId(), booking.getSeatsBooked());
 
         booking.setStatus(TourBooking.Status.CANCELED);
+        seatHoldService.clearHold(booking);
         tourBookingRepository.save(booking);
 
         // Update invoice status: PAID -> REFUNDED, UNPAID stays UNPAID
@@ -406,8 +419,7 @@ public class TourBookingServiceImpl implements TourBookingService {
         tourBookingRepository.save(booking);
 
         // Update trip booked seats
-        trip.setBookedSeats(trip.getBookedSeats() - 1);
-        tripRepository.save(trip);
+        seatReservationService.release(trip.getId(), 1);
 
         // Update invoice total amount
         invoice.setTotalAmount(newTotalPrice);
@@ -425,16 +437,29 @@ public class TourBookingServiceImpl implements TourBookingService {
     }
 
     private TourBookingResponse buildResponse(TourBooking booking) {
+        return buildResponse(booking, bookingBatchLoader.load(List.of(booking)));
+    }
+
+    private List<TourBookingResponse> buildResponses(List<TourBooking> bookings) {
+        // Details, travelers and invoices of all bookings in one query per table
+        BookingBatchLoader.BookingRows rows = bookingBatchLoader.load(bookings);
+        return bookings.stream()
+                .map(booking -> buildResponse(booking, rows))
+                .collect(Collectors.toList());
+    }
+
+    private TourBookingResponse buildResponse(TourBooking booking, BookingBatchLoader.BookingRows rows) {
         TourBookingResponse response = new TourBookingResponse(booking);
 
         // Get booking detail
-        tourBookingDetailRepository.findByBookingId(booking.getId()).ifPresent(detail -> {
+        TourBookingDetail detail = rows.detail(booking.getId());
+        if (detail != null) {
             response.setNoAdults(detail.getNoAdults());
             response.setNoChildren(detail.getNoChildren());
-        });
+        }
 
         // Get travelers
-        List<BookingTraveler> travelers = bookingTravelerRepository.findByBookingId(booking.getId());
+        List<BookingTraveler> travelers = rows.travelers(booking.getId());
         List<TourBookingResponse.TravelerInfoResponse> travelerResponses = travelers.stream()
                 .map(t -> {
                     TourBookingResponse.TravelerInfoResponse info = new TourBookingResponse.TravelerInfoResponse();
@@ -451,14 +476,15 @@ public class TourBookingServiceImpl implements TourBookingService {
         response.setTravelers(travelerResponses);
 
         // Get invoice
-        invoiceRepository.findByBookingId(booking.getId()).ifPresent(inv -> {
+        Invoice inv = rows.invoice(booking.getId());
+        if (inv != null) {
             TourBookingResponse.InvoiceInfoResponse invoiceInfo = new TourBookingResponse.InvoiceInfoResponse();
             invoiceInfo.setId(inv.getId());
             invoiceInfo.setTotalAmount(inv.getTotalAmount());
             invoiceInfo.setPaymentStatus(inv.getPaymentStatus().name());
             invoiceInfo.setPaymentMethod(inv.getPaymentMethod());
             response.setInvoice(invoiceInfo);
-        });
+        }
 
         return response;
     }
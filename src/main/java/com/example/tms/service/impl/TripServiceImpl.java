@@ -4,16 +4,20 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.trip.CreateTripRequest;
 import com.example.tms.dto.request.trip.TripFilterRequest;
 import com.example.tms.dto.request.trip.UpdateTripRequest;
@@ -26,7 +30,13 @@ import com.example.tms.entity.Trip;
 import com.example.tms.repository.RouteRepository;
 import com.example.tms.repository.TourBookingRepository;
 import com.example.tms.repository.TripRepository;
+import com.example.tms.service.interface_.SeatReservationService;
 import com.example.tms.service.interface_.TripService;
+import com.example.tms.service.paging.CursorPager;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -39,6 +49,12 @@ public class TripServiceImpl implements TripService {
     private final TripRepository tripRepository;
     private final RouteRepository routeRepository;
     private final TourBookingRepository tourBookingRepository;
+    private final SeatReservationService seatReservationService;
+    private final CursorPager cursorPager;
+    private final RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
@@ -82,6 +98,7 @@ public class TripServiceImpl implements TripService {
         trip.setStatus(Trip.Status.SCHEDULED);
 
         Trip saved = tripRepository.save(trip);
+        routeSearchSummaryUpdater.tripChanged(saved.getId());
         return new TripResponse(saved);
     }
 
@@ -97,9 +114,7 @@ public class TripServiceImpl implements TripService {
     @Override
     @Transactional(readOnly = true)
     public PaginationResponse<TripResponse> getAll(TripFilterRequest filter) {
-        Sort sort = Sort.by(
-                filter.getSortDirection().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC,
-                filter.getSortBy());
+        Sort sort = buildSort(filter);
         Pageable pageable = PageRequest.of(filter.getPage() - 1, filter.getPageSize(), sort);
 
         Specification<Trip> spec = buildSpecification(filter);
@@ -114,11 +129,34 @@ public class TripServiceImpl implements TripService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<TripResponse> getAllNoPagination() {
-        return tripRepository.findAll().stream()
-                .filter(t -> t.getDeletedAt() == 0)
+    public CursorPagedResponseDto<TripResponse> getAllByCursor(TripFilterRequest filter) {
+        Sort sort = buildSort(filter);
+        Window<Trip> window = cursorPager.scroll(Trip.class, buildSpecification(filter),
+                sort, filter.getPageSize(), filter.getCursor(), "route");
+
+        List<TripResponse> items = window.getContent().stream()
                 .map(TripResponse::new)
                 .collect(Collectors.toList());
+
+        return cursorPager.toResponse(window, items, sort);
+    }
+
+    private Sort buildSort(TripFilterRequest filter) {
+        return Sort.by(
+                filter.getSortDirection().equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC,
+                filter.getSortBy());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<TripResponse> consumer) {
+        try (Stream<Trip> trips = tripRepository.streamAllActive()) {
+            trips.forEach(t -> {
+                consumer.accept(new TripResponse(t));
+                // Drop the row from the persistence context so memory does not grow with the table
+                entityManager.detach(t);
+            });
+        }
     }
 
     @Override
@@ -132,6 +170,8 @@ public class TripServiceImpl implements TripService {
             Route route = routeRepository.findById(request.getRouteId())
                     .filter(r -> r.getDeletedAt() == 0)
                     .orElseThrow(() -> new RuntimeException("Route not found"));
+            // The route the trip leaves needs its summary refreshed too
+            routeSearchSummaryUpdater.routeChanged(trip.getRoute().getId());
             trip.setRoute(route);
         }
         if (request.getDepartureDate() != null) {
@@ -144,7 +184,8 @@ public class TripServiceImpl implements TripService {
             trip.setPrice(request.getPrice());
         }
         if (request.getTotalSeats() != null) {
-            if (request.getTotalSeats() < trip.getBookedSeats()) {
+            int bookedSeats = trip.getTotalSeats() - seatReservationService.getAvailableSeats(id);
+            if (request.getTotalSeats() < bookedSeats) {
                 throw new RuntimeException("Total seats cannot be less than booked seats");
             }
             trip.setTotalSeats(request.getTotalSeats());
@@ -187,6 +228,10 @@ public class TripServiceImpl implements TripService {
         }
 
         Trip updated = tripRepository.save(trip);
+        if (request.getTotalSeats() != null || request.getStatus() != null) {
+            seatReservationService.refresh(id);
+        }
+        routeSearchSummaryUpdater.tripChanged(id);
         return new TripResponse(updated);
     }
 
@@ -197,12 +242,13 @@ public class TripServiceImpl implements TripService {
                 .filter(t -> t.getDeletedAt() == 0)
                 .orElseThrow(() -> new RuntimeException("Trip not found"));
 
-        if (trip.getBookedSeats() > 0) {
+        if (trip.getTotalSeats() - seatReservationService.getAvailableSeats(id) > 0) {
             throw new RuntimeException("Cannot delete trip with existing bookings");
         }
 
         trip.markAsDeleted();
         tripRepository.save(trip);
+        routeSearchSummaryUpdater.tripChanged(id);
     }
 
     @Override
@@ -223,6 +269,8 @@ public class TripServiceImpl implements TripService {
         // Cancel the trip
         trip.setStatus(Trip.Status.CANCELED);
         Trip updated = tripRepository.save(trip);
+        seatReservationService.refresh(id);
+        routeSearchSummaryUpdater.tripChanged(id);
 
         // Find all active bookings for this trip and cancel them
         List<TourBooking> activeBookings = tourBookingRepository.findByTripId(id).stream()
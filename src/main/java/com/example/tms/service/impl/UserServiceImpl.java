@@ -9,12 +9,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.CreateUserRequest;
 import com.example.tms.dto.request.UpdateUserRequest;
 import com.example.tms.dto.request.UserFilterRequest;
@@ -22,7 +24,9 @@ import com.example.tms.dto.response.PaginationResponse;
 import com.example.tms.dto.response.UserResponse;
 import com.example.tms.entity.User;
 import com.example.tms.repository.UserRepository;
+import com.example.tms.security.UserStatusCache;
 import com.example.tms.service.interface_.UserService;
+import com.example.tms.service.paging.CursorPager;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,6 +36,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CursorPager cursorPager;
+    private final UserStatusCache userStatusCache;
 
     @Override
     @Transactional
@@ -126,12 +132,7 @@ public class UserServiceImpl implements UserService {
         Specification<User> spec = buildUserSpecification(filter);
         
         // Build sort
-        Sort sort = Sort.by(
-            filter.getSortDirection().equalsIgnoreCase("ASC") 
-                ? Sort.Direction.ASC 
-                : Sort.Direction.DESC,
-            filter.getSortBy()
-        );
+        Sort sort = buildUserSort(filter);
         
         // Build pageable
         Pageable pageable = PageRequest.of(filter.getPage(), filter.getSize(), sort);
@@ -147,6 +148,29 @@ public class UserServiceImpl implements UserService {
         return new PaginationResponse<>(userPage, userResponses);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponseDto<UserResponse> getAllUsersByCursor(UserFilterRequest filter) {
+        Sort sort = buildUserSort(filter);
+        Window<User> window = cursorPager.scroll(User.class, buildUserSpecification(filter),
+                sort, filter.getSize(), filter.getCursor());
+
+        List<UserResponse> userResponses = window.getContent().stream()
+                .map(UserResponse::new)
+                .collect(Collectors.toList());
+
+        return cursorPager.toResponse(window, userResponses, sort);
+    }
+
+    private Sort buildUserSort(UserFilterRequest filter) {
+        return Sort.by(
+            filter.getSortDirection().equalsIgnoreCase("ASC") 
+                ? Sort.Direction.ASC 
+                : Sort.Direction.DESC,
+            filter.getSortBy()
+        );
+    }
+
     /**
      * Build Specification for user filtering
      */
@@ -286,6 +310,9 @@ public class UserServiceImpl implements UserService {
             
             // Force flush to database to update composite unique key immediately
             userRepository.flush();
+
+            // Stop accepting the user's access tokens on this node once the delete commits, without waiting for the revocation window
+            userStatusCache.evict(id);
         } catch (ObjectOptimisticLockingFailureException e) {
             throw new RuntimeException("User was updated by another transaction. Please refresh and try again.");
         }
@@ -2,6 +2,7 @@ package com.example.tms.service.interface_;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import com.example.tms.dto.request.attraction.AttractionFilterRequest;
 import com.example.tms.dto.request.attraction.CreateAttractionRequest;
@@ -17,7 +18,7 @@ public interface AttractionService {
     
     PaginationResponse<AttractionResponse> getAll(AttractionFilterRequest filter);
     
-    List<AttractionResponse> getAllNoPagination();
+    void streamAll(Consumer<AttractionResponse> consumer);
     
     AttractionResponse update(UUID id, UpdateAttractionRequest request);
     
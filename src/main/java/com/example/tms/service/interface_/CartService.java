@@ -8,12 +8,12 @@ import com.example.tms.dto.request.cart.UpdateCartItemRequest;
 import com.example.tms.dto.response.cart.CartResponse;
 
 public interface CartService {
-    CartResponse getCart(String username);
-    CartResponse addToCart(String username, AddToCartRequest request);
-    CartResponse updateCartItem(String username, UUID cartItemId, UpdateCartItemRequest request);
-    void removeFromCart(String username, UUID cartItemId);
-    void removeMultipleFromCart(String username, List<UUID> cartItemIds);
-    void clearCart(String username);
-    boolean hasTripInCart(String username, UUID tripId);
+    CartResponse getCart(UUID userId);
+    CartResponse addToCart(UUID userId, AddToCartRequest request);
+    CartResponse updateCartItem(UUID userId, UUID cartItemId, UpdateCartItemRequest request);
+    void removeFromCart(UUID userId, UUID cartItemId);
+    void removeMultipleFromCart(UUID userId, List<UUID> cartItemIds);
+    void clearCart(UUID userId);
+    boolean hasTripInCart(UUID userId, UUID tripId);
 }
 
@@ -1,10 +1,14 @@
 package com.example.tms.service.interface_;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.tms.entity.ImageAsset.OwnerType;
+
 public interface CloudinaryService {
     
     /**
@@ -94,6 +98,24 @@ public interface CloudinaryService {
      */
     List<String> getRouteImages(UUID routeId);
     
+    /**
+     * Upload an already validated route or attraction image, e.g. from a spooled upload job.
+     * Index 0 is the main image; for routes it also updates the Route entity's image field
+     * @param image Image to upload
+     * @param ownerType ROUTE or ATTRACTION
+     * @param ownerId Route or attraction ID
+     * @param index Image index (0 for the main image, 1, 2, 3, ... for the gallery)
+     * @return URL of uploaded image
+     */
+    String uploadOwnerImage(InputStreamSource image, OwnerType ownerType, UUID ownerId, int index);
+    
+    /**
+     * Get the sizes available for an uploaded image
+     * @param imageUrl Full-size image URL
+     * @return Image URLs by width descriptor ("320w", "640w", ...), smallest first, or null if unknown
+     */
+    Map<String, String> getImageSrcset(String imageUrl);
+    
     /**
      * Upload main attraction image (uploads to Cloudinary only, does NOT update database)
      * Naming convention: attraction_{attractionId}_main
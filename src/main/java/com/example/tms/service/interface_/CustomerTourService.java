@@ -9,6 +9,7 @@ import com.example.tms.dto.response.customer.FavoriteDestinationImageResponse;
 import com.example.tms.dto.response.customer.HomePageDataResponse;
 import com.example.tms.dto.response.customer.SearchSuggestionResponse;
 import com.example.tms.dto.response.customer.TourCardResponse;
+import com.example.tms.dto.response.customer.TourFacetResponse;
 
 public interface CustomerTourService {
     
@@ -32,6 +33,11 @@ public interface CustomerTourService {
      */
     PaginationResponse<TourCardResponse> searchTours(TourSearchRequest request, UUID userId);
     
+    /**
+     * Get per-value route counts of the browsing facets for the current selection
+     */
+    TourFacetResponse getTourFacets(TourSearchRequest request);
+    
     /**
      * Get all distinct start locations for filter dropdown
      */
@@ -0,0 +1,32 @@
+package com.example.tms.service.interface_;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.tms.dto.response.ImageUploadJobResponse;
+import com.example.tms.entity.ImageAsset.OwnerType;
+
+public interface ImageUploadJobService {
+
+    /**
+     * Queue route or attraction images for processing and upload. Files are spooled to disk
+     * before returning, so the request thread does not wait for Cloudinary.
+     * @param ownerType ROUTE or ATTRACTION
+     * @param ownerId Route or attraction ID
+     * @param files Image files (1 to 10)
+     * @param indexes Image index of each file (0 = main image, 1-10 = gallery); null for 1, 2, 3, ...
+     * @param waitMs How long to wait for the jobs to finish before returning (0 = do not wait)
+     * @return One job per file, in the order of files
+     */
+    List<ImageUploadJobResponse> submit(OwnerType ownerType, UUID ownerId, List<MultipartFile> files,
+            List<Integer> indexes, long waitMs);
+
+    /**
+     * Get the state of an upload job
+     * @param jobId Job ID returned by submit
+     * @return Job state
+     */
+    ImageUploadJobResponse getJob(UUID jobId);
+}
@@ -2,6 +2,7 @@ package com.example.tms.service.interface_;
 
 import java.util.UUID;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.invoice.CreateInvoiceRequest;
 import com.example.tms.dto.request.invoice.InvoiceFilterRequest;
 import com.example.tms.dto.request.invoice.UpdateInvoiceRequest;
@@ -18,6 +19,8 @@ public interface InvoiceService {
     
     PaginationResponse<InvoiceResponse> getAll(InvoiceFilterRequest filter);
     
+    CursorPagedResponseDto<InvoiceResponse> getAllByCursor(InvoiceFilterRequest filter);
+    
     InvoiceResponse update(UUID id, UpdateInvoiceRequest request);
     
     void delete(UUID id);
@@ -2,6 +2,7 @@ package com.example.tms.service.interface_;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import com.example.tms.dto.request.route.CreateRouteRequest;
 import com.example.tms.dto.request.route.RouteFilterRequest;
@@ -31,7 +32,7 @@ public interface RouteService {
     
     PaginationResponse<RouteResponse> getAll(RouteFilterRequest filter);
     
-    List<RouteResponse> getAllNoPagination();
+    void streamAll(Consumer<RouteResponse> consumer);
     
     RouteResponse update(UUID id, UpdateRouteRequest request);
     
@@ -0,0 +1,37 @@
+package com.example.tms.service.interface_;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import com.example.tms.entity.TourBooking;
+
+public interface SeatHoldService {
+
+    /**
+     * Give a PENDING booking a payment deadline; its seats are released when it passes.
+     * Can be called before the booking is saved, the timer starts when the transaction commits.
+     * @param booking Booking to hold
+     */
+    void startHold(TourBooking booking);
+
+    /**
+     * Push the deadline of an active hold so it lasts at least another full hold period
+     * (e.g. while the customer is on the payment gateway)
+     * @param booking Booking with an active hold
+     */
+    void extendHold(TourBooking booking);
+
+    /**
+     * End the hold of a booking that was paid, confirmed or canceled
+     * @param booking Booking to release from the hold timer
+     */
+    void clearHold(TourBooking booking);
+
+    /**
+     * Cancel the given bookings whose hold has expired and return their seats
+     * (one seat release per trip)
+     * @param bookingIds Candidate booking IDs
+     * @return Number of bookings canceled
+     */
+    int releaseExpiredHolds(Collection<UUID> bookingIds);
+}
@@ -0,0 +1,34 @@
+package com.example.tms.service.interface_;
+
+import java.util.UUID;
+
+public interface SeatReservationService {
+
+    /**
+     * Atomically reserve seats on a scheduled trip with a single conditional UPDATE
+     * @param tripId Trip ID
+     * @param seats Number of seats to reserve (must be greater than 0)
+     * @return true if the seats were granted, false if the trip is not bookable or has too few seats left
+     */
+    boolean tryReserve(UUID tripId, int seats);
+
+    /**
+     * Return previously reserved seats to a trip
+     * @param tripId Trip ID
+     * @param seats Number of seats to release
+     */
+    void release(UUID tripId, int seats);
+
+    /**
+     * Get the number of seats still available on a trip
+     * @param tripId Trip ID
+     * @return Remaining seats, or 0 if the trip does not exist
+     */
+    int getAvailableSeats(UUID tripId);
+
+    /**
+     * Reload seat state for a trip after its capacity or status changed
+     * @param tripId Trip ID
+     */
+    void refresh(UUID tripId);
+}
@@ -2,6 +2,7 @@ package com.example.tms.service.interface_;
 
 import java.util.UUID;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.paging.PagedResponseDto;
 import com.example.tms.dto.request.staff.AddStaffRequest;
 import com.example.tms.dto.request.staff.StaffFilterRequest;
@@ -11,6 +12,7 @@ import com.example.tms.dto.response.staff.StaffListResponse;
 
 public interface StaffService {
     PagedResponseDto<StaffListResponse> getAllStaffs(StaffFilterRequest filter);
+    CursorPagedResponseDto<StaffListResponse> getAllStaffsByCursor(StaffFilterRequest filter);
     StaffDetailResponse getStaffById(UUID id);
     StaffDetailResponse createStaff(AddStaffRequest request);
     StaffDetailResponse updateStaff(UUID id, UpdateStaffRequest request);
@@ -3,6 +3,7 @@ package com.example.tms.service.interface_;
 import java.util.List;
 import java.util.UUID;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.tourbooking.CreateTourBookingRequest;
 import com.example.tms.dto.request.tourbooking.TourBookingFilterRequest;
 import com.example.tms.dto.request.tourbooking.UpdateTourBookingRequest;
@@ -17,6 +18,8 @@ public interface TourBookingService {
 
     PaginationResponse<TourBookingResponse> getAll(TourBookingFilterRequest filter);
 
+    CursorPagedResponseDto<TourBookingResponse> getAllByCursor(TourBookingFilterRequest filter);
+
     List<TourBookingResponse> getByUserId(UUID userId);
 
     TourBookingResponse update(UUID id, UpdateTourBookingRequest request);
@@ -2,7 +2,9 @@ package com.example.tms.service.interface_;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.trip.CreateTripRequest;
 import com.example.tms.dto.request.trip.TripFilterRequest;
 import com.example.tms.dto.request.trip.UpdateTripRequest;
@@ -18,7 +20,9 @@ public interface TripService {
 
     PaginationResponse<TripResponse> getAll(TripFilterRequest filter);
 
-    List<TripResponse> getAllNoPagination();
+    CursorPagedResponseDto<TripResponse> getAllByCursor(TripFilterRequest filter);
+
+    void streamAll(Consumer<TripResponse> consumer);
 
     TripResponse update(UUID id, UpdateTripRequest request);
 
@@ -6,6 +6,7 @@ import java.util.UUID;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import com.example.tms.dto.paging.CursorPagedResponseDto;
 import com.example.tms.dto.request.CreateUserRequest;
 import com.example.tms.dto.request.UpdateUserRequest;
 import com.example.tms.dto.request.UserFilterRequest;
@@ -21,6 +22,9 @@ public interface UserService {
     // New method with filter DTO
     PaginationResponse<UserResponse> getAllUsers(UserFilterRequest filter);
     
+    // Keyset pagination without a total count, for large user tables
+    CursorPagedResponseDto<UserResponse> getAllUsersByCursor(UserFilterRequest filter);
+    
     // Legacy methods (keep for backward compatibility)
     List<UserResponse> getAllUsers();
     Page<UserResponse> getAllUsersWithPagination(Pageable pageable, boolean includeDeleted);
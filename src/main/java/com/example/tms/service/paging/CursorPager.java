@@ -0,0 +1,218 @@
+package com.example.tms.service.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import com.example.tms.dto.paging.CursorPagedResponseDto;
+import com.example.tms.exception.BadRequestException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keyset (seek) pagination for admin list endpoints.
+ *
+ * Each slice is read with WHERE (sortKey, id) > (last sortKey, last id) instead of an OFFSET,
+ * so deep slices cost the same as the first one and no COUNT query is run. The position of the
+ * last row is handed to the client as an opaque, URL-safe cursor that also records the sort it
+ * belongs to. The sort key should be backed by an index to get the full benefit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CursorPager {
+
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Read the slice after the given cursor (null for the first slice)
+     *
+     * @param fetch associations to load with the rows, parents before children, e.g. "trip", "trip.route"
+     */
+    public <T> Window<T> scroll(Class<T> type, Specification<T> spec, Sort sort, int size, String cursor,
+            String... fetch) {
+        Sort keyset = withIdTieBreaker(sort);
+        int limit = Math.max(1, size);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        List<Predicate> where = new ArrayList<>();
+        Predicate filter = spec.toPredicate(root, query, cb);
+        if (filter != null) {
+            where.add(filter);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            where.add(after(cb, root, keyset, decode(type, keyset, cursor)));
+        }
+        query.where(where.toArray(new Predicate[0]));
+        query.orderBy(QueryUtils.toOrders(keyset, root, cb));
+
+        // One extra row tells whether another slice follows, without counting
+        TypedQuery<T> typedQuery = entityManager.createQuery(query).setMaxResults(limit + 1);
+        if (fetch.length > 0) {
+            typedQuery.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, fetchGraph(type, fetch));
+        }
+        List<T> rows = typedQuery.getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<T> content = hasNext ? rows.subList(0, limit) : rows;
+
+        return Window.from(content, index -> ScrollPosition.forward(keysOf(content.get(index), keyset)), hasNext);
+    }
+
+    /**
+     * Wrap the (already mapped) content of a window together with the cursor of its last row
+     */
+    public <R> CursorPagedResponseDto<R> toResponse(Window<?> window, List<R> content, Sort sort) {
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? encode(withIdTieBreaker(sort), (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        Sort.Order order = sort.iterator().next();
+        return CursorPagedResponseDto.of(content, content.size(), nextCursor,
+                order.getProperty(), order.getDirection().name());
+    }
+
+    // Rows with equal sort keys are ordered by id so every row has a unique position
+    private static Sort withIdTieBreaker(Sort sort) {
+        if (sort.getOrderFor("id") != null) {
+            return sort;
+        }
+        return sort.and(Sort.by(sort.iterator().next().getDirection(), "id"));
+    }
+
+    /*
+     * Rows strictly after the given keys in sort order: for keys (a, b),
+     * a > :a OR (a = :a AND b > :b). NULL sorts lowest, as in MySQL.
+     */
+    private static Predicate after(CriteriaBuilder cb, Root<?> root, Sort keyset, Map<String, Object> keys) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalSoFar = new ArrayList<>();
+        for (Sort.Order order : keyset) {
+            Path<Comparable<Object>> path = path(root, order.getProperty());
+            Object value = keys.get(order.getProperty());
+
+            List<Predicate> alternative = new ArrayList<>(equalSoFar);
+            alternative.add(beyond(cb, path, value, order.isAscending()));
+            alternatives.add(cb.and(alternative.toArray(new Predicate[0])));
+
+            equalSoFar.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+        }
+        return cb.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate beyond(CriteriaBuilder cb, Path<Comparable<Object>> path, Object value, boolean ascending) {
+        if (ascending) {
+            return value == null ? cb.isNotNull(path) : cb.greaterThan(path, (Comparable<Object>) value);
+        }
+        return value == null ? cb.disjunction() : cb.or(cb.lessThan(path, (Comparable<Object>) value), cb.isNull(path));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Path<Comparable<Object>> path(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String attribute : property.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return (Path<Comparable<Object>>) path;
+    }
+
+    private static Map<String, Object> keysOf(Object entity, Sort keyset) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : keyset) {
+            keys.put(order.getProperty(), wrapper.getPropertyValue(order.getProperty()));
+        }
+        return keys;
+    }
+
+    private EntityGraph<?> fetchGraph(Class<?> type, String... fetch) {
+        EntityGraph<?> graph = entityManager.createEntityGraph(type);
+        Map<String, Subgraph<?>> subgraphs = new HashMap<>();
+        for (String path : fetch) {
+            int dot = path.lastIndexOf('.');
+            Subgraph<?> subgraph = dot < 0
+                    ? graph.addSubgraph(path)
+                    : subgraphs.get(path.substring(0, dot)).addSubgraph(path.substring(dot + 1));
+            subgraphs.put(path, subgraph);
+        }
+        return graph;
+    }
+
+    private String encode(Sort keyset, KeysetScrollPosition position) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("sort", keyset.toString());
+        node.set("keys", objectMapper.valueToTree(position.getKeys()));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(node);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode cursor", e);
+        }
+    }
+
+    private Map<String, Object> decode(Class<?> type, Sort keyset, String cursor) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (!keyset.toString().equals(node.path("sort").asText())) {
+            throw new BadRequestException("Cursor does not match the requested sort");
+        }
+
+        // JSON loses the key types, so convert each key back to the type of the attribute it came from
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            for (Sort.Order order : keyset) {
+                JsonNode value = node.path("keys").get(order.getProperty());
+                if (value == null) {
+                    throw new BadRequestException("Invalid cursor");
+                }
+                keys.put(order.getProperty(),
+                        value.isNull() ? null : objectMapper.convertValue(value, attributeType(type, order.getProperty())));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return keys;
+    }
+
+    private Class<?> attributeType(Class<?> type, String path) {
+        Class<?> javaType = type;
+        for (String attribute : path.split("\\.")) {
+            javaType = entityManager.getMetamodel().managedType(javaType).getAttribute(attribute).getJavaType();
+        }
+        return javaType;
+    }
+}
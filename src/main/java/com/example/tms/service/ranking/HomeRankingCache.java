@@ -0,0 +1,377 @@
+package com.example.tms.service.ranking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.Attraction;
+import com.example.tms.entity.Route;
+import com.example.tms.repository.AttractionRepository;
+import com.example.tms.repository.RouteAttractionRepository;
+import com.example.tms.repository.RouteRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory home page rankings: open routes by favourite count, and active attractions by the
+ * favourites of the open routes that visit them.
+ *
+ * The rankings are built once at startup and then kept current by the write paths (favourite
+ * toggles, route/attraction/itinerary CRUD), which report their changes here after commit.
+ * Reading the top K costs O(K) and never touches the database. Changes made by other nodes are
+ * picked up by the periodic rebuild, which reads only the ranking columns. Changes reported while
+ * a rebuild is loading are applied to the live rankings and replayed on the rebuilt ones before
+ * they are swapped in.
+ *
+ * route.favorite_count is kept by the favourite toggles. A deployment whose favourites predate the
+ * counter recounts it once at startup (app.home.ranking.recount-favorites).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HomeRankingCache {
+
+    private final RouteRepository routeRepository;
+    private final AttractionRepository attractionRepository;
+    private final RouteAttractionRepository routeAttractionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.home.ranking.recount-favorites:false}")
+    private boolean recountFavorites;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Rankings rankings = new Rankings();
+    // Changes applied while a rebuild is loading (null when none is), guarded by the write lock
+    private List<Change> pending;
+    private TransactionTemplate loadTemplate;
+
+    @PostConstruct
+    public void init() {
+        loadTemplate = new TransactionTemplate(transactionManager);
+        loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (recountFavorites) {
+            // One-off backfill, a full-table UPDATE: switch it off again once it has run
+            Integer recounted = new TransactionTemplate(transactionManager)
+                    .execute(status -> routeRepository.recountFavorites());
+            log.info("Favourite counters recounted for {} route(s)", recounted);
+        }
+        rebuild();
+    }
+
+    /**
+     * Rebuild both rankings from the database and swap them in
+     */
+    @Scheduled(fixedDelayString = "${app.home.ranking.refresh-ms:600000}",
+            initialDelayString = "${app.home.ranking.refresh-ms:600000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Rankings rebuilt = null;
+        try {
+            rebuilt = loadTemplate.execute(status -> loadRankings());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (rebuilt != null) {
+                    // Changes committed while loading may be missing from what was read
+                    for (Change change : pending) {
+                        change.applyTo(rebuilt);
+                    }
+                    rankings = rebuilt;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Home rankings built: {} open route(s), {} destination(s)",
+                rebuilt.routeRanking.size(), rebuilt.destinationRanking.size());
+    }
+
+    public List<RankedRoute> topRoutes(int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedRoute> top = new ArrayList<>(Math.min(limit, rankings.routeRanking.size()));
+            Iterator<RouteState> it = rankings.routeRanking.iterator();
+            while (it.hasNext() && top.size() < limit) {
+                top.add(it.next().toRanked());
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<RankedDestination> topDestinations(int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedDestination> top = new ArrayList<>(Math.min(limit, rankings.destinationRanking.size()));
+            Iterator<AttractionState> it = rankings.destinationRanking.iterator();
+            while (it.hasNext() && top.size() < limit) {
+                top.add(it.next().toRanked());
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A route was created, updated or soft-deleted
+     */
+    public void routeSaved(Route route) {
+        RankedRoute fields = RankedRoute.of(route, 0, List.of());
+        boolean open = isOpen(route);
+        afterCommit(() -> apply(current -> current.putRoute(fields, open)));
+    }
+
+    /**
+     * An attraction was created, updated or soft-deleted
+     */
+    public void attractionSaved(Attraction attraction) {
+        RankedDestination fields = toFields(attraction);
+        boolean active = isActive(attraction);
+        afterCommit(() -> apply(current -> current.putAttraction(fields, active)));
+    }
+
+    /**
+     * The itinerary (route_attraction rows) of these routes changed
+     */
+    public void routeAttractionsChanged(UUID... routeIds) {
+        afterCommit(() -> {
+            for (UUID routeId : routeIds) {
+                List<UUID> attractionIds = routeAttractionRepository.findAttractionIdsByRouteId(routeId);
+                apply(current -> current.setRouteAttractions(routeId, attractionIds));
+            }
+        });
+    }
+
+    public void favoriteAdded(UUID routeId) {
+        afterCommit(() -> apply(current -> current.addFavorites(routeId, 1)));
+    }
+
+    public void favoriteRemoved(UUID routeId) {
+        afterCommit(() -> apply(current -> current.addFavorites(routeId, -1)));
+    }
+
+    private interface Change {
+        void applyTo(Rankings rankings);
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(rankings);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Rankings loadRankings() {
+        Rankings loaded = new Rankings();
+        List<Object[]> routes = routeRepository.findRankingFields();
+        for (Object[] route : routes) {
+            RankedRoute fields = new RankedRoute((UUID) route[0], (String) route[1], (String) route[2],
+                    (String) route[3], (Integer) route[4], (String) route[5], 0, List.of());
+            loaded.putRoute(fields, route[6] == Route.Status.OPEN);
+        }
+        for (Object[] attraction : attractionRepository.findRankingFields()) {
+            RankedDestination fields = new RankedDestination((UUID) attraction[0], (String) attraction[1],
+                    (String) attraction[2], 0);
+            loaded.putAttraction(fields, attraction[3] == Attraction.Status.ACTIVE);
+        }
+
+        Map<UUID, List<UUID>> links = new HashMap<>();
+        for (Object[] link : routeAttractionRepository.findAllLinks()) {
+            links.computeIfAbsent((UUID) link[0], routeId -> new ArrayList<>()).add((UUID) link[1]);
+        }
+        links.forEach(loaded::setRouteAttractions);
+        routes.forEach(route -> loaded.addFavorites((UUID) route[0], (Long) route[7]));
+        return loaded;
+    }
+
+    private static boolean isOpen(Route route) {
+        return route.getDeletedAt() == 0 && route.getStatus() == Route.Status.OPEN;
+    }
+
+    private static boolean isActive(Attraction attraction) {
+        return attraction.getDeletedAt() == 0 && attraction.getStatus() == Attraction.Status.ACTIVE;
+    }
+
+    private static RankedDestination toFields(Attraction attraction) {
+        return new RankedDestination(attraction.getId(), attraction.getName(), attraction.getLocation(), 0);
+    }
+
+    private static class RouteState {
+        private final UUID id;
+        private RankedRoute fields;
+        private boolean open;
+        private long favorites;
+        private final Set<UUID> attractionIds = new LinkedHashSet<>();
+
+        private RouteState(UUID id) {
+            this.id = id;
+        }
+
+        private RankedRoute toRanked() {
+            return new RankedRoute(id, fields.getRouteName(), fields.getStartLocation(), fields.getEndLocation(),
+                    fields.getDurationDays(), fields.getImage(), favorites, List.copyOf(attractionIds));
+        }
+    }
+
+    private static class AttractionState {
+        private final UUID id;
+        private RankedDestination fields;
+        private boolean active;
+        // Favourites and number of the open routes visiting this attraction
+        private long favorites;
+        private int openRoutes;
+
+        private AttractionState(UUID id) {
+            this.id = id;
+        }
+
+        private boolean ranked() {
+            return active && openRoutes > 0;
+        }
+
+        private RankedDestination toRanked() {
+            return new RankedDestination(id, fields.getName(), fields.getLocation(), favorites);
+        }
+    }
+
+    /**
+     * Ranking state. Entries are keyed on mutable counts, so every change removes the entry from
+     * its ranking, updates it and inserts it again.
+     */
+    private static class Rankings {
+        private final Map<UUID, RouteState> routes = new HashMap<>();
+        private final Map<UUID, AttractionState> attractions = new HashMap<>();
+        private final TreeSet<RouteState> routeRanking = new TreeSet<>(
+                Comparator.comparingLong((RouteState route) -> route.favorites).reversed()
+                        .thenComparing(route -> route.id));
+        private final TreeSet<AttractionState> destinationRanking = new TreeSet<>(
+                Comparator.comparingLong((AttractionState attraction) -> attraction.favorites).reversed()
+                        .thenComparing(attraction -> attraction.id));
+
+        private RouteState route(UUID routeId) {
+            return routes.computeIfAbsent(routeId, RouteState::new);
+        }
+
+        private AttractionState attraction(UUID attractionId) {
+            return attractions.computeIfAbsent(attractionId, AttractionState::new);
+        }
+
+        private void putRoute(RankedRoute fields, boolean open) {
+            RouteState route = route(fields.getRouteId());
+            routeRanking.remove(route);
+            boolean wasOpen = route.open;
+            route.fields = fields;
+            route.open = open;
+            if (open) {
+                routeRanking.add(route);
+            }
+            if (open != wasOpen) {
+                int sign = open ? 1 : -1;
+                for (UUID attractionId : route.attractionIds) {
+                    adjustAttraction(attractionId, sign, sign * route.favorites);
+                }
+            }
+        }
+
+        private void putAttraction(RankedDestination fields, boolean active) {
+            AttractionState attraction = attraction(fields.getAttractionId());
+            destinationRanking.remove(attraction);
+            attraction.fields = fields;
+            attraction.active = active;
+            if (attraction.ranked()) {
+                destinationRanking.add(attraction);
+            }
+        }
+
+        private void setRouteAttractions(UUID routeId, List<UUID> attractionIds) {
+            RouteState route = route(routeId);
+            Set<UUID> updated = new LinkedHashSet<>(attractionIds);
+            if (route.open) {
+                Set<UUID> removed = new HashSet<>(route.attractionIds);
+                removed.removeAll(updated);
+                removed.forEach(attractionId -> adjustAttraction(attractionId, -1, -route.favorites));
+                updated.stream()
+                        .filter(attractionId -> !route.attractionIds.contains(attractionId))
+                        .forEach(attractionId -> adjustAttraction(attractionId, 1, route.favorites));
+            }
+            route.attractionIds.clear();
+            route.attractionIds.addAll(updated);
+        }
+
+        private void addFavorites(UUID routeId, long delta) {
+            RouteState route = route(routeId);
+            routeRanking.remove(route);
+            long before = route.favorites;
+            route.favorites = Math.max(0, route.favorites + delta);
+            // The attractions take the change the route really saw, not the requested one
+            long applied = route.favorites - before;
+            if (route.open) {
+                routeRanking.add(route);
+                route.attractionIds.forEach(attractionId -> adjustAttraction(attractionId, 0, applied));
+            }
+        }
+
+        private void adjustAttraction(UUID attractionId, int openRoutesDelta, long favoritesDelta) {
+            AttractionState attraction = attraction(attractionId);
+            destinationRanking.remove(attraction);
+            attraction.openRoutes += openRoutesDelta;
+            attraction.favorites = Math.max(0, attraction.favorites + favoritesDelta);
+            if (attraction.ranked() && attraction.fields != null) {
+                destinationRanking.add(attraction);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.tms.service.ranking;
+
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable copy of an attraction shown as a favourite destination. favoriteCount is the number
+ * of favourites on the open routes that visit it. The description is not kept here; it is read
+ * for the few destinations shown.
+ */
+@Getter
+@AllArgsConstructor
+public class RankedDestination {
+    private final UUID attractionId;
+    private final String name;
+    private final String location;
+    private final long favoriteCount;
+}
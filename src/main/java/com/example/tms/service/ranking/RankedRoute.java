@@ -0,0 +1,38 @@
+package com.example.tms.service.ranking;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.example.tms.entity.Route;
+import com.example.tms.entity.RouteSearchSummary;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable copy of the route fields shown on a tour card, with its favourite count
+ */
+@Getter
+@AllArgsConstructor
+public class RankedRoute {
+    private final UUID routeId;
+    private final String routeName;
+    private final String startLocation;
+    private final String endLocation;
+    private final Integer durationDays;
+    private final String image;
+    private final long favoriteCount;
+    private final List<UUID> attractionIds;
+
+    public static RankedRoute of(Route route, long favoriteCount, List<UUID> attractionIds) {
+        return new RankedRoute(route.getId(), route.getRouteName(), route.getStartLocation(),
+                route.getEndLocation(), route.getDurationDays(), route.getImage(), favoriteCount,
+                List.copyOf(attractionIds));
+    }
+
+    public static RankedRoute of(RouteSearchSummary summary, List<UUID> attractionIds) {
+        return new RankedRoute(summary.getRouteId(), summary.getRouteName(), summary.getStartLocation(),
+                summary.getEndLocation(), summary.getDurationDays(), summary.getImage(), summary.getFavoriteCount(),
+                List.copyOf(attractionIds));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tms.service.remote;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Counters of one provider's pool since startup
+ */
+@Getter
+@Builder
+public class RemoteCallStats {
+    private RemoteProvider provider;
+    private int threads;
+    private int activeThreads;
+    private int queueDepth;
+    private long calls;
+    private long failures;
+    private long timeouts;
+    private long rejected;
+    // From submission to completion, so queueing time is included
+    private double averageLatencyMs;
+    private double maxLatencyMs;
+}
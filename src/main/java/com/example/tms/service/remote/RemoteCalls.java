@@ -0,0 +1,223 @@
+package com.example.tms.service.remote;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs blocking calls to external services on a bounded thread pool per provider.
+ *
+ * A slow or unreachable provider can only tie up its own threads: callers wait at most the
+ * provider's timeout (app.remote.{provider}.timeout-ms) and are turned away at once when its
+ * queue is full, instead of piling up on request threads or the common ForkJoinPool.
+ *
+ * Queue depth, active threads and latency per provider are available from {@link #stats()}
+ * and logged periodically.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RemoteCalls {
+
+    private final Environment environment;
+
+    private final Map<RemoteProvider, Pool> pools = new EnumMap<>(RemoteProvider.class);
+
+    @PostConstruct
+    public void init() {
+        for (RemoteProvider provider : RemoteProvider.values()) {
+            String prefix = "app.remote." + provider.key() + ".";
+            pools.put(provider, new Pool(provider,
+                    environment.getProperty(prefix + "threads", Integer.class, 4),
+                    environment.getProperty(prefix + "queue", Integer.class, 50),
+                    environment.getProperty(prefix + "timeout-ms", Long.class, 15000L)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.executor.shutdownNow());
+    }
+
+    /**
+     * Run a call on the provider's pool and wait for it, at most the provider's timeout
+     *
+     * @return the call's result
+     * @throws TimeoutException if the call did not finish in time; it is interrupted
+     * @throws RejectedExecutionException if the provider's queue is full
+     * @throws Exception whatever the call threw
+     */
+    public <T> T call(RemoteProvider provider, String operation, Callable<T> call) throws Exception {
+        Pool pool = pools.get(provider);
+        Future<T> future = pool.submit(operation, call);
+        try {
+            return future.get(pool.timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            pool.timeouts.increment();
+            throw new TimeoutException(provider.key() + " " + operation + " timed out after " + pool.timeoutMs + " ms");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * Run independent calls in parallel on the provider's pool and collect what finishes in time.
+     *
+     * Every call shares one deadline, the shorter of deadlineMs and the provider's timeout.
+     * Calls that fail, are turned away or are still running at the deadline are left out of
+     * the result (the running ones are interrupted), so callers get a partial answer rather than
+     * an error.
+     *
+     * @return results by key, in the order of calls, for the calls that succeeded
+     */
+    public <K, V> Map<K, V> fanOut(RemoteProvider provider, String operation,
+            Map<K, ? extends Callable<V>> calls, long deadlineMs) {
+        Pool pool = pools.get(provider);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.min(deadlineMs, pool.timeoutMs));
+
+        Map<K, Future<V>> futures = new LinkedHashMap<>();
+        calls.forEach((key, call) -> {
+            try {
+                futures.put(key, pool.submit(operation, call));
+            } catch (RejectedExecutionException e) {
+                log.debug("{} {} for {} not started: {}", provider.key(), operation, key, e.getMessage());
+            }
+        });
+
+        Map<K, V> results = new LinkedHashMap<>();
+        for (Map.Entry<K, Future<V>> entry : futures.entrySet()) {
+            Future<V> future = entry.getValue();
+            try {
+                results.put(entry.getKey(), future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                pool.timeouts.increment();
+            } catch (ExecutionException e) {
+                log.debug("{} {} for {} failed: {}", provider.key(), operation, entry.getKey(), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                futures.values().forEach(pending -> pending.cancel(true));
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (results.size() < calls.size()) {
+            log.warn("{} {}: {} of {} call(s) finished in time", provider.key(), operation, results.size(), calls.size());
+        }
+        return results;
+    }
+
+    public List<RemoteCallStats> stats() {
+        List<RemoteCallStats> stats = new ArrayList<>();
+        pools.values().forEach(pool -> stats.add(pool.stats()));
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${app.remote.metrics-log-ms:300000}",
+            initialDelayString = "${app.remote.metrics-log-ms:300000}")
+    public void logStats() {
+        for (RemoteCallStats stat : stats()) {
+            if (stat.getCalls() > 0 || stat.getRejected() > 0) {
+                log.info("Remote {}: {} call(s), {} failed, {} timed out, {} rejected, avg {} ms, max {} ms, {}/{} busy, {} queued",
+                        stat.getProvider().key(), stat.getCalls(), stat.getFailures(), stat.getTimeouts(), stat.getRejected(),
+                        Math.round(stat.getAverageLatencyMs()), Math.round(stat.getMaxLatencyMs()),
+                        stat.getActiveThreads(), stat.getThreads(), stat.getQueueDepth());
+            }
+        }
+    }
+
+    private static final class Pool {
+        private final RemoteProvider provider;
+        private final ThreadPoolExecutor executor;
+        private final long timeoutMs;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        private Pool(RemoteProvider provider, int threads, int queue, long timeoutMs) {
+            this.provider = provider;
+            this.timeoutMs = timeoutMs;
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queue), runnable -> {
+                        Thread thread = new Thread(runnable, "remote-" + provider.key() + "-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        private <T> Future<T> submit(String operation, Callable<T> call) {
+            long submitted = System.nanoTime();
+            try {
+                return executor.submit(() -> {
+                    boolean succeeded = false;
+                    try {
+                        T result = call.call();
+                        succeeded = true;
+                        return result;
+                    } finally {
+                        record(System.nanoTime() - submitted, succeeded);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw new RejectedExecutionException(provider.key() + " is busy, " + operation + " was not started");
+            }
+        }
+
+        private void record(long nanos, boolean succeeded) {
+            calls.increment();
+            if (!succeeded) {
+                failures.increment();
+            }
+            latencyNanos.add(nanos);
+            maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private RemoteCallStats stats() {
+            long completed = calls.sum();
+            return RemoteCallStats.builder()
+                    .provider(provider)
+                    .threads(executor.getMaximumPoolSize())
+                    .activeThreads(executor.getActiveCount())
+                    .queueDepth(executor.getQueue().size())
+                    .calls(completed)
+                    .failures(failures.sum())
+                    .timeouts(timeouts.sum())
+                    .rejected(rejected.sum())
+                    .averageLatencyMs(completed > 0 ? latencyNanos.sum() / 1e6 / completed : 0)
+                    .maxLatencyMs(maxLatencyNanos.get() / 1e6)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.tms.service.remote;
+
+/**
+ * External services called over HTTP, each given its own thread pool by {@link RemoteCalls}
+ */
+public enum RemoteProvider {
+    CLOUDINARY("cloudinary"),
+    SENDGRID("sendgrid"),
+    PAYOS("payos");
+
+    private final String key;
+
+    RemoteProvider(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Name used in the app.remote.{key}.* properties, thread names and metrics
+     */
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.tms.service.search;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Growable bitset over route ordinals, one bit per route packed into 64-bit words. Counting the
+ * intersection of two bitmaps walks their words without allocating.
+ */
+final class RouteBitmap {
+
+    private long[] words;
+
+    RouteBitmap() {
+        this.words = new long[1];
+    }
+
+    private RouteBitmap(long[] words) {
+        this.words = words;
+    }
+
+    void set(int ordinal) {
+        int word = ordinal >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+        words[word] |= 1L << ordinal;
+    }
+
+    void clear(int ordinal) {
+        int word = ordinal >>> 6;
+        if (word < words.length) {
+            words[word] &= ~(1L << ordinal);
+        }
+    }
+
+    boolean get(int ordinal) {
+        int word = ordinal >>> 6;
+        return word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    RouteBitmap copy() {
+        return new RouteBitmap(words.clone());
+    }
+
+    /**
+     * Keep only the bits also set in the other bitmap
+     */
+    void and(RouteBitmap other) {
+        int common = Math.min(words.length, other.words.length);
+        for (int i = 0; i < common; i++) {
+            words[i] &= other.words[i];
+        }
+        Arrays.fill(words, common, words.length, 0L);
+    }
+
+    /**
+     * Add the bits set in the other bitmap
+     */
+    void or(RouteBitmap other) {
+        if (other.words.length > words.length) {
+            words = Arrays.copyOf(words, other.words.length);
+        }
+        for (int i = 0; i < other.words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Number of bits set in both bitmaps
+     */
+    int andCardinality(RouteBitmap other) {
+        int common = Math.min(words.length, other.words.length);
+        int count = 0;
+        for (int i = 0; i < common; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,708 @@
+package com.example.tms.service.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.dto.request.customer.TourSearchRequest;
+import com.example.tms.dto.response.customer.TourFacetResponse;
+import com.example.tms.dto.response.customer.TourFacetResponse.FacetValue;
+import com.example.tms.entity.Attraction;
+import com.example.tms.entity.RouteSearchSummary;
+import com.example.tms.repository.RouteAttractionRepository;
+import com.example.tms.repository.RouteSearchSummaryRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory facets for tour browsing: start location, destination, duration, price bucket and
+ * attractions visited.
+ *
+ * Each searchable route gets an ordinal, and each facet value a bitmap of the ordinals having
+ * it. A filter is an AND across facets of the OR of the values picked in each (attractions can
+ * also be AND-ed: "visits A and B"), and a count is one bitmap intersection.
+ *
+ * The plain search filters (price range, departure date, duration, location text and the single
+ * attraction) are checked against each route's values, so counts and totals cover the same
+ * routes as a search with the same request. Search uses the index to resolve keyword and facet
+ * queries to an ordered list of route IDs, and loads rows only for the page it returns.
+ *
+ * Routes follow route_search_summary: RouteSearchSummaryUpdater reports the rows it refreshes
+ * or removes, and the full index is rebuilt after its nightly rebuild. Itinerary and attraction
+ * writes report here directly. Like the other indexes, changes are applied after commit.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteFacetIndex {
+
+    private static final Comparator<FacetValue> BY_COUNT = Comparator.comparingLong(FacetValue::getCount).reversed()
+            .thenComparing(FacetValue::getLabel);
+    // Duration values and price bucket values both start with a number
+    private static final Comparator<FacetValue> BY_NUMBER = Comparator.comparingLong(
+            value -> Long.parseLong(value.getValue().split("[^0-9]", 2)[0]));
+
+    private final RouteSearchSummaryRepository routeSearchSummaryRepository;
+    private final RouteAttractionRepository routeAttractionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // Upper bounds of the price buckets, ascending; the last bucket is open-ended
+    @Value("${app.search.facet.price-buckets:2000000,5000000,10000000}")
+    private long[] priceBounds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private TransactionTemplate loadTemplate;
+
+    @PostConstruct
+    public void init() {
+        loadTemplate = new TransactionTemplate(transactionManager);
+        loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Rebuild the index from route_search_summary and swap it in
+     */
+    public void rebuild() {
+        Index rebuilt = loadTemplate.execute(status -> loadIndex());
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Route facets built: {} route(s)", rebuilt.present.cardinality());
+    }
+
+    /**
+     * The search summaries of these routes were written
+     */
+    public void routesRefreshed(List<RouteSearchSummary> summaries) {
+        List<RouteValues> values = summaries.stream().map(this::valuesOf).toList();
+        afterCommit(() -> apply(current -> values.forEach(current::putRoute)));
+    }
+
+    /**
+     * These routes are not searchable any more
+     */
+    public void routesRemoved(Collection<UUID> routeIds) {
+        List<UUID> removed = List.copyOf(routeIds);
+        afterCommit(() -> apply(current -> removed.forEach(current::removeRoute)));
+    }
+
+    /**
+     * The itinerary (route_attraction rows) of these routes changed
+     */
+    public void routeAttractionsChanged(UUID... routeIds) {
+        afterCommit(() -> {
+            for (UUID routeId : routeIds) {
+                List<Object[]> attractions = routeAttractionRepository.findAttractionNamesByRouteId(routeId);
+                apply(current -> current.setAttractions(routeId, attractions));
+            }
+        });
+    }
+
+    /**
+     * An attraction was created, updated or soft-deleted
+     */
+    public void attractionSaved(Attraction attraction) {
+        String value = attraction.getId().toString();
+        String name = attraction.getDeletedAt() == 0 ? attraction.getName() : null;
+        afterCommit(() -> apply(current -> current.renameAttraction(value, name)));
+    }
+
+    /**
+     * Whether the request picks any facet value
+     */
+    public boolean hasSelection(TourSearchRequest request) {
+        return !isEmpty(request.getStartLocations()) || !isEmpty(request.getDestinations())
+                || !isEmpty(request.getDurations()) || !isEmpty(request.getPriceBuckets())
+                || !isEmpty(request.getAttractionIds());
+    }
+
+    /**
+     * IDs of the searchable routes matching the whole request, facet selections and plain
+     * filters, in the order search pages them: relevance keeps the order of the keyword hits,
+     * the other sorts order by the route values like the search query does.
+     *
+     * @param keywordHits routes matching the keyword, best first; null when there is no keyword
+     * @param routeNameHits routes whose name alone matches the keyword, they pass the attraction filter
+     */
+    public List<UUID> search(TourSearchRequest request, List<UUID> keywordHits, Set<UUID> routeNameHits) {
+        Selection selection = Selection.of(request);
+        Filter filter = Filter.of(request, routeNameHits);
+        boolean byRelevance = keywordHits != null && "relevance".equalsIgnoreCase(request.getSortBy());
+        lock.readLock().lock();
+        try {
+            RouteBitmap matches = index.present.copy();
+            for (RouteBitmap selected : index.selections(selection)) {
+                if (selected != null) {
+                    matches.and(selected);
+                }
+            }
+            index.filter(matches, filter);
+
+            List<Integer> ordinals = new ArrayList<>();
+            if (keywordHits != null) {
+                for (UUID routeId : keywordHits) {
+                    Integer ordinal = index.ordinals.get(routeId);
+                    if (ordinal != null && matches.get(ordinal)) {
+                        ordinals.add(ordinal);
+                    }
+                }
+            } else {
+                matches.forEach(ordinals::add);
+            }
+            if (!byRelevance) {
+                ordinals.sort(index.order(request.getSortBy(), request.getSortOrder()));
+            }
+            return ordinals.stream().map(index.routeIds::get).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per-value route counts of every facet. A value's count is the number of routes matching
+     * if it were picked too: the other facets' selections apply, the facet's own OR-ed
+     * selection does not (AND-ed attractions do).
+     *
+     * @param within restrict the counts to these routes, null for all searchable routes
+     * @param routeNameHits routes whose name alone matches the keyword, they pass the attraction filter
+     */
+    public TourFacetResponse facets(TourSearchRequest request, Collection<UUID> within, Set<UUID> routeNameHits) {
+        Selection selection = Selection.of(request);
+        Filter filter = Filter.of(request, routeNameHits);
+        lock.readLock().lock();
+        try {
+            RouteBitmap scope = index.present.copy();
+            if (within != null) {
+                RouteBitmap allowed = new RouteBitmap();
+                within.forEach(routeId -> {
+                    Integer ordinal = index.ordinals.get(routeId);
+                    if (ordinal != null) {
+                        allowed.set(ordinal);
+                    }
+                });
+                scope.and(allowed);
+            }
+            index.filter(scope, filter);
+            RouteBitmap[] selected = index.selections(selection);
+            RouteBitmap total = scope.copy();
+            for (RouteBitmap picked : selected) {
+                if (picked != null) {
+                    total.and(picked);
+                }
+            }
+
+            List<List<FacetValue>> counts = new ArrayList<>();
+            Facet[] facets = index.facets();
+            for (int i = 0; i < facets.length; i++) {
+                RouteBitmap base = scope.copy();
+                for (int j = 0; j < selected.length; j++) {
+                    boolean ownSelection = i == j && !(facets[i] == index.attractions && selection.allAttractions);
+                    if (selected[j] != null && !ownSelection) {
+                        base.and(selected[j]);
+                    }
+                }
+                counts.add(facets[i].counts(base, selection.values().get(i)));
+            }
+            return TourFacetResponse.builder()
+                    .totalRoutes(total.cardinality())
+                    .startLocations(sorted(counts.get(0), BY_COUNT))
+                    .destinations(sorted(counts.get(1), BY_COUNT))
+                    .durations(sorted(counts.get(2), BY_NUMBER))
+                    .priceBuckets(sorted(counts.get(3), BY_NUMBER))
+                    .attractions(sorted(counts.get(4), BY_COUNT))
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Start locations of the searchable routes, alphabetically
+     */
+    public List<String> startLocations() {
+        lock.readLock().lock();
+        try {
+            return index.startLocations.labels.values().stream().sorted().toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private interface Change {
+        void applyTo(Index index);
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Index loadIndex() {
+        Index loaded = new Index();
+        routeSearchSummaryRepository.findAll().forEach(summary -> loaded.putRoute(valuesOf(summary)));
+        Map<UUID, List<Object[]>> attractions = new HashMap<>();
+        for (Object[] row : routeAttractionRepository.findAllAttractionNames()) {
+            attractions.computeIfAbsent((UUID) row[0], routeId -> new ArrayList<>())
+                    .add(new Object[] { row[1], row[2] });
+        }
+        attractions.forEach(loaded::setAttractions);
+        return loaded;
+    }
+
+    private RouteValues valuesOf(RouteSearchSummary summary) {
+        return new RouteValues(summary.getRouteId(),
+                summary.getStartLocation(), summary.getEndLocation(),
+                summary.getDurationDays() != null ? summary.getDurationDays().toString() : null,
+                priceBucket(summary.getMinPrice()), summary.getMinPrice(),
+                summary.getNextDepartureDate(), summary.getLastDepartureDate(),
+                summary.getFavoriteCount() != null ? summary.getFavoriteCount() : 0L, summary.getRouteCreatedAt());
+    }
+
+    // Routes without an upcoming trip have no price and no bucket
+    private String priceBucket(BigDecimal price) {
+        if (price == null) {
+            return null;
+        }
+        long lower = 0;
+        for (long upper : priceBounds) {
+            if (price.compareTo(BigDecimal.valueOf(upper)) < 0) {
+                return lower + "-" + upper;
+            }
+            lower = upper;
+        }
+        return lower + "+";
+    }
+
+    // Locations are matched like keywords: "Hà Nội", "ha noi" and "HÀ NỘI " are one value
+    private static String locationValue(String location) {
+        String value = String.join(" ", SearchText.tokens(location));
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<FacetValue> sorted(List<FacetValue> values, Comparator<FacetValue> order) {
+        values.sort(order);
+        return values;
+    }
+
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static class RouteValues {
+        private final UUID routeId;
+        private final String startLocation;
+        private final String destination;
+        private final String duration;
+        private final String priceBucket;
+        private final BigDecimal minPrice;
+        private final LocalDate nextDepartureDate;
+        private final LocalDate lastDepartureDate;
+        private final long favoriteCount;
+        private final LocalDateTime routeCreatedAt;
+
+        private RouteValues(UUID routeId, String startLocation, String destination, String duration,
+                String priceBucket, BigDecimal minPrice, LocalDate nextDepartureDate, LocalDate lastDepartureDate,
+                long favoriteCount, LocalDateTime routeCreatedAt) {
+            this.routeId = routeId;
+            this.startLocation = startLocation;
+            this.destination = destination;
+            this.duration = duration;
+            this.priceBucket = priceBucket;
+            this.minPrice = minPrice;
+            this.nextDepartureDate = nextDepartureDate;
+            this.lastDepartureDate = lastDepartureDate;
+            this.favoriteCount = favoriteCount;
+            this.routeCreatedAt = routeCreatedAt;
+        }
+    }
+
+    /**
+     * Facet values picked by a request, in the order of Index.facets()
+     */
+    private static class Selection {
+        private final List<String> startLocations;
+        private final List<String> destinations;
+        private final List<String> durations;
+        private final List<String> priceBuckets;
+        private final List<String> attractions;
+        private final boolean allAttractions;
+
+        private Selection(TourSearchRequest request) {
+            startLocations = values(request.getStartLocations(), RouteFacetIndex::locationValue);
+            destinations = values(request.getDestinations(), RouteFacetIndex::locationValue);
+            durations = values(request.getDurations(), String::valueOf);
+            priceBuckets = values(request.getPriceBuckets(), String::trim);
+            attractions = values(request.getAttractionIds(), UUID::toString);
+            allAttractions = !"any".equalsIgnoreCase(request.getAttractionMatch());
+        }
+
+        private static Selection of(TourSearchRequest request) {
+            return new Selection(request);
+        }
+
+        private List<List<String>> values() {
+            return List.of(startLocations, destinations, durations, priceBuckets, attractions);
+        }
+
+        private static <T> List<String> values(List<T> picked, Function<T, String> toValue) {
+            if (isEmpty(picked)) {
+                return List.of();
+            }
+            return picked.stream().filter(Objects::nonNull).map(toValue)
+                    .filter(Objects::nonNull).toList();
+        }
+    }
+
+    /**
+     * Plain filters of a request, matched the way the search query matches them. Location text
+     * is compared folded, like the accent-insensitive collation of the database.
+     */
+    private static class Filter {
+        private final String startLocation;
+        private final String destination;
+        private final String duration;
+        private final BigDecimal minPrice;
+        private final BigDecimal maxPrice;
+        private final LocalDate departureDate;
+        private final String attractionId;
+        private final Set<UUID> routeNameHits;
+
+        private Filter(TourSearchRequest request, Set<UUID> routeNameHits) {
+            startLocation = text(request.getStartLocation());
+            destination = text(request.getDestination());
+            duration = request.getDurationDays() != null ? request.getDurationDays().toString() : null;
+            minPrice = request.getMinPrice();
+            maxPrice = request.getMaxPrice();
+            departureDate = request.getDepartureDate();
+            attractionId = request.getAttractionId() != null ? request.getAttractionId().toString() : null;
+            this.routeNameHits = routeNameHits != null ? routeNameHits : Set.of();
+        }
+
+        private static Filter of(TourSearchRequest request, Set<UUID> routeNameHits) {
+            return new Filter(request, routeNameHits);
+        }
+
+        private static String text(String value) {
+            return value == null || value.isEmpty() ? null : SearchText.fold(value);
+        }
+
+        private boolean isEmpty() {
+            return startLocation == null && destination == null && duration == null && minPrice == null
+                    && maxPrice == null && departureDate == null && attractionId == null;
+        }
+
+        // Routes without upcoming trips have no price or departure and are not filtered out by them
+        private boolean matches(UUID routeId, RouteState state) {
+            return (startLocation == null || state.startText.contains(startLocation))
+                    && (destination == null || state.destinationText.contains(destination))
+                    && (duration == null || duration.equals(state.duration))
+                    && (minPrice == null || state.minPrice == null || state.minPrice.compareTo(minPrice) >= 0)
+                    && (maxPrice == null || state.minPrice == null || state.minPrice.compareTo(maxPrice) <= 0)
+                    && (departureDate == null || state.lastDepartureDate == null
+                            || !state.lastDepartureDate.isBefore(departureDate))
+                    && (attractionId == null || state.attractions.contains(attractionId)
+                            || routeNameHits.contains(routeId));
+        }
+    }
+
+    /**
+     * Route ordinal -> bitmap per value of one facet, with a display label per value
+     */
+    private static class Facet {
+        private final Map<String, RouteBitmap> routes = new HashMap<>();
+        private final Map<String, String> labels = new HashMap<>();
+
+        private void add(String value, String label, int ordinal) {
+            routes.computeIfAbsent(value, v -> new RouteBitmap()).set(ordinal);
+            labels.put(value, label);
+        }
+
+        private void remove(String value, int ordinal) {
+            RouteBitmap bitmap = routes.get(value);
+            if (bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) {
+                    routes.remove(value);
+                    labels.remove(value);
+                }
+            }
+        }
+
+        // Routes having any of the values, null when none is picked
+        private RouteBitmap union(List<String> values) {
+            if (values.isEmpty()) {
+                return null;
+            }
+            RouteBitmap union = new RouteBitmap();
+            values.forEach(value -> {
+                RouteBitmap bitmap = routes.get(value);
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            });
+            return union;
+        }
+
+        // Routes having every one of the values, null when none is picked
+        private RouteBitmap intersection(List<String> values) {
+            if (values.isEmpty()) {
+                return null;
+            }
+            RouteBitmap intersection = null;
+            for (String value : values) {
+                RouteBitmap bitmap = routes.get(value);
+                if (bitmap == null) {
+                    return new RouteBitmap();
+                }
+                if (intersection == null) {
+                    intersection = bitmap.copy();
+                } else {
+                    intersection.and(bitmap);
+                }
+            }
+            return intersection;
+        }
+
+        // Values with at least one route in base, plus the picked ones so they can be unpicked
+        private List<FacetValue> counts(RouteBitmap base, List<String> picked) {
+            List<FacetValue> counts = new ArrayList<>();
+            routes.forEach((value, bitmap) -> {
+                int count = base.andCardinality(bitmap);
+                if (count > 0 || picked.contains(value)) {
+                    counts.add(new FacetValue(value, labels.get(value), count));
+                }
+            });
+            return counts;
+        }
+    }
+
+    private static class RouteState {
+        private String startLocation;
+        private String destination;
+        private String duration;
+        private String priceBucket;
+        private String startText = "";
+        private String destinationText = "";
+        private BigDecimal minPrice;
+        private LocalDate nextDepartureDate;
+        private LocalDate lastDepartureDate;
+        private long favoriteCount;
+        private LocalDateTime routeCreatedAt;
+        private final List<String> attractions = new ArrayList<>();
+    }
+
+    /**
+     * Index state. Ordinals are handed out on first sight and kept until the next rebuild;
+     * present holds the ordinals of the routes that are searchable right now.
+     */
+    private static class Index {
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        private final List<UUID> routeIds = new ArrayList<>();
+        private final List<RouteState> states = new ArrayList<>();
+        private final RouteBitmap present = new RouteBitmap();
+        private final Facet startLocations = new Facet();
+        private final Facet destinations = new Facet();
+        private final Facet durations = new Facet();
+        private final Facet priceBuckets = new Facet();
+        private final Facet attractions = new Facet();
+
+        private Facet[] facets() {
+            return new Facet[] { startLocations, destinations, durations, priceBuckets, attractions };
+        }
+
+        private RouteBitmap[] selections(Selection selection) {
+            return new RouteBitmap[] {
+                    startLocations.union(selection.startLocations),
+                    destinations.union(selection.destinations),
+                    durations.union(selection.durations),
+                    priceBuckets.union(selection.priceBuckets),
+                    selection.allAttractions
+                            ? attractions.intersection(selection.attractions)
+                            : attractions.union(selection.attractions) };
+        }
+
+        private int ordinal(UUID routeId) {
+            return ordinals.computeIfAbsent(routeId, id -> {
+                routeIds.add(id);
+                states.add(new RouteState());
+                return routeIds.size() - 1;
+            });
+        }
+
+        private void putRoute(RouteValues values) {
+            int ordinal = ordinal(values.routeId);
+            RouteState state = states.get(ordinal);
+            clearValues(state, ordinal);
+            state.startLocation = locationValue(values.startLocation);
+            state.destination = locationValue(values.destination);
+            state.duration = values.duration;
+            state.priceBucket = values.priceBucket;
+            state.startText = SearchText.fold(values.startLocation);
+            state.destinationText = SearchText.fold(values.destination);
+            state.minPrice = values.minPrice;
+            state.nextDepartureDate = values.nextDepartureDate;
+            state.lastDepartureDate = values.lastDepartureDate;
+            state.favoriteCount = values.favoriteCount;
+            state.routeCreatedAt = values.routeCreatedAt;
+            if (state.startLocation != null) {
+                startLocations.add(state.startLocation, values.startLocation.trim(), ordinal);
+            }
+            if (state.destination != null) {
+                destinations.add(state.destination, values.destination.trim(), ordinal);
+            }
+            if (state.duration != null) {
+                durations.add(state.duration, state.duration, ordinal);
+            }
+            if (state.priceBucket != null) {
+                priceBuckets.add(state.priceBucket, state.priceBucket, ordinal);
+            }
+            present.set(ordinal);
+        }
+
+        // Drop the routes of scope that fail the plain filters
+        private void filter(RouteBitmap scope, Filter filter) {
+            if (filter.isEmpty()) {
+                return;
+            }
+            RouteBitmap passing = new RouteBitmap();
+            scope.forEach(ordinal -> {
+                if (filter.matches(routeIds.get(ordinal), states.get(ordinal))) {
+                    passing.set(ordinal);
+                }
+            });
+            scope.and(passing);
+        }
+
+        // Ordinal order of a search sort, the same keys as the search query; nulls sort low as in the database
+        private Comparator<Integer> order(String sortBy, String sortOrder) {
+            boolean ascending = "asc".equalsIgnoreCase(sortOrder);
+            Comparator<RouteState> byState;
+            switch (sortBy != null ? sortBy.toLowerCase() : "default") {
+                case "price":
+                    byState = direction(Comparator.comparing(state -> state.minPrice,
+                            Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder())), ascending);
+                    break;
+                case "departuredate":
+                    byState = direction(Comparator.comparing(state -> state.nextDepartureDate,
+                            Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder())), ascending);
+                    break;
+                case "favoritecount":
+                    byState = Comparator.<RouteState>comparingLong(state -> state.favoriteCount).reversed()
+                            .thenComparing(newestFirst());
+                    break;
+                default:
+                    byState = newestFirst();
+            }
+            // Route ID last so pages are stable when the sort key ties
+            Comparator<Integer> byOrdinal = Comparator.comparing(states::get, byState);
+            return byOrdinal.thenComparing(ordinal -> routeIds.get(ordinal).toString());
+        }
+
+        private static Comparator<RouteState> newestFirst() {
+            return Comparator.comparing((RouteState state) -> state.routeCreatedAt,
+                    Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())).reversed();
+        }
+
+        private static Comparator<RouteState> direction(Comparator<RouteState> order, boolean ascending) {
+            return ascending ? order : order.reversed();
+        }
+
+        private void removeRoute(UUID routeId) {
+            Integer ordinal = ordinals.get(routeId);
+            if (ordinal != null) {
+                clearValues(states.get(ordinal), ordinal);
+                present.clear(ordinal);
+            }
+        }
+
+        // Itineraries are kept for routes that are not searchable: counts only look at present
+        private void setAttractions(UUID routeId, List<Object[]> visited) {
+            int ordinal = ordinal(routeId);
+            RouteState state = states.get(ordinal);
+            state.attractions.forEach(value -> attractions.remove(value, ordinal));
+            state.attractions.clear();
+            for (Object[] attraction : visited) {
+                String value = attraction[0].toString();
+                attractions.add(value, (String) attraction[1], ordinal);
+                state.attractions.add(value);
+            }
+        }
+
+        // name null = attraction deleted
+        private void renameAttraction(String value, String name) {
+            RouteBitmap visitors = attractions.routes.get(value);
+            if (visitors == null) {
+                return;
+            }
+            if (name != null) {
+                attractions.labels.put(value, name);
+                return;
+            }
+            visitors.forEach(ordinal -> states.get(ordinal).attractions.remove(value));
+            attractions.routes.remove(value);
+            attractions.labels.remove(value);
+        }
+
+        private void clearValues(RouteState state, int ordinal) {
+            if (state.startLocation != null) {
+                startLocations.remove(state.startLocation, ordinal);
+            }
+            if (state.destination != null) {
+                destinations.remove(state.destination, ordinal);
+            }
+            if (state.duration != null) {
+                durations.remove(state.duration, ordinal);
+            }
+            if (state.priceBucket != null) {
+                priceBuckets.remove(state.priceBucket, ordinal);
+            }
+            state.startLocation = null;
+            state.destination = null;
+            state.duration = null;
+            state.priceBucket = null;
+        }
+    }
+}
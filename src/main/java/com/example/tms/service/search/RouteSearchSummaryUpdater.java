@@ -0,0 +1,209 @@
+package com.example.tms.service.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.Route;
+import com.example.tms.entity.RouteSearchSummary;
+import com.example.tms.repository.RouteRepository;
+import com.example.tms.repository.RouteSearchSummaryRepository;
+import com.example.tms.repository.TripRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps route_search_summary in step with routes, trips, seats and favourites.
+ *
+ * Write paths only mark the route (or trip) as dirty after commit, which costs no query; a
+ * short scheduled flush then recomputes the dirty rows in batches. Booking bursts on one trip
+ * are coalesced into a single refresh of its route. Because "upcoming" depends on today's
+ * date, every row is also recomputed at startup and once a night. Refreshed and removed rows
+ * are passed on to RouteFacetIndex.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteSearchSummaryUpdater {
+
+    private final RouteRepository routeRepository;
+    private final TripRepository tripRepository;
+    private final RouteSearchSummaryRepository routeSearchSummaryRepository;
+    private final RouteFacetIndex routeFacetIndex;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.summary.batch-size:500}")
+    private int batchSize;
+
+    private final Set<UUID> dirtyRoutes = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> dirtyTrips = ConcurrentHashMap.newKeySet();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        // Flushes may run from afterCommit callbacks, so always use a transaction of their own
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * A route was created, updated, deleted or (un)favorited
+     */
+    public void routeChanged(UUID routeId) {
+        afterCommit(() -> dirtyRoutes.add(routeId));
+    }
+
+    /**
+     * A trip was created, updated, cancelled, deleted or had seats booked/released
+     */
+    public void tripChanged(UUID tripId) {
+        afterCommit(() -> dirtyTrips.add(tripId));
+    }
+
+    /**
+     * Recompute the rows of everything marked dirty since the last flush
+     */
+    @Scheduled(fixedDelayString = "${app.search.summary.flush-ms:1000}")
+    public synchronized void flush() {
+        Set<UUID> tripIds = drain(dirtyTrips);
+        Set<UUID> routeIds = drain(dirtyRoutes);
+        if (tripIds.isEmpty() && routeIds.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!tripIds.isEmpty()) {
+                    routeIds.addAll(tripRepository.findRouteIdsByTripIds(tripIds));
+                }
+                refresh(routeIds);
+            });
+        } catch (RuntimeException e) {
+            // Mark them again so the next flush retries
+            dirtyTrips.addAll(tripIds);
+            dirtyRoutes.addAll(routeIds);
+            log.error("Failed to refresh route search summaries", e);
+        }
+    }
+
+    /**
+     * Recompute every row
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.search.summary.rebuild-cron:0 5 0 * * *}")
+    public synchronized void rebuild() {
+        int routes = transactionTemplate.execute(status -> {
+            routeSearchSummaryRepository.deleteUnsearchable();
+            List<UUID> routeIds = routeRepository.findOpenRouteIds();
+            refresh(routeIds);
+            return routeIds.size();
+        });
+        log.info("Route search summaries rebuilt for {} open route(s)", routes);
+        routeFacetIndex.rebuild();
+    }
+
+    // Upsert the rows of open routes and delete the others, one batch at a time
+    private void refresh(Collection<UUID> routeIds) {
+        List<UUID> ids = new ArrayList<>(routeIds);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            refreshBatch(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+    }
+
+    private void refreshBatch(List<UUID> routeIds) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, Route> routes = routeRepository.findAllById(routeIds).stream()
+                .filter(route -> route.getDeletedAt() == 0 && route.getStatus() == Route.Status.OPEN)
+                .collect(Collectors.toMap(Route::getId, Function.identity()));
+        Map<UUID, Object[]> upcoming = new HashMap<>();
+        if (!routes.isEmpty()) {
+            tripRepository.summarizeUpcomingByRouteIds(routes.keySet(), today)
+                    .forEach(row -> upcoming.put((UUID) row[0], row));
+        }
+        // Loading the existing rows first lets saveAll update them without a SELECT per row
+        Map<UUID, RouteSearchSummary> existing = routeSearchSummaryRepository.findAllById(routes.keySet()).stream()
+                .collect(Collectors.toMap(RouteSearchSummary::getRouteId, Function.identity()));
+
+        List<RouteSearchSummary> summaries = new ArrayList<>(routes.size());
+        routes.forEach((routeId, route) -> {
+            RouteSearchSummary summary = existing.computeIfAbsent(routeId, id -> {
+                RouteSearchSummary created = new RouteSearchSummary();
+                created.setRouteId(id);
+                return created;
+            });
+            fill(summary, route, upcoming.get(routeId), now);
+            summaries.add(summary);
+        });
+        routeSearchSummaryRepository.saveAll(summaries);
+        routeFacetIndex.routesRefreshed(summaries);
+
+        List<UUID> unsearchable = routeIds.stream().filter(routeId -> !routes.containsKey(routeId)).toList();
+        if (!unsearchable.isEmpty()) {
+            routeSearchSummaryRepository.deleteByRouteIdIn(unsearchable);
+            routeFacetIndex.routesRemoved(unsearchable);
+        }
+    }
+
+    private static void fill(RouteSearchSummary summary, Route route, Object[] upcoming, LocalDateTime now) {
+        summary.setRouteName(route.getRouteName());
+        summary.setStartLocation(route.getStartLocation());
+        summary.setEndLocation(route.getEndLocation());
+        summary.setDurationDays(route.getDurationDays());
+        summary.setImage(route.getImage());
+        summary.setFavoriteCount(route.getFavoriteCount());
+        summary.setRouteCreatedAt(route.getCreatedAt());
+        summary.setMinPrice(upcoming == null ? null : (BigDecimal) upcoming[1]);
+        summary.setNextDepartureDate(upcoming == null ? null : (LocalDate) upcoming[2]);
+        summary.setLastDepartureDate(upcoming == null ? null : (LocalDate) upcoming[3]);
+        summary.setSeatsAvailable(upcoming == null ? 0 : ((Number) upcoming[4]).intValue());
+        summary.setRefreshedAt(now);
+    }
+
+    private static Set<UUID> drain(Set<UUID> dirty) {
+        Set<UUID> drained = new HashSet<>();
+        Iterator<UUID> it = dirty.iterator();
+        while (it.hasNext()) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
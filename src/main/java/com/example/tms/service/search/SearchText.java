@@ -0,0 +1,49 @@
+package com.example.tms.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text normalisation shared by the in-memory search structures. Folding lowercases and strips
+ * diacritics (including Vietnamese đ), so "Hạ Long", "ha long" and "HA LONG" all index and
+ * query the same way.
+ */
+public final class SearchText {
+
+    private SearchText() {
+    }
+
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            // đ/Đ is a letter of its own, not d plus a mark, so NFD leaves it alone
+            if (c == 'đ' || c == 'Đ') {
+                c = 'd';
+            }
+            folded.append(Character.toLowerCase(c));
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Folded words of the text, in order (anything but letters and digits separates words)
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : fold(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.tms.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable prefix trie over folded keys. Every node stores the top K values found below it, so
+ * a completion is one walk down the prefix and a copy of at most K values.
+ *
+ * Values are ranked by popularity, then by the order they were added in.
+ */
+final class SuggestionTrie<T> {
+
+    private final Node<T> root;
+
+    private SuggestionTrie(Node<T> root) {
+        this.root = root;
+    }
+
+    static <T> Builder<T> builder(int topK) {
+        return new Builder<>(topK);
+    }
+
+    /**
+     * The best values whose key, or one of whose keys, starts with the prefix
+     */
+    List<T> complete(String prefix, int limit) {
+        Node<T> node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        if (node == null || limit <= 0) {
+            return List.of();
+        }
+        return List.of(Arrays.copyOf(node.top, Math.min(limit, node.top.length)));
+    }
+
+    private static final class Node<T> {
+        // Sorted edge labels, children[i] sits under labels[i]
+        private final char[] labels;
+        private final Node<T>[] children;
+        private final T[] top;
+
+        private Node(char[] labels, Node<T>[] children, T[] top) {
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+
+        private Node<T> child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long popularity;
+        private final int order;
+
+        private Entry(T value, long popularity, int order) {
+            this.value = value;
+            this.popularity = popularity;
+            this.order = order;
+        }
+    }
+
+    private static final class BuilderNode<T> {
+        private final TreeMap<Character, BuilderNode<T>> children = new TreeMap<>();
+        private final List<Entry<T>> entries = new ArrayList<>();
+    }
+
+    static final class Builder<T> {
+
+        private static final Comparator<Entry<?>> RANKING =
+                Comparator.comparingLong((Entry<?> entry) -> entry.popularity).reversed()
+                        .thenComparingInt(entry -> entry.order);
+
+        private final int topK;
+        private final BuilderNode<T> root = new BuilderNode<>();
+        private int added;
+
+        private Builder(int topK) {
+            this.topK = topK;
+        }
+
+        /**
+         * Index the value under each of the keys (a value reachable by several keys is still
+         * listed once)
+         */
+        Builder<T> add(List<String> keys, T value, long popularity) {
+            Entry<T> entry = new Entry<>(value, popularity, added++);
+            for (String key : keys) {
+                BuilderNode<T> node = root;
+                for (int i = 0; i < key.length(); i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), c -> new BuilderNode<>());
+                }
+                node.entries.add(entry);
+            }
+            return this;
+        }
+
+        SuggestionTrie<T> build() {
+            return new SuggestionTrie<>(freeze(root).node);
+        }
+
+        private Frozen<T> freeze(BuilderNode<T> node) {
+            List<Entry<T>> candidates = new ArrayList<>(node.entries);
+            char[] labels = new char[node.children.size()];
+            @SuppressWarnings("unchecked")
+            Node<T>[] children = new Node[labels.length];
+            int i = 0;
+            for (Map.Entry<Character, BuilderNode<T>> child : node.children.entrySet()) {
+                Frozen<T> frozen = freeze(child.getValue());
+                labels[i] = child.getKey();
+                children[i] = frozen.node;
+                candidates.addAll(frozen.top);
+                i++;
+            }
+            // The best K of this node are among its own entries and the best K of each child
+            List<Entry<T>> top = candidates.stream().distinct().sorted(RANKING).limit(topK).toList();
+            @SuppressWarnings("unchecked")
+            T[] values = (T[]) top.stream().map(entry -> entry.value).toArray();
+            return new Frozen<>(new Node<>(labels, children, values), top);
+        }
+    }
+
+    private static final class Frozen<T> {
+        private final Node<T> node;
+        private final List<Entry<T>> top;
+
+        private Frozen(Node<T> node, List<Entry<T>> top) {
+            this.node = node;
+            this.top = top;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.tms.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.Attraction;
+import com.example.tms.entity.Route;
+import com.example.tms.repository.AttractionRepository;
+import com.example.tms.repository.RouteAttractionRepository;
+import com.example.tms.repository.RouteRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index for keyword tour search.
+ *
+ * Every open route is indexed under the folded words of its name and of the names and
+ * locations of the attractions it visits, each word carrying the weight of the best field it
+ * appears in. A query matches a route when each of its words is a word, or the beginning of a
+ * word, of the route; routes are ranked by the summed weights, whole words counting double.
+ *
+ * Like HomeRankingCache, the index is built at startup, kept current by the catalogue write
+ * paths after commit, and rebuilt periodically to pick up changes made by other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TourSearchIndex {
+
+    private static final int ROUTE_NAME_WEIGHT = 3;
+    private static final int ATTRACTION_NAME_WEIGHT = 2;
+    private static final int ATTRACTION_LOCATION_WEIGHT = 1;
+
+    private final RouteRepository routeRepository;
+    private final AttractionRepository attractionRepository;
+    private final RouteAttractionRepository routeAttractionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    private TransactionTemplate loadTemplate;
+
+    @PostConstruct
+    public void init() {
+        loadTemplate = new TransactionTemplate(transactionManager);
+        loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from the database and swap it in
+     */
+    @Scheduled(fixedDelayString = "${app.search.index.refresh-ms:600000}",
+            initialDelayString = "${app.search.index.refresh-ms:600000}")
+    public void rebuild() {
+        Index rebuilt = loadTemplate.execute(status -> loadIndex());
+        lock.writeLock().lock();
+        try {
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Tour search index built: {} route(s), {} term(s)", rebuilt.routeTerms.size(), rebuilt.postings.size());
+    }
+
+    /**
+     * IDs of the routes matching every word of the query, best match first
+     */
+    public List<UUID> search(String query) {
+        return search(query, 0);
+    }
+
+    /**
+     * IDs of the routes whose name alone matches every word of the query
+     */
+    public Set<UUID> searchRouteNames(String query) {
+        return new HashSet<>(search(query, ROUTE_NAME_WEIGHT));
+    }
+
+    /**
+     * A route was created, updated or soft-deleted
+     */
+    public void routeSaved(Route route) {
+        UUID routeId = route.getId();
+        List<String> nameTokens = isOpen(route) ? SearchText.tokens(route.getRouteName()) : null;
+        afterCommit(() -> apply(current -> current.putRoute(routeId, nameTokens)));
+    }
+
+    /**
+     * An attraction was created, updated or soft-deleted
+     */
+    public void attractionSaved(Attraction attraction) {
+        UUID attractionId = attraction.getId();
+        AttractionText text = attraction.getDeletedAt() == 0 ? AttractionText.of(attraction) : null;
+        afterCommit(() -> apply(current -> current.putAttraction(attractionId, text)));
+    }
+
+    /**
+     * The itinerary (route_attraction rows) of these routes changed
+     */
+    public void routeAttractionsChanged(UUID... routeIds) {
+        afterCommit(() -> {
+            for (UUID routeId : routeIds) {
+                List<UUID> attractionIds = routeAttractionRepository.findAttractionIdsByRouteId(routeId);
+                apply(current -> current.setRouteAttractions(routeId, attractionIds));
+            }
+        });
+    }
+
+    private List<UUID> search(String query, int minWeight) {
+        List<String> words = SearchText.tokens(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Integer> scores = null;
+        lock.readLock().lock();
+        try {
+            for (String word : words) {
+                Map<UUID, Integer> wordScores = index.score(word, minWeight);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    // Every word has to match: keep the routes in both, adding up their scores
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((routeId, score) -> score + wordScores.get(routeId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<UUID, Integer> ranked = scores;
+        List<UUID> routeIds = new ArrayList<>(ranked.keySet());
+        routeIds.sort(Comparator.comparing((UUID routeId) -> ranked.get(routeId)).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return routeIds;
+    }
+
+    private interface Change {
+        void applyTo(Index index);
+    }
+
+    private void apply(Change change) {
+        lock.writeLock().lock();
+        try {
+            change.applyTo(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Index loadIndex() {
+        Index loaded = new Index();
+        attractionRepository.findAll((root, query, cb) -> cb.equal(root.get("deletedAt"), 0L))
+                .forEach(attraction -> loaded.attractions.put(attraction.getId(), AttractionText.of(attraction)));
+        for (Object[] link : routeAttractionRepository.findAllLinks()) {
+            loaded.link((UUID) link[0], (UUID) link[1]);
+        }
+        routeRepository.findAll((root, query, cb) -> cb.equal(root.get("deletedAt"), 0L))
+                .forEach(route -> loaded.putRoute(route.getId(),
+                        isOpen(route) ? SearchText.tokens(route.getRouteName()) : null));
+        return loaded;
+    }
+
+    private static boolean isOpen(Route route) {
+        return route.getDeletedAt() == 0 && route.getStatus() == Route.Status.OPEN;
+    }
+
+    private static class AttractionText {
+        private final List<String> nameTokens;
+        private final List<String> locationTokens;
+
+        private AttractionText(List<String> nameTokens, List<String> locationTokens) {
+            this.nameTokens = nameTokens;
+            this.locationTokens = locationTokens;
+        }
+
+        private static AttractionText of(Attraction attraction) {
+            return new AttractionText(SearchText.tokens(attraction.getName()),
+                    SearchText.tokens(attraction.getLocation()));
+        }
+    }
+
+    /**
+     * Index state. The postings of a route are recomputed from scratch whenever anything it
+     * is indexed under changes; routeTerms remembers them so they can be taken out again.
+     */
+    private static class Index {
+        // Folded word -> route -> weight, sorted so prefixes are a range scan
+        private final TreeMap<String, Map<UUID, Integer>> postings = new TreeMap<>();
+        private final Map<UUID, Map<String, Integer>> routeTerms = new HashMap<>();
+        // Name words of the open routes
+        private final Map<UUID, List<String>> routeNames = new HashMap<>();
+        private final Map<UUID, AttractionText> attractions = new HashMap<>();
+        private final Map<UUID, Set<UUID>> routeAttractions = new HashMap<>();
+        private final Map<UUID, Set<UUID>> attractionRoutes = new HashMap<>();
+
+        private Map<UUID, Integer> score(String word, int minWeight) {
+            Map<UUID, Integer> scores = new HashMap<>();
+            for (Map.Entry<String, Map<UUID, Integer>> term
+                    : postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+                boolean wholeWord = term.getKey().equals(word);
+                term.getValue().forEach((routeId, weight) -> {
+                    if (weight >= minWeight) {
+                        scores.merge(routeId, wholeWord ? weight * 2 : weight, Math::max);
+                    }
+                });
+            }
+            return scores;
+        }
+
+        private void link(UUID routeId, UUID attractionId) {
+            routeAttractions.computeIfAbsent(routeId, id -> new HashSet<>()).add(attractionId);
+            attractionRoutes.computeIfAbsent(attractionId, id -> new HashSet<>()).add(routeId);
+        }
+
+        // nameTokens null = route is not searchable
+        private void putRoute(UUID routeId, List<String> nameTokens) {
+            if (nameTokens == null) {
+                routeNames.remove(routeId);
+            } else {
+                routeNames.put(routeId, nameTokens);
+            }
+            reindex(routeId);
+        }
+
+        // text null = attraction deleted
+        private void putAttraction(UUID attractionId, AttractionText text) {
+            if (text == null) {
+                attractions.remove(attractionId);
+            } else {
+                attractions.put(attractionId, text);
+            }
+            attractionRoutes.getOrDefault(attractionId, Set.of()).forEach(this::reindex);
+        }
+
+        private void setRouteAttractions(UUID routeId, List<UUID> attractionIds) {
+            Set<UUID> previous = routeAttractions.remove(routeId);
+            if (previous != null) {
+                previous.forEach(attractionId -> {
+                    Set<UUID> routes = attractionRoutes.get(attractionId);
+                    if (routes != null) {
+                        routes.remove(routeId);
+                    }
+                });
+            }
+            attractionIds.forEach(attractionId -> link(routeId, attractionId));
+            reindex(routeId);
+        }
+
+        private void reindex(UUID routeId) {
+            Map<String, Integer> previous = routeTerms.remove(routeId);
+            if (previous != null) {
+                previous.keySet().forEach(term -> {
+                    Map<UUID, Integer> routes = postings.get(term);
+                    routes.remove(routeId);
+                    if (routes.isEmpty()) {
+                        postings.remove(term);
+                    }
+                });
+            }
+            List<String> nameTokens = routeNames.get(routeId);
+            if (nameTokens == null) {
+                return;
+            }
+
+            Map<String, Integer> terms = new HashMap<>();
+            nameTokens.forEach(token -> terms.merge(token, ROUTE_NAME_WEIGHT, Math::max));
+            for (UUID attractionId : routeAttractions.getOrDefault(routeId, Set.of())) {
+                AttractionText text = attractions.get(attractionId);
+                if (text != null) {
+                    text.nameTokens.forEach(token -> terms.merge(token, ATTRACTION_NAME_WEIGHT, Math::max));
+                    text.locationTokens.forEach(token -> terms.merge(token, ATTRACTION_LOCATION_WEIGHT, Math::max));
+                }
+            }
+            terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(routeId, weight));
+            routeTerms.put(routeId, terms);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.tms.service.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.dto.response.customer.SearchSuggestionResponse.AttractionSuggestion;
+import com.example.tms.dto.response.customer.SearchSuggestionResponse.RouteSuggestion;
+import com.example.tms.repository.AttractionRepository;
+import com.example.tms.repository.RouteAttractionRepository;
+import com.example.tms.repository.RouteRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Typeahead over the names of the open routes and active attractions, answered from memory.
+ *
+ * Names are folded like keyword search and indexed from the start of every word, so "long"
+ * completes "Vịnh Hạ Long". Routes are ranked by favourites, attractions by the favourites of
+ * the open routes visiting them.
+ *
+ * Readers use an immutable snapshot without locking. Catalogue writes mark the snapshot stale
+ * after commit and a replacement is built and swapped in shortly after; favourite counts are
+ * refreshed by the periodic rebuild.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TourSuggestionIndex {
+
+    private final RouteRepository routeRepository;
+    private final AttractionRepository attractionRepository;
+    private final RouteAttractionRepository routeAttractionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.suggest.top-k:10}")
+    private int topK;
+
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private volatile Snapshot snapshot = new Snapshot(
+            SuggestionTrie.<RouteSuggestion>builder(1).build(), SuggestionTrie.<AttractionSuggestion>builder(1).build());
+    private TransactionTemplate loadTemplate;
+
+    @PostConstruct
+    public void init() {
+        loadTemplate = new TransactionTemplate(transactionManager);
+        loadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        loadTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the snapshot from the database and swap it in
+     */
+    @Scheduled(fixedDelayString = "${app.search.suggest.refresh-ms:600000}",
+            initialDelayString = "${app.search.suggest.refresh-ms:600000}")
+    public synchronized void rebuild() {
+        stale.set(false);
+        Snapshot rebuilt = loadTemplate.execute(status -> loadSnapshot());
+        snapshot = rebuilt;
+        log.info("Tour suggestions built: {} route(s), {} attraction(s)", rebuilt.routeCount, rebuilt.attractionCount);
+    }
+
+    /**
+     * Rebuild the snapshot if the catalogue changed since the last build
+     */
+    @Scheduled(fixedDelayString = "${app.search.suggest.publish-ms:1000}")
+    public void publish() {
+        if (stale.get()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * A route, attraction or itinerary was created, updated or deleted
+     */
+    public void catalogueChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stale.set(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                stale.set(true);
+            }
+        });
+    }
+
+    /**
+     * The most popular routes with a name word starting with the keyword (shared instances,
+     * read-only)
+     */
+    public List<RouteSuggestion> suggestRoutes(String keyword, int limit) {
+        return snapshot.routes.complete(prefix(keyword), Math.min(limit, topK));
+    }
+
+    /**
+     * The most popular attractions with a name word starting with the keyword (shared
+     * instances, read-only)
+     */
+    public List<AttractionSuggestion> suggestAttractions(String keyword, int limit) {
+        return snapshot.attractions.complete(prefix(keyword), Math.min(limit, topK));
+    }
+
+    private static String prefix(String keyword) {
+        return String.join(" ", SearchText.tokens(keyword));
+    }
+
+    // Every word of the name and the words after it: "ha long bay", "long bay", "bay"
+    private static List<String> keys(String name) {
+        List<String> tokens = SearchText.tokens(name);
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            keys.add(String.join(" ", tokens.subList(i, tokens.size())));
+        }
+        return keys;
+    }
+
+    private Snapshot loadSnapshot() {
+        SuggestionTrie.Builder<RouteSuggestion> routes = SuggestionTrie.builder(topK);
+        int routeCount = 0;
+        for (Object[] row : routeRepository.findOpenRouteSuggestions()) {
+            RouteSuggestion route = RouteSuggestion.builder()
+                    .id((UUID) row[0])
+                    .name((String) row[1])
+                    .startLocation((String) row[2])
+                    .endLocation((String) row[3])
+                    .durationDays((Integer) row[4])
+                    .image((String) row[5])
+                    .build();
+            routes.add(keys(route.getName()), route, (Long) row[6]);
+            routeCount++;
+        }
+
+        Map<UUID, Long> favorites = new HashMap<>();
+        for (Object[] row : routeAttractionRepository.sumOpenRouteFavoritesByAttraction()) {
+            favorites.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+        SuggestionTrie.Builder<AttractionSuggestion> attractions = SuggestionTrie.builder(topK);
+        int attractionCount = 0;
+        for (Object[] row : attractionRepository.findActiveAttractionSuggestions()) {
+            AttractionSuggestion attraction = AttractionSuggestion.builder()
+                    .id((UUID) row[0])
+                    .name((String) row[1])
+                    .location((String) row[2])
+                    .categoryName((String) row[3])
+                    .build();
+            attractions.add(keys(attraction.getName()), attraction, favorites.getOrDefault(attraction.getId(), 0L));
+            attractionCount++;
+        }
+        return new Snapshot(routes.build(), attractions.build(), routeCount, attractionCount);
+    }
+
+    private static class Snapshot {
+        private final SuggestionTrie<RouteSuggestion> routes;
+        private final SuggestionTrie<AttractionSuggestion> attractions;
+        private final int routeCount;
+        private final int attractionCount;
+
+        private Snapshot(SuggestionTrie<RouteSuggestion> routes, SuggestionTrie<AttractionSuggestion> attractions) {
+            this(routes, attractions, 0, 0);
+        }
+
+        private Snapshot(SuggestionTrie<RouteSuggestion> routes, SuggestionTrie<AttractionSuggestion> attractions,
+                int routeCount, int attractionCount) {
+            this.routes = routes;
+            this.attractions = attractions;
+            this.routeCount = routeCount;
+            this.attractionCount = attractionCount;
+        }
+    }
+}
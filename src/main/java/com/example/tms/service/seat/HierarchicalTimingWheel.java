@@ -0,0 +1,150 @@
+package com.example.tms.service.seat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck) for expiring keys at a tick granularity.
+ *
+ * Level 0 has one bucket per tick; each higher level has buckets covering a whole rotation of
+ * the level below. When a lower level wraps, the matching bucket of the level above is cascaded
+ * down, so scheduling, cancelling and expiring are all O(1) regardless of how many keys are held.
+ * Deadlines beyond the top level are parked in its farthest bucket and re-inserted when reached.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<List<Set<K>>> levels = new ArrayList<>();
+    private final Map<K, Slot> slots = new HashMap<>();
+    private final List<K> due = new ArrayList<>();
+    private long currentTick;
+
+    private static class Slot {
+        private final int level;
+        private final int index;
+        private final long deadlineTick;
+
+        private Slot(int level, int index, long deadlineTick) {
+            this.level = level;
+            this.index = index;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    /**
+     * @param tickMillis Resolution of the wheel
+     * @param wheelBits Buckets per level as a power of two (e.g. 6 = 64 buckets)
+     * @param levelCount Number of levels
+     * @param nowMillis Current time
+     */
+    public HierarchicalTimingWheel(long tickMillis, int wheelBits, int levelCount, long nowMillis) {
+        if (tickMillis <= 0 || wheelBits <= 0 || levelCount <= 0) {
+            throw new IllegalArgumentException("Tick, wheel size and level count must be greater than 0");
+        }
+        this.tickMillis = tickMillis;
+        this.bits = wheelBits;
+        this.mask = (1 << wheelBits) - 1;
+        for (int level = 0; level < levelCount; level++) {
+            List<Set<K>> buckets = new ArrayList<>(1 << wheelBits);
+            for (int i = 0; i <= mask; i++) {
+                buckets.add(new HashSet<>());
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule (or reschedule) a key to expire at the given time
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        place(key, (deadlineMillis + tickMillis - 1) / tickMillis);
+    }
+
+    /**
+     * Remove a key from the wheel
+     * @return true if the key was scheduled
+     */
+    public synchronized boolean cancel(K key) {
+        Slot slot = slots.remove(key);
+        if (slot == null) {
+            return due.remove(key);
+        }
+        levels.get(slot.level).get(slot.index).remove(key);
+        return true;
+    }
+
+    public synchronized int size() {
+        return slots.size() + due.size();
+    }
+
+    /**
+     * Move the wheel forward to the given time
+     * @return Keys whose deadline has passed, in no particular order
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade from the top so keys can fall through several levels in the same tick
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> (bits * level)) & mask));
+                }
+            }
+            Set<K> bucket = levels.get(0).get((int) (currentTick & mask));
+            for (K key : new ArrayList<>(bucket)) {
+                Slot slot = slots.remove(key);
+                bucket.remove(key);
+                if (slot.deadlineTick <= currentTick) {
+                    due.add(key);
+                } else {
+                    place(key, slot.deadlineTick);
+                }
+            }
+        }
+        List<K> expired = new ArrayList<>(due);
+        due.clear();
+        return expired;
+    }
+
+    private void cascade(int level, int index) {
+        Set<K> bucket = levels.get(level).get(index);
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(bucket);
+        bucket.clear();
+        for (K key : keys) {
+            place(key, slots.remove(key).deadlineTick);
+        }
+    }
+
+    private void place(K key, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            due.add(key);
+            return;
+        }
+        int topLevel = levels.size() - 1;
+        for (int level = 0; level <= topLevel; level++) {
+            if (delta < (1L << (bits * (level + 1))) || level == topLevel) {
+                // Park out-of-range deadlines in the farthest bucket of the top level
+                long placementTick = level == topLevel
+                        ? Math.min(deadlineTick, currentTick + (1L << (bits * (level + 1))) - 1)
+                        : deadlineTick;
+                int index = (int) ((placementTick >>> (bits * level)) & mask);
+                levels.get(level).get(index).add(key);
+                slots.put(key, new Slot(level, index, deadlineTick));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.tms.service.seat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.Trip;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory seat ledger for flash-sale departures.
+ *
+ * Each trip gets a striped counter seeded from Trip.totalSeats/bookedSeats. Seats are first held
+ * in memory only; a hold reaches the journal as a grant once the booking transaction has
+ * committed, and is handed back to the counter without a trace if it rolls back. Releases only
+ * touch memory and the journal. A scheduled flusher writes the coalesced committed seat count of
+ * every changed trip back to trip.booked_seats, so uncommitted holds never reach the journal
+ * snapshot or the trip table. On startup the journal is replayed into the trip table before any
+ * trip is seeded again.
+ *
+ * With fsync on, a committed grant waits for the journal's next group commit rather than
+ * forcing the file itself. A crash between the booking commit and that write loses the grant
+ * from trip.booked_seats.
+ *
+ * The ledger assumes a single application node owns seat allocation.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.booking.seat-ledger", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class SeatLedger {
+
+    private final TripRepository tripRepository;
+    private final RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.booking.seat-ledger.stripes:8}")
+    private int stripes;
+
+    @Value("${app.booking.seat-ledger.journal-dir:data/seat-ledger}")
+    private String journalDir;
+
+    @Value("${app.booking.seat-ledger.fsync:true}")
+    private boolean fsync;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    // Grants/releases share the read lock; a flush takes the write lock to cut a consistent snapshot
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private SeatLedgerJournal journal;
+    private TransactionTemplate transactionTemplate;
+    // Seeding reads in its own transaction so it never sees a stale Trip from the caller's session
+    private TransactionTemplate seedTemplate;
+
+    private static class Entry {
+        private final StripedSeatCounter counter;
+        private final int totalSeats;
+        private final boolean bookable;
+        // Seats taken from the counter whose booking has not committed yet
+        private final AtomicInteger held = new AtomicInteger();
+        private volatile int flushedBookedSeats;
+
+        private Entry(StripedSeatCounter counter, int totalSeats, int bookedSeats, boolean bookable) {
+            this.counter = counter;
+            this.totalSeats = totalSeats;
+            this.bookable = bookable;
+            this.flushedBookedSeats = bookedSeats;
+        }
+
+        private int bookedSeats() {
+            return totalSeats - counter.available() - held.get();
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Writes may run from afterCommit callbacks, so always use a transaction of their own
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        seedTemplate = new TransactionTemplate(transactionManager);
+        seedTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        seedTemplate.setReadOnly(true);
+
+        Path directory = Paths.get(journalDir);
+        Map<UUID, SeatLedgerJournal.TripSeats> recovered = SeatLedgerJournal.recover(directory);
+        if (!recovered.isEmpty()) {
+            log.info("Replaying seat journal for {} trip(s)", recovered.size());
+            transactionTemplate.executeWithoutResult(status -> recovered.forEach(
+                    (tripId, seats) -> tripRepository.updateBookedSeats(tripId, seats.getBookedSeats())));
+        }
+        journal = new SeatLedgerJournal(directory, fsync);
+        journal.rotate(Map.of());
+        log.info("Seat ledger enabled ({} stripes, journal: {})", stripes, directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Take seats from a trip outside of any transaction (hold and commit in one step)
+     * @return true if granted, false if the trip is unknown, not bookable or has too few seats
+     */
+    public boolean tryGrant(UUID tripId, int seats) {
+        if (!tryHold(tripId, seats)) {
+            return false;
+        }
+        commitHold(tripId, seats);
+        return true;
+    }
+
+    /**
+     * Hold seats of a trip in memory until {@link #commitHold} or {@link #cancelHold}
+     * @return true if held, false if the trip is unknown, not bookable or has too few seats
+     */
+    public boolean tryHold(UUID tripId, int seats) {
+        snapshotLock.readLock().lock();
+        try {
+            Entry entry = entryFor(tripId);
+            if (entry == null || !entry.bookable || !entry.counter.tryAcquire(seats)) {
+                return false;
+            }
+            entry.held.addAndGet(seats);
+            return true;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Turn held seats into a journaled grant (after the booking transaction committed)
+     */
+    public void commitHold(UUID tripId, int seats) {
+        long sequence;
+        snapshotLock.readLock().lock();
+        try {
+            Entry entry = entries.get(tripId);
+            if (entry == null) {
+                // The trip was deleted while the booking was in flight
+                return;
+            }
+            entry.held.addAndGet(-seats);
+            sequence = journal.grant(tripId, seats);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+        if (fsync) {
+            try {
+                journal.awaitDurable(sequence);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Give held seats back to the counter (the booking transaction rolled back)
+     */
+    public void cancelHold(UUID tripId, int seats) {
+        snapshotLock.readLock().lock();
+        try {
+            Entry entry = entries.get(tripId);
+            if (entry != null) {
+                entry.held.addAndGet(-seats);
+                entry.counter.release(seats);
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Give seats back to a trip
+     */
+    public void release(UUID tripId, int seats) {
+        snapshotLock.readLock().lock();
+        try {
+            Entry entry = entryFor(tripId);
+            if (entry == null) {
+                return;
+            }
+            int releasable = Math.min(seats, entry.bookedSeats());
+            if (releasable <= 0) {
+                return;
+            }
+            entry.counter.release(releasable);
+            journal.release(tripId, releasable);
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    public int available(UUID tripId) {
+        snapshotLock.readLock().lock();
+        try {
+            Entry entry = entryFor(tripId);
+            return entry == null ? 0 : entry.counter.available();
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write pending changes of a trip and seed it again from the database
+     * (used after the trip's capacity or status changed). Holds still in flight are carried over.
+     */
+    public synchronized void refresh(UUID tripId) {
+        snapshotLock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(tripId);
+            if (entry == null) {
+                return;
+            }
+            if (entry.bookedSeats() != entry.flushedBookedSeats) {
+                int bookedSeats = entry.bookedSeats();
+                transactionTemplate.executeWithoutResult(
+                        status -> tripRepository.updateBookedSeats(tripId, bookedSeats));
+                routeSearchSummaryUpdater.tripChanged(tripId);
+            }
+            int held = entry.held.get();
+            if (held > 0) {
+                Entry seeded = seedTemplate.execute(status ->
+                        tripRepository.findActiveById(tripId).map(trip -> seed(trip, held)).orElse(null));
+                if (seeded != null) {
+                    entries.put(tripId, seeded);
+                }
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write-behind: coalesce everything granted/released since the last flush into one
+     * UPDATE per changed trip
+     */
+    @Scheduled(fixedDelayString = "${app.booking.seat-ledger.flush-interval-ms:200}")
+    public synchronized void flush() {
+        Map<UUID, SeatLedgerJournal.TripSeats> snapshot = new HashMap<>();
+        snapshotLock.writeLock().lock();
+        try {
+            entries.forEach((tripId, entry) ->
+                    snapshot.put(tripId, new SeatLedgerJournal.TripSeats(entry.totalSeats, entry.bookedSeats())));
+            journal.rotate(snapshot);
+        } catch (IOException e) {
+            log.error("Failed to rotate seat journal, flush skipped", e);
+            return;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        Map<UUID, Integer> changed = new HashMap<>();
+        snapshot.forEach((tripId, seats) -> {
+            Entry entry = entries.get(tripId);
+            if (entry != null && entry.flushedBookedSeats != seats.getBookedSeats()) {
+                changed.put(tripId, seats.getBookedSeats());
+            }
+        });
+        if (changed.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> changed.forEach(tripRepository::updateBookedSeats));
+            changed.forEach((tripId, bookedSeats) -> {
+                Entry entry = entries.get(tripId);
+                if (entry != null) {
+                    entry.flushedBookedSeats = bookedSeats;
+                }
+                routeSearchSummaryUpdater.tripChanged(tripId);
+            });
+            log.debug("Flushed booked seats for {} trip(s)", changed.size());
+        } catch (RuntimeException e) {
+            // The journal already holds the snapshot; the next flush retries
+            log.error("Failed to flush seat ledger", e);
+        }
+    }
+
+    private Entry entryFor(UUID tripId) {
+        return entries.computeIfAbsent(tripId, id -> seedTemplate.execute(status ->
+                tripRepository.findActiveById(id).map(trip -> seed(trip, 0)).orElse(null)));
+    }
+
+    private Entry seed(Trip trip, int held) {
+        int totalSeats = trip.getTotalSeats();
+        int bookedSeats = trip.getBookedSeats();
+        journal.seed(trip.getId(), totalSeats, bookedSeats);
+        Entry entry = new Entry(new StripedSeatCounter(stripes, totalSeats - bookedSeats - held), totalSeats, bookedSeats,
+                trip.getStatus() == Trip.Status.SCHEDULED);
+        entry.held.set(held);
+        return entry;
+    }
+}
@@ -0,0 +1,315 @@
+package com.example.tms.service.seat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only reservation journal for the seat ledger.
+ *
+ * Each segment starts with a snapshot of absolute seat counts ("S" lines), followed by
+ * grants ("G") and releases ("R"). The newest segment alone is enough to rebuild the
+ * booked seat count of every trip, so replaying it is idempotent.
+ *
+ * Appends only go to an in-memory buffer; a background writer drains it and, with fsync on,
+ * forces the file once per batch (group commit). Callers that need a record on disk wait for
+ * it with {@link #awaitDurable(long)}.
+ */
+@Slf4j
+public class SeatLedgerJournal implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "seat-ledger-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final boolean fsync;
+    // Guards the channel and segment; held by the writer for a whole batch and by rotate()
+    private final Object io = new Object();
+    private long segment;
+    private FileChannel channel;
+
+    // Guarded by this
+    private final StringBuilder buffer = new StringBuilder();
+    private long appended;
+    private long durable;
+    private boolean closed;
+    private final Thread writer;
+
+    @Getter
+    @AllArgsConstructor
+    public static class TripSeats {
+        private final int totalSeats;
+        private final int bookedSeats;
+    }
+
+    public SeatLedgerJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        this.segment = listSegments(directory).stream().mapToLong(SeatLedgerJournal::segmentNumber).max().orElse(0L);
+        this.writer = new Thread(this::writeLoop, "seat-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Rebuild booked seat counts from the newest complete segment
+     * @return Trip ID -> booked seats, empty if there is nothing to recover
+     */
+    public static Map<UUID, TripSeats> recover(Path directory) throws IOException {
+        Map<UUID, TripSeats> result = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        List<Path> segments = listSegments(directory);
+        if (segments.isEmpty()) {
+            return result;
+        }
+        Path latest = segments.get(segments.size() - 1);
+        try (BufferedReader reader = Files.newBufferedReader(latest, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                try {
+                    UUID tripId = UUID.fromString(parts[1]);
+                    switch (parts[0]) {
+                        case "S" -> result.put(tripId,
+                                new TripSeats(Integer.parseInt(parts[2]), Integer.parseInt(parts[3])));
+                        case "G" -> result.computeIfPresent(tripId, (id, seats) ->
+                                new TripSeats(seats.getTotalSeats(), seats.getBookedSeats() + Integer.parseInt(parts[2])));
+                        case "R" -> result.computeIfPresent(tripId, (id, seats) ->
+                                new TripSeats(seats.getTotalSeats(),
+                                        Math.max(0, seats.getBookedSeats() - Integer.parseInt(parts[2]))));
+                        default -> log.warn("Skipping unknown seat journal entry: {}", line);
+                    }
+                } catch (RuntimeException e) {
+                    // A torn last line after a crash; everything before it is still valid
+                    log.warn("Skipping unreadable seat journal entry: {}", line);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return sequence number of the record, for {@link #awaitDurable(long)}
+     */
+    public long seed(UUID tripId, int totalSeats, int bookedSeats) {
+        return append("S," + tripId + "," + totalSeats + "," + bookedSeats + "\n");
+    }
+
+    public long grant(UUID tripId, int seats) {
+        return append("G," + tripId + "," + seats + "\n");
+    }
+
+    public long release(UUID tripId, int seats) {
+        return append("R," + tripId + "," + seats + "\n");
+    }
+
+    /**
+     * Wait until the record with the given sequence number is written (and forced, with fsync on)
+     */
+    public synchronized void awaitDurable(long sequence) throws InterruptedException {
+        while (durable < sequence && !closed) {
+            wait();
+        }
+    }
+
+    /**
+     * Start a new segment with the given snapshot as its header and delete older segments.
+     * The snapshot must cover every record appended so far; records still buffered are dropped.
+     */
+    public void rotate(Map<UUID, TripSeats> snapshot) throws IOException {
+        synchronized (io) {
+            long covered;
+            synchronized (this) {
+                covered = appended;
+                buffer.setLength(0);
+            }
+            startSegment(snapshot);
+            markDurable(covered);
+        }
+    }
+
+    private void startSegment(Map<UUID, TripSeats> snapshot) throws IOException {
+        long next = segment + 1;
+        Path temp = directory.resolve(SEGMENT_PREFIX + next + SEGMENT_SUFFIX + TEMP_SUFFIX);
+        Path target = directory.resolve(SEGMENT_PREFIX + next + SEGMENT_SUFFIX);
+
+        StringBuilder header = new StringBuilder();
+        snapshot.forEach((tripId, seats) -> header.append("S,").append(tripId).append(',')
+                .append(seats.getTotalSeats()).append(',').append(seats.getBookedSeats()).append('\n'));
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(out, header.toString());
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        closeChannel();
+        for (Path old : listSegments(directory)) {
+            if (segmentNumber(old) < next) {
+                Files.deleteIfExists(old);
+            }
+        }
+        segment = next;
+        channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Write whatever is still buffered, stop the writer and close the segment
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (io) {
+            writeBatch();
+            closeChannel();
+        }
+    }
+
+    private synchronized long append(String line) {
+        if (closed) {
+            throw new IllegalStateException("Seat journal is closed");
+        }
+        buffer.append(line);
+        notifyAll();
+        return ++appended;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            synchronized (this) {
+                while (buffer.length() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            synchronized (io) {
+                try {
+                    writeBatch();
+                } catch (IOException e) {
+                    // The batch stays buffered and is retried; waiters keep waiting
+                    log.error("Failed to write seat journal, retrying", e);
+                    sleepQuietly(100);
+                }
+            }
+        }
+    }
+
+    // Caller holds io, so rotate() cannot cut a segment between taking the batch and writing it
+    private void writeBatch() throws IOException {
+        String batch;
+        long covered;
+        synchronized (this) {
+            if (buffer.length() == 0) {
+                return;
+            }
+            batch = buffer.toString();
+            covered = appended;
+        }
+        if (channel == null) {
+            channel = FileChannel.open(directory.resolve(SEGMENT_PREFIX + segment + SEGMENT_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        long position = channel.position();
+        try {
+            write(channel, batch);
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // Cut off a partly written batch so the retry does not count it twice
+            try {
+                channel.truncate(position);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            buffer.delete(0, batch.length());
+        }
+        markDurable(covered);
+    }
+
+    private synchronized void markDurable(long sequence) {
+        if (sequence > durable) {
+            durable = sequence;
+            notifyAll();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static void write(FileChannel out, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .toList());
+            segments.sort((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+            return segments;
+        }
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
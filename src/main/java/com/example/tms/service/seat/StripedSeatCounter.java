@@ -0,0 +1,110 @@
+package com.example.tms.service.seat;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Remaining-seat counter split across several stripes so that concurrent buyers
+ * of the same trip mostly CAS different memory locations.
+ * The sum of all stripes is the number of seats still available; no stripe ever goes negative.
+ */
+public class StripedSeatCounter {
+
+    // Each stripe occupies its own cache line (16 ints = 64 bytes)
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+
+    public StripedSeatCounter(int stripes, int available) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be greater than 0");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        int share = Math.max(0, available) / stripes;
+        int remainder = Math.max(0, available) % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Take seats if enough are available.
+     * @return true if all requested seats were taken, false if nothing was taken
+     */
+    public boolean tryAcquire(int seats) {
+        if (seats <= 0) {
+            return true;
+        }
+        int home = homeStripe();
+        // Fast path: a single stripe can cover the request
+        for (int i = 0; i < stripes; i++) {
+            int index = ((home + i) % stripes) * PADDING;
+            int current = cells.get(index);
+            while (current >= seats) {
+                if (cells.compareAndSet(index, current, current - seats)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        // Slow path, under the gather lock: gather seats from several stripes, give them back if we fall short
+        return gather(seats);
+    }
+
+    /**
+     * Return seats to the counter
+     */
+    public void release(int seats) {
+        if (seats <= 0) {
+            return;
+        }
+        cells.addAndGet(homeStripe() * PADDING, seats);
+    }
+
+    /**
+     * Current number of available seats (exact when no acquire/release is in flight)
+     */
+    public int available() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    /*
+     * One gather at a time: a fast path that fails while this gather holds seats it may hand back
+     * ends up here and waits for them. Stripes are swept until the request is covered or a whole
+     * pass finds nothing, so seats released into a stripe already passed are still picked up.
+     */
+    private synchronized boolean gather(int seats) {
+        int taken = 0;
+        boolean progress = true;
+        while (taken < seats && progress) {
+            progress = false;
+            for (int i = 0; i < stripes && taken < seats; i++) {
+                int index = i * PADDING;
+                int current = cells.get(index);
+                while (current > 0) {
+                    int take = Math.min(current, seats - taken);
+                    if (cells.compareAndSet(index, current, current - take)) {
+                        taken += take;
+                        progress = true;
+                        break;
+                    }
+                    current = cells.get(index);
+                }
+            }
+        }
+        if (taken < seats) {
+            release(taken);
+            return false;
+        }
+        return true;
+    }
+
+    private int homeStripe() {
+        return (int) (((Thread.currentThread().getId() * 0x9E3779B9L) >>> 16) % stripes);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.tms.service.tourcard;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.example.tms.dto.response.customer.TourCardResponse;
+import com.example.tms.entity.Trip;
+import com.example.tms.repository.FavoriteTourRepository;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.image.ImageManifest;
+import com.example.tms.service.ranking.RankedRoute;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds a page of tour cards with a fixed number of queries (upcoming trips, lowest prices,
+ * the user's favourites), whatever the page size. Favourite counts come with the routes.
+ */
+@Component
+@RequiredArgsConstructor
+public class TourCardAssembler {
+
+    // Upcoming trips shown on each card
+    private static final int TRIPS_PER_CARD = 5;
+
+    private final TripRepository tripRepository;
+    private final FavoriteTourRepository favoriteTourRepository;
+    private final ImageManifest imageManifest;
+
+    /**
+     * Build the cards of the given routes, in the same order
+     *
+     * @param userId current user, or null when anonymous (nothing is favorited)
+     */
+    public List<TourCardResponse> build(List<RankedRoute> routes, UUID userId) {
+        if (routes.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> routeIds = routes.stream().map(RankedRoute::getRouteId).distinct().toList();
+        LocalDate today = LocalDate.now();
+
+        Map<UUID, List<Trip>> upcomingTrips = tripRepository
+                .findUpcomingTripsByRouteIds(routeIds, today, TRIPS_PER_CARD).stream()
+                .collect(Collectors.groupingBy(trip -> trip.getRoute().getId()));
+        Map<UUID, BigDecimal> minPrices = tripRepository.findMinUpcomingPriceByRouteIds(routeIds, today).stream()
+                .collect(Collectors.toMap(row -> (UUID) row[0], row -> (BigDecimal) row[1]));
+        Set<UUID> favorited = userId == null
+                ? Set.of()
+                : new HashSet<>(favoriteTourRepository.findFavoritedRouteIds(userId, routeIds));
+
+        return routes.stream()
+                .map(route -> toCard(route, imageManifest.srcset(route.getImage()), upcomingTrips.getOrDefault(route.getRouteId(), List.of()),
+                        minPrices.get(route.getRouteId()), favorited.contains(route.getRouteId())))
+                .collect(Collectors.toList());
+    }
+
+    private static TourCardResponse toCard(RankedRoute route, Map<String, String> imageSrcset, List<Trip> trips, BigDecimal minPrice,
+            boolean isFavorited) {
+        List<TourCardResponse.TripInfo> tripInfos = trips.stream()
+                .map(trip -> TourCardResponse.TripInfo.builder()
+                        .tripId(trip.getId())
+                        .departureDate(trip.getDepartureDate())
+                        .returnDate(trip.getReturnDate())
+                        .price(trip.getPrice())
+                        .availableSeats(trip.getTotalSeats() - trip.getBookedSeats())
+                        .build())
+                .collect(Collectors.toList());
+
+        return TourCardResponse.builder()
+                .routeId(route.getRouteId())
+                .routeName(route.getRouteName())
+                .routeCode(generateRouteCodeFromId(route.getRouteId()))
+                .startLocation(route.getStartLocation())
+                .endLocation(route.getEndLocation())
+                .durationDays(route.getDurationDays())
+                .image(route.getImage())
+                .imageSrcset(imageSrcset)
+                .minPrice(minPrice)
+                .favoriteCount(route.getFavoriteCount())
+                .isFavorited(isFavorited)
+                .upcomingTrips(tripInfos)
+                .attractionIds(route.getAttractionIds())
+                .build();
+    }
+
+    private static String generateRouteCodeFromId(UUID routeId) {
+        if (routeId == null) return "";
+        String raw = routeId.toString().replace("-", "").toUpperCase();
+        return raw.substring(0, Math.min(8, raw.length()));
+    }
+}
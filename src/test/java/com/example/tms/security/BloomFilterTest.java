@@ -0,0 +1,50 @@
+package com.example.tms.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The filter never forgets an added key and stays near its configured false-positive rate when
+ * filled to the expected count.
+ */
+class BloomFilterTest {
+
+    private static final int EXPECTED = 10_000;
+
+    @Test
+    void neverMissesAnAddedKey() {
+        BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+        for (int i = 0; i < EXPECTED; i++) {
+            filter.add("revoked-" + i);
+        }
+        for (int i = 0; i < EXPECTED; i++) {
+            assertTrue(filter.mightContain("revoked-" + i));
+        }
+    }
+
+    @Test
+    void keepsFalsePositivesNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(EXPECTED, 0.01);
+        for (int i = 0; i < EXPECTED; i++) {
+            filter.add("revoked-" + i);
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("active-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% expected; allow twice that before calling the sizing wrong
+        assertTrue(falsePositives < probes * 0.02, falsePositives + " false positives in " + probes);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1, 0.01);
+        assertFalse(filter.mightContain("anything"));
+        assertFalse(filter.mightContain(""));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.tms.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.entity.User;
+import com.example.tms.repository.UserRepository;
+
+/**
+ * Access tokens authenticate requests from their claims, stop working once the user is locked,
+ * renamed or given another role (after the revocation window, or at once when evicted), and
+ * tokens issued before the user id claim still work.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class JwtAuthenticationTest {
+
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesFromClaimsAndHonoursRevocation() throws Exception {
+        User user = new User();
+        user.setUsername("jwt_claims_user");
+        user.setUserPassword("not-a-real-hash");
+        user.setFullName("Claims User");
+        user.setEmail("jwt_claims_user@example.com");
+        user.setRole(User.Role.CUSTOMER);
+        user.setIsLock(false);
+        user = userRepository.save(user);
+
+        String token = jwtService.generateToken(userDetailsService.loadUserByUsername("jwt_claims_user"));
+        AuthenticatedUser principal = assertInstanceOf(AuthenticatedUser.class, filter(token).getPrincipal());
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("jwt_claims_user", principal.getUsername());
+        assertEquals(List.of(new SimpleGrantedAuthority("CUSTOMER")), List.copyOf(principal.getAuthorities()));
+
+        // A role change is honoured once the cached status is reloaded
+        user.setRole(User.Role.STAFF);
+        user = userRepository.save(user);
+        assertEquals(principal.getId(), ((AuthenticatedUser) filter(token).getPrincipal()).getId());
+        userStatusCache.evict(user.getId());
+        assertNull(filter(token));
+
+        // Locked users are rejected even with a token carrying their current role
+        String staffToken = jwtService.generateToken(userDetailsService.loadUserByUsername("jwt_claims_user"));
+        user.setIsLock(true);
+        user = userRepository.save(user);
+        userStatusCache.evict(user.getId());
+        assertNull(filter(staffToken));
+
+        // Tokens without the user id claim are checked against the user
+        user.setIsLock(false);
+        user = userRepository.save(user);
+        String legacyToken = jwtService.generateToken(org.springframework.security.core.userdetails.User
+                .withUsername("jwt_claims_user").password("").authorities("STAFF").build());
+        assertEquals("jwt_claims_user", filter(legacyToken).getName());
+
+        // Renaming the user retires tokens issued under the old username
+        userStatusCache.evict(user.getId());
+        String renamedToken = jwtService.generateToken(userDetailsService.loadUserByUsername("jwt_claims_user"));
+        assertEquals("jwt_claims_user", filter(renamedToken).getName());
+        user.setUsername("jwt_claims_renamed");
+        user = userRepository.save(user);
+        userStatusCache.evict(user.getId());
+        assertNull(filter(renamedToken));
+
+        assertNull(filter("not.a.token"));
+        assertNull(filter(token.substring(0, token.length() - 2) + "xx"));
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
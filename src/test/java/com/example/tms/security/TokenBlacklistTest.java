@@ -0,0 +1,81 @@
+package com.example.tms.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.entity.UnusedAccessToken;
+import com.example.tms.repository.UnusedAccessTokenRepository;
+
+/**
+ * Logged-out tokens are rejected from memory, logouts written by other nodes are picked up by the
+ * reload, and expired rows are not loaded. Until that reload, another node's logout is not seen:
+ * the accepted revocation delay of app.security.blacklist.refresh-ms.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TokenBlacklistTest {
+
+    @Autowired
+    private TokenBlacklist tokenBlacklist;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private JwtBlackListFilter jwtBlackListFilter;
+
+    @Autowired
+    private UnusedAccessTokenRepository unusedAccessTokenRepository;
+
+    @Test
+    void rejectsRevokedTokensUntilTheyExpire() throws Exception {
+        String loggedOut = token("blacklist_logged_out");
+        String active = token("blacklist_active");
+        assertFalse(tokenBlacklist.isRevoked(loggedOut));
+
+        jwtService.saveUnusedAccessToken(loggedOut);
+        assertTrue(tokenBlacklist.isRevoked(loggedOut));
+        assertFalse(tokenBlacklist.isRevoked(active));
+        assertEquals(401, filter(loggedOut).getStatus());
+        assertEquals(200, filter(active).getStatus());
+
+        // Written by another node
+        String elsewhere = token("blacklist_elsewhere");
+        String expired = token("blacklist_expired");
+        unusedAccessTokenRepository.save(new UnusedAccessToken(elsewhere, jwtService.extractExpiration(elsewhere)));
+        unusedAccessTokenRepository.save(new UnusedAccessToken(expired, new Date(System.currentTimeMillis() - 1000)));
+        // Still accepted here within the revocation delay
+        assertFalse(tokenBlacklist.isRevoked(elsewhere));
+        assertEquals(200, filter(elsewhere).getStatus());
+
+        tokenBlacklist.reload();
+        assertTrue(tokenBlacklist.isRevoked(elsewhere));
+        assertEquals(401, filter(elsewhere).getStatus());
+        assertTrue(tokenBlacklist.isRevoked(loggedOut));
+        assertFalse(tokenBlacklist.isRevoked(expired));
+    }
+
+    private String token(String username) {
+        return jwtService.generateToken(User.withUsername(username).password("").authorities("CUSTOMER").build());
+    }
+
+    private MockHttpServletResponse filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        jwtBlackListFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.dto.request.booking.CartItemBookingRequest;
+import com.example.tms.dto.request.booking.CheckoutCartRequest;
+import com.example.tms.dto.request.booking.TravelerRequest;
+import com.example.tms.entity.Cart;
+import com.example.tms.entity.CartItem;
+import com.example.tms.entity.Trip;
+import com.example.tms.entity.User;
+import com.example.tms.repository.BookingTravelerRepository;
+import com.example.tms.repository.CartItemRepository;
+import com.example.tms.repository.CartRepository;
+import com.example.tms.service.interface_.BookingService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cart checkout writes travelers, details and invoices as JDBC batches, so the number of
+ * statements sent per checkout must not grow with the number of travelers.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class CheckoutBatchInsertTest {
+
+    private static final int CART_ITEMS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private BookingTravelerRepository bookingTravelerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithTravelers() {
+        long oneTraveler = checkoutStatementCount("one", 1);
+        long tenTravelers = checkoutStatementCount("ten", 10);
+
+        assertEquals(oneTraveler, tenTravelers,
+                "Statements per checkout: " + oneTraveler + " with 1 traveler, " + tenTravelers + " with 10");
+    }
+
+    private long checkoutStatementCount(String username, int travelersPerItem) {
+        User user = fixtures.createUser(username);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cart = cartRepository.save(cart);
+
+        CheckoutCartRequest request = new CheckoutCartRequest();
+        request.setItems(new ArrayList<>());
+        for (int i = 0; i < CART_ITEMS; i++) {
+            Trip trip = fixtures.createTrip(BigDecimal.valueOf(2_000_000), 40);
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setTrip(trip);
+            cartItem.setQuantity(travelersPerItem);
+            cartItem.setPrice(trip.getPrice());
+            cartItem = cartItemRepository.save(cartItem);
+
+            CartItemBookingRequest item = new CartItemBookingRequest();
+            item.setCartItemId(cartItem.getId());
+            item.setNoAdults(travelersPerItem);
+            item.setNoChildren(0);
+            item.setTravelers(travelers(travelersPerItem));
+            request.getItems().add(item);
+        }
+
+        long travelersBefore = bookingTravelerRepository.count();
+        statistics.clear();
+        bookingService.checkoutCart(user.getId(), request);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(travelersBefore + (long) CART_ITEMS * travelersPerItem, bookingTravelerRepository.count());
+        return statements;
+    }
+
+    private List<TravelerRequest> travelers(int count) {
+        List<TravelerRequest> travelers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            TravelerRequest traveler = new TravelerRequest();
+            traveler.setFullName("Traveler " + i);
+            traveler.setGender("M");
+            traveler.setDateOfBirth(LocalDate.of(1990, 1, 1));
+            travelers.add(traveler);
+        }
+        return travelers;
+    }
+}
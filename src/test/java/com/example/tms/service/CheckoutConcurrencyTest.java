@@ -0,0 +1,162 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.dto.request.booking.CartItemBookingRequest;
+import com.example.tms.dto.request.booking.CheckoutCartRequest;
+import com.example.tms.dto.request.booking.TravelerRequest;
+import com.example.tms.entity.Cart;
+import com.example.tms.entity.CartItem;
+import com.example.tms.entity.TourBooking;
+import com.example.tms.entity.Trip;
+import com.example.tms.entity.User;
+import com.example.tms.repository.CartItemRepository;
+import com.example.tms.repository.CartRepository;
+import com.example.tms.repository.TourBookingRepository;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.interface_.BookingService;
+
+/**
+ * Customers check out carts with the same trips in different orders at the same time.
+ * Every checkout must either succeed or be rejected for lack of seats: no deadlocks,
+ * no lock timeouts and no overbooking.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutConcurrencyTest {
+
+    private static final int CUSTOMERS = 8;
+    private static final int ROUNDS = 3;
+    private static final int TRIPS = 4;
+    private static final int SEATS_PER_TRIP = 25;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private TourBookingRepository tourBookingRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void overlappingCartsNeverDeadlockOrOverbook() throws Exception {
+        List<Trip> trips = new ArrayList<>();
+        for (int i = 0; i < TRIPS; i++) {
+            trips.add(fixtures.createTrip(BigDecimal.valueOf(500_000), SEATS_PER_TRIP));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(CUSTOMERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        for (int c = 0; c < CUSTOMERS; c++) {
+            User user = fixtures.createUser("concurrent" + c);
+            Cart cart = new Cart();
+            cart.setUser(user);
+            Cart savedCart = cartRepository.save(cart);
+
+            // Each customer adds the same trips, rotated so no two carts list them in the same order
+            List<Trip> order = new ArrayList<>(trips);
+            Collections.rotate(order, c);
+            if (c % 2 == 1) {
+                Collections.reverse(order);
+            }
+
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < ROUNDS; round++) {
+                    CheckoutCartRequest request = fillCart(savedCart, order);
+                    try {
+                        bookingService.checkoutCart(user.getId(), request);
+                        succeeded.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // Running out of seats is the only acceptable failure
+                        if (e.getMessage() == null || !e.getMessage().startsWith("Not enough seats")) {
+                            throw e;
+                        }
+                        soldOut.incrementAndGet();
+                        transactionTemplate.executeWithoutResult(status ->
+                                cartItemRepository.softDeleteByCartId(savedCart.getId(), System.currentTimeMillis()));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+
+        assertEquals(CUSTOMERS * ROUNDS, succeeded.get() + soldOut.get());
+        assertTrue(succeeded.get() > 0);
+        for (Trip trip : trips) {
+            int booked = tripRepository.findById(trip.getId()).orElseThrow().getBookedSeats();
+            int sold = tourBookingRepository.findAll().stream()
+                    .filter(booking -> booking.getTrip().getId().equals(trip.getId()))
+                    .mapToInt(TourBooking::getSeatsBooked)
+                    .sum();
+            assertTrue(booked <= SEATS_PER_TRIP, "Trip overbooked: " + booked);
+            assertEquals(sold, booked);
+        }
+    }
+
+    private CheckoutCartRequest fillCart(Cart cart, List<Trip> trips) {
+        CheckoutCartRequest request = new CheckoutCartRequest();
+        request.setItems(new ArrayList<>());
+        for (Trip trip : trips) {
+            CartItem cartItem = new CartItem();
+            cartItem.setCart(cart);
+            cartItem.setTrip(trip);
+            cartItem.setPrice(trip.getPrice());
+            UUID cartItemId = cartItemRepository.save(cartItem).getId();
+
+            TravelerRequest traveler = new TravelerRequest();
+            traveler.setFullName("Traveler");
+            traveler.setGender("F");
+            traveler.setDateOfBirth(LocalDate.of(1995, 6, 1));
+
+            CartItemBookingRequest item = new CartItemBookingRequest();
+            item.setCartItemId(cartItemId);
+            item.setNoAdults(1);
+            item.setNoChildren(0);
+            item.setTravelers(List.of(traveler));
+            request.getItems().add(item);
+        }
+        return request;
+    }
+}
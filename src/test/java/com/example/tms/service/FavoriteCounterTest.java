@@ -0,0 +1,70 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.repository.FavoriteTourRepository;
+import com.example.tms.repository.RouteRepository;
+import com.example.tms.service.interface_.CustomerTourService;
+
+/**
+ * route.favorite_count moves only when a favourite row really changes, and only through the
+ * counter updates of the toggle.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class FavoriteCounterTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CustomerTourService customerTourService;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private FavoriteTourRepository favoriteTourRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void counterFollowsToggles() {
+        UUID route = fixtures.createRoute("Counter route", "Hue", "Phong Nha", 2);
+        UUID first = fixtures.createUser("counter0").getId();
+        UUID second = fixtures.createUser("counter1").getId();
+
+        assertTrue(customerTourService.toggleFavorite(first, route));
+        assertTrue(customerTourService.toggleFavorite(second, route));
+        assertFalse(customerTourService.toggleFavorite(second, route));
+        assertTrue(customerTourService.toggleFavorite(second, route));
+        // A replayed add (e.g. a double-clicked request racing the first) inserts nothing
+        assertEquals(Integer.valueOf(0), transactionTemplate.execute(
+                status -> favoriteTourRepository.insertIfAbsent(UUID.randomUUID(), first, route)));
+
+        assertEquals(2L, routeRepository.findById(route).orElseThrow().getFavoriteCount());
+    }
+
+    @Test
+    void routeSavesLeaveTheCounterAlone() {
+        UUID route = fixtures.createRoute("Counter save route", "Hue", "Phong Nha", 2);
+        customerTourService.toggleFavorite(fixtures.createUser("counter2").getId(), route);
+
+        routeRepository.findById(route).ifPresent(loaded -> {
+            loaded.setFavoriteCount(99L);
+            routeRepository.save(loaded);
+        });
+        assertEquals(1L, routeRepository.findById(route).orElseThrow().getFavoriteCount());
+    }
+}
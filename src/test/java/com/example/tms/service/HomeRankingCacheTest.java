@@ -0,0 +1,144 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.dto.request.route.UpdateRouteRequest;
+import com.example.tms.dto.request.routeattraction.UpdateRouteAttractionRequest;
+import com.example.tms.entity.Route;
+import com.example.tms.service.interface_.AttractionService;
+import com.example.tms.service.interface_.CustomerTourService;
+import com.example.tms.service.interface_.RouteAttractionService;
+import com.example.tms.service.interface_.RouteService;
+import com.example.tms.service.ranking.HomeRankingCache;
+
+/**
+ * The home page rankings are updated incrementally by the write paths. After any sequence of
+ * writes they must match rankings rebuilt from scratch.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class HomeRankingCacheTest {
+
+    private static final int ALL = 10_000;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private HomeRankingCache homeRankingCache;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private RouteAttractionService routeAttractionService;
+
+    @Autowired
+    private CustomerTourService customerTourService;
+
+    @Test
+    void incrementalUpdatesMatchFullRebuild() {
+        List<UUID> routes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            routes.add(fixtures.createRoute("Ranking route " + i, "Hue", "Phong Nha", 2));
+        }
+        List<UUID> attractions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            attractions.add(fixtures.createAttraction("Ranking attraction " + i, "Quang Binh"));
+        }
+        List<UUID> users = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            users.add(fixtures.createUser("ranking" + i).getId());
+        }
+
+        // Routes 0 and 1 share attraction 0; route 2 visits attraction 1 twice
+        fixtures.link(routes.get(0), attractions.get(0));
+        fixtures.link(routes.get(0), attractions.get(2));
+        fixtures.link(routes.get(1), attractions.get(0));
+        UUID moved = fixtures.link(routes.get(2), attractions.get(1));
+        fixtures.link(routes.get(2), attractions.get(1));
+        fixtures.link(routes.get(3), attractions.get(3));
+
+        // Route 1 gets 6 favourites, route 0 gets 3, route 2 gets 2 then loses one
+        users.forEach(user -> customerTourService.toggleFavorite(user, routes.get(1)));
+        users.subList(0, 3).forEach(user -> customerTourService.toggleFavorite(user, routes.get(0)));
+        users.subList(0, 2).forEach(user -> customerTourService.toggleFavorite(user, routes.get(2)));
+        customerTourService.toggleFavorite(users.get(0), routes.get(2));
+
+        assertEquals(routes.get(1), homeRankingCache.topRoutes(1).get(0).getRouteId());
+        assertEquals(9, destinationFavorites(attractions.get(0)));
+        assertEquals(1, destinationFavorites(attractions.get(1)));
+
+        // Close route 1, move an itinerary stop, delete an attraction
+        UpdateRouteRequest close = new UpdateRouteRequest();
+        close.setStatus(Route.Status.CLOSED);
+        routeService.update(routes.get(1), close);
+        UpdateRouteAttractionRequest move = new UpdateRouteAttractionRequest();
+        move.setRouteId(routes.get(3));
+        routeAttractionService.update(moved, move);
+        attractionService.delete(attractions.get(2));
+
+        assertEquals(3, destinationFavorites(attractions.get(0)));
+        assertEquals(1, destinationFavorites(attractions.get(1)));
+
+        // Other tests insert routes behind the cache's back, so only compare the rows created here
+        List<String> incrementalRoutes = describeRoutes(routes);
+        List<String> incrementalDestinations = describeDestinations(attractions);
+        homeRankingCache.rebuild();
+
+        assertEquals(describeRoutes(routes), incrementalRoutes);
+        assertEquals(describeDestinations(attractions), incrementalDestinations);
+    }
+
+    @Test
+    void unfavoritingARouteAtZeroLeavesAttractionTotals() {
+        UUID empty = fixtures.createRoute("Clamp route 0", "Hue", "Phong Nha", 2);
+        UUID liked = fixtures.createRoute("Clamp route 1", "Hue", "Phong Nha", 2);
+        UUID shared = fixtures.createAttraction("Clamp attraction", "Quang Binh");
+        fixtures.link(empty, shared);
+        fixtures.link(liked, shared);
+        customerTourService.toggleFavorite(fixtures.createUser("clamp0").getId(), liked);
+        customerTourService.toggleFavorite(fixtures.createUser("clamp1").getId(), liked);
+
+        // A stale removal for a route already at zero moves nothing
+        homeRankingCache.favoriteRemoved(empty);
+        homeRankingCache.favoriteRemoved(empty);
+
+        assertEquals(2, destinationFavorites(shared));
+    }
+
+    private long destinationFavorites(UUID attractionId) {
+        return homeRankingCache.topDestinations(ALL).stream()
+                .filter(destination -> destination.getAttractionId().equals(attractionId))
+                .findFirst()
+                .orElseThrow()
+                .getFavoriteCount();
+    }
+
+    private List<String> describeRoutes(List<UUID> routeIds) {
+        return homeRankingCache.topRoutes(ALL).stream()
+                .filter(route -> routeIds.contains(route.getRouteId()))
+                .map(route -> route.getRouteId() + ":" + route.getFavoriteCount() + ":"
+                        + route.getAttractionIds().stream().sorted().toList())
+                .toList();
+    }
+
+    private List<String> describeDestinations(List<UUID> attractionIds) {
+        return homeRankingCache.topDestinations(ALL).stream()
+                .filter(destination -> attractionIds.contains(destination.getAttractionId()))
+                .map(destination -> destination.getAttractionId() + ":" + destination.getFavoriteCount())
+                .toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.entity.ImageAsset;
+import com.example.tms.entity.ImageAsset.OwnerType;
+import com.example.tms.service.image.ImageDedupStats;
+import com.example.tms.service.image.ImageDeduplicator;
+import com.example.tms.service.image.ImageManifest;
+import com.example.tms.service.image.ImageVariant;
+import com.example.tms.service.interface_.CloudinaryService;
+
+/**
+ * A file that is already stored is given to a new slot without processing or uploading it, and
+ * deleting one of the slots sharing it leaves the image in place. The test profile points
+ * Cloudinary at a fake account, so any upload or delete would fail.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageDeduplicatorTest {
+
+    @Autowired
+    private ImageDeduplicator imageDeduplicator;
+
+    @Autowired
+    private ImageManifest imageManifest;
+
+    @Autowired
+    private CloudinaryService cloudinaryService;
+
+    @Test
+    void reusesStoredImagesForIdenticalFiles() {
+        MockMultipartFile file = image(new byte[] { (byte) 0xFF, (byte) 0xD8, 42, 7, 9 });
+        String contentHash = imageDeduplicator.fingerprint(file);
+        assertEquals(64, contentHash.length());
+        assertEquals(contentHash, imageDeduplicator.fingerprint(image(new byte[] { (byte) 0xFF, (byte) 0xD8, 42, 7, 9 })));
+        assertNotEquals(contentHash, imageDeduplicator.fingerprint(image(new byte[] { (byte) 0xFF, (byte) 0xD8, 42, 7, 8 })));
+
+        UUID firstId = UUID.randomUUID();
+        String url = "https://res.cloudinary.com/test/image/upload/tms/attractions/" + contentHash + ".jpg";
+        imageManifest.uploaded(OwnerType.ATTRACTION, firstId, 1,
+                Map.of("public_id", "tms/attractions/" + contentHash, "secure_url", url,
+                        "width", 1200, "height", 800, "bytes", 200_000),
+                Map.of(ImageVariant.THUMB, url.replace(".jpg", "_thumb.jpg")), contentHash);
+
+        ImageDedupStats before = imageDeduplicator.stats();
+        UUID secondId = UUID.randomUUID();
+        assertEquals(url, cloudinaryService.uploadAttractionImage(file, secondId, 3));
+        assertEquals(url, cloudinaryService.getAttractionImageUrl(secondId, 3));
+        assertEquals(2, cloudinaryService.getImageSrcset(url).size());
+
+        ImageDedupStats after = imageDeduplicator.stats();
+        assertEquals(before.getLookups() + 1, after.getLookups());
+        assertEquals(before.getHits() + 1, after.getHits());
+        assertEquals(before.getBytesSkipped() + 200_000, after.getBytesSkipped());
+        assertTrue(after.getHitRatio() > 0);
+
+        // The first slot still shows the image, so it is not deleted from Cloudinary
+        cloudinaryService.deleteAttractionImage(secondId, 3);
+        assertNull(cloudinaryService.getAttractionImageUrl(secondId, 3));
+        assertEquals(url, cloudinaryService.getAttractionImageUrl(firstId, 1));
+        assertEquals(2, cloudinaryService.getImageSrcset(url).size());
+
+        // The content index is rebuilt from image_asset
+        imageManifest.reload();
+        assertEquals(url, cloudinaryService.uploadAttractionImage(file, secondId, 4));
+    }
+
+    @Test
+    void doesNotReuseAnImageDeletedAfterTheLookup() {
+        String contentHash = imageDeduplicator.fingerprint(image(new byte[] { (byte) 0xFF, (byte) 0xD8, 1, 2, 3 }));
+        String publicId = "tms/routes/" + contentHash + "_0a1b2c3d";
+        UUID firstId = UUID.randomUUID();
+        imageManifest.uploaded(OwnerType.ROUTE, firstId, 1,
+                Map.of("public_id", publicId, "secure_url", "https://res.cloudinary.com/test/" + publicId + ".jpg"),
+                Map.of(), contentHash);
+
+        // Looked up, then the last slot showing it is deleted (as another node would) before the reuse
+        ImageAsset stored = imageDeduplicator.find(contentHash);
+        assertEquals(publicId, stored.getPublicId());
+        ImageManifest.SlotChange deleted = imageManifest.deleted(OwnerType.ROUTE, firstId, 1);
+        assertEquals(publicId, deleted.getOrphanedPublicId());
+
+        UUID secondId = UUID.randomUUID();
+        assertFalse(imageManifest.copied(OwnerType.ROUTE, secondId, 2, stored).isChanged());
+        assertNull(imageManifest.url(OwnerType.ROUTE, secondId, 2));
+        assertNull(imageDeduplicator.find(contentHash));
+    }
+
+    private static MockMultipartFile image(byte[] bytes) {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", bytes);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.entity.ImageAsset;
+import com.example.tms.entity.ImageAsset.OwnerType;
+import com.example.tms.service.image.ImageManifest;
+import com.example.tms.service.image.ImageVariant;
+import com.example.tms.service.interface_.CloudinaryService;
+
+/**
+ * Image lookups, srcsets included, are answered from the manifest written by uploads and deletes,
+ * without calling Cloudinary.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageManifestTest {
+
+    @Autowired
+    private ImageManifest imageManifest;
+
+    @Autowired
+    private CloudinaryService cloudinaryService;
+
+    @Test
+    void lookupsFollowUploadsAndDeletes() {
+        UUID routeId = UUID.randomUUID();
+        imageManifest.uploaded(OwnerType.ROUTE, routeId, 2, uploadResult("b"));
+        imageManifest.uploaded(OwnerType.ROUTE, routeId, 1, uploadResult("a"));
+        imageManifest.uploaded(OwnerType.ROUTE, routeId, ImageAsset.MAIN_INDEX, uploadResult("main"));
+        imageManifest.uploaded(OwnerType.ROUTE, routeId, 1, uploadResult("a2"));
+
+        assertEquals(List.of(url("a2"), url("b")), cloudinaryService.getRouteImages(routeId));
+        assertEquals(url("b"), cloudinaryService.getRouteImageUrl(routeId, 2));
+        assertNull(cloudinaryService.getAttractionImageUrl(routeId, 2));
+
+        imageManifest.deleted(OwnerType.ROUTE, routeId, 2);
+        assertNull(cloudinaryService.getRouteImageUrl(routeId, 2));
+
+        // The table, not just memory, holds the result
+        imageManifest.reload();
+        assertEquals(List.of(url("a2")), cloudinaryService.getRouteImages(routeId));
+        assertEquals(url("main"), imageManifest.url(OwnerType.ROUTE, routeId, ImageAsset.MAIN_INDEX));
+    }
+
+    @Test
+    void srcsetListsTheUploadedSizes() {
+        UUID attractionId = UUID.randomUUID();
+        imageManifest.uploaded(OwnerType.ATTRACTION, attractionId, 1, uploadResult("full"),
+                Map.of(ImageVariant.THUMB, url("full_thumb"), ImageVariant.CARD, url("full_card")));
+
+        Map<String, String> srcset = cloudinaryService.getImageSrcset(url("full"));
+        assertEquals(List.of("320w", "640w", "1200w"), List.copyOf(srcset.keySet()));
+        assertEquals(url("full_thumb"), srcset.get("320w"));
+        assertNull(cloudinaryService.getImageSrcset("https://example.com/elsewhere.jpg"));
+
+        // Replacing the image without smaller sizes drops the old ones
+        imageManifest.uploaded(OwnerType.ATTRACTION, attractionId, 1, uploadResult("small"));
+        assertNull(cloudinaryService.getImageSrcset(url("full")));
+        imageManifest.reload();
+        assertEquals(Map.of("1200w", url("small")), cloudinaryService.getImageSrcset(url("small")));
+    }
+
+    @Test
+    void concurrentUploadsToOneSlotKeepOneImage() {
+        UUID routeId = UUID.randomUUID();
+        CyclicBarrier start = new CyclicBarrier(4);
+        List<CompletableFuture<Void>> uploads = List.of("c1", "c2", "c3", "c4").stream()
+                .map(name -> CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    imageManifest.uploaded(OwnerType.ROUTE, routeId, 1, uploadResult(name));
+                }))
+                .toList();
+        uploads.forEach(CompletableFuture::join);
+
+        String shown = imageManifest.url(OwnerType.ROUTE, routeId, 1);
+        imageManifest.reload();
+        assertEquals(List.of(imageManifest.url(OwnerType.ROUTE, routeId, 1)), cloudinaryService.getRouteImages(routeId));
+        assertEquals(1, List.of(url("c1"), url("c2"), url("c3"), url("c4")).stream().filter(u -> u.equals(shown)).count());
+    }
+
+    private static Map<String, Object> uploadResult(String name) {
+        return Map.of("public_id", "tms/routes/" + name, "secure_url", url(name),
+                "width", 1200, "height", 800, "bytes", 123_456);
+    }
+
+    private static String url(String name) {
+        return "https://res.cloudinary.com/test/image/upload/tms/routes/" + name + ".jpg";
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.imgscalr.Scalr;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.service.image.ImageProcessor;
+
+/**
+ * Heap allocated and time taken per source megapixel to turn a phone-sized JPEG into a
+ * 1200 px upload: full decode + Scalr QUALITY + default ImageIO encode, against the
+ * subsampling ImageProcessor.
+ *
+ * Run with: mvn test -Dtest=ImageProcessingBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ImageProcessingBenchmarkTest {
+
+    private static final int ITERATIONS = 5;
+    private static final int[][] SIZES = { { 2000, 1500 }, { 4000, 3000 }, { 6000, 4000 } };
+
+    @Autowired
+    private ImageProcessor imageProcessor;
+
+    @Test
+    void compareProcessingPipelines() throws Exception {
+        for (int[] size : SIZES) {
+            byte[] source = photo(size[0], size[1]);
+            double megapixels = size[0] * size[1] / 1e6;
+            run("full decode + Scalr", megapixels, () -> fullDecode(source));
+            run("ImageProcessor", megapixels, () -> imageProcessor.toJpeg(new ByteArrayInputStream(source)));
+        }
+    }
+
+    private interface Pipeline {
+        byte[] process() throws IOException;
+    }
+
+    private static void run(String name, double megapixels, Pipeline pipeline) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        pipeline.process();
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        byte[] output = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            output = pipeline.process();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertEquals(1200, ImageIO.read(new ByteArrayInputStream(output)).getWidth());
+
+        System.out.printf("%-22s %5.1f MP  %8.1f ms/MP  %8.1f MB heap/MP  %7d bytes out%n",
+                name, megapixels, elapsedNanos / 1e6 / ITERATIONS / megapixels,
+                allocated / 1e6 / ITERATIONS / megapixels, output.length);
+    }
+
+    private static byte[] fullDecode(byte[] source) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(source));
+        BufferedImage resized = Scalr.resize(image, Scalr.Method.QUALITY, Scalr.Mode.FIT_TO_WIDTH, 1200, Scalr.OP_ANTIALIAS);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(resized, "jpg", output);
+        return output.toByteArray();
+    }
+
+    // A gradient with noise, so the JPEG is about as large as a real photo
+    private static byte[] photo(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(30, 110, 170), width, height, new Color(230, 190, 80)));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int noise = random.nextInt(32) - 16;
+                int rgb = image.getRGB(x, y);
+                int r = Math.min(255, Math.max(0, ((rgb >> 16) & 0xFF) + noise));
+                int g = Math.min(255, Math.max(0, ((rgb >> 8) & 0xFF) + noise));
+                int b = Math.min(255, Math.max(0, (rgb & 0xFF) + noise));
+                image.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", output);
+        return output.toByteArray();
+    }
+}
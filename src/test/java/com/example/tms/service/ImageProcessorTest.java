@@ -0,0 +1,81 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.service.image.ImageProcessor;
+import com.example.tms.service.image.ImageVariant;
+
+/**
+ * Large photos come out at the configured width as JPEG, transparent images included, and
+ * small ones keep their size. Derivatives follow the thumb/card/full ladder.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageProcessorTest {
+
+    @Autowired
+    private ImageProcessor imageProcessor;
+
+    @Test
+    void shrinksWideImagesToJpeg() throws IOException {
+        BufferedImage photo = decode(imageProcessor.toJpeg(new ByteArrayInputStream(encode(4000, 3000, BufferedImage.TYPE_INT_RGB, "jpg"))));
+        assertEquals(1200, photo.getWidth());
+        assertEquals(900, photo.getHeight());
+
+        BufferedImage transparent = decode(imageProcessor.toJpeg(new ByteArrayInputStream(encode(2500, 1000, BufferedImage.TYPE_INT_ARGB, "png"))));
+        assertEquals(1200, transparent.getWidth());
+        assertEquals(480, transparent.getHeight());
+        assertFalse(transparent.getColorModel().hasAlpha());
+
+        BufferedImage small = decode(imageProcessor.toJpeg(new ByteArrayInputStream(encode(640, 480, BufferedImage.TYPE_INT_RGB, "png"))));
+        assertEquals(640, small.getWidth());
+
+        Map<ImageVariant, byte[]> derivatives = imageProcessor.toDerivatives(
+                new ByteArrayInputStream(encode(4000, 3000, BufferedImage.TYPE_INT_RGB, "jpg")));
+        assertEquals(320, decode(derivatives.get(ImageVariant.THUMB)).getWidth());
+        assertEquals(640, decode(derivatives.get(ImageVariant.CARD)).getWidth());
+        assertEquals(1200, decode(derivatives.get(ImageVariant.FULL)).getWidth());
+        // No size is produced wider than the source
+        assertEquals(Set.of(ImageVariant.THUMB, ImageVariant.FULL), imageProcessor.toDerivatives(
+                new ByteArrayInputStream(encode(500, 400, BufferedImage.TYPE_INT_RGB, "png"))).keySet());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> imageProcessor.toJpeg(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    private static BufferedImage decode(byte[] jpeg) throws IOException {
+        assertTrue(jpeg.length > 2 && (jpeg[0] & 0xFF) == 0xFF && (jpeg[1] & 0xFF) == 0xD8, "not a JPEG");
+        return ImageIO.read(new ByteArrayInputStream(jpeg));
+    }
+
+    private static byte[] encode(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(20, 90, 160, 128), width, height, new Color(240, 200, 60)));
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.tms.dto.response.ImageUploadJobResponse;
+import com.example.tms.entity.ImageAsset.OwnerType;
+import com.example.tms.entity.ImageUploadJob;
+import com.example.tms.entity.ImageUploadJob.Status;
+import com.example.tms.exception.BadRequestException;
+import com.example.tms.exception.ResourceNotFoundException;
+import com.example.tms.repository.ImageUploadJobRepository;
+import com.example.tms.service.interface_.CloudinaryService;
+import com.example.tms.service.impl.ImageUploadJobServiceImpl;
+import com.example.tms.service.interface_.ImageUploadJobService;
+
+/**
+ * Queued uploads retry failed attempts, give up at once on unreadable images and report their
+ * state through getJob from image_upload_job. Cloudinary is replaced by a stub for the duration
+ * of the test.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ImageUploadJobServiceTest {
+
+    @Autowired
+    private ImageUploadJobService imageUploadJobService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ImageUploadJobRepository imageUploadJobRepository;
+
+    @Test
+    void jobsRetryAndReportTheirState() {
+        UUID routeId = fixtures.saveRoute("Upload job route").getId();
+
+        AtomicInteger calls = new AtomicInteger();
+        CloudinaryService stub = (CloudinaryService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { CloudinaryService.class }, (proxy, method, args) -> {
+                    if (!method.getName().equals("uploadOwnerImage")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    if ((int) args[3] == 5) {
+                        throw new IllegalArgumentException("File is not a readable image");
+                    }
+                    if (calls.incrementAndGet() == 1) {
+                        throw new RuntimeException("Cloudinary unavailable");
+                    }
+                    return "https://res.cloudinary.com/test/image/upload/tms/routes/" + args[2] + "_" + args[3] + ".jpg";
+                });
+        Object original = ReflectionTestUtils.getField(imageUploadJobService, "cloudinaryService");
+        Object originalBackoff = ReflectionTestUtils.getField(imageUploadJobService, "backoffMs");
+        ReflectionTestUtils.setField(imageUploadJobService, "cloudinaryService", stub);
+        ReflectionTestUtils.setField(imageUploadJobService, "backoffMs", 10L);
+        try {
+            ImageUploadJobResponse retried = imageUploadJobService
+                    .submit(OwnerType.ROUTE, routeId, List.of(image("a.jpg")), List.of(0), 10_000).get(0);
+            assertEquals(Status.SUCCEEDED, retried.getStatus());
+            assertEquals(2, retried.getAttempts());
+            assertEquals("Main image uploaded successfully", retried.getResult().getMessage());
+            assertEquals(retried.getResult().getImageUrl(), imageUploadJobService.getJob(retried.getJobId()).getResult().getImageUrl());
+
+            ImageUploadJobResponse unreadable = imageUploadJobService
+                    .submit(OwnerType.ROUTE, routeId, List.of(image("b.jpg")), List.of(5), 10_000).get(0);
+            assertEquals(Status.FAILED, unreadable.getStatus());
+            assertEquals(1, unreadable.getAttempts());
+            assertNull(unreadable.getResult());
+        } finally {
+            ReflectionTestUtils.setField(imageUploadJobService, "cloudinaryService", original);
+            ReflectionTestUtils.setField(imageUploadJobService, "backoffMs", originalBackoff);
+        }
+
+        assertThrows(ResourceNotFoundException.class, () -> imageUploadJobService.getJob(UUID.randomUUID()));
+        assertThrows(ResourceNotFoundException.class, () -> imageUploadJobService
+                .submit(OwnerType.ROUTE, UUID.randomUUID(), List.of(image("c.jpg")), null, 0));
+        assertThrows(BadRequestException.class, () -> imageUploadJobService
+                .submit(OwnerType.ROUTE, routeId, List.of(image("d.jpg"), image("e.jpg")), List.of(1, 1), 0));
+        assertThrows(BadRequestException.class, () -> imageUploadJobService
+                .submit(OwnerType.ROUTE, routeId, List.of(image("f.jpg")), List.of(11), 0));
+    }
+
+    @Test
+    void jobsAbandonedByTheirNodeAreFailed() {
+        // As left behind by a node that restarted while running it
+        ImageUploadJob abandoned = new ImageUploadJob();
+        abandoned.setOwnerType(OwnerType.ROUTE);
+        abandoned.setOwnerId(UUID.randomUUID());
+        abandoned.setImageIndex(1);
+        abandoned.setStatus(Status.RUNNING);
+        abandoned.setAttempts(1);
+        abandoned.setCreatedAt(LocalDateTime.now().minusHours(1));
+        abandoned.setUpdatedAt(LocalDateTime.now().minusHours(1));
+        UUID jobId = imageUploadJobRepository.save(abandoned).getId();
+        assertEquals(Status.RUNNING, imageUploadJobService.getJob(jobId).getStatus());
+
+        ((ImageUploadJobServiceImpl) imageUploadJobService).purgeFinished();
+        ImageUploadJobResponse failed = imageUploadJobService.getJob(jobId);
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+    }
+
+    @Test
+    void jobsStillHeldByThisNodeAreNotFailed() throws Exception {
+        UUID routeId = fixtures.saveRoute("Slow upload route").getId();
+
+        CountDownLatch uploading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CloudinaryService stub = (CloudinaryService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { CloudinaryService.class }, (proxy, method, args) -> {
+                    uploading.countDown();
+                    release.await();
+                    return "https://res.cloudinary.com/test/image/upload/tms/routes/slow.jpg";
+                });
+        Object original = ReflectionTestUtils.getField(imageUploadJobService, "cloudinaryService");
+        ReflectionTestUtils.setField(imageUploadJobService, "cloudinaryService", stub);
+        try {
+            UUID jobId = imageUploadJobService
+                    .submit(OwnerType.ROUTE, routeId, List.of(image("slow.jpg")), List.of(1), 0).get(0).getJobId();
+            assertTrue(uploading.await(10, TimeUnit.SECONDS));
+
+            // Older than stale-ms, as if the job had waited that long
+            ImageUploadJob record = imageUploadJobRepository.findById(jobId).orElseThrow();
+            record.setUpdatedAt(LocalDateTime.now().minusHours(1));
+            imageUploadJobRepository.save(record);
+
+            ((ImageUploadJobServiceImpl) imageUploadJobService).purgeFinished();
+            assertEquals(Status.RUNNING, imageUploadJobService.getJob(jobId).getStatus());
+
+            release.countDown();
+            for (int i = 0; i < 100 && imageUploadJobService.getJob(jobId).getFinishedAt() == null; i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(Status.SUCCEEDED, imageUploadJobService.getJob(jobId).getStatus());
+        } finally {
+            release.countDown();
+            ReflectionTestUtils.setField(imageUploadJobService, "cloudinaryService", original);
+        }
+    }
+
+    private static MockMultipartFile image(String name) {
+        return new MockMultipartFile("files", name, "image/jpeg", new byte[] { (byte) 0xFF, (byte) 0xD8, 1, 2, 3 });
+    }
+}
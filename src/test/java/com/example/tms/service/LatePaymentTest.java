@@ -0,0 +1,129 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.tms.entity.TourBooking;
+import com.example.tms.entity.Trip;
+import com.example.tms.entity.User;
+import com.example.tms.repository.TourBookingRepository;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.interface_.PayOSService;
+import com.example.tms.service.interface_.SeatHoldService;
+import com.example.tms.service.interface_.SeatReservationService;
+import com.example.tms.service.remote.RemoteCalls;
+import com.example.tms.service.remote.RemoteProvider;
+
+import vn.payos.model.v2.paymentRequests.PaymentLink;
+import vn.payos.model.v2.paymentRequests.PaymentLinkStatus;
+
+/**
+ * A payment that arrives after the booking's seat hold expired confirms it again if the seats
+ * are still free; a payment for a booking cancelled any other way leaves it cancelled. PayOS is
+ * replaced by a stub reporting every link as paid.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LatePaymentTest {
+
+    @Autowired
+    private PayOSService payOSService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TourBookingRepository tourBookingRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @Test
+    void paymentRevivesOnlyExpiredHolds() {
+        Trip trip = fixtures.createTrip(BigDecimal.valueOf(1_000_000), 4);
+        User user = fixtures.createUser("latepayer");
+
+        UUID expiredId = book(trip, user, 2, TourBooking.Status.PENDING).getId();
+        assertEquals(1, seatHoldService.releaseExpiredHolds(List.of(expiredId)));
+        TourBooking expired = tourBookingRepository.findById(expiredId).orElseThrow();
+        assertEquals(TourBooking.Status.CANCELED, expired.getStatus());
+        assertNotNull(expired.getHoldExpiredAt());
+        assertEquals(0, bookedSeats(trip));
+
+        // Seats the customer cancelled themselves are already released
+        UUID cancelledId = book(trip, user, 1, TourBooking.Status.CANCELED).getId();
+
+        Object original = ReflectionTestUtils.getField(payOSService, "remoteCalls");
+        ReflectionTestUtils.setField(payOSService, "remoteCalls", new PaidRemoteCalls(environment));
+        try {
+            payOSService.verifyAndUpdatePayment(expiredId, 1L);
+            payOSService.verifyAndUpdatePayment(cancelledId, 2L);
+        } finally {
+            ReflectionTestUtils.setField(payOSService, "remoteCalls", original);
+        }
+
+        TourBooking revived = tourBookingRepository.findById(expiredId).orElseThrow();
+        assertEquals(TourBooking.Status.CONFIRMED, revived.getStatus());
+        assertNull(revived.getHoldExpiredAt());
+        assertEquals(TourBooking.Status.CANCELED, tourBookingRepository.findById(cancelledId).orElseThrow().getStatus());
+        assertEquals(2, bookedSeats(trip));
+    }
+
+    private TourBooking book(Trip trip, User user, int seats, TourBooking.Status status) {
+        if (status == TourBooking.Status.PENDING) {
+            seatReservationService.tryReserve(trip.getId(), seats);
+        }
+        TourBooking booking = new TourBooking();
+        booking.setTrip(trip);
+        booking.setUser(user);
+        booking.setSeatsBooked(seats);
+        booking.setTotalPrice(trip.getPrice().multiply(BigDecimal.valueOf(seats)));
+        booking.setStatus(status);
+        if (status == TourBooking.Status.PENDING) {
+            booking.setHoldExpiresAt(LocalDateTime.now().minusMinutes(1));
+        }
+        return tourBookingRepository.save(booking);
+    }
+
+    private int bookedSeats(Trip trip) {
+        return tripRepository.findById(trip.getId()).orElseThrow().getBookedSeats();
+    }
+
+    private static class PaidRemoteCalls extends RemoteCalls {
+
+        PaidRemoteCalls(Environment environment) {
+            super(environment);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T call(RemoteProvider provider, String operation, Callable<T> call) {
+            PaymentLink link = new PaymentLink();
+            link.setStatus(PaymentLinkStatus.PAID);
+            return (T) link;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.tms.service.remote.RemoteCallStats;
+import com.example.tms.service.remote.RemoteCalls;
+import com.example.tms.service.remote.RemoteProvider;
+
+/**
+ * Remote calls are cut off at the provider's timeout, fan-outs return what finished by the
+ * deadline, and a full queue turns callers away. The pools are built for this test only, with
+ * one SendGrid thread, a queue of one and a 1 s timeout, so no other caller shares them.
+ *
+ * Slow calls block until the test ends, so they only ever stop by being interrupted. A slow call
+ * may be cancelled before it starts on a loaded machine; the counts are checked against the slow
+ * calls that actually started.
+ */
+class RemoteCallsTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger started = new AtomicInteger();
+    private RemoteCalls remoteCalls;
+
+    @BeforeEach
+    void setUp() {
+        remoteCalls = new RemoteCalls(new MockEnvironment()
+                .withProperty("app.remote.sendgrid.threads", "1")
+                .withProperty("app.remote.sendgrid.queue", "1")
+                .withProperty("app.remote.sendgrid.timeout-ms", "1000"));
+        remoteCalls.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        remoteCalls.shutdown();
+    }
+
+    @Test
+    void boundsWaitingOnASlowProvider() throws Exception {
+        assertEquals("ok", remoteCalls.call(RemoteProvider.SENDGRID, "fast", () -> "ok"));
+        assertThrows(IOException.class, () -> remoteCalls.call(RemoteProvider.SENDGRID, "failing", () -> {
+            throw new IOException("connection reset");
+        }));
+
+        long waitStarted = System.nanoTime();
+        assertThrows(TimeoutException.class, () -> remoteCalls.call(RemoteProvider.SENDGRID, "slow", blocked("late")));
+        assertTrue(System.nanoTime() - waitStarted < 5_000_000_000L, "the caller waited for the slow call");
+
+        // One call finishes, the other is still running at the deadline
+        awaitIdle();
+        Map<String, Callable<String>> partial = new LinkedHashMap<>();
+        partial.put("fast", () -> "fast");
+        partial.put("slow", blocked("slow"));
+        assertEquals(Map.of("fast", "fast"), remoteCalls.fanOut(RemoteProvider.SENDGRID, "partial", partial, 1000));
+
+        // fast, failing and partial fast succeed or fail on their own; slow calls fail once interrupted
+        awaitIdle();
+        RemoteCallStats before = sendGridStats();
+        int startedBefore = started.get();
+        assertEquals(3 + startedBefore, before.getCalls());
+        assertEquals(1 + startedBefore, before.getFailures());
+        assertEquals(2, before.getTimeouts());
+        assertEquals(0, before.getRejected());
+
+        // At most one call runs and one waits in the queue; the rest are turned away, the others time out
+        Map<String, Callable<String>> saturating = new LinkedHashMap<>();
+        saturating.put("first", blocked("first"));
+        saturating.put("second", blocked("second"));
+        saturating.put("third", blocked("third"));
+        assertTrue(remoteCalls.fanOut(RemoteProvider.SENDGRID, "saturating", saturating, 100).isEmpty());
+
+        awaitIdle();
+        RemoteCallStats after = sendGridStats();
+        long rejected = after.getRejected() - before.getRejected();
+        assertTrue(rejected >= 1, "a full queue turned no caller away");
+        assertEquals(3, rejected + after.getTimeouts() - before.getTimeouts());
+        // Calls cancelled while queued never ran, so only the started ones are counted
+        int startedSaturating = started.get() - startedBefore;
+        assertEquals(before.getCalls() + startedSaturating, after.getCalls());
+        assertEquals(before.getFailures() + startedSaturating, after.getFailures());
+    }
+
+    // Interrupted calls release their thread shortly after the caller gave up on them
+    private void awaitIdle() throws InterruptedException {
+        for (int i = 0; i < 250 && (sendGridStats().getActiveThreads() > 0 || sendGridStats().getQueueDepth() > 0); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private RemoteCallStats sendGridStats() {
+        return remoteCalls.stats().stream()
+                .filter(stat -> stat.getProvider() == RemoteProvider.SENDGRID)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // A call that returns only once the test ends, unless it is interrupted first
+    private Callable<String> blocked(String result) {
+        return () -> {
+            started.incrementAndGet();
+            release.await();
+            return result;
+        };
+    }
+}
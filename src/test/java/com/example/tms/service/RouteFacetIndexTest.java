@@ -0,0 +1,116 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.dto.request.customer.TourSearchRequest;
+import com.example.tms.dto.response.customer.TourFacetResponse;
+import com.example.tms.service.interface_.CustomerTourService;
+import com.example.tms.service.interface_.RouteService;
+import com.example.tms.service.search.RouteFacetIndex;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+
+/**
+ * Facet filters combine with AND across facets and OR within one, and the facets follow route
+ * and itinerary writes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RouteFacetIndexTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RouteFacetIndex routeFacetIndex;
+
+    @Autowired
+    private RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+
+    @Autowired
+    private CustomerTourService customerTourService;
+
+    @Autowired
+    private RouteService routeService;
+
+    @Test
+    void filtersAndCountsFollowWrites() {
+        UUID cave = fixtures.createAttraction("Hang Bitmap", "Facet");
+        UUID lake = fixtures.createAttraction("Hồ Ordinal", "Facet");
+        UUID first = fixtures.createRoute("Làng Bitmap - Đảo Facet", "Làng Bitmap", "Đảo Facet", 2);
+        UUID second = fixtures.createRoute("Lang Bitmap - Vịnh Facet", "Lang Bitmap", "Vịnh Facet", 3);
+        UUID third = fixtures.createRoute("Phố Ordinal - Đảo Facet", "Phố Ordinal", "Đảo Facet", 2);
+        fixtures.link(first, cave);
+        fixtures.link(first, lake);
+        fixtures.link(second, cave);
+        fixtures.link(third, lake);
+        fixtures.saveTrip(first, BigDecimal.valueOf(1_500_000), 20);
+        routeSearchSummaryUpdater.routeChanged(first);
+        routeSearchSummaryUpdater.flush();
+
+        // The attraction selections keep other tests' routes out
+        TourSearchRequest anyAttraction = new TourSearchRequest();
+        anyAttraction.setAttractionIds(List.of(cave, lake));
+        anyAttraction.setAttractionMatch("any");
+        assertEquals(Set.of(first, second, third), new HashSet<>(routeFacetIndex.search(anyAttraction, null, Set.of())));
+
+        TourSearchRequest bothAttractions = new TourSearchRequest();
+        bothAttractions.setAttractionIds(List.of(cave, lake));
+        assertEquals(List.of(first), routeFacetIndex.search(bothAttractions, null, Set.of()));
+
+        // Spellings of a location fold into one value
+        anyAttraction.setStartLocations(List.of("lang bitmap"));
+        TourFacetResponse facets = customerTourService.getTourFacets(anyAttraction);
+        assertEquals(2, facets.getTotalRoutes());
+        assertEquals(Map.of("lang bitmap", 2L, "pho ordinal", 1L), counts(facets.getStartLocations()));
+        assertEquals(Map.of("dao facet", 1L, "vinh facet", 1L), counts(facets.getDestinations()));
+        assertEquals(Map.of("2", 1L, "3", 1L), counts(facets.getDurations()));
+        assertEquals(Map.of("0-2000000", 1L), counts(facets.getPriceBuckets()));
+        assertEquals(Map.of(cave.toString(), 2L, lake.toString(), 1L), counts(facets.getAttractions()));
+        assertTrue(customerTourService.getStartLocations().contains("Phố Ordinal"));
+
+        TourSearchRequest search = new TourSearchRequest();
+        search.setAttractionIds(List.of(cave, lake));
+        search.setAttractionMatch("any");
+        search.setDurations(List.of(2));
+        assertEquals(2L, customerTourService.searchTours(search, null).getTotalElements());
+
+        // Plain filters narrow the facets like they narrow the search: only the trip-less route is left
+        search.setDurations(null);
+        search.setDurationDays(2);
+        search.setMaxPrice(BigDecimal.valueOf(1_000_000));
+        assertEquals(1L, customerTourService.searchTours(search, null).getTotalElements());
+        TourFacetResponse filtered = customerTourService.getTourFacets(search);
+        assertEquals(1, filtered.getTotalRoutes());
+        Map<String, Long> filteredCounts = counts(filtered.getAttractions());
+        assertEquals(0L, filteredCounts.get(cave.toString()));
+        assertEquals(1L, filteredCounts.get(lake.toString()));
+
+        // Deleting a route takes it out of every facet once its summary row is removed
+        routeService.delete(third);
+        routeSearchSummaryUpdater.flush();
+        anyAttraction.setStartLocations(null);
+        assertEquals(Set.of(first, second), new HashSet<>(routeFacetIndex.search(anyAttraction, null, Set.of())));
+        Map<String, Long> attractionCounts = counts(customerTourService.getTourFacets(anyAttraction).getAttractions());
+        assertEquals(2L, attractionCounts.get(cave.toString()));
+        assertEquals(1L, attractionCounts.get(lake.toString()));
+    }
+
+    private static Map<String, Long> counts(List<TourFacetResponse.FacetValue> values) {
+        return values.stream().collect(Collectors.toMap(TourFacetResponse.FacetValue::getValue,
+                TourFacetResponse.FacetValue::getCount));
+    }
+}
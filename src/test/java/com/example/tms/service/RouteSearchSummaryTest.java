@@ -0,0 +1,108 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.dto.request.customer.TourSearchRequest;
+import com.example.tms.dto.response.PaginationResponse;
+import com.example.tms.dto.response.customer.TourCardResponse;
+import com.example.tms.repository.RouteSearchSummaryRepository;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.interface_.CustomerTourService;
+import com.example.tms.service.interface_.SeatReservationService;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+import com.example.tms.service.search.TourSearchIndex;
+
+/**
+ * Tour search filters, sorts and pages on route_search_summary, or on the route IDs resolved by
+ * the facet index for keyword searches, so every page is full and the totals count only
+ * matching routes.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RouteSearchSummaryTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private static final String KEYWORD = "Summary search";
+
+    @Autowired
+    private CustomerTourService customerTourService;
+
+    @Autowired
+    private RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+
+    @Autowired
+    private RouteSearchSummaryRepository routeSearchSummaryRepository;
+
+    @Autowired
+    private TourSearchIndex tourSearchIndex;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Test
+    void filtersSortsAndPagesMatchingRoutes() {
+        // Route i has one upcoming trip priced 100 * (i + 1); routes 0-5 cost at most 600
+        UUID firstTrip = null;
+        for (int i = 0; i < 12; i++) {
+            UUID routeId = fixtures.saveRoute(KEYWORD + " " + i).getId();
+            UUID tripId = fixtures.saveTrip(routeId, BigDecimal.valueOf(100L * (i + 1)), 30).getId();
+            if (firstTrip == null) {
+                firstTrip = tripId;
+            }
+        }
+        // Rows inserted straight through the repositories are only picked up by a rebuild
+        routeSearchSummaryUpdater.rebuild();
+        tourSearchIndex.rebuild();
+
+        TourSearchRequest request = new TourSearchRequest();
+        request.setKeyword(KEYWORD);
+        request.setMaxPrice(BigDecimal.valueOf(600));
+        request.setSortBy("price");
+        request.setSortOrder("asc");
+        request.setSize(4);
+
+        PaginationResponse<TourCardResponse> first = customerTourService.searchTours(request, null);
+        assertEquals(6L, first.getTotalElements());
+        assertEquals(4, first.getItems().size());
+        request.setPage(1);
+        PaginationResponse<TourCardResponse> second = customerTourService.searchTours(request, null);
+        assertEquals(2, second.getItems().size());
+
+        List<BigDecimal> prices = new ArrayList<>();
+        first.getItems().forEach(card -> prices.add(card.getMinPrice()));
+        second.getItems().forEach(card -> prices.add(card.getMinPrice()));
+        for (int i = 1; i < prices.size(); i++) {
+            assertTrue(prices.get(i - 1).compareTo(prices.get(i)) <= 0);
+        }
+
+        // Relevance pages over the ranked keyword hits
+        request.setSortBy("relevance");
+        PaginationResponse<TourCardResponse> ranked = customerTourService.searchTours(request, null);
+        assertEquals(6L, ranked.getTotalElements());
+        assertEquals(2, ranked.getItems().size());
+
+
+        // Seat changes reach the summary through the dirty-trip flush
+        UUID routeId = tripRepository.findById(firstTrip).orElseThrow().getRoute().getId();
+        int before = routeSearchSummaryRepository.findById(routeId).orElseThrow().getSeatsAvailable();
+        assertTrue(seatReservationService.tryReserve(firstTrip, 3));
+        routeSearchSummaryUpdater.flush();
+        assertEquals(before - 3, routeSearchSummaryRepository.findById(routeId).orElseThrow().getSeatsAvailable());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.tms.service.seat.SeatLedgerJournal;
+
+/**
+ * Journal records are written by the background writer in batches and replay to the same
+ * booked seat counts; a rotation's snapshot replaces whatever was still buffered.
+ */
+class SeatLedgerJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysGroupCommittedRecords() throws Exception {
+        UUID tripId = UUID.randomUUID();
+        try (SeatLedgerJournal journal = new SeatLedgerJournal(directory, true)) {
+            journal.rotate(Map.of());
+            journal.seed(tripId, 40, 10);
+            journal.grant(tripId, 3);
+            journal.grant(tripId, 2);
+            journal.awaitDurable(journal.release(tripId, 1));
+
+            assertEquals(14, SeatLedgerJournal.recover(directory).get(tripId).getBookedSeats());
+
+            journal.grant(tripId, 5);
+            journal.rotate(Map.of(tripId, new SeatLedgerJournal.TripSeats(40, 19)));
+            journal.awaitDurable(journal.grant(tripId, 1));
+        }
+
+        SeatLedgerJournal.TripSeats recovered = SeatLedgerJournal.recover(directory).get(tripId);
+        assertEquals(40, recovered.getTotalSeats());
+        assertEquals(20, recovered.getBookedSeats());
+    }
+}
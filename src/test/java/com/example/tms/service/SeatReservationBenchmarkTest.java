@@ -0,0 +1,118 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.Trip;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.seat.SeatLedger;
+
+/**
+ * Contention benchmark for seat reservation strategies on a single hot trip:
+ * pessimistic lock + read-modify-write, conditional UPDATE and the in-memory seat ledger.
+ *
+ * Run with: mvn test -Dtest=SeatReservationBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = "app.booking.seat-ledger.enabled=true")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SeatReservationBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int BOOKINGS_PER_THREAD = 250;
+    private static final int SEATS_PER_BOOKING = 1;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private SeatLedger seatLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void compareReservationStrategies() throws Exception {
+        int expectedSeats = THREADS * BOOKINGS_PER_THREAD * SEATS_PER_BOOKING;
+
+        UUID lockedTrip = createTrip(expectedSeats);
+        run("findByIdWithLock + save", tripId -> transactionTemplate.execute(status -> {
+            Trip trip = tripRepository.findByIdWithLock(tripId).orElseThrow();
+            if (trip.getTotalSeats() - trip.getBookedSeats() < SEATS_PER_BOOKING) {
+                return false;
+            }
+            trip.setBookedSeats(trip.getBookedSeats() + SEATS_PER_BOOKING);
+            tripRepository.save(trip);
+            return true;
+        }), lockedTrip);
+        assertEquals(expectedSeats, bookedSeats(lockedTrip));
+
+        UUID conditionalTrip = createTrip(expectedSeats);
+        run("conditional UPDATE", tripId -> transactionTemplate.execute(
+                status -> tripRepository.reserveSeats(tripId, SEATS_PER_BOOKING) == 1), conditionalTrip);
+        assertEquals(expectedSeats, bookedSeats(conditionalTrip));
+
+        UUID ledgerTrip = createTrip(expectedSeats);
+        run("seat ledger", tripId -> seatLedger.tryGrant(tripId, SEATS_PER_BOOKING), ledgerTrip);
+        seatLedger.flush();
+        assertEquals(expectedSeats, bookedSeats(ledgerTrip));
+    }
+
+    private void run(String name, Predicate<UUID> reservation, UUID tripId) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int j = 0; j < BOOKINGS_PER_THREAD; j++) {
+                    if (reservation.test(tripId)) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> result : results) {
+            granted += result.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        int operations = THREADS * BOOKINGS_PER_THREAD;
+        System.out.printf("%-26s %8d ops  %10.1f ops/s  %8.1f us/op  (%d granted)%n",
+                name, operations, operations / (elapsedNanos / 1e9), elapsedNanos / 1e3 / operations, granted);
+    }
+
+    private UUID createTrip(int totalSeats) {
+        return fixtures.createTrip(BigDecimal.valueOf(1_000_000), totalSeats).getId();
+    }
+
+    private int bookedSeats(UUID tripId) {
+        return tripRepository.findById(tripId).orElseThrow().getBookedSeats();
+    }
+}
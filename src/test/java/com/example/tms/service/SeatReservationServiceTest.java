@@ -0,0 +1,58 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.entity.Trip;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.service.interface_.SeatReservationService;
+
+/**
+ * A Trip loaded before a reservation in the same transaction sees the new seat count and can
+ * still be saved.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SeatReservationServiceTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void loadedTripFollowsReservations() {
+        UUID tripId = fixtures.createTrip(BigDecimal.valueOf(1_000_000), 10).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Trip trip = tripRepository.findById(tripId).orElseThrow();
+            assertTrue(seatReservationService.tryReserve(tripId, 4));
+            assertEquals(4, trip.getBookedSeats());
+            seatReservationService.release(tripId, 1);
+            assertEquals(3, trip.getBookedSeats());
+
+            trip.setPickUpLocation("Hotel lobby");
+            tripRepository.saveAndFlush(trip);
+        });
+
+        Trip saved = tripRepository.findById(tripId).orElseThrow();
+        assertEquals(3, saved.getBookedSeats());
+        assertEquals("Hotel lobby", saved.getPickUpLocation());
+    }
+}
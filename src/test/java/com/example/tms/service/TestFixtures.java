@@ -0,0 +1,116 @@
+package com.example.tms.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.tms.dto.request.attraction.CreateAttractionRequest;
+import com.example.tms.dto.request.route.CreateRouteRequest;
+import com.example.tms.dto.request.routeattraction.CreateRouteAttractionRequest;
+import com.example.tms.entity.Route;
+import com.example.tms.entity.Trip;
+import com.example.tms.entity.User;
+import com.example.tms.repository.RouteRepository;
+import com.example.tms.repository.TripRepository;
+import com.example.tms.repository.UserRepository;
+import com.example.tms.service.interface_.AttractionService;
+import com.example.tms.service.interface_.RouteAttractionService;
+import com.example.tms.service.interface_.RouteService;
+
+/**
+ * Rows shared by the Spring tests. Routes, attractions and itinerary stops made here go through
+ * the services, so the in-memory indexes see them; saveRoute, saveTrip and createTrip write
+ * straight through the repositories, behind the indexes' back.
+ */
+@Component
+class TestFixtures {
+
+    @Autowired
+    private RouteService routeService;
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private RouteAttractionService routeAttractionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    UUID createRoute(String name, String startLocation, String endLocation, int days) {
+        CreateRouteRequest request = new CreateRouteRequest();
+        request.setRouteName(name);
+        request.setStartLocation(startLocation);
+        request.setEndLocation(endLocation);
+        request.setDurationDays(days);
+        return routeService.create(request).getId();
+    }
+
+    UUID createAttraction(String name, String location) {
+        CreateAttractionRequest request = new CreateAttractionRequest();
+        request.setName(name);
+        request.setLocation(location);
+        return attractionService.create(request).getId();
+    }
+
+    /**
+     * Add the attraction to the first day of the route's itinerary
+     */
+    UUID link(UUID routeId, UUID attractionId) {
+        CreateRouteAttractionRequest request = new CreateRouteAttractionRequest();
+        request.setRouteId(routeId);
+        request.setAttractionId(attractionId);
+        request.setDay(1);
+        request.setOrderInDay(1);
+        return routeAttractionService.create(request).getId();
+    }
+
+    User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setUserPassword("password");
+        user.setFullName("Test " + username);
+        user.setEmail(username + "@example.com");
+        user.setRole(User.Role.CUSTOMER);
+        return userRepository.save(user);
+    }
+
+    Route saveRoute(String name) {
+        Route route = new Route();
+        route.setRouteName(name);
+        route.setStartLocation("Ha Noi");
+        route.setEndLocation("Ha Long");
+        route.setDurationDays(2);
+        return routeRepository.save(route);
+    }
+
+    /**
+     * A trip of the route departing in 30 days, no seats booked
+     */
+    Trip saveTrip(UUID routeId, BigDecimal price, int totalSeats) {
+        Trip trip = new Trip();
+        trip.setRoute(routeRepository.findById(routeId).orElseThrow());
+        trip.setDepartureDate(LocalDate.now().plusDays(30));
+        trip.setReturnDate(LocalDate.now().plusDays(32));
+        trip.setPrice(price);
+        trip.setTotalSeats(totalSeats);
+        trip.setBookedSeats(0);
+        return tripRepository.save(trip);
+    }
+
+    /**
+     * A trip on a route of its own
+     */
+    Trip createTrip(BigDecimal price, int totalSeats) {
+        return saveTrip(saveRoute("Fixture route").getId(), price, totalSeats);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.tms.dto.request.attraction.UpdateAttractionRequest;
+import com.example.tms.dto.request.customer.TourSearchRequest;
+import com.example.tms.dto.response.customer.TourCardResponse;
+import com.example.tms.service.interface_.AttractionService;
+import com.example.tms.service.interface_.CustomerTourService;
+import com.example.tms.service.search.RouteSearchSummaryUpdater;
+import com.example.tms.service.search.TourSearchIndex;
+
+/**
+ * Keyword search folds diacritics and follows catalogue writes without a rebuild.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TourSearchIndexTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TourSearchIndex tourSearchIndex;
+
+    @Autowired
+    private RouteSearchSummaryUpdater routeSearchSummaryUpdater;
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private CustomerTourService customerTourService;
+
+    @Test
+    void matchesUnaccentedQueriesAndRanksRouteNamesFirst() {
+        UUID cruise = fixtures.createRoute("Du thuyền Hạ Long 2 ngày", "Hà Nội", "Quảng Ninh", 2);
+        UUID loop = fixtures.createRoute("Đông Bắc trọn gói", "Hà Nội", "Quảng Ninh", 2);
+        UUID bay = fixtures.createAttraction("Vịnh Hạ Long", "Quảng Ninh");
+        fixtures.link(loop, bay);
+
+        assertEquals(List.of(cruise, loop), tourSearchIndex.search("ha long"));
+        assertEquals(List.of(loop), tourSearchIndex.search("QUANG nin"));
+        assertEquals(List.of(loop), tourSearchIndex.search("dong bac"));
+        assertTrue(tourSearchIndex.search("ha long sapa").isEmpty());
+
+        // Renaming the attraction re-indexes the routes visiting it
+        UpdateAttractionRequest rename = new UpdateAttractionRequest();
+        rename.setLocation("Hải Phòng");
+        attractionService.update(bay, rename);
+        assertTrue(tourSearchIndex.search("quang ninh").isEmpty());
+        assertEquals(List.of(loop), tourSearchIndex.search("hai phong"));
+
+        routeSearchSummaryUpdater.flush();
+        TourSearchRequest request = new TourSearchRequest();
+        request.setKeyword("hạ long");
+        request.setSortBy("relevance");
+        List<UUID> found = customerTourService.searchTours(request, null).getItems().stream()
+                .map(TourCardResponse::getRouteId)
+                .toList();
+        assertEquals(List.of(cruise, loop), found);
+    }
+}
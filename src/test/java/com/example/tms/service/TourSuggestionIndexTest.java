@@ -0,0 +1,69 @@
+package com.example.tms.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.tms.dto.response.customer.SearchSuggestionResponse;
+import com.example.tms.repository.RouteRepository;
+import com.example.tms.service.interface_.CustomerTourService;
+import com.example.tms.service.search.TourSuggestionIndex;
+
+/**
+ * Suggestions complete any word of a name, ignore diacritics and list the most favourited
+ * routes first.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TourSuggestionIndexTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TourSuggestionIndex tourSuggestionIndex;
+
+    @Autowired
+    private CustomerTourService customerTourService;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void completesWordPrefixesByPopularity() {
+        UUID quiet = fixtures.createRoute("Khám phá Xứ Quýnh 3 ngày", "Hà Nội", "Hà Giang", 3);
+        UUID popular = fixtures.createRoute("Xứ Quýnh mùa lúa chín", "Hà Nội", "Hà Giang", 3);
+        UUID cave = fixtures.createAttraction("Động Quýnh Sơn", "Hà Giang");
+
+        // Catalogue writes show up once the new snapshot is published
+        tourSuggestionIndex.publish();
+
+        assertEquals(List.of(quiet, popular), routeIds(customerTourService.getSearchSuggestions("xu quy", 5)));
+        assertEquals(List.of(cave), customerTourService.getSearchSuggestions("QUYNH S", 5).getAttractions().stream()
+                .map(SearchSuggestionResponse.AttractionSuggestion::getId)
+                .toList());
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> routeRepository.adjustFavoriteCount(popular, 3));
+        tourSuggestionIndex.rebuild();
+        assertEquals(List.of(popular, quiet), routeIds(customerTourService.getSearchSuggestions("Quýnh", 5)));
+        assertEquals(List.of(popular), routeIds(customerTourService.getSearchSuggestions("quynh", 1)));
+        assertTrue(customerTourService.getSearchSuggestions("quynhx", 5).getRoutes().isEmpty());
+    }
+
+    private static List<UUID> routeIds(SearchSuggestionResponse response) {
+        return response.getRoutes().stream().map(SearchSuggestionResponse.RouteSuggestion::getId).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.tms.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bitmaps of different lengths combine as if the shorter one were padded with zeros.
+ */
+class RouteBitmapTest {
+
+    @Test
+    void setsAndClearsAcrossWords() {
+        RouteBitmap bitmap = bitmap(0, 63, 64, 200);
+        assertTrue(bitmap.get(63));
+        assertTrue(bitmap.get(200));
+        assertFalse(bitmap.get(1));
+        assertFalse(bitmap.get(10_000));
+        assertEquals(4, bitmap.cardinality());
+
+        bitmap.clear(63);
+        bitmap.clear(10_000);
+        assertEquals(List.of(0, 64, 200), ordinals(bitmap));
+        assertFalse(bitmap.isEmpty());
+        bitmap.clear(0);
+        bitmap.clear(64);
+        bitmap.clear(200);
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test
+    void combinesBitmapsOfDifferentLengths() {
+        RouteBitmap shortOne = bitmap(1, 5, 63);
+        RouteBitmap longOne = bitmap(5, 63, 130);
+
+        assertEquals(2, shortOne.andCardinality(longOne));
+        assertEquals(2, longOne.andCardinality(shortOne));
+
+        RouteBitmap and = longOne.copy();
+        and.and(shortOne);
+        assertEquals(List.of(5, 63), ordinals(and));
+
+        RouteBitmap or = shortOne.copy();
+        or.or(longOne);
+        assertEquals(List.of(1, 5, 63, 130), ordinals(or));
+
+        // Copies are independent of the original
+        assertEquals(List.of(1, 5, 63), ordinals(shortOne));
+        assertEquals(List.of(5, 63, 130), ordinals(longOne));
+    }
+
+    private static RouteBitmap bitmap(int... ordinals) {
+        RouteBitmap bitmap = new RouteBitmap();
+        for (int ordinal : ordinals) {
+            bitmap.set(ordinal);
+        }
+        return bitmap;
+    }
+
+    private static List<Integer> ordinals(RouteBitmap bitmap) {
+        List<Integer> ordinals = new ArrayList<>();
+        bitmap.forEach(ordinals::add);
+        return ordinals;
+    }
+}
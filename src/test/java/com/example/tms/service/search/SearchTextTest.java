@@ -0,0 +1,32 @@
+package com.example.tms.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Folding strips case and Vietnamese diacritics, and tokens split on anything but letters and
+ * digits.
+ */
+class SearchTextTest {
+
+    @Test
+    void foldsCaseAndDiacritics() {
+        assertEquals("ha long", SearchText.fold("Hạ Long"));
+        assertEquals("ha long", SearchText.fold("HẠ LONG"));
+        assertEquals("da nang", SearchText.fold("Đà Nẵng"));
+        assertEquals("duong", SearchText.fold("đường"));
+        assertEquals("", SearchText.fold(null));
+    }
+
+    @Test
+    void splitsFoldedWords() {
+        assertEquals(List.of("ha", "noi", "sa", "pa", "3", "ngay"), SearchText.tokens("Hà Nội - Sa Pa, 3 ngày!"));
+        assertEquals(List.of("quang", "ninh"), SearchText.tokens("  Quảng   Ninh  "));
+        assertTrue(SearchText.tokens(" -,. ").isEmpty());
+        assertTrue(SearchText.tokens(null).isEmpty());
+    }
+}
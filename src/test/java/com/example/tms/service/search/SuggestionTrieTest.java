@@ -0,0 +1,50 @@
+package com.example.tms.service.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Completions list each value once, best first, and never more than the top K kept per node.
+ */
+class SuggestionTrieTest {
+
+    @Test
+    void completesByPopularityThenInsertionOrder() {
+        SuggestionTrie<String> trie = SuggestionTrie.<String>builder(3)
+                .add(List.of("ha long", "long"), "Ha Long", 5)
+                .add(List.of("ha giang", "giang"), "Ha Giang", 9)
+                .add(List.of("hanoi"), "Hanoi", 5)
+                .add(List.of("hue"), "Hue", 1)
+                .build();
+
+        assertEquals(List.of("Ha Giang", "Ha Long", "Hanoi"), trie.complete("h", 10));
+        assertEquals(List.of("Ha Giang", "Ha Long"), trie.complete("ha ", 10));
+        assertEquals(List.of("Ha Giang"), trie.complete("ha", 1));
+        assertEquals(List.of("Ha Long"), trie.complete("lo", 10));
+        assertEquals(List.of("Hue"), trie.complete("hue", 10));
+    }
+
+    @Test
+    void listsAValueReachedByTwoKeysOnce() {
+        SuggestionTrie<String> trie = SuggestionTrie.<String>builder(5)
+                .add(List.of("sa pa", "sapa"), "Sa Pa", 3)
+                .build();
+
+        assertEquals(List.of("Sa Pa"), trie.complete("sa", 5));
+    }
+
+    @Test
+    void answersNothingForUnknownPrefixesOrNoLimit() {
+        SuggestionTrie<String> trie = SuggestionTrie.<String>builder(5)
+                .add(List.of("da nang"), "Da Nang", 1)
+                .build();
+
+        assertTrue(trie.complete("dalat", 5).isEmpty());
+        assertTrue(trie.complete("da", 0).isEmpty());
+        assertEquals(List.of("Da Nang"), trie.complete("", 5));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.tms.service.seat;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Requests larger than any one stripe are gathered across stripes, and a buyer is turned away
+ * only when the counter as a whole cannot cover the request.
+ */
+class StripedSeatCounterTest {
+
+    @Test
+    void gathersAcrossStripes() {
+        StripedSeatCounter counter = new StripedSeatCounter(4, 10);
+        assertTrue(counter.tryAcquire(7));
+        assertEquals(3, counter.available());
+        assertFalse(counter.tryAcquire(4));
+        assertEquals(3, counter.available());
+        counter.release(2);
+        assertTrue(counter.tryAcquire(5));
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void rejectsOnlyWhenSeatsRunOut() throws Exception {
+        int threads = 8;
+        int seats = 5;
+        for (int round = 0; round < 50; round++) {
+            StripedSeatCounter counter = new StripedSeatCounter(threads, 1_000);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    // Each buyer keeps going until it is turned away once
+                    while (counter.tryAcquire(seats)) {
+                        granted += seats;
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            executor.shutdown();
+
+            assertEquals(1_000, granted + counter.available());
+            assertTrue(counter.available() < seats, counter.available() + " seats left after every buyer was rejected");
+        }
+    }
+}